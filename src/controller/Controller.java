@@ -2,7 +2,10 @@ package controller;
 
 import ar.edu.unlu.rmimvc.observer.IObservableRemoto;
 import ar.edu.unlu.rmimvc.cliente.IControladorRemoto;
+import model.clases.CodigoPosicion;
 import model.clases.ManejadorEventos;
+import model.clases.Sugerencia;
+import model.clases.Topologia;
 import model.enums.Estados;
 import model.enums.Eventos;
 import model.interfaces.IModelo;
@@ -124,6 +127,16 @@ public class Controller implements IControladorRemoto {
      */
     private boolean esJugador1;
 
+    /**
+     * Indica si la próxima búsqueda de partida es contra la computadora
+     */
+    private boolean contraBot;
+
+    /**
+     * Variante del tablero de la próxima búsqueda de partida (ver Topologia)
+     */
+    private Topologia variante = Topologia.ESTANDAR;
+
     public Controller() throws RemoteException {
         this.idPartidaActual = -1;
     }
@@ -144,7 +157,7 @@ public class Controller implements IControladorRemoto {
     // Métodos de gestión de partidas
 
     public IPartida buscarPartida() throws RemoteException {
-        IPartida partida = modelo.buscarPartida(nombreJugador);
+        IPartida partida = modelo.buscarPartida(nombreJugador, contraBot, variante);
         this.idPartidaActual = partida.getId();
 
         // Determinar si es jugador 1 o 2 según el símbolo asignado
@@ -166,23 +179,39 @@ public class Controller implements IControladorRemoto {
     }
 
     // Métodos del juego
+    // Las posiciones se envían al servidor como códigos de 1 byte (ver CodigoPosicion);
+    // un ID que no es posición del tablero no genera llamada remota.
 
     public void colocarPieza(String posicion) throws RemoteException {
-        if (idPartidaActual != -1) {
-            modelo.colocarPieza(idPartidaActual, posicion);
+        byte codigo = CodigoPosicion.parse(posicion);
+        if (idPartidaActual != -1 && codigo != CodigoPosicion.INVALIDA) {
+            modelo.colocarPieza(idPartidaActual, codigo);
         }
     }
 
     public void moverPieza(String origen, String destino) throws RemoteException {
-        if (idPartidaActual != -1) {
-            modelo.moverPieza(idPartidaActual, origen, destino);
+        byte codigoOrigen = CodigoPosicion.parse(origen);
+        byte codigoDestino = CodigoPosicion.parse(destino);
+        if (idPartidaActual != -1 && codigoOrigen != CodigoPosicion.INVALIDA
+                && codigoDestino != CodigoPosicion.INVALIDA) {
+            modelo.moverPieza(idPartidaActual, codigoOrigen, codigoDestino);
         }
     }
 
     public void eliminarPiezaOponente(String posicion) throws RemoteException {
-        if (idPartidaActual != -1) {
-            modelo.eliminarPiezaOponente(idPartidaActual, posicion);
+        byte codigo = CodigoPosicion.parse(posicion);
+        if (idPartidaActual != -1 && codigo != CodigoPosicion.INVALIDA) {
+            modelo.eliminarPiezaOponente(idPartidaActual, codigo);
+        }
+    }
+
+    // Sugerencias
+
+    public Sugerencia obtenerSugerencia() throws RemoteException {
+        if (idPartidaActual == -1) {
+            return null;
         }
+        return modelo.obtenerSugerencia(idPartidaActual);
     }
 
     // Métodos de ranking
@@ -273,6 +302,15 @@ public class Controller implements IControladorRemoto {
                         vista.mostrarGameWin(); // Mostrar mensaje de victoria/derrota
                     }
                 }
+
+                // -----------------------------------------------------------
+                // EVENTO: Partida terminada - Tablas (tablero lleno)
+                // -----------------------------------------------------------
+                case GAME_TABLAS -> {
+                    if (estadoVista == Estados.EN_JUEGO) {
+                        vista.mostrarTablas(); // Mostrar mensaje de tablas
+                    }
+                }
             }
         }
     }
@@ -299,4 +337,12 @@ public class Controller implements IControladorRemoto {
         this.nombreJugador = nombre;
     }
 
+    public void setContraBot(boolean contraBot) {
+        this.contraBot = contraBot;
+    }
+
+    public void setVariante(Topologia variante) {
+        this.variante = variante;
+    }
+
 }
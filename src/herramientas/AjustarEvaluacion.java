@@ -0,0 +1,255 @@
+package herramientas;
+
+import model.clases.EstadoCompacto;
+import motor.EvaluacionManual;
+import motor.RegistroPartida;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * ============================================================================
+ * AJUSTAR EVALUACIÓN - PESOS DE EvaluacionManual POR EL MÉTODO DE TEXEL
+ * ============================================================================
+ *
+ * Ajusta los pesos de EvaluacionManual para que la evaluación estática
+ * prediga el resultado de las partidas grabadas (las de herramientas.AutoJuego
+ * o cualquier archivo en el formato de RegistroPartida).
+ *
+ * POSICIONES:
+ * Se reproducen las partidas terminadas y de cada una se toman las posiciones
+ * desde la jugada saltear en adelante, menos las que esperan una eliminación
+ * (la evaluación no es estable ahí). De cada posición se guardan sus términos
+ * (EvaluacionManual.terminos(), un byte cada uno) y el resultado para el lado
+ * con turno: 1 si ganó, 0.5 en tablas, 0 si perdió. Como la evaluación es
+ * lineal en los términos, después no hace falta volver a los estados.
+ *
+ * ERROR:
+ *   E = promedio de (resultado - 1 / (1 + 10^(-K * evaluación / 400)))^2
+ *
+ * 1. K se ajusta una vez con los pesos actuales (búsqueda por sección áurea)
+ * 2. Búsqueda local: para cada peso se prueba +paso y -paso y se queda el
+ *    cambio si baja el error; cuando una ronda entera no mejora, el paso se
+ *    divide por 2 hasta llegar a 1. El peso del material queda fijo (es la
+ *    unidad de la escala, EvaluacionManual.PIEZA), y el de la eliminación
+ *    pendiente también (sus posiciones no entran al ajuste)
+ *
+ * PARALELISMO:
+ * Cada cálculo de E reparte las posiciones en bloques fijos entre los hilos
+ * de un ForkJoinPool y suma los bloques siempre en el mismo orden, así el
+ * resultado no depende de la cantidad de hilos.
+ *
+ * SALIDA:
+ * Tras cada ronda que mejora escribe los pesos en el archivo de salida, en el
+ * formato de la propiedad molino.eval.pesos (ver EvaluacionManual.leer()):
+ * una corrida cortada deja los mejores pesos hasta ese momento.
+ *
+ * USO:
+ *   java herramientas.AjustarEvaluacion partidas [salida] [saltear] [hilos]
+ */
+public class AjustarEvaluacion {
+
+    private static final int PASO_INICIAL = 8;
+    private static final double LOG_10_SOBRE_400 = Math.log(10) / 400;
+
+    private final byte[] terminos;
+    private final byte[] resultados;
+    private final int cantidad;
+    private final ForkJoinPool pool;
+    private final int bloques;
+
+    private AjustarEvaluacion(byte[] terminos, byte[] resultados, int cantidad, int hilos) {
+        this.terminos = terminos;
+        this.resultados = resultados;
+        this.cantidad = cantidad;
+        this.pool = new ForkJoinPool(hilos);
+        this.bloques = Math.min(cantidad, hilos * 16);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("USO: java herramientas.AjustarEvaluacion partidas [salida] [saltear] [hilos]");
+            return;
+        }
+        Path registro = Paths.get(args[0]);
+        Path salida = args.length > 1 ? Paths.get(args[1]) : null;
+        int saltear = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int hilos = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        long inicio = System.nanoTime();
+        AjustarEvaluacion ajuste = cargar(registro, saltear, hilos);
+        if (ajuste.cantidad == 0) {
+            System.out.println("No hay posiciones para ajustar");
+            return;
+        }
+        System.out.printf("%,d posiciones en %.1f s - %d hilos%n", ajuste.cantidad, (System.nanoTime() - inicio) / 1e9, hilos);
+
+        int[] pesos = EvaluacionManual.leer(System.getProperty("molino.eval.pesos")).getPesos();
+        double k = ajuste.ajustarK(pesos);
+        double error = ajuste.error(pesos, k);
+        System.out.printf("K = %.4f - error inicial %.6f con %s%n", k, error, new EvaluacionManual(pesos));
+
+        int ronda = 0;
+        for (int paso = PASO_INICIAL; paso >= 1; ) {
+            boolean mejoro = false;
+            for (int i = EvaluacionManual.MATERIAL + 1; i < EvaluacionManual.ELIMINACION_PENDIENTE; i++) {
+                for (int signo : new int[]{1, -1}) {
+                    pesos[i] += signo * paso;
+                    double probado = ajuste.error(pesos, k);
+                    if (probado < error) {
+                        error = probado;
+                        mejoro = true;
+                        break;
+                    }
+                    pesos[i] -= signo * paso;
+                }
+            }
+            ronda++;
+            System.out.printf("  ronda %d - paso %d - error %.6f - pesos %s - %.1f s%n",
+                    ronda, paso, error, new EvaluacionManual(pesos), (System.nanoTime() - inicio) / 1e9);
+            if (mejoro) {
+                if (salida != null) {
+                    Files.write(salida, (new EvaluacionManual(pesos) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+                }
+            } else {
+                paso /= 2;
+            }
+        }
+        System.out.printf("Error final %.6f - usar con -Dmolino.eval.pesos=%s%n", error, new EvaluacionManual(pesos));
+    }
+
+    /**
+     * CARGAR LAS POSICIONES DE LAS PARTIDAS
+     *
+     * También verifica que los términos reproduzcan EvaluacionManual.evaluar()
+     * con los pesos por defecto: si no, el ajuste no tendría sentido.
+     */
+    private static AjustarEvaluacion cargar(Path registro, int saltear, int hilos) throws IOException {
+        EvaluacionManual evaluacion = new EvaluacionManual();
+        int[] pesos = evaluacion.getPesos();
+        int[] valores = new int[EvaluacionManual.TERMINOS];
+        byte[] terminos = new byte[EvaluacionManual.TERMINOS * 1024];
+        byte[] resultados = new byte[1024];
+        int cantidad = 0;
+        int partidas = 0;
+
+        try (BufferedReader lector = Files.newBufferedReader(registro, StandardCharsets.UTF_8)) {
+            String linea;
+            int numero = 0;
+            while ((linea = lector.readLine()) != null) {
+                numero++;
+                RegistroPartida partida;
+                try {
+                    partida = RegistroPartida.parse(linea);
+                } catch (IllegalArgumentException e) {
+                    System.err.printf("  línea %d: %s%n", numero, e.getMessage());
+                    continue;
+                }
+                if (partida == null || partida.getResultado() == RegistroPartida.SIN_TERMINAR) {
+                    continue;
+                }
+                partidas++;
+
+                long estado = EstadoCompacto.inicial(partida.getTopologia());
+                for (int i = 0; i < partida.getCantidad(); i++) {
+                    if (i >= saltear && !EstadoCompacto.esperandoEliminar(estado)) {
+                        EvaluacionManual.terminos(estado, valores);
+                        if (evaluar(pesos, valores) != evaluacion.evaluar(estado)) {
+                            throw new IllegalStateException("Los términos no reproducen la evaluación en la línea " + numero);
+                        }
+                        if (cantidad == resultados.length) {
+                            resultados = Arrays.copyOf(resultados, cantidad * 2);
+                            terminos = Arrays.copyOf(terminos, cantidad * 2 * EvaluacionManual.TERMINOS);
+                        }
+                        for (int t = 0; t < EvaluacionManual.TERMINOS; t++) {
+                            terminos[cantidad * EvaluacionManual.TERMINOS + t] = (byte) valores[t];
+                        }
+                        resultados[cantidad++] = (byte) resultado(partida.getResultado(), EstadoCompacto.turno(estado));
+                    }
+                    estado = EstadoCompacto.aplicar(estado, partida.getMovimiento(i));
+                }
+            }
+        }
+        System.out.printf("%,d partidas terminadas leídas%n", partidas);
+        return new AjustarEvaluacion(terminos, resultados, cantidad, hilos);
+    }
+
+    /**
+     * @return Resultado para el lado en medios puntos: 2 si ganó, 1 en tablas, 0 si perdió
+     */
+    private static int resultado(int resultado, int lado) {
+        return resultado == RegistroPartida.TABLAS ? 1 : resultado == lado ? 2 : 0;
+    }
+
+    private static int evaluar(int[] pesos, int[] valores) {
+        int puntaje = 0;
+        for (int t = 0; t < EvaluacionManual.TERMINOS; t++) {
+            puntaje += pesos[t] * valores[t];
+        }
+        return puntaje;
+    }
+
+    /**
+     * ERROR MEDIO CUADRÁTICO (en paralelo)
+     */
+    private double error(int[] pesos, double k) {
+        double[] parciales = new double[bloques];
+        double escala = k * LOG_10_SOBRE_400;
+        pool.submit(() -> IntStream.range(0, bloques).parallel().forEach(b -> {
+            int desde = (int) ((long) cantidad * b / bloques);
+            int hasta = (int) ((long) cantidad * (b + 1) / bloques);
+            double suma = 0;
+            for (int i = desde; i < hasta; i++) {
+                int base = i * EvaluacionManual.TERMINOS;
+                int puntaje = 0;
+                for (int t = 0; t < EvaluacionManual.TERMINOS; t++) {
+                    puntaje += pesos[t] * terminos[base + t];
+                }
+                double diferencia = resultados[i] * 0.5 - 1 / (1 + Math.exp(-escala * puntaje));
+                suma += diferencia * diferencia;
+            }
+            parciales[b] = suma;
+        })).join();
+
+        double total = 0;
+        for (double parcial : parciales) {
+            total += parcial;
+        }
+        return total / cantidad;
+    }
+
+    /**
+     * AJUSTAR K (sección áurea en [0.01, 10])
+     */
+    private double ajustarK(int[] pesos) {
+        double razon = (Math.sqrt(5) - 1) / 2;
+        double a = 0.01;
+        double b = 10;
+        double c = b - razon * (b - a);
+        double d = a + razon * (b - a);
+        double errorC = error(pesos, c);
+        double errorD = error(pesos, d);
+        while (b - a > 1e-4) {
+            if (errorC < errorD) {
+                b = d;
+                d = c;
+                errorD = errorC;
+                c = b - razon * (b - a);
+                errorC = error(pesos, c);
+            } else {
+                a = c;
+                c = d;
+                errorC = errorD;
+                d = a + razon * (b - a);
+                errorD = error(pesos, d);
+            }
+        }
+        return (a + b) / 2;
+    }
+}
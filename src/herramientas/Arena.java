@@ -0,0 +1,421 @@
+package herramientas;
+
+import model.clases.EstadoCompacto;
+import model.clases.JugadorBot;
+import model.clases.Movimiento;
+import model.clases.Partida;
+import model.clases.Topologia;
+import model.interfaces.IPartida;
+import motor.BuscadorAlfaBeta;
+import motor.EvaluacionManual;
+import motor.Evaluador;
+import motor.PlanificadorBots;
+import motor.RegistroPartida;
+import motor.TablaTransposicion;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ============================================================================
+ * ARENA - MOTOR CONTRA MOTOR: FUERZA Y RENDIMIENTO DE UNA CONFIGURACIÓN
+ * ============================================================================
+ *
+ * Enfrenta dos configuraciones de motor (A y B) en muchas partidas, varias a
+ * la vez, antes de poner una versión nueva del bot en el servidor.
+ *
+ * PARTIDAS (por el mismo camino que las del servidor):
+ * - Cada partida es una Partida con dos JugadorBot sentados, cada uno con el
+ *   JugadorBot.Motor de su configuración: la jugada la elige
+ *   JugadorBot.elegirMovimiento(), el código de producción
+ * - Cada turno se programa en un PlanificadorBots con un hilo menos que
+ *   procesadores, como Modelo.programarBot(): la espera en cola descuenta
+ *   del tiempo de la jugada y los ayudantes (hilos > 1) corren en su pool
+ * - Los bots de una configuración comparten su tabla (mb por partida
+ *   simultánea), que avanza de generación con cada jugada de esos bots,
+ *   como la tabla compartida del servidor
+ * - La jugada se aplica con colocarPieza / moverPieza / eliminarPiezaOponente,
+ *   igual que Modelo.aplicarYNotificar(): las reglas, validaciones y
+ *   contadores son los del servidor
+ * - Las aperturas salen de aleatorias jugadas al azar, o de las primeras
+ *   jugadas de un archivo de partidas (formato RegistroPartida); cada
+ *   apertura se juega dos veces, con A de cada lado
+ * - Pierde el lado con turno si queda bloqueado (como en Modelo); tablas si una posición de
+ *   la fase de movimiento se repite 3 veces o a las AutoJuego.MAX_JUGADAS
+ * - Se compara la búsqueda: no se usan libro ni finales precalculados
+ *
+ * INFORME (cada 10 segundos y al final):
+ * - Ganadas / tablas / perdidas de A, y la diferencia de Elo A - B con su
+ *   intervalo de confianza del 95% (intervalo de Wilson del puntaje medio,
+ *   suavizado con medio punto: acotado aun si una configuración gana todas)
+ * - Partidas por segundo
+ * - Por configuración: nodos por segundo (playouts en MCTS) y demora media y
+ *   máxima de la jugada, desde que se programa el turno hasta que la
+ *   Partida la aceptó
+ * - El resumen del PlanificadorBots (cola, espera, turnos terminados)
+ *
+ * CONFIGURACIÓN ("motor:clave=valor:..."):
+ *   motor   alfabeta o mcts
+ *   ms      tiempo por jugada (JugadorBot.MILISEGUNDOS_POR_DEFECTO)
+ *   nodos   nodos por jugada (sin límite)
+ *   prof    profundidad máxima (JugadorBot.PROFUNDIDAD_POR_DEFECTO, solo alfabeta)
+ *   hilos   hilos por jugada (1)
+ *   pesos   pesos de EvaluacionManual, como en molino.eval.pesos
+ *   mb      tabla de transposición por partida simultánea (16; en mcts, miles
+ *           de nodos del árbol de cada hilo del planificador)
+ *   ej: "alfabeta:ms=100:pesos=25,12,4,80"  "mcts:ms=100"
+ *
+ * USO:
+ *   java herramientas.Arena configA configB partidas [simultaneas] [aleatorias|archivo] [variante]
+ */
+public class Arena {
+
+    private static final int SEGUNDOS_REPORTE = 10;
+
+    /**
+     * Numeración de las Partida de la arena
+     */
+    private static final AtomicInteger ID_PARTIDA = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.out.println("USO: java herramientas.Arena configA configB partidas [simultaneas] [aleatorias|archivo] [variante]");
+            return;
+        }
+        Configuracion[] configuraciones = {Configuracion.parse(args[0]), Configuracion.parse(args[1])};
+        int partidas = Integer.parseInt(args[2]);
+        int simultaneas = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        Topologia topologia = args.length > 5 ? Topologia.porNombre(args[5]) : Topologia.ESTANDAR;
+        if (topologia == null) {
+            throw new IllegalArgumentException("Variante desconocida: " + args[5]);
+        }
+        String aperturas = args.length > 4 ? args[4] : "6";
+        List<int[]> archivo = aperturas.matches("\\d+") ? null : leerAperturas(aperturas, topologia);
+        int aleatorias = archivo == null ? Integer.parseInt(aperturas) : 0;
+
+        System.out.printf("A = %s%nB = %s%n%,d partidas %s - %d simultáneas - aperturas: %s%n",
+                configuraciones[0], configuraciones[1], partidas, topologia.getNombre(), simultaneas,
+                archivo == null ? aleatorias + " jugadas al azar" : archivo.size() + " de " + aperturas);
+
+        PlanificadorBots planificador = new PlanificadorBots(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1), 0, 0);
+        Lado[] lados = {new Lado(configuraciones[0], simultaneas, planificador),
+                new Lado(configuraciones[1], simultaneas, planificador)};
+        Estadisticas estadisticas = new Estadisticas();
+        AtomicInteger siguiente = new AtomicInteger();
+        long semilla = System.nanoTime();
+
+        // Estos hilos solo conducen las partidas: las búsquedas corren en el planificador
+        ExecutorService pool = Executors.newFixedThreadPool(simultaneas);
+        for (int h = 0; h < simultaneas; h++) {
+            pool.execute(() -> {
+                int numero;
+                while ((numero = siguiente.getAndIncrement()) < partidas) {
+                    // Las partidas 2k y 2k+1 usan la misma apertura con los lados cambiados
+                    int[] apertura = archivo != null ? archivo.get((numero / 2) % archivo.size())
+                            : aperturaAlAzar(topologia, aleatorias, new SplittableRandom(semilla + numero / 2));
+                    int ladoDeA = numero % 2;
+                    int resultado = jugar(topologia, apertura, lados, ladoDeA, planificador, estadisticas);
+                    estadisticas.sumarPartida(resultado == RegistroPartida.TABLAS ? 1 : resultado == ladoDeA ? 2 : 0);
+                }
+            });
+        }
+        long inicio = System.nanoTime();
+        pool.shutdown();
+        while (!pool.awaitTermination(SEGUNDOS_REPORTE, TimeUnit.SECONDS)) {
+            estadisticas.informar(inicio, planificador);
+        }
+        estadisticas.informar(inicio, planificador);
+    }
+
+    /**
+     * JUGAR UNA PARTIDA
+     *
+     * @param lados Configuraciones en juego: [0] = A, [1] = B
+     * @param ladoDeA Lado (0 empieza) que juega A
+     * @return GANA_LADO_0, GANA_LADO_1 o TABLAS
+     */
+    private static int jugar(Topologia topologia, int[] apertura, Lado[] lados, int ladoDeA,
+                             PlanificadorBots planificador, Estadisticas estadisticas) {
+        JugadorBot[] bots = {lados[ladoDeA].crearBot('X'), lados[1 - ladoDeA].crearBot('O')};
+        IPartida partida = new Partida(ID_PARTIDA.incrementAndGet(), bots[0], bots[1], topologia);
+        Map<Long, Integer> repeticiones = new HashMap<>();
+        try {
+            for (int i = 0; !EstadoCompacto.finalizado(partida.getEstadoCompacto()); i++) {
+                if (i == AutoJuego.MAX_JUGADAS) {
+                    return RegistroPartida.TABLAS;
+                }
+                long estado = partida.getEstadoCompacto();
+                int lado = EstadoCompacto.turno(estado);
+                if (i < apertura.length) {
+                    aplicar(partida, apertura[i]);
+                } else {
+                    int configuracion = lado == ladoDeA ? 0 : 1;
+                    long programado = System.nanoTime();
+                    int movimiento = elegir(planificador, partida.getId(), bots[lado], estado, programado,
+                            lados[configuracion].configuracion.nodos);
+                    if (movimiento == Movimiento.NINGUNO) {
+                        return 1 - lado;
+                    }
+                    if (!aplicar(partida, movimiento)) {
+                        throw new IllegalStateException("La Partida rechazó " + Movimiento.toString(movimiento));
+                    }
+                    estadisticas.sumarJugada(configuracion, System.nanoTime() - programado, bots[lado].getNodos());
+                }
+                long siguiente = partida.getEstadoCompacto();
+                if (!EstadoCompacto.enColocacion(siguiente)
+                        && repeticiones.merge(EstadoCompacto.clave(siguiente), 1, Integer::sum) == 3) {
+                    return RegistroPartida.TABLAS;
+                }
+            }
+        } catch (RemoteException e) {
+            // Partida es local: no hay comunicación que pueda fallar
+            throw new IllegalStateException(e);
+        } finally {
+            planificador.olvidar(partida.getId());
+        }
+        long fin = partida.getEstadoCompacto();
+        return EstadoCompacto.tablas(fin) ? RegistroPartida.TABLAS : EstadoCompacto.ganador(fin);
+    }
+
+    /**
+     * ELEGIR LA JUGADA EN EL PLANIFICADOR
+     *
+     * Programa el turno como Modelo.programarBot() y espera la jugada.
+     *
+     * @param programado Instante desde el que corre el tiempo por jugada
+     * @param limiteNodos Nodos por jugada de la configuración (o SIN_LIMITE)
+     * @return Jugada elegida por el bot, o Movimiento.NINGUNO si no tiene
+     */
+    private static int elegir(PlanificadorBots planificador, int idPartida, JugadorBot bot, long estado,
+                              long programado, long limiteNodos) {
+        CompletableFuture<Integer> jugada = new CompletableFuture<>();
+        planificador.programar(idPartida, (plazo, limite) -> {
+            try {
+                jugada.complete(bot.elegirMovimiento(estado, programado, plazo, Math.min(limite, limiteNodos)));
+            } catch (RuntimeException e) {
+                jugada.completeExceptionally(e);
+            }
+        });
+        return jugada.join();
+    }
+
+    /**
+     * Aplica la jugada por los mismos métodos que Modelo.aplicarYNotificar()
+     */
+    private static boolean aplicar(IPartida partida, int movimiento) throws RemoteException {
+        byte destino = (byte) Movimiento.destino(movimiento);
+        switch (Movimiento.tipo(movimiento)) {
+            case Movimiento.COLOCAR:
+                return partida.colocarPieza(destino);
+            case Movimiento.MOVER:
+                return partida.moverPieza((byte) Movimiento.origen(movimiento), destino);
+            default:
+                return partida.eliminarPiezaOponente(destino);
+        }
+    }
+
+    private static int[] aperturaAlAzar(Topologia topologia, int jugadas, SplittableRandom azar) {
+        int[] apertura = new int[jugadas];
+        int[] legales = new int[Movimiento.MAX_MOVIMIENTOS];
+        long estado = EstadoCompacto.inicial(topologia);
+        for (int i = 0; i < jugadas; i++) {
+            int n = EstadoCompacto.generarMovimientos(estado, legales);
+            if (n == 0) {
+                return Arrays.copyOf(apertura, i);
+            }
+            apertura[i] = legales[azar.nextInt(n)];
+            estado = EstadoCompacto.aplicar(estado, apertura[i]);
+        }
+        return apertura;
+    }
+
+    /**
+     * @return Las jugadas de la fase de colocación de cada partida del archivo
+     */
+    private static List<int[]> leerAperturas(String archivo, Topologia topologia) throws IOException {
+        List<int[]> aperturas = new ArrayList<>();
+        for (String linea : Files.readAllLines(Paths.get(archivo), StandardCharsets.UTF_8)) {
+            RegistroPartida partida = RegistroPartida.parse(linea);
+            if (partida == null || partida.getTopologia() != topologia) {
+                continue;
+            }
+            long estado = EstadoCompacto.inicial(topologia);
+            int cantidad = 0;
+            while (cantidad < partida.getCantidad() && EstadoCompacto.enColocacion(estado)) {
+                estado = EstadoCompacto.aplicar(estado, partida.getMovimiento(cantidad++));
+            }
+            int[] apertura = new int[cantidad];
+            for (int i = 0; i < cantidad; i++) {
+                apertura[i] = partida.getMovimiento(i);
+            }
+            aperturas.add(apertura);
+        }
+        if (aperturas.isEmpty()) {
+            throw new IllegalArgumentException("No hay partidas " + topologia.getNombre() + " en " + archivo);
+        }
+        return aperturas;
+    }
+
+    // ===================================================================
+    // CONFIGURACIONES Y MOTORES
+    // ===================================================================
+
+    /**
+     * Configuración de motor leída de la línea de comandos
+     */
+    private static final class Configuracion {
+        private final String texto;
+        private final boolean mcts;
+        private final int milisegundos;
+        private final long nodos;
+        private final int profundidad;
+        private final int hilos;
+        private final Evaluador evaluador;
+        private final int megabytes;
+
+        private Configuracion(String texto, Map<String, String> valores) {
+            this.texto = texto;
+            String motor = valores.getOrDefault("motor", "alfabeta");
+            if (!motor.equals("alfabeta") && !motor.equals("mcts")) {
+                throw new IllegalArgumentException("Motor desconocido: " + motor);
+            }
+            this.mcts = motor.equals("mcts");
+            this.milisegundos = Integer.parseInt(valores.getOrDefault("ms", "" + JugadorBot.MILISEGUNDOS_POR_DEFECTO));
+            this.nodos = valores.containsKey("nodos") ? Long.parseLong(valores.get("nodos")) : BuscadorAlfaBeta.SIN_LIMITE;
+            this.profundidad = Integer.parseInt(valores.getOrDefault("prof", "" + JugadorBot.PROFUNDIDAD_POR_DEFECTO));
+            this.hilos = Math.max(1, Integer.parseInt(valores.getOrDefault("hilos", "1")));
+            this.evaluador = EvaluacionManual.leer(valores.get("pesos"));
+            this.megabytes = Integer.parseInt(valores.getOrDefault("mb", "16"));
+        }
+
+        static Configuracion parse(String texto) {
+            Map<String, String> valores = new HashMap<>();
+            String[] partes = texto.split(":");
+            valores.put("motor", partes[0].trim().toLowerCase());
+            for (int i = 1; i < partes.length; i++) {
+                int igual = partes[i].indexOf('=');
+                if (igual < 0) {
+                    throw new IllegalArgumentException("Se esperaba clave=valor: " + partes[i]);
+                }
+                valores.put(partes[i].substring(0, igual).trim().toLowerCase(), partes[i].substring(igual + 1).trim());
+            }
+            return new Configuracion(texto, valores);
+        }
+
+        @Override
+        public String toString() {
+            return texto;
+        }
+    }
+
+    /**
+     * Una configuración en juego: su JugadorBot.Motor y la tabla que comparten sus bots
+     */
+    private static final class Lado {
+        private final Configuracion configuracion;
+        private final JugadorBot.Motor motor;
+
+        Lado(Configuracion configuracion, int simultaneas, PlanificadorBots planificador) {
+            this.configuracion = configuracion;
+            if (configuracion.mcts) {
+                this.motor = JugadorBot.Motor.mcts(configuracion.evaluador, configuracion.megabytes * 1000,
+                        configuracion.hilos, planificador.getPool());
+            } else {
+                TablaTransposicion tabla = new TablaTransposicion(configuracion.megabytes * simultaneas);
+                this.motor = JugadorBot.Motor.alfaBeta(configuracion.evaluador, tabla,
+                        configuracion.hilos, planificador.getPool());
+            }
+        }
+
+        JugadorBot crearBot(char simbolo) {
+            return new JugadorBot(simbolo, configuracion.profundidad, configuracion.milisegundos, motor);
+        }
+    }
+
+    // ===================================================================
+    // ESTADÍSTICAS
+    // ===================================================================
+
+    private static final class Estadisticas {
+        /** Partidas de A por resultado en medios puntos: [0] perdidas, [1] tablas, [2] ganadas */
+        private final AtomicLong[] resultados = {new AtomicLong(), new AtomicLong(), new AtomicLong()};
+        private final AtomicLong[] jugadas = {new AtomicLong(), new AtomicLong()};
+        private final AtomicLong[] nanos = {new AtomicLong(), new AtomicLong()};
+        private final AtomicLong[] maximo = {new AtomicLong(), new AtomicLong()};
+        private final AtomicLong[] nodos = {new AtomicLong(), new AtomicLong()};
+
+        void sumarPartida(int mediosPuntosDeA) {
+            resultados[mediosPuntosDeA].incrementAndGet();
+        }
+
+        void sumarJugada(int configuracion, long demora, long nodosJugada) {
+            jugadas[configuracion].incrementAndGet();
+            nanos[configuracion].addAndGet(demora);
+            maximo[configuracion].accumulateAndGet(demora, Math::max);
+            nodos[configuracion].addAndGet(nodosJugada);
+        }
+
+        void informar(long inicio, PlanificadorBots planificador) {
+            long perdidas = resultados[0].get();
+            long tablas = resultados[1].get();
+            long ganadas = resultados[2].get();
+            long total = perdidas + tablas + ganadas;
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            System.out.printf("%,d partidas - A: +%d =%d -%d - %s - %.2f partidas/s%n",
+                    total, ganadas, tablas, perdidas, elo(ganadas, tablas, perdidas), total / segundos);
+            for (int c = 0; c < 2; c++) {
+                long n = jugadas[c].get();
+                double segundosBuscando = nanos[c].get() / 1e9;
+                System.out.printf("  %s: %,d jugadas - %,.0f nodos/s - demora media %.1f ms, máxima %.1f ms%n",
+                        c == 0 ? "A" : "B", n, nodos[c].get() / Math.max(1e-9, segundosBuscando),
+                        n == 0 ? 0 : nanos[c].get() / 1e6 / n, maximo[c].get() / 1e6);
+            }
+            System.out.println("  " + planificador.resumen());
+        }
+
+        /**
+         * Suma una partida más, en tablas, y toma el intervalo de Wilson del
+         * 95% del puntaje: con 20-0 da un Elo grande pero finito, con un
+         * intervalo que no se cierra. Trata las tablas como medio punto de
+         * varianza máxima, así que con muchas tablas es algo conservador.
+         *
+         * @return "Elo A - B = d ± e (min, max)" con el intervalo del 95% del puntaje medio
+         */
+        static String elo(long ganadas, long tablas, long perdidas) {
+            long n = ganadas + tablas + perdidas;
+            if (n == 0) {
+                return "Elo sin datos";
+            }
+            double partidas = n + 1;
+            double puntaje = (ganadas + 0.5 * tablas + 0.5) / partidas;
+            double z2 = 1.96 * 1.96;
+            double centro = (puntaje + z2 / (2 * partidas)) / (1 + z2 / partidas);
+            double margen = 1.96 / (1 + z2 / partidas)
+                    * Math.sqrt(puntaje * (1 - puntaje) / partidas + z2 / (4 * partidas * partidas));
+            double minimo = diferenciaElo(centro - margen);
+            double maximo = diferenciaElo(centro + margen);
+            return String.format("Elo A - B = %+.0f ± %.0f (%+.0f, %+.0f)",
+                    diferenciaElo(puntaje), (maximo - minimo) / 2, minimo, maximo);
+        }
+
+        private static double diferenciaElo(double puntaje) {
+            double acotado = Math.min(1 - 1e-6, Math.max(1e-6, puntaje));
+            return -400 * Math.log10(1 / acotado - 1);
+        }
+    }
+}
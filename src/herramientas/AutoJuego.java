@@ -0,0 +1,184 @@
+package herramientas;
+
+import model.clases.EstadoCompacto;
+import model.clases.JugadorBot;
+import model.clases.Movimiento;
+import model.clases.Topologia;
+import motor.BuscadorAlfaBeta;
+import motor.EvaluacionManual;
+import motor.RegistroPartida;
+import motor.TablaTransposicion;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ============================================================================
+ * AUTOJUEGO - PARTIDAS BOT CONTRA BOT PARA AJUSTAR LA EVALUACIÓN
+ * ============================================================================
+ *
+ * Juega partidas del bot contra sí mismo directamente sobre EstadoCompacto
+ * (sin Modelo ni RMI), una por hilo a la vez, y las agrega al archivo en el
+ * formato de RegistroPartida: una línea por partida, con las jugadas y el
+ * resultado. De ahí salen las posiciones y resultados que usa
+ * herramientas.AjustarEvaluacion (y sirven también para CompilarLibro).
+ *
+ * CADA PARTIDA:
+ * - Las primeras jugadas (aleatorias) se eligen al azar entre las legales,
+ *   para que las partidas no se repitan
+ * - Las demás las elige BuscadorAlfaBeta con un límite de nodos por jugada:
+ *   el resultado no depende de la carga de la máquina ni de cuántos hilos
+ *   corran a la vez
+ * - Pierde el lado con turno si queda bloqueado (sin jugadas)
+ * - Tablas si una posición de la fase de movimiento se repite 3 veces o si
+ *   se llega a MAX_JUGADAS
+ *
+ * PARA CORRER TODA LA NOCHE:
+ * El archivo se abre para agregar y cada partida se escribe entera al
+ * terminar, así una corrida cortada deja el archivo válido y otra corrida
+ * sigue sumando partidas. Cada 10 segundos informa partidas, resultados y
+ * partidas por segundo. Los pesos de la evaluación salen de la propiedad
+ * molino.eval.pesos (ver EvaluacionManual.leer()); cada hilo usa su propia
+ * tabla de molino.autojuego.mb megabytes (16 por defecto).
+ *
+ * USO:
+ *   java herramientas.AutoJuego archivo partidas [hilos] [nodosPorJugada] [aleatorias] [variante]
+ */
+public class AutoJuego {
+
+    /**
+     * Jugadas tras las que una partida se da por tablas (también en Arena)
+     */
+    static final int MAX_JUGADAS = 400;
+
+    private static final int SEGUNDOS_REPORTE = 10;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("USO: java herramientas.AutoJuego archivo partidas [hilos] [nodosPorJugada] [aleatorias] [variante]");
+            return;
+        }
+        Path archivo = Paths.get(args[0]);
+        int partidas = Integer.parseInt(args[1]);
+        int hilos = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long nodos = args.length > 3 ? Long.parseLong(args[3]) : 20_000;
+        int aleatorias = args.length > 4 ? Integer.parseInt(args[4]) : 6;
+        Topologia topologia = args.length > 5 ? Topologia.porNombre(args[5]) : Topologia.ESTANDAR;
+        if (topologia == null) {
+            throw new IllegalArgumentException("Variante desconocida: " + args[5]);
+        }
+        EvaluacionManual evaluador = EvaluacionManual.leer(System.getProperty("molino.eval.pesos"));
+        int megabytes = Integer.getInteger("molino.autojuego.mb", 16);
+
+        System.out.printf("%,d partidas %s - %d hilos - %,d nodos por jugada - %d jugadas al azar - pesos %s%n",
+                partidas, topologia.getNombre(), hilos, nodos, aleatorias, evaluador);
+
+        AtomicInteger pendientes = new AtomicInteger(partidas);
+        AtomicLong[] resultados = {new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong()};
+        AtomicLong jugadas = new AtomicLong();
+        long inicio = System.nanoTime();
+        long semilla = System.nanoTime();
+
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            ExecutorService pool = Executors.newFixedThreadPool(hilos);
+            for (int h = 0; h < hilos; h++) {
+                SplittableRandom azar = new SplittableRandom(semilla + h);
+                pool.execute(() -> {
+                    TablaTransposicion tabla = new TablaTransposicion(megabytes);
+                    BuscadorAlfaBeta buscador = new BuscadorAlfaBeta(evaluador, tabla);
+                    while (pendientes.getAndDecrement() > 0) {
+                        tabla.limpiar();
+                        RegistroPartida partida = jugar(buscador, tabla, topologia, nodos, aleatorias, azar);
+                        resultados[partida.getResultado()].incrementAndGet();
+                        jugadas.addAndGet(partida.getCantidad());
+                        synchronized (salida) {
+                            try {
+                                salida.write(partida.toString());
+                                salida.newLine();
+                                salida.flush();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+                    }
+                });
+            }
+            pool.shutdown();
+            while (!pool.awaitTermination(SEGUNDOS_REPORTE, TimeUnit.SECONDS)) {
+                informar(resultados, jugadas.get(), inicio);
+            }
+        }
+        informar(resultados, jugadas.get(), inicio);
+    }
+
+    /**
+     * JUGAR UNA PARTIDA
+     *
+     * @param buscador Buscador del hilo
+     * @param tabla Tabla del buscador (avanza de generación con cada búsqueda de jugada)
+     * @param topologia Variante
+     * @param nodos Límite de nodos por jugada
+     * @param aleatorias Jugadas iniciales elegidas al azar
+     * @param azar Generador del hilo
+     * @return Partida jugada
+     */
+    static RegistroPartida jugar(BuscadorAlfaBeta buscador, TablaTransposicion tabla, Topologia topologia,
+                                 long nodos, int aleatorias, SplittableRandom azar) {
+        int[] movimientos = new int[MAX_JUGADAS];
+        int[] legales = new int[Movimiento.MAX_MOVIMIENTOS];
+        Map<Long, Integer> repeticiones = new HashMap<>();
+        long estado = EstadoCompacto.inicial(topologia);
+        int cantidad = 0;
+        while (!EstadoCompacto.finalizado(estado)) {
+            if (cantidad == MAX_JUGADAS) {
+                return new RegistroPartida(topologia, RegistroPartida.TABLAS, movimientos, cantidad);
+            }
+            int movimiento;
+            if (cantidad < aleatorias) {
+                int n = EstadoCompacto.generarMovimientos(estado, legales);
+                movimiento = n == 0 ? Movimiento.NINGUNO : legales[azar.nextInt(n)];
+            } else {
+                tabla.nuevaGeneracion();
+                movimiento = buscador.buscar(estado, JugadorBot.PROFUNDIDAD_POR_DEFECTO, BuscadorAlfaBeta.SIN_LIMITE, nodos);
+            }
+            if (movimiento == Movimiento.NINGUNO) {
+                // Bloqueado en la fase de movimiento: pierde el lado con turno (como en la búsqueda)
+                return new RegistroPartida(topologia, 1 - EstadoCompacto.turno(estado), movimientos, cantidad);
+            }
+            movimientos[cantidad++] = movimiento;
+            estado = EstadoCompacto.aplicar(estado, movimiento);
+            if (!EstadoCompacto.enColocacion(estado)
+                    && repeticiones.merge(EstadoCompacto.clave(estado), 1, Integer::sum) == 3) {
+                return new RegistroPartida(topologia, RegistroPartida.TABLAS, movimientos, cantidad);
+            }
+        }
+        int resultado = EstadoCompacto.tablas(estado) ? RegistroPartida.TABLAS : EstadoCompacto.ganador(estado);
+        return new RegistroPartida(topologia, resultado, movimientos, cantidad);
+    }
+
+    private static void informar(AtomicLong[] resultados, long jugadas, long inicio) {
+        long terminadas = 0;
+        for (AtomicLong resultado : resultados) {
+            terminadas += resultado.get();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("  %,d partidas (1-0 %,d, 0-1 %,d, tablas %,d, sin terminar %,d) - %.1f jugadas por partida - %.2f partidas/s%n",
+                terminadas, resultados[RegistroPartida.GANA_LADO_0].get(), resultados[RegistroPartida.GANA_LADO_1].get(),
+                resultados[RegistroPartida.TABLAS].get(), resultados[RegistroPartida.SIN_TERMINAR].get(),
+                (double) jugadas / Math.max(1, terminadas), terminadas / segundos);
+    }
+}
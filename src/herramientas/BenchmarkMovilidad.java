@@ -0,0 +1,254 @@
+package herramientas;
+
+import model.clases.CodigoPosicion;
+import model.clases.EstadoCompacto;
+import model.clases.Movimiento;
+import model.clases.Tablero;
+import model.clases.Topologia;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * ============================================================================
+ * BENCHMARK DE MOVILIDAD - ¿ESTÁ BLOQUEADO?
+ * ============================================================================
+ *
+ * Mide la consulta "¿el lado puede moverse?" que decide la derrota por
+ * bloqueo, en tres versiones:
+ *
+ * 1. Recorrido original (Partida.jugadorPuedeMoverse() de la versión con
+ *    String): lista de posiciones ocupadas del jugador y, por cada una, sus
+ *    adyacentes buscando una libre en el mapa de posiciones
+ * 2. Recorrido por máscaras: pieza por pieza, adyacentesDe(pieza) & libres
+ * 3. EstadoCompacto.puedeMoverse(): la unión de adyacencias de las libres por
+ *    tres consultas a tabla (Topologia.vecinos()) contra las propias
+ *
+ * Los contadores incrementales de movilidad que llevaba Tablero se quitaron
+ * al pasar el estado a un long inmutable (EstadoCompacto): no hay bits libres
+ * para guardarlos y la versión 3 ya responde en tiempo constante, sin costo
+ * por jugada. Este benchmark es la medición de ese cambio contra la versión 1.
+ *
+ * Las partidas se generan al azar antes de medir. El recorrido original
+ * necesita su mapa de posiciones al día: se reproducen las partidas sobre el
+ * mapa con y sin consultas y la diferencia es el costo de las consultas. Las
+ * tres versiones se verifican entre sí en cada posición.
+ *
+ * USO:
+ *   java herramientas.BenchmarkMovilidad [partidas] [rondas]
+ */
+public class BenchmarkMovilidad {
+
+    private static final int MAX_JUGADAS = 400;
+    private static final char LIBRE = ' ';
+    private static final char[] SIMBOLOS = {'X', 'O'};
+
+    public static void main(String[] args) {
+        int cantidadPartidas = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        List<long[]> partidas = generarPartidas(cantidadPartidas, new SplittableRandom(42));
+        int posiciones = 0;
+        for (long[] partida : partidas) {
+            posiciones += partida.length;
+        }
+        long[] estados = new long[posiciones];
+        int n = 0;
+        for (long[] partida : partidas) {
+            System.arraycopy(partida, 0, estados, n, partida.length);
+            n += partida.length;
+        }
+        Map<String, List<String>> adyacencias = adyacenciasEnCadenas(Topologia.ESTANDAR);
+        long bloqueados = verificar(partidas, adyacencias);
+
+        System.out.printf("Partidas: %d - Posiciones: %,d - Lados bloqueados: %,d%n",
+                partidas.size(), posiciones, bloqueados);
+        long consultas = 2L * posiciones;
+
+        for (int ronda = 1; ronda <= rondas; ronda++) {
+            long sumidero = 0;
+
+            long inicio = System.nanoTime();
+            sumidero += reproducirEnCadenas(partidas, adyacencias, false);
+            long tiempoMapa = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            sumidero += reproducirEnCadenas(partidas, adyacencias, true);
+            long tiempoOriginal = System.nanoTime() - inicio - tiempoMapa;
+
+            inicio = System.nanoTime();
+            for (long estado : estados) {
+                int libres = EstadoCompacto.libres(estado);
+                sumidero += recorrido(EstadoCompacto.mascara(estado, 0), libres) ? 1 : 0;
+                sumidero += recorrido(EstadoCompacto.mascara(estado, 1), libres) ? 1 : 0;
+            }
+            long tiempoMascaras = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            for (long estado : estados) {
+                sumidero += EstadoCompacto.puedeMoverse(estado, 0) ? 1 : 0;
+                sumidero += EstadoCompacto.puedeMoverse(estado, 1) ? 1 : 0;
+            }
+            long tiempoTabla = System.nanoTime() - inicio;
+
+            System.out.printf("Ronda %d:%n", ronda);
+            System.out.printf("  Recorrido original:         %7.1f ns%n", (double) tiempoOriginal / consultas);
+            System.out.printf("  Recorrido por máscaras:     %7.1f ns%n", (double) tiempoMascaras / consultas);
+            System.out.printf("  EstadoCompacto.puedeMoverse:%7.1f ns%n", (double) tiempoTabla / consultas);
+            System.out.println("  (" + sumidero + ")");
+        }
+    }
+
+    /**
+     * GENERAR PARTIDAS AL AZAR
+     *
+     * Juega partidas completas con jugadas al azar y guarda los estados de la
+     * fase de movimiento (donde se verifica el bloqueo) de cada una.
+     */
+    private static List<long[]> generarPartidas(int cantidad, SplittableRandom azar) {
+        List<long[]> partidas = new ArrayList<>(cantidad);
+        int[] buffer = new int[Movimiento.MAX_MOVIMIENTOS];
+        long[] estados = new long[MAX_JUGADAS];
+
+        for (int p = 0; p < cantidad; p++) {
+            long estado = EstadoCompacto.INICIAL;
+            int n = 0;
+            for (int jugada = 0; jugada < MAX_JUGADAS; jugada++) {
+                int cantidadMovimientos = EstadoCompacto.generarMovimientos(estado, buffer);
+                if (cantidadMovimientos == 0) {
+                    break;
+                }
+                estado = EstadoCompacto.aplicar(estado, buffer[azar.nextInt(cantidadMovimientos)]);
+                if (!EstadoCompacto.enColocacion(estado)) {
+                    estados[n++] = estado;
+                }
+            }
+            long[] partida = new long[n];
+            System.arraycopy(estados, 0, partida, 0, n);
+            partidas.add(partida);
+        }
+        return partidas;
+    }
+
+    /**
+     * Compara las tres versiones en cada posición
+     * @return Cantidad de lados bloqueados encontrados
+     */
+    private static long verificar(List<long[]> partidas, Map<String, List<String>> adyacencias) {
+        long bloqueados = 0;
+        for (long[] partida : partidas) {
+            for (long estado : partida) {
+                Map<String, Character> tablero = mapaDe(estado);
+                for (int lado = 0; lado < 2; lado++) {
+                    boolean original = puedeMoverseOriginal(tablero, adyacencias, SIMBOLOS[lado]);
+                    boolean mascaras = recorrido(EstadoCompacto.mascara(estado, lado), EstadoCompacto.libres(estado));
+                    boolean tabla = EstadoCompacto.puedeMoverse(estado, lado);
+                    if (original != tabla || mascaras != tabla) {
+                        throw new IllegalStateException("Las versiones no coinciden:\n" + EstadoCompacto.dibujar(estado));
+                    }
+                    bloqueados += tabla ? 0 : 1;
+                }
+            }
+        }
+        return bloqueados;
+    }
+
+    /**
+     * Reproduce las partidas sobre el mapa de posiciones de la versión
+     * original (solo las posiciones que cambian). Si consultar es true,
+     * después de cada jugada hace el recorrido original para los dos lados.
+     */
+    private static long reproducirEnCadenas(List<long[]> partidas, Map<String, List<String>> adyacencias,
+                                            boolean consultar) {
+        long sumidero = 0;
+        for (long[] partida : partidas) {
+            if (partida.length == 0) {
+                continue;
+            }
+            Map<String, Character> tablero = mapaDe(partida[0]);
+            long anterior = partida[0];
+            for (long estado : partida) {
+                for (int lado = 0; lado < 2; lado++) {
+                    int antes = EstadoCompacto.mascara(anterior, lado);
+                    int despues = EstadoCompacto.mascara(estado, lado);
+                    for (int cambios = antes ^ despues; cambios != 0; cambios &= cambios - 1) {
+                        int posicion = Integer.numberOfTrailingZeros(cambios);
+                        tablero.put(CodigoPosicion.formato(posicion), (despues & (1 << posicion)) != 0 ? SIMBOLOS[lado] : LIBRE);
+                    }
+                }
+                anterior = estado;
+                if (consultar) {
+                    sumidero += puedeMoverseOriginal(tablero, adyacencias, SIMBOLOS[0]) ? 1 : 0;
+                    sumidero += puedeMoverseOriginal(tablero, adyacencias, SIMBOLOS[1]) ? 1 : 0;
+                }
+            }
+            sumidero += tablero.size();
+        }
+        return sumidero;
+    }
+
+    /**
+     * Versión original: posiciones ocupadas por el jugador y, por cada una,
+     * si tiene una adyacente libre (o cualquier libre si puede volar)
+     */
+    private static boolean puedeMoverseOriginal(Map<String, Character> tablero, Map<String, List<String>> adyacencias,
+                                                char simbolo) {
+        List<String> propias = tablero.entrySet().stream()
+                .filter(entrada -> entrada.getValue() == simbolo)
+                .map(Map.Entry::getKey)
+                .toList();
+        boolean puedeVolar = propias.size() == Tablero.PIEZAS_PARA_VUELO;
+        for (String posicion : propias) {
+            boolean libre = puedeVolar
+                    ? tablero.values().stream().anyMatch(ocupante -> ocupante == LIBRE)
+                    : adyacencias.get(posicion).stream().map(tablero::get).anyMatch(ocupante -> ocupante == LIBRE);
+            if (libre) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recorrido por máscaras: pieza por pieza, busca una adyacente libre
+     */
+    private static boolean recorrido(int propias, int libres) {
+        if (Integer.bitCount(propias) == Tablero.PIEZAS_PARA_VUELO) {
+            return libres != 0;
+        }
+        for (; propias != 0; propias &= propias - 1) {
+            if ((Topologia.ESTANDAR.adyacentesDe(Integer.numberOfTrailingZeros(propias)) & libres) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Character> mapaDe(long estado) {
+        Map<String, Character> tablero = new HashMap<>();
+        for (int posicion = 0; posicion < CodigoPosicion.CANTIDAD; posicion++) {
+            char ocupante = LIBRE;
+            for (int lado = 0; lado < 2; lado++) {
+                if ((EstadoCompacto.mascara(estado, lado) & (1 << posicion)) != 0) {
+                    ocupante = SIMBOLOS[lado];
+                }
+            }
+            tablero.put(CodigoPosicion.formato(posicion), ocupante);
+        }
+        return tablero;
+    }
+
+    private static Map<String, List<String>> adyacenciasEnCadenas(Topologia topologia) {
+        Map<String, List<String>> adyacencias = new HashMap<>();
+        for (int posicion = 0; posicion < CodigoPosicion.CANTIDAD; posicion++) {
+            List<String> vecinas = new ArrayList<>();
+            for (int mascara = topologia.adyacentesDe(posicion); mascara != 0; mascara &= mascara - 1) {
+                vecinas.add(CodigoPosicion.formato(Integer.numberOfTrailingZeros(mascara)));
+            }
+            adyacencias.put(CodigoPosicion.formato(posicion), vecinas);
+        }
+        return adyacencias;
+    }
+}
@@ -0,0 +1,151 @@
+package herramientas;
+
+import motor.BuscadorAlfaBeta;
+import motor.BusquedaParalela;
+import motor.EvaluacionManual;
+import motor.Evaluador;
+import motor.PlanificadorBots;
+import motor.TablaTransposicion;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ============================================================================
+ * BENCHMARK PARALELO - ACELERACIÓN DE LAZY SMP POR CANTIDAD DE HILOS
+ * ============================================================================
+ *
+ * Mide el tiempo hasta completar una profundidad fija (time-to-depth) con
+ * BusquedaParalela usando 1, 2, 4, ... hilos sobre un conjunto de posiciones.
+ * La tabla de transposición se limpia antes de cada búsqueda para que ninguna
+ * corrida aproveche el trabajo de la anterior.
+ *
+ * INFORME POR CANTIDAD DE HILOS:
+ * - tiempo total, nodos (de todos los hilos) y nodos por segundo
+ * - aceleración: tiempo con 1 hilo / tiempo con N hilos
+ * - eficiencia: aceleración / N
+ *
+ * En Lazy SMP los hilos repiten parte del trabajo, así que los nodos crecen
+ * con N: lo que importa es la aceleración, no los nps.
+ *
+ * CON CARGA (carga > 0):
+ * Los ayudantes corren en el pool de un PlanificadorBots donde otras
+ * "partidas" (tantas como carga) programan turnos sin parar, como en un
+ * servidor ocupado: los ayudantes esperan en cola detrás de esos turnos.
+ * Se informa además cuántos ayudantes seguían en cola al terminar el
+ * principal (salteados, ver BusquedaParalela).
+ *
+ * USO:
+ *   java herramientas.BenchmarkParalelo [profundidad] [maxHilos] [megabytes] [carga]
+ */
+public class BenchmarkParalelo {
+
+    /**
+     * Posiciones de prueba en la notación de Perft
+     */
+    private static final String[] POSICIONES = {
+            ".../.../.../....../.../.../... X C 0 0",
+            "XO./.X./O.X/X.OO.X/.O./X.O/O.X X C 7 7",
+            "X.O/XO./..O/X.OX.O/X.X/O.X/.X. X M 9 9",
+            "X../.O./.O./..O.../.X./..O/O.X X M 9 9",
+            "XOX/OXO/X.O/OX.XOX/OXO/.X./OXO X M 12 12 doce",
+    };
+
+    /**
+     * Presupuesto de cada turno de las partidas de carga
+     */
+    private static final long MILISEGUNDOS_CARGA = 50;
+
+    public static void main(String[] args) {
+        int profundidad = args.length > 0 ? Integer.parseInt(args[0]) : 9;
+        int maxHilos = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int megabytes = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        int carga = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+        Evaluador evaluador = new EvaluacionManual();
+        TablaTransposicion tabla = new TablaTransposicion(megabytes);
+        long[] estados = new long[POSICIONES.length];
+        for (int i = 0; i < estados.length; i++) {
+            estados[i] = Perft.leer(POSICIONES[i]);
+        }
+
+        // El hilo principal busca en el hilo de main(): el pool solo lleva los ayudantes
+        ForkJoinPool pool;
+        AtomicBoolean cargaActiva = new AtomicBoolean(true);
+        if (carga > 0) {
+            PlanificadorBots planificador = new PlanificadorBots(Math.max(1, maxHilos - 1), MILISEGUNDOS_CARGA, 0);
+            for (int partida = 0; partida < carga; partida++) {
+                programarCarga(planificador, partida, estados[partida % estados.length], evaluador, cargaActiva);
+            }
+            pool = planificador.getPool();
+        } else {
+            pool = new ForkJoinPool(Math.max(1, maxHilos - 1));
+        }
+
+        List<Integer> cantidades = new ArrayList<>();
+        for (int hilos = 1; hilos < maxHilos; hilos *= 2) {
+            cantidades.add(hilos);
+        }
+        cantidades.add(maxHilos);
+
+        System.out.printf("Profundidad %d - %d posiciones - tabla %d MB - %d procesadores - carga %d partidas%n",
+                profundidad, estados.length, megabytes, Runtime.getRuntime().availableProcessors(), carga);
+
+        // Calentamiento: que el JIT compile la búsqueda antes de medir
+        medir(new BusquedaParalela(evaluador, tabla, 1, pool), tabla, estados, Math.max(1, profundidad - 2));
+
+        double tiempoSecuencial = 0;
+        System.out.println("  hilos |  tiempo (ms) |          nodos |          nps | aceleración | eficiencia | salteados");
+        for (int hilos : cantidades) {
+            BusquedaParalela busqueda = new BusquedaParalela(evaluador, tabla, hilos, pool);
+            long[] resultado = medir(busqueda, tabla, estados, profundidad);
+            double ms = resultado[0] / 1e6;
+            if (hilos == 1) {
+                tiempoSecuencial = ms;
+            }
+            double aceleracion = tiempoSecuencial / ms;
+            System.out.printf("  %5d | %,12.1f | %,14d | %,12.0f | %10.2fx | %9.0f%% | %9d%n",
+                    hilos, ms, resultado[1], resultado[1] / (resultado[0] / 1e9),
+                    aceleracion, 100 * aceleracion / hilos, resultado[2]);
+        }
+        cargaActiva.set(false);
+    }
+
+    /**
+     * PARTIDA DE CARGA
+     * Programa un turno que busca la posición con el presupuesto del
+     * planificador y, mientras dure el benchmark, vuelve a programarse.
+     */
+    private static void programarCarga(PlanificadorBots planificador, int partida, long estado,
+                                       Evaluador evaluador, AtomicBoolean activa) {
+        BuscadorAlfaBeta buscador = new BuscadorAlfaBeta(evaluador, new TablaTransposicion(1));
+        planificador.programar(partida, new PlanificadorBots.Turno() {
+            @Override
+            public void jugar(long plazo, long limiteNodos) {
+                buscador.buscar(estado, BuscadorAlfaBeta.MAX_PLY, plazo, limiteNodos);
+                if (activa.get()) {
+                    planificador.programar(partida, this);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return {nanosegundos, nodos, ayudantes salteados} sumados sobre todas las posiciones
+     */
+    private static long[] medir(BusquedaParalela busqueda, TablaTransposicion tabla, long[] estados, int profundidad) {
+        long nanos = 0;
+        long nodos = 0;
+        long salteados = 0;
+        for (long estado : estados) {
+            tabla.limpiar();
+            long inicio = System.nanoTime();
+            busqueda.buscar(estado, profundidad, BuscadorAlfaBeta.SIN_LIMITE, BuscadorAlfaBeta.SIN_LIMITE);
+            nanos += System.nanoTime() - inicio;
+            nodos += busqueda.getNodos();
+            salteados += busqueda.getSalteados();
+        }
+        return new long[]{nanos, nodos, salteados};
+    }
+}
@@ -0,0 +1,157 @@
+package herramientas;
+
+import model.clases.Topologia;
+import motor.BaseFinales;
+import motor.EscritorBaseFinales;
+import motor.FinalesVuelo;
+import motor.GeneradorFinales;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.function.LongToIntFunction;
+
+/**
+ * ============================================================================
+ * COMPILAR FINALES - ARMA EL ARCHIVO DE BASE DE FINALES PARA EL SERVIDOR
+ * ============================================================================
+ *
+ * Junta en un único archivo comprimido (ver BaseFinales) lo que resolvieron
+ * los solucionadores:
+ * - Resultados de todas las sub-bases terminadas en un directorio de
+ *   GeneradorFinales (si se indica)
+ * - Resultados y distancias de los finales de vuelo 3 contra N, que se
+ *   resuelven en memoria con FinalesVuelo (si maxVuelo > 0)
+ *
+ * Después de escribir, abre el archivo y compara una muestra de posiciones
+ * por sub-base (resultado y distancia) contra las fuentes.
+ *
+ * El servidor lo usa con -Dmolino.finales.archivo=archivo.
+ *
+ * USO:
+ *   java herramientas.CompilarFinales archivo [directorioGenerador|-] [maxVuelo] [variante]
+ */
+public class CompilarFinales {
+
+    private static final int MUESTRA = 1 << 20;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("USO: java herramientas.CompilarFinales archivo [directorioGenerador|-] [maxVuelo] [variante]");
+            return;
+        }
+        Path archivo = Paths.get(args[0]);
+        Path directorio = args.length > 1 && !args[1].equals("-") ? Paths.get(args[1]) : null;
+        int maxVuelo = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        Topologia topologia = args.length > 3 ? Topologia.porNombre(args[3]) : Topologia.ESTANDAR;
+        if (topologia == null) {
+            throw new IllegalArgumentException("Variante desconocida: " + args[3]);
+        }
+
+        FinalesVuelo vuelo = null;
+        if (maxVuelo > 0) {
+            long inicio = System.nanoTime();
+            vuelo = FinalesVuelo.resolver(topologia, maxVuelo);
+            System.out.printf("Finales de vuelo 3 contra %d resueltos en %,d ms%n",
+                    maxVuelo, (System.nanoTime() - inicio) / 1_000_000);
+        }
+
+        GeneradorFinales generador = null;
+        boolean[][] terminadas = new boolean[topologia.getPiezasPorJugador() + 1][topologia.getPiezasPorJugador() + 1];
+        if (directorio != null) {
+            generador = new GeneradorFinales(directorio, topologia);
+            for (String grupo : generador.leerProgreso()) {
+                String[] partes = grupo.split(" ");
+                int p = Integer.parseInt(partes[0]);
+                int r = Integer.parseInt(partes[1]);
+                terminadas[p][r] = true;
+                terminadas[r][p] = true;
+            }
+        }
+
+        EscritorBaseFinales escritor = new EscritorBaseFinales(topologia);
+        int subBases = 0;
+        for (int p = 0; p < terminadas.length; p++) {
+            for (int r = 0; r < terminadas.length; r++) {
+                boolean deVuelo = vuelo != null && vuelo.tiene(p, r);
+                if (!terminadas[p][r] && !deVuelo) {
+                    continue;
+                }
+                LongToIntFunction resultado = terminadas[p][r] ? generador.resultados(p, r) : resultadoDe(vuelo.valores(p, r));
+                LongToIntFunction distancia = deVuelo ? distanciaDe(vuelo.valores(p, r)) : null;
+                escritor.agregar(p, r, resultado, distancia);
+                subBases++;
+            }
+        }
+
+        long inicio = System.nanoTime();
+        long bytes = escritor.escribir(archivo);
+        long[] bloques = escritor.getBloquesPorCodificacion();
+        System.out.printf("%d sub-bases escritas en %s: %,d bytes en %,d ms%n",
+                subBases, archivo, bytes, (System.nanoTime() - inicio) / 1_000_000);
+        System.out.printf("Bloques: %,d constantes, %,d RLE, %,d crudos%n", bloques[0], bloques[2], bloques[1]);
+
+        verificar(BaseFinales.abrir(archivo), vuelo, generador, terminadas);
+    }
+
+    private static LongToIntFunction resultadoDe(LongToIntFunction valores) {
+        return i -> {
+            int valor = valores.applyAsInt(i);
+            return FinalesVuelo.esVictoria(valor) ? BaseFinales.GANA
+                    : FinalesVuelo.esDerrota(valor) ? BaseFinales.PIERDE : BaseFinales.TABLAS;
+        };
+    }
+
+    private static LongToIntFunction distanciaDe(LongToIntFunction valores) {
+        return i -> FinalesVuelo.distancia(valores.applyAsInt(i));
+    }
+
+    /**
+     * Compara posiciones al azar de cada sub-base del archivo contra su fuente
+     */
+    private static void verificar(BaseFinales base, FinalesVuelo vuelo, GeneradorFinales generador,
+                                  boolean[][] terminadas) throws IOException {
+        Random azar = new Random(1);
+        long diferencias = 0;
+        long consultas = 0;
+        long nanos = 0;
+        for (int p = 0; p < terminadas.length; p++) {
+            for (int r = 0; r < terminadas.length; r++) {
+                if (!base.tiene(p, r)) {
+                    continue;
+                }
+                LongToIntFunction esperado = terminadas[p][r] ? generador.resultados(p, r) : resultadoDe(vuelo.valores(p, r));
+                LongToIntFunction distancia = vuelo != null && vuelo.tiene(p, r) ? distanciaDe(vuelo.valores(p, r)) : null;
+                for (int k = 0; k < MUESTRA; k++) {
+                    int s = mascaraAlAzar(azar, p, 0, base.getTopologia());
+                    int o = mascaraAlAzar(azar, r, s, base.getTopologia());
+                    long inicio = System.nanoTime();
+                    int leido = base.resultado(s, o);
+                    nanos += System.nanoTime() - inicio;
+                    consultas++;
+                    long indice = GeneradorFinales.indice(s, o);
+                    if (leido != esperado.applyAsInt(indice)
+                            || (distancia != null && base.distancia(s, o) != distancia.applyAsInt(indice))) {
+                        diferencias++;
+                    }
+                }
+            }
+        }
+        System.out.printf("Verificación: %,d consultas, %,d diferencias, %.0f ns por consulta%n",
+                consultas, diferencias, (double) nanos / Math.max(1, consultas));
+        if (diferencias > 0) {
+            throw new IllegalStateException("El archivo no coincide con las fuentes");
+        }
+    }
+
+    private static int mascaraAlAzar(Random azar, int piezas, int ocupadas, Topologia topologia) {
+        int mascara = 0;
+        while (Integer.bitCount(mascara) < piezas) {
+            int posicion = 1 << azar.nextInt(24);
+            if ((topologia.getPuntos() & posicion) != 0 && (ocupadas & posicion) == 0) {
+                mascara |= posicion;
+            }
+        }
+        return mascara;
+    }
+}
@@ -0,0 +1,109 @@
+package herramientas;
+
+import model.clases.EstadoCompacto;
+import model.clases.Movimiento;
+import model.clases.Topologia;
+import motor.EscritorLibro;
+import motor.LibroAperturas;
+import motor.RegistroPartida;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ============================================================================
+ * COMPILAR LIBRO - ARMA EL LIBRO DE APERTURAS PARA EL SERVIDOR
+ * ============================================================================
+ *
+ * Lee partidas grabadas (una por línea, ver RegistroPartida) y escribe con
+ * EscritorLibro el archivo que el servidor mapea en memoria (ver
+ * LibroAperturas). Las líneas mal formadas o con jugadas ilegales se
+ * informan y se saltean.
+ *
+ * Después de escribir, abre el libro y reproduce las partidas: toda posición
+ * de apertura por la que pasaron debe estar en el libro y dar una jugada legal.
+ *
+ * El servidor lo usa con -Dmolino.libro.archivo=archivo.
+ *
+ * USO:
+ *   java herramientas.CompilarLibro archivo partidas [maxJugadas] [minPartidas] [variante]
+ */
+public class CompilarLibro {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("USO: java herramientas.CompilarLibro archivo partidas [maxJugadas] [minPartidas] [variante]");
+            return;
+        }
+        Path archivo = Paths.get(args[0]);
+        Path registro = Paths.get(args[1]);
+        int maxJugadas = args.length > 2 ? Integer.parseInt(args[2]) : Integer.MAX_VALUE;
+        int minPartidas = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        Topologia topologia = args.length > 4 ? Topologia.porNombre(args[4]) : Topologia.ESTANDAR;
+        if (topologia == null) {
+            throw new IllegalArgumentException("Variante desconocida: " + args[4]);
+        }
+
+        EscritorLibro escritor = new EscritorLibro(topologia, maxJugadas);
+        List<RegistroPartida> leidas = new ArrayList<>();
+        int descartadas = 0;
+        try (BufferedReader lector = Files.newBufferedReader(registro, StandardCharsets.UTF_8)) {
+            String linea;
+            int numero = 0;
+            while ((linea = lector.readLine()) != null) {
+                numero++;
+                try {
+                    RegistroPartida partida = RegistroPartida.parse(linea);
+                    if (partida != null && escritor.agregar(partida)) {
+                        leidas.add(partida);
+                    }
+                } catch (IllegalArgumentException e) {
+                    System.err.printf("  línea %d: %s%n", numero, e.getMessage());
+                    descartadas++;
+                }
+            }
+        }
+
+        int entradas = escritor.escribir(archivo, minPartidas);
+        System.out.printf("%,d partidas (%,d descartadas), %,d posiciones, %,d entradas escritas en %s (%,d bytes)%n",
+                escritor.getPartidas(), descartadas, escritor.getPosiciones(), entradas, archivo, Files.size(archivo));
+
+        if (minPartidas <= 1) {
+            verificar(LibroAperturas.abrir(archivo), leidas, maxJugadas);
+        }
+    }
+
+    /**
+     * Reproduce las partidas y consulta el libro en cada posición de apertura
+     */
+    private static void verificar(LibroAperturas libro, List<RegistroPartida> partidas, int maxJugadas) {
+        long consultas = 0;
+        long faltantes = 0;
+        long nanos = 0;
+        for (RegistroPartida partida : partidas) {
+            long estado = EstadoCompacto.inicial(partida.getTopologia());
+            int cantidad = Math.min(maxJugadas, partida.getCantidad());
+            for (int i = 0; i < cantidad && EstadoCompacto.enColocacion(estado); i++) {
+                long inicio = System.nanoTime();
+                int jugada = libro.elegirMovimiento(estado);
+                nanos += System.nanoTime() - inicio;
+                consultas++;
+                if (!libro.contiene(estado)
+                        || (jugada != Movimiento.NINGUNO && EstadoCompacto.aplicar(estado, jugada) == EstadoCompacto.ILEGAL)) {
+                    faltantes++;
+                }
+                estado = EstadoCompacto.aplicar(estado, partida.getMovimiento(i));
+            }
+        }
+        System.out.printf("Verificación: %,d consultas, %,d fallidas, %.0f ns por consulta%n",
+                consultas, faltantes, (double) nanos / Math.max(1, consultas));
+        if (faltantes > 0) {
+            throw new IllegalStateException("El libro no contiene todas las posiciones de las partidas");
+        }
+    }
+}
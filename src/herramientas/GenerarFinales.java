@@ -0,0 +1,162 @@
+package herramientas;
+
+import model.clases.Topologia;
+import motor.GeneradorFinales;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ============================================================================
+ * GENERAR FINALES - COORDINADOR DE PROCESOS DEL GENERADOR EN DISCO
+ * ============================================================================
+ *
+ * Resuelve todas las sub-bases de la fase de movimiento con GeneradorFinales,
+ * repartiendo cada grupo entre varios procesos trabajadores locales que
+ * comparten los archivos mapeados (ver GeneradorFinales).
+ *
+ * RONDAS:
+ * Por grupo se lanzan N trabajadores, uno por parte. Cada uno itera su parte
+ * hasta que no cambia y termina con SALIDA_CON_CAMBIOS si resolvió algo.
+ * Mientras alguno haya resuelto algo se lanza otra ronda (lo que resolvió una
+ * parte puede destrabar a otra); una ronda sin cambios termina el grupo, que
+ * se anota en progreso.txt.
+ *
+ * MEMORIA:
+ * Los bits viven en archivos mapeados (caché de páginas del sistema), no en
+ * el heap: cada trabajador corre con -Xmx de la propiedad
+ * molino.generador.xmx (256m por defecto).
+ *
+ * REANUDAR:
+ * Volver a correr con el mismo directorio saltea los grupos de progreso.txt
+ * y continúa el grupo interrumpido desde los bits ya escritos.
+ *
+ * USO:
+ *   java herramientas.GenerarFinales directorio [maxPiezas] [procesos] [variante]
+ *   (modo interno) java herramientas.GenerarFinales --trabajador directorio variante p r parte partes
+ */
+public class GenerarFinales {
+
+    /**
+     * Código de salida de un trabajador que no resolvió nada en su ronda
+     */
+    public static final int SALIDA_SIN_CAMBIOS = 0;
+
+    /**
+     * Código de salida de un trabajador que resolvió alguna posición
+     */
+    public static final int SALIDA_CON_CAMBIOS = 2;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--trabajador")) {
+            trabajador(args);
+            return;
+        }
+        if (args.length == 0) {
+            System.out.println("USO: java herramientas.GenerarFinales directorio [maxPiezas] [procesos] [variante]");
+            return;
+        }
+
+        Path directorio = Paths.get(args[0]);
+        Topologia topologia = args.length > 3 ? Topologia.porNombre(args[3]) : Topologia.ESTANDAR;
+        if (topologia == null) {
+            throw new IllegalArgumentException("Variante desconocida: " + args[3]);
+        }
+        int maxPiezas = args.length > 1 ? Integer.parseInt(args[1]) : topologia.getPiezasPorJugador();
+        int procesos = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        coordinar(directorio, topologia, maxPiezas, Math.max(1, procesos));
+    }
+
+    /**
+     * COORDINAR LA GENERACIÓN COMPLETA
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Recorre GeneradorFinales.grupos() salteando los de progreso.txt
+     * - Lanza las rondas con lanzarRonda()
+     */
+    private static void coordinar(Path directorio, Topologia topologia, int maxPiezas, int procesos)
+            throws IOException, InterruptedException {
+        Files.createDirectories(directorio);
+        GeneradorFinales generador = new GeneradorFinales(directorio, topologia);
+        List<String> terminados = generador.leerProgreso();
+
+        System.out.printf("Variante %s - hasta %d piezas por lado - %d procesos - %s%n",
+                topologia.getNombre(), maxPiezas, procesos, directorio.toAbsolutePath());
+        for (int[] grupo : GeneradorFinales.grupos(maxPiezas)) {
+            int p = grupo[0];
+            int r = grupo[1];
+            if (terminados.contains(p + " " + r)) {
+                System.out.printf("  %dx%d: ya estaba terminado%n", p, r);
+                continue;
+            }
+
+            long inicio = System.nanoTime();
+            generador.preparar(p, r);
+            int rondas = 0;
+            boolean cambios;
+            do {
+                rondas++;
+                cambios = lanzarRonda(directorio, topologia, p, r, procesos);
+            } while (cambios);
+            generador.marcarTerminado(p, r);
+
+            long[] resultado = generador.contar(p, r);
+            System.out.printf("  %dx%d: %,d posiciones, %,d ganan, %,d pierden - %d rondas, %,d ms%n",
+                    p, r, resultado[2], resultado[0], resultado[1], rondas, (System.nanoTime() - inicio) / 1_000_000);
+            if (p != r) {
+                resultado = generador.contar(r, p);
+                System.out.printf("  %dx%d: %,d posiciones, %,d ganan, %,d pierden%n",
+                        r, p, resultado[2], resultado[0], resultado[1]);
+            }
+        }
+    }
+
+    /**
+     * Lanza un trabajador por parte y espera a todos
+     * @return true si alguno resolvió posiciones
+     */
+    private static boolean lanzarRonda(Path directorio, Topologia topologia, int p, int r, int procesos)
+            throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> trabajadores = new ArrayList<>();
+        for (int parte = 0; parte < procesos; parte++) {
+            List<String> comando = List.of(java,
+                    "-Xmx" + System.getProperty("molino.generador.xmx", "256m"),
+                    "-cp", System.getProperty("java.class.path"),
+                    GenerarFinales.class.getName(), "--trabajador",
+                    directorio.toString(), topologia.getNombre(),
+                    String.valueOf(p), String.valueOf(r), String.valueOf(parte), String.valueOf(procesos));
+            trabajadores.add(new ProcessBuilder(comando).inheritIO().start());
+        }
+
+        boolean cambios = false;
+        for (Process trabajador : trabajadores) {
+            int salida = trabajador.waitFor();
+            if (salida == SALIDA_CON_CAMBIOS) {
+                cambios = true;
+            } else if (salida != SALIDA_SIN_CAMBIOS) {
+                throw new IllegalStateException("Un trabajador terminó con código " + salida
+                        + " (grupo " + p + "x" + r + "); se puede reanudar con el mismo directorio");
+            }
+        }
+        return cambios;
+    }
+
+    /**
+     * MODO TRABAJADOR: itera una parte de un grupo y sale con el código de la ronda
+     */
+    private static void trabajador(String[] args) throws IOException {
+        Path directorio = Paths.get(args[1]);
+        Topologia topologia = Topologia.porNombre(args[2]);
+        int p = Integer.parseInt(args[3]);
+        int r = Integer.parseInt(args[4]);
+        int parte = Integer.parseInt(args[5]);
+        int partes = Integer.parseInt(args[6]);
+
+        boolean cambios = new GeneradorFinales(directorio, topologia).iterarParte(p, r, parte, partes);
+        System.exit(cambios ? SALIDA_CON_CAMBIOS : SALIDA_SIN_CAMBIOS);
+    }
+}
@@ -0,0 +1,379 @@
+package herramientas;
+
+import model.clases.EstadoCompacto;
+import model.clases.Movimiento;
+import model.clases.Tablero;
+import model.clases.Topologia;
+import model.enums.FaseJuego;
+import motor.RegistroPartida;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ============================================================================
+ * PERFT - CONTEO DE NODOS DEL ÁRBOL DE JUGADAS
+ * ============================================================================
+ *
+ * Cuenta todas las posiciones hoja a profundidad N desde un conjunto de
+ * posiciones de prueba. Sirve para dos cosas:
+ *
+ * 1. ORÁCULO DE CORRECCIÓN: los conteos dependen de cada detalle de las reglas
+ *    (molinos, eliminaciones, vuelo, fin de la colocación). Cualquier cambio en
+ *    EstadoCompacto o en los generadores de Topologia tiene que reproducir los
+ *    valores de referencia de POSICIONES antes de integrarse.
+ * 2. BENCHMARK: informa nodos por segundo en un hilo y con la raíz repartida
+ *    entre los hilos de un ForkJoinPool (una tarea por jugada de la raíz).
+ *
+ * CONVENCIONES:
+ * - Cada acción es un nivel: colocar, mover y eliminar cuentan por separado
+ * - Una posición sin jugadas antes de la profundidad pedida no aporta hojas
+ * - En el último nivel se cuentan las jugadas generadas sin aplicarlas
+ *
+ * CASOS DE REGLAS:
+ * Además de los conteos, REGLAS lista posiciones cuyo resultado tras una
+ * jugada se comprueba directamente (p. ej. tablas con el tablero lleno en la
+ * variante de doce piezas).
+ *
+ * MODO VERIFICACIÓN (--verificar):
+ * En cada nodo compara la cantidad de jugadas generadas con las que acepta
+ * EstadoCompacto.aplicar() probando todas las acciones posibles (24 + 24 + 576),
+ * o sea, el generador contra el validador de reglas. Corre aparte y sin
+ * medir: los tiempos y nps informados son siempre los del generador solo.
+ *
+ * NOTACIÓN DE POSICIONES:
+ *   "filas turno fase colocadasX colocadasO [E] [variante]"
+ *   - filas: las 7 filas del tablero (3/3/3/6/3/3/3 puntos) separadas por '/',
+ *     con 'X' (lado 0), 'O' (lado 1) o '.' (libre), en el orden de CodigoPosicion
+ *   - turno: X u O; fase: C (colocación) o M (movimiento)
+ *   - E si el lado con turno debe eliminar una pieza
+ *   - variante: nombre de la Topologia ("doce", "seis"); si falta, estándar
+ *   - En las variantes con menos puntos, los puntos inexistentes van como '.'
+ *
+ * USO:
+ *   java herramientas.Perft [profundidad] [hilos] [--verificar]
+ */
+public class Perft {
+
+    /**
+     * Posiciones de prueba: nombre, notación y conteos de referencia por profundidad (1..n)
+     *
+     * ORIGEN DE LOS CONTEOS: no hay una tabla publicada para estas posiciones;
+     * los generó esta misma herramienta al integrar EstadoCompacto, con
+     * --verificar (generador contra validador en cada nodo). Solo los del
+     * tablero vacío hasta profundidad 5 se comprueban a mano: sin molinos
+     * posibles son colocaciones, 24 * 23 * ... (y 16 * 15 * ... en el de seis).
+     * Protegen contra regresiones, no contra un error de reglas que ya
+     * estuviera al generarlos.
+     */
+    private static final Object[][] POSICIONES = {
+            {"Inicial",
+                    ".../.../.../....../.../.../... X C 0 0",
+                    new long[]{24, 552, 12144, 255024, 5100480, 96223680}},
+            {"Colocación con molino pendiente",
+                    "XXX/.O./.../O...../.../.../... X C 3 2 E",
+                    new long[]{2, 40, 760, 13680, 231408, 3671056}},
+            {"Colocación avanzada",
+                    "XO./.X./O.X/X.OO.X/.O./X.O/O.X X C 7 7",
+                    new long[]{10, 88, 718, 5366, 39406, 296907}},
+            {"Movimiento",
+                    "X.O/XO./..O/X.OX.O/X.X/O.X/.X. X M 9 9",
+                    new long[]{12, 119, 1318, 11506, 119522, 1017776}},
+            {"Vuelo",
+                    "X../.O./.O./..O.../.X./..O/O.X X M 9 9",
+                    new long[]{48, 540, 25920, 283244, 13560960, 145118498}},
+            {"Doce - inicial",
+                    ".../.../.../....../.../.../... X C 0 0 doce",
+                    new long[]{24, 552, 12144, 255024, 5100480, 96052320}},
+            {"Doce - movimiento",
+                    "XOX/OXO/X.O/OX.XOX/OXO/.X./OXO X M 12 12 doce",
+                    new long[]{7, 47, 304, 2063, 14791, 98511}},
+            {"Doce - tablero lleno",
+                    "OXO/XOO/OXX/OOXOXX/.OX/OXX/XXO O C 12 11 doce",
+                    new long[]{1, 0, 0, 0, 0, 0}},
+            {"Seis - inicial",
+                    ".../.../.../....../.../.../... X C 0 0 seis",
+                    new long[]{16, 240, 3360, 43680, 524160, 5698368}},
+    };
+
+    /**
+     * Casos de reglas: nombre, notación y resultado esperado después de la
+     * única jugada legal (RegistroPartida.GANA_LADO_0, GANA_LADO_1 o TABLAS)
+     */
+    private static final Object[][] REGLAS = {
+            // 24 colocaciones sin molinos llenan el tablero: nadie puede moverse
+            {"Doce - tablero lleno al terminar la colocación",
+                    "OXO/XOO/OXX/OOXOXX/.OX/OXX/XXO O C 12 11 doce",
+                    RegistroPartida.TABLAS},
+    };
+
+    private static final int PROFUNDIDAD_POR_DEFECTO = 5;
+
+    public static void main(String[] args) {
+        int profundidad = args.length > 0 ? Integer.parseInt(args[0]) : PROFUNDIDAD_POR_DEFECTO;
+        int hilos = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        boolean verificar = args.length > 2 && args[2].equals("--verificar");
+
+        ForkJoinPool pool = new ForkJoinPool(hilos);
+        boolean todoCorrecto = true;
+
+        // Calentamiento: que el JIT compile ambos caminos antes de medir
+        long calentamiento = leer((String) POSICIONES[0][1]);
+        perft(calentamiento, 4, new int[4][Movimiento.MAX_MOVIMIENTOS]);
+        pool.invoke(new TareaRaiz(calentamiento, 4));
+
+        for (Object[] posicion : POSICIONES) {
+            String nombre = (String) posicion[0];
+            long estado = leer((String) posicion[1]);
+            long[] referencia = (long[]) posicion[2];
+
+            System.out.println("== " + nombre + " ==");
+            System.out.println(EstadoCompacto.dibujar(estado));
+
+            for (int p = 1; p <= profundidad; p++) {
+                // Fuera de la medición: el validador es mucho más lento que el generador
+                long verificados = verificar ? perftVerificado(estado, p) : 0;
+
+                long inicio = System.nanoTime();
+                long nodos = perft(estado, p, new int[p][Movimiento.MAX_MOVIMIENTOS]);
+                long tiempoSecuencial = System.nanoTime() - inicio;
+
+                inicio = System.nanoTime();
+                long nodosParalelo = pool.invoke(new TareaRaiz(estado, p));
+                long tiempoParalelo = System.nanoTime() - inicio;
+
+                String resultado;
+                if (verificar && nodos != verificados) {
+                    resultado = "VERIFICADO DIFERENTE (" + verificados + ")";
+                    todoCorrecto = false;
+                } else if (nodos != nodosParalelo) {
+                    resultado = "PARALELO DIFERENTE (" + nodosParalelo + ")";
+                    todoCorrecto = false;
+                } else if (p <= referencia.length) {
+                    boolean correcto = nodos == referencia[p - 1];
+                    resultado = correcto ? "OK" : "DIFERENTE (esperado " + referencia[p - 1] + ")";
+                    todoCorrecto &= correcto;
+                } else {
+                    resultado = "sin referencia";
+                }
+
+                System.out.printf("  profundidad %d: %,14d nodos | 1 hilo %,8.1f ms %,12.0f nps | %d hilos %,8.1f ms %,12.0f nps | %s%n",
+                        p, nodos,
+                        tiempoSecuencial / 1e6, nodosPorSegundo(nodos, tiempoSecuencial),
+                        hilos, tiempoParalelo / 1e6, nodosPorSegundo(nodos, tiempoParalelo),
+                        resultado);
+            }
+        }
+
+        pool.shutdown();
+        todoCorrecto &= verificarReglas();
+        System.out.println(todoCorrecto ? "Todos los conteos coinciden" : "HAY CONTEOS DIFERENTES");
+        if (!todoCorrecto) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * VERIFICAR CASOS DE REGLAS
+     * Aplica la única jugada legal de cada posición de REGLAS y compara el
+     * resultado de la partida con el esperado.
+     * @return true si todos los casos coinciden
+     */
+    private static boolean verificarReglas() {
+        boolean todoCorrecto = true;
+        int[] buffer = new int[Movimiento.MAX_MOVIMIENTOS];
+        for (Object[] caso : REGLAS) {
+            long estado = leer((String) caso[1]);
+            int esperado = (Integer) caso[2];
+            int cantidad = EstadoCompacto.generarMovimientos(estado, buffer);
+            long fin = cantidad == 1 ? EstadoCompacto.aplicar(estado, buffer[0]) : EstadoCompacto.ILEGAL;
+            boolean correcto = fin != EstadoCompacto.ILEGAL && EstadoCompacto.finalizado(fin)
+                    && EstadoCompacto.generarMovimientos(fin, buffer) == 0
+                    && (EstadoCompacto.tablas(fin) ? RegistroPartida.TABLAS : EstadoCompacto.ganador(fin)) == esperado;
+            System.out.println("== " + caso[0] + ": " + (correcto ? "OK" : "DIFERENTE") + " ==");
+            todoCorrecto &= correcto;
+        }
+        return todoCorrecto;
+    }
+
+    private static double nodosPorSegundo(long nodos, long nanos) {
+        return nanos == 0 ? 0 : nodos * 1e9 / nanos;
+    }
+
+    // ===================================================================
+    // CONTEO
+    // ===================================================================
+
+    /**
+     * PERFT SECUENCIAL
+     * @param estado Estado empaquetado
+     * @param profundidad Niveles restantes (mayor que 0)
+     * @param buffers Un buffer de movimientos por nivel, para no crear objetos
+     * @return Cantidad de hojas a esa profundidad
+     */
+    static long perft(long estado, int profundidad, int[][] buffers) {
+        int[] buffer = buffers[profundidad - 1];
+        int cantidad = EstadoCompacto.generarMovimientos(estado, buffer);
+        if (profundidad == 1) {
+            return cantidad;
+        }
+
+        long nodos = 0;
+        for (int i = 0; i < cantidad; i++) {
+            nodos += perft(EstadoCompacto.aplicar(estado, buffer[i]), profundidad - 1, buffers);
+        }
+        return nodos;
+    }
+
+    /**
+     * PERFT CON VERIFICACIÓN DEL GENERADOR
+     * Igual que perft() pero en cada nodo compara el generador con el validador.
+     * @throws IllegalStateException si el generador y el validador no coinciden
+     */
+    private static long perftVerificado(long estado, int profundidad) {
+        int[] buffer = new int[Movimiento.MAX_MOVIMIENTOS];
+        int cantidad = EstadoCompacto.generarMovimientos(estado, buffer);
+        int legales = contarPorValidacion(estado);
+        if (cantidad != legales) {
+            throw new IllegalStateException("Generador: " + cantidad + " jugadas, validador: " + legales
+                    + "\n" + EstadoCompacto.dibujar(estado));
+        }
+        if (profundidad == 1) {
+            return cantidad;
+        }
+
+        long nodos = 0;
+        for (int i = 0; i < cantidad; i++) {
+            nodos += perftVerificado(EstadoCompacto.aplicar(estado, buffer[i]), profundidad - 1);
+        }
+        return nodos;
+    }
+
+    private static int contarPorValidacion(long estado) {
+        int legales = 0;
+        for (int destino = 0; destino < Tablero.CANTIDAD_POSICIONES; destino++) {
+            if (EstadoCompacto.aplicar(estado, Movimiento.colocar(destino)) != EstadoCompacto.ILEGAL) {
+                legales++;
+            }
+            if (EstadoCompacto.aplicar(estado, Movimiento.eliminar(destino)) != EstadoCompacto.ILEGAL) {
+                legales++;
+            }
+            for (int origen = 0; origen < Tablero.CANTIDAD_POSICIONES; origen++) {
+                if (EstadoCompacto.aplicar(estado, Movimiento.mover(origen, destino)) != EstadoCompacto.ILEGAL) {
+                    legales++;
+                }
+            }
+        }
+        return legales;
+    }
+
+    /**
+     * TAREA DE LA RAÍZ
+     * Reparte las jugadas de la raíz: cada una se cuenta en su propia subtarea
+     * con sus propios buffers.
+     */
+    private static class TareaRaiz extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final long estado;
+        private final int profundidad;
+
+        TareaRaiz(long estado, int profundidad) {
+            this.estado = estado;
+            this.profundidad = profundidad;
+        }
+
+        @Override
+        protected Long compute() {
+            int[] buffer = new int[Movimiento.MAX_MOVIMIENTOS];
+            int cantidad = EstadoCompacto.generarMovimientos(estado, buffer);
+            if (profundidad == 1) {
+                return (long) cantidad;
+            }
+
+            Subarbol[] subarboles = new Subarbol[cantidad];
+            for (int i = 0; i < cantidad; i++) {
+                subarboles[i] = new Subarbol(EstadoCompacto.aplicar(estado, buffer[i]), profundidad - 1);
+                subarboles[i].fork();
+            }
+
+            long nodos = 0;
+            for (Subarbol subarbol : subarboles) {
+                nodos += subarbol.join();
+            }
+            return nodos;
+        }
+    }
+
+    private static class Subarbol extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final long estado;
+        private final int profundidad;
+
+        Subarbol(long estado, int profundidad) {
+            this.estado = estado;
+            this.profundidad = profundidad;
+        }
+
+        @Override
+        protected Long compute() {
+            return perft(estado, profundidad, new int[profundidad][Movimiento.MAX_MOVIMIENTOS]);
+        }
+    }
+
+    // ===================================================================
+    // NOTACIÓN
+    // ===================================================================
+
+    /**
+     * LEER UNA POSICIÓN
+     * @param notacion Posición en la notación descripta en la documentación de la clase
+     * @return Estado empaquetado
+     * @throws IllegalArgumentException si la notación no es válida
+     */
+    static long leer(String notacion) {
+        String[] partes = notacion.trim().split("\\s+");
+        if (partes.length < 5) {
+            throw new IllegalArgumentException("Posición incompleta: " + notacion);
+        }
+
+        String puntos = partes[0].replace("/", "");
+        if (puntos.length() != Tablero.CANTIDAD_POSICIONES) {
+            throw new IllegalArgumentException("Se esperaban 24 puntos: " + partes[0]);
+        }
+
+        int mascara0 = 0;
+        int mascara1 = 0;
+        for (int i = 0; i < puntos.length(); i++) {
+            switch (puntos.charAt(i)) {
+                case 'X' -> mascara0 |= 1 << i;
+                case 'O' -> mascara1 |= 1 << i;
+                case '.' -> { }
+                default -> throw new IllegalArgumentException("Punto inválido: " + puntos.charAt(i));
+            }
+        }
+
+        boolean esperandoEliminar = false;
+        Topologia topologia = Topologia.ESTANDAR;
+        for (int i = 5; i < partes.length; i++) {
+            if (partes[i].equals("E")) {
+                esperandoEliminar = true;
+            } else {
+                topologia = Topologia.porNombre(partes[i]);
+                if (topologia == null) {
+                    throw new IllegalArgumentException("Variante desconocida: " + partes[i]);
+                }
+            }
+        }
+
+        long estado = EstadoCompacto.componer(topologia, mascara0, mascara1,
+                partes[1].equals("O") ? 1 : 0,
+                partes[2].equals("M") ? FaseJuego.MOVIMIENTO : FaseJuego.COLOCACION,
+                esperandoEliminar,
+                Integer.parseInt(partes[3]), Integer.parseInt(partes[4]));
+        if (estado == EstadoCompacto.ILEGAL) {
+            throw new IllegalArgumentException("Posición inválida: " + notacion);
+        }
+        return estado;
+    }
+}
@@ -0,0 +1,120 @@
+package model.clases;
+
+/**
+ * CODIGO POSICION - Codificación compacta de las posiciones del tablero
+ *
+ * Cada una de las 24 posiciones tiene un código canónico 0-23 que coincide con
+ * su índice de bit en las máscaras de Tablero:
+ *
+ *    0--------1--------2          A1-------D1-------G1
+ *    |  3-----4-----5  |          |  B2----D2----F2  |
+ *    |  |  6--7--8  |  |          |  |  C3-D3-E3  |  |
+ *    9-10-11    12-13-14          A4-B4-C4   E4-F4-G4
+ *    |  | 15-16-17  |  |          |  |  C5-D5-E5  |  |
+ *    | 18----19----20  |          |  B6----D6----F6  |
+ *   21-------22-------23          A7-------D7-------G7
+ *
+ * El código viaja como byte por RMI y se usa internamente en lugar de los IDs
+ * de texto ("A1".."G7"). La conversión en ambos sentidos es una consulta a una
+ * tabla, sin hashing ni creación de objetos.
+ *
+ * RELACIONES: Usado por Tablero, Partida, Modelo y Controller para convertir IDs.
+ */
+public final class CodigoPosicion {
+
+    /**
+     * Código que representa una posición inexistente o un ID mal formado
+     */
+    public static final byte INVALIDA = -1;
+
+    /**
+     * Cantidad de posiciones codificables (0-23)
+     */
+    public static final int CANTIDAD = 24;
+
+    /**
+     * IDs ordenados por código: IDS[codigo] es el texto de la posición
+     */
+    private static final String[] IDS = {
+            "A1", "D1", "G1",
+            "B2", "D2", "F2",
+            "C3", "D3", "E3",
+            "A4", "B4", "C4", "E4", "F4", "G4",
+            "C5", "D5", "E5",
+            "B6", "D6", "F6",
+            "A7", "D7", "G7"
+    };
+
+    /**
+     * Tabla de decodificación indexada por (columna - 'A') * 7 + (fila - '1').
+     * Las 25 celdas de la grilla 7x7 que no son posiciones valen INVALIDA.
+     */
+    private static final byte[] CODIGOS = new byte[7 * 7];
+
+    static {
+        java.util.Arrays.fill(CODIGOS, INVALIDA);
+        for (int codigo = 0; codigo < IDS.length; codigo++) {
+            String id = IDS[codigo];
+            CODIGOS[(id.charAt(0) - 'A') * 7 + (id.charAt(1) - '1')] = (byte) codigo;
+        }
+    }
+
+    private CodigoPosicion() {
+    }
+
+    /**
+     * DECODIFICAR UN ID
+     * @param id ID de la posición (ej: "A1", "D3")
+     * @return Código 0-23, o INVALIDA si el texto no es una posición del tablero
+     * RELACIONES: Llamado por Tablero, Partida y Controller para adaptar las variantes String
+     */
+    public static byte parse(String id) {
+        if (id == null || id.length() != 2) {
+            return INVALIDA;
+        }
+        int columna = id.charAt(0) - 'A';
+        int fila = id.charAt(1) - '1';
+        if (columna < 0 || columna >= 7 || fila < 0 || fila >= 7) {
+            return INVALIDA;
+        }
+        return CODIGOS[columna * 7 + fila];
+    }
+
+    /**
+     * CODIFICAR A TEXTO
+     * @param codigo Código 0-23
+     * @return ID de la posición (ej: "A1"); siempre la misma instancia de String
+     * @throws IllegalArgumentException si el código no es válido
+     */
+    public static String formato(int codigo) {
+        if (!esValido(codigo)) {
+            throw new IllegalArgumentException("Código de posición inválido: " + codigo);
+        }
+        return IDS[codigo];
+    }
+
+    /**
+     * @param codigo Código 0-23
+     * @return Columna de la posición en la grilla 7x7 (0 = A ... 6 = G)
+     * RELACIONES: Usado por PanelTablero y Simetria para ubicar cada posición
+     */
+    public static int columna(int codigo) {
+        return formato(codigo).charAt(0) - 'A';
+    }
+
+    /**
+     * @param codigo Código 0-23
+     * @return Fila de la posición en la grilla 7x7 (0 = fila 1 ... 6 = fila 7)
+     */
+    public static int fila(int codigo) {
+        return formato(codigo).charAt(1) - '1';
+    }
+
+    /**
+     * @param codigo Código a verificar
+     * @return true si el código corresponde a una de las 24 posiciones
+     */
+    public static boolean esValido(int codigo) {
+        return codigo >= 0 && codigo < CANTIDAD;
+    }
+}
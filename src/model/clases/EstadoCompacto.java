@@ -0,0 +1,610 @@
+package model.clases;
+
+import model.enums.FaseJuego;
+import java.io.Serializable;
+
+/**
+ * ============================================================================
+ * ESTADO COMPACTO - ESTADO COMPLETO DE UNA PARTIDA EN UN LONG
+ * ============================================================================
+ *
+ * Representa todo lo que las reglas necesitan saber de una partida en 64 bits,
+ * sin referencias a jugadores ni objetos mutables. Copiar una posición es copiar
+ * un long, así que sirve para búsqueda, instantáneas, registros de partidas y
+ * envío por red.
+ *
+ * FORMATO (bits):
+ *
+ *   0-23   Máscara de piezas del lado 0 (primer jugador, 'X')
+ *   24-47  Máscara de piezas del lado 1 (segundo jugador, 'O')
+ *   48     Turno: 0 = mueve el lado 0, 1 = mueve el lado 1
+ *   49     Fase: 0 = COLOCACION, 1 = MOVIMIENTO
+ *   50     Esperando eliminar (se formó un molino y falta eliminar una pieza)
+ *   51     Finalizado (el ganador es el lado que tiene el turno; junto con el
+ *          bit 50, que en un estado finalizado no se usa, la partida terminó
+ *          en tablas)
+ *   52-55  Piezas colocadas por el lado 0
+ *   56-59  Piezas colocadas por el lado 1
+ *   60-63  Id de la variante del tablero (ver Topologia; 0 = estándar)
+ *
+ * Las piezas en tablero de cada lado son el bitCount de su máscara. La variante
+ * viaja en el propio estado, así que todas las operaciones consultan las tablas
+ * de su Topologia (adyacencias, molinos, piezas por jugador) sin ramas por variante.
+ *
+ * OPERACIONES:
+ *
+ * - aplicar(estado, movimiento): valida y aplica un movimiento (ver Movimiento);
+ *   devuelve ILEGAL si no es válido
+ * - deshacer(estado, movimiento): operación inversa, sin guardar nada más que el
+ *   movimiento. Como el estado es un valor, también alcanza con conservar el long
+ *   anterior; deshacer() existe para quien recorre una secuencia de jugadas
+ * - generarMovimientos(estado, buffer): todas las acciones legales, sin crear objetos
+ *
+ * Las reglas son exactamente las de Partida (que es un envoltorio de este estado):
+ * - Al formar molino se espera una eliminación antes de cambiar el turno
+ * - No se eliminan piezas en molino salvo que todas estén en molino
+ * - Se gana al dejar al rival con 2 piezas (si ya colocó todas) o, en fase de
+ *   movimiento, sin movimientos; ambas condiciones se verifican tras eliminar
+ * - Con exactamente 3 piezas se puede volar
+ * - Si la colocación termina con el tablero lleno (posible en la variante de
+ *   doce piezas: 24 colocaciones sin molinos) la partida termina en tablas
+ *
+ * Como en Partida, el bloqueo solo se verifica después de eliminar: un lado que
+ * queda sin movimientos por una jugada sin molino (o al terminar la colocación)
+ * tiene 0 movimientos legales en un estado no finalizado. Quien explore el árbol
+ * (bots, perft) trata ese caso como derrota del lado con turno.
+ *
+ * La forma de valor inmutable (instancias de esta clase) envuelve el mismo long
+ * para quien prefiera trabajar con objetos; los caminos críticos usan los
+ * métodos estáticos sobre long.
+ *
+ * RELACIONES: Usa las tablas compiladas de Topologia (adyacencias, molinos, generadores).
+ */
+public final class EstadoCompacto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Estado inicial del tablero estándar: tablero vacío, mueve el lado 0, fase de colocación
+     */
+    public static final long INICIAL = 0L;
+
+    /**
+     * Valor devuelto por las operaciones cuando el movimiento no es legal
+     */
+    public static final long ILEGAL = -1L;
+
+    private static final int BITS_MASCARA = 24;
+    private static final long MASCARA_LADO = Tablero.TODAS_LAS_POSICIONES;
+    private static final long TURNO = 1L << 48;
+    private static final long FASE_MOVIMIENTO = 1L << 49;
+    private static final long ESPERANDO_ELIMINAR = 1L << 50;
+    private static final long FINALIZADO = 1L << 51;
+    private static final long TABLAS = FINALIZADO | ESPERANDO_ELIMINAR;
+    private static final int DESPLAZAMIENTO_COLOCADAS = 52;
+    private static final int DESPLAZAMIENTO_VARIANTE = 60;
+    private static final long UNA_COLOCADA_LADO_0 = 1L << DESPLAZAMIENTO_COLOCADAS;
+
+    private static final int PIEZAS_MINIMAS_PARA_PERDER = 2;
+
+    /**
+     * Estado empaquetado de esta instancia
+     */
+    private final long bits;
+
+    /**
+     * CONSTRUCTOR
+     * @param bits Estado empaquetado (ver formato en la documentación de la clase)
+     */
+    public EstadoCompacto(long bits) {
+        this.bits = bits;
+    }
+
+    // ===================================================================
+    // FORMA DE VALOR (INSTANCIAS)
+    // ===================================================================
+
+    /** @return Estado empaquetado */
+    public long getBits() {
+        return bits;
+    }
+
+    /**
+     * @param movimiento Movimiento empaquetado
+     * @return Nuevo estado con el movimiento aplicado, o null si no es legal
+     */
+    public EstadoCompacto aplicar(int movimiento) {
+        long siguiente = aplicar(bits, movimiento);
+        return siguiente == ILEGAL ? null : new EstadoCompacto(siguiente);
+    }
+
+    /**
+     * @param movimiento Último movimiento aplicado para llegar a este estado
+     * @return Estado anterior
+     */
+    public EstadoCompacto deshacer(int movimiento) {
+        return new EstadoCompacto(deshacer(bits, movimiento));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof EstadoCompacto otro && otro.bits == bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+        return dibujar(bits);
+    }
+
+    // ===================================================================
+    // CONSULTAS SOBRE LONG
+    // ===================================================================
+
+    /**
+     * ESTADO INICIAL DE UNA VARIANTE
+     * @param topologia Variante del tablero
+     * @return Tablero vacío, mueve el lado 0, fase de colocación
+     */
+    public static long inicial(Topologia topologia) {
+        return (long) topologia.getId() << DESPLAZAMIENTO_VARIANTE;
+    }
+
+    /**
+     * COMPONER UN ESTADO
+     *
+     * Arma un estado a partir de sus componentes, sin validar que sea alcanzable
+     * (posiciones de prueba, bases de finales).
+     *
+     * @param mascara0 Piezas del lado 0
+     * @param mascara1 Piezas del lado 1 (sin posiciones en común con mascara0)
+     * @param turno Lado que tiene el turno (0 o 1)
+     * @param fase COLOCACION o MOVIMIENTO
+     * @param esperandoEliminar true si el lado con turno debe eliminar
+     * @param colocadas0 Piezas colocadas por el lado 0 (0-9)
+     * @param colocadas1 Piezas colocadas por el lado 1 (0-9)
+     * @return Estado empaquetado del tablero estándar, o ILEGAL si algún componente está fuera de rango
+     */
+    public static long componer(int mascara0, int mascara1, int turno, FaseJuego fase,
+                                boolean esperandoEliminar, int colocadas0, int colocadas1) {
+        return componer(Topologia.ESTANDAR, mascara0, mascara1, turno, fase, esperandoEliminar, colocadas0, colocadas1);
+    }
+
+    /**
+     * COMPONER UN ESTADO DE UNA VARIANTE
+     * Igual que componer() pero para cualquier Topologia: las máscaras deben
+     * usar solo puntos de ese tablero y las colocadas no pasar de sus piezas por jugador.
+     * @return Estado empaquetado, o ILEGAL si algún componente está fuera de rango
+     */
+    public static long componer(Topologia topologia, int mascara0, int mascara1, int turno, FaseJuego fase,
+                                boolean esperandoEliminar, int colocadas0, int colocadas1) {
+        int piezas = topologia.getPiezasPorJugador();
+        if (((mascara0 | mascara1) & ~topologia.getPuntos()) != 0 || (mascara0 & mascara1) != 0
+                || (turno & ~1) != 0 || colocadas0 < 0 || colocadas0 > piezas
+                || colocadas1 < 0 || colocadas1 > piezas) {
+            return ILEGAL;
+        }
+
+        long estado = inicial(topologia) | ((long) mascara1 << BITS_MASCARA) | mascara0;
+        estado |= (long) turno << 48;
+        if (fase == FaseJuego.MOVIMIENTO) {
+            estado |= FASE_MOVIMIENTO;
+        }
+        if (esperandoEliminar) {
+            estado |= ESPERANDO_ELIMINAR;
+        }
+        return estado | ((long) colocadas0 << DESPLAZAMIENTO_COLOCADAS) | ((long) colocadas1 << (DESPLAZAMIENTO_COLOCADAS + 4));
+    }
+
+    /** @return Máscara de piezas del lado (0 o 1) */
+    public static int mascara(long estado, int lado) {
+        return (int) ((estado >>> (BITS_MASCARA * lado)) & MASCARA_LADO);
+    }
+
+    /** @return Máscara de posiciones libres */
+    public static int libres(long estado) {
+        return ~(mascara(estado, 0) | mascara(estado, 1)) & Topologia.de(estado).getPuntos();
+    }
+
+    /** @return Lado que tiene el turno (0 o 1) */
+    public static int turno(long estado) {
+        return (int) (estado >>> 48) & 1;
+    }
+
+    /** @return Fase actual (COLOCACION o MOVIMIENTO) */
+    public static FaseJuego fase(long estado) {
+        return (estado & FASE_MOVIMIENTO) == 0 ? FaseJuego.COLOCACION : FaseJuego.MOVIMIENTO;
+    }
+
+    /** @return true si la partida está en fase de colocación */
+    public static boolean enColocacion(long estado) {
+        return (estado & FASE_MOVIMIENTO) == 0;
+    }
+
+    /** @return true si el lado con turno debe eliminar una pieza rival */
+    public static boolean esperandoEliminar(long estado) {
+        return (estado & TABLAS) == ESPERANDO_ELIMINAR;
+    }
+
+    /** @return true si la partida terminó */
+    public static boolean finalizado(long estado) {
+        return (estado & FINALIZADO) != 0;
+    }
+
+    /** @return true si la partida terminó en tablas */
+    public static boolean tablas(long estado) {
+        return (estado & TABLAS) == TABLAS;
+    }
+
+    /** @return Lado ganador (0 o 1), o -1 si la partida no terminó o terminó en tablas */
+    public static int ganador(long estado) {
+        return (estado & TABLAS) == FINALIZADO ? turno(estado) : -1;
+    }
+
+    /** @return Piezas colocadas por el lado (0-9) */
+    public static int colocadas(long estado, int lado) {
+        return (int) (estado >>> (DESPLAZAMIENTO_COLOCADAS + 4 * lado)) & 0xF;
+    }
+
+    /** @return Piezas del lado en el tablero */
+    public static int piezas(long estado, int lado) {
+        return Integer.bitCount(mascara(estado, lado));
+    }
+
+    /** @return Variante del tablero del estado */
+    public static Topologia topologia(long estado) {
+        return Topologia.de(estado);
+    }
+
+    /**
+     * VERIFICAR SI UN LADO PUEDE MOVERSE
+     *
+     * O(1): con 3 piezas alcanza con que haya una posición libre; si no, alguna
+     * pieza propia tiene que ser vecina de una posición libre (unión de
+     * adyacencias por tabla, ver Topologia.vecinos()). Reemplaza a los
+     * contadores de movilidad de Tablero; herramientas.BenchmarkMovilidad lo
+     * mide contra el recorrido original.
+     *
+     * @param estado Estado empaquetado
+     * @param lado Lado a verificar
+     * @return true si el lado tiene al menos un movimiento (fase de movimiento)
+     */
+    public static boolean puedeMoverse(long estado, int lado) {
+        int propias = mascara(estado, lado);
+        int libres = libres(estado);
+        if (Integer.bitCount(propias) == Tablero.PIEZAS_PARA_VUELO) {
+            return libres != 0;
+        }
+        return (Topologia.de(estado).vecinos(libres) & propias) != 0;
+    }
+
+    // ===================================================================
+    // GENERACIÓN DE MOVIMIENTOS
+    // ===================================================================
+
+    /**
+     * DECLARAR BLOQUEADO AL LADO CON TURNO
+     *
+     * Cierra como derrota del lado con turno un estado sin movimientos legales
+     * (el bloqueo que las reglas no verifican fuera de eliminar(), ver arriba).
+     *
+     * @param estado Estado empaquetado
+     * @return Estado finalizado con el rival como ganador, o ILEGAL si el lado
+     *         con turno tiene movimientos o la partida ya terminó
+     */
+    public static long declararBloqueado(long estado) {
+        if (finalizado(estado) || generarMovimientos(estado, new int[Movimiento.MAX_MOVIMIENTOS]) > 0) {
+            return ILEGAL;
+        }
+        return (estado ^ TURNO) | FINALIZADO;
+    }
+
+    /**
+     * GENERAR MOVIMIENTOS LEGALES
+     *
+     * Según el estado genera eliminaciones (si se espera eliminar), colocaciones
+     * (fase de colocación) o movimientos (deslizamientos o vuelos). Las
+     * eliminaciones generadas en fase de colocación llevan la bandera
+     * Movimiento.EN_COLOCACION, que necesita deshacer().
+     *
+     * @param estado Estado empaquetado
+     * @param buffer Destino (con Movimiento.MAX_MOVIMIENTOS alcanza siempre)
+     * @return Cantidad de movimientos escritos en buffer[0..n)
+     */
+    public static int generarMovimientos(long estado, int[] buffer) {
+        if (finalizado(estado)) {
+            return 0;
+        }
+
+        int lado = turno(estado);
+        if (esperandoEliminar(estado)) {
+            int n = Topologia.de(estado).generarCapturas(mascara(estado, 1 - lado), buffer);
+            if (enColocacion(estado)) {
+                for (int i = 0; i < n; i++) {
+                    buffer[i] |= Movimiento.EN_COLOCACION;
+                }
+            }
+            return n;
+        }
+
+        int propias = mascara(estado, lado);
+        boolean puedeVolar = Integer.bitCount(propias) == Tablero.PIEZAS_PARA_VUELO;
+        return Topologia.de(estado).generarMovimientos(propias, enColocacion(estado), puedeVolar, libres(estado), buffer);
+    }
+
+    // ===================================================================
+    // APLICAR Y DESHACER
+    // ===================================================================
+
+    /**
+     * APLICAR UN MOVIMIENTO
+     * @param estado Estado empaquetado
+     * @param movimiento Movimiento empaquetado (ver Movimiento)
+     * @return Estado siguiente, o ILEGAL si el movimiento no es válido en este estado
+     */
+    public static long aplicar(long estado, int movimiento) {
+        int destino = Movimiento.destino(movimiento);
+        switch (Movimiento.tipo(movimiento)) {
+            case Movimiento.COLOCAR:
+                return colocar(estado, destino);
+            case Movimiento.MOVER:
+                return mover(estado, Movimiento.origen(movimiento), destino);
+            case Movimiento.ELIMINAR:
+                return eliminar(estado, destino);
+            default:
+                return ILEGAL;
+        }
+    }
+
+    /**
+     * COLOCAR UNA PIEZA DEL LADO CON TURNO
+     * @return Estado siguiente, o ILEGAL
+     */
+    public static long colocar(long estado, int destino) {
+        if ((estado & (FASE_MOVIMIENTO | ESPERANDO_ELIMINAR | FINALIZADO)) != 0
+                || !CodigoPosicion.esValido(destino) || (libres(estado) & (1 << destino)) == 0) {
+            return ILEGAL;
+        }
+
+        int lado = turno(estado);
+        estado |= 1L << (destino + BITS_MASCARA * lado);
+        estado += UNA_COLOCADA_LADO_0 << (4 * lado);
+        return despuesDeAccion(estado, lado, destino);
+    }
+
+    /**
+     * MOVER UNA PIEZA DEL LADO CON TURNO (deslizamiento o vuelo)
+     * @return Estado siguiente, o ILEGAL
+     */
+    public static long mover(long estado, int origen, int destino) {
+        if ((estado & (ESPERANDO_ELIMINAR | FINALIZADO)) != 0 || enColocacion(estado)
+                || !CodigoPosicion.esValido(origen) || !CodigoPosicion.esValido(destino)) {
+            return ILEGAL;
+        }
+
+        int lado = turno(estado);
+        int propias = mascara(estado, lado);
+        if ((propias & (1 << origen)) == 0 || (libres(estado) & (1 << destino)) == 0) {
+            return ILEGAL;
+        }
+
+        boolean puedeVolar = Integer.bitCount(propias) == Tablero.PIEZAS_PARA_VUELO;
+        if (!puedeVolar && (Topologia.de(estado).adyacentesDe(origen) & (1 << destino)) == 0) {
+            return ILEGAL;
+        }
+
+        int desplazamiento = BITS_MASCARA * lado;
+        estado ^= (1L << (origen + desplazamiento)) | (1L << (destino + desplazamiento));
+        return despuesDeAccion(estado, lado, destino);
+    }
+
+    /**
+     * ELIMINAR UNA PIEZA DEL RIVAL (tras formar molino)
+     *
+     * Después de eliminar verifica las condiciones de victoria; si no hay
+     * ganador cambia el turno y actualiza la fase.
+     *
+     * @return Estado siguiente, o ILEGAL
+     */
+    public static long eliminar(long estado, int posicion) {
+        if (!esperandoEliminar(estado) || finalizado(estado) || !CodigoPosicion.esValido(posicion)) {
+            return ILEGAL;
+        }
+
+        int lado = turno(estado);
+        int rival = 1 - lado;
+        int victima = mascara(estado, rival);
+        if ((victima & (1 << posicion)) == 0) {
+            return ILEGAL;
+        }
+
+        // No se puede eliminar una pieza en molino, salvo que todas estén en molino
+        Topologia topologia = Topologia.de(estado);
+        if (topologia.formaMolino(posicion, victima) && (victima & ~topologia.piezasEnMolino(victima)) != 0) {
+            return ILEGAL;
+        }
+
+        estado &= ~((1L << (posicion + BITS_MASCARA * rival)) | ESPERANDO_ELIMINAR);
+
+        boolean sinPiezas = piezas(estado, rival) <= PIEZAS_MINIMAS_PARA_PERDER
+                && colocadas(estado, rival) == topologia.getPiezasPorJugador();
+        boolean bloqueado = !enColocacion(estado) && !puedeMoverse(estado, rival);
+        if (sinPiezas || bloqueado) {
+            return estado | FINALIZADO;
+        }
+
+        return actualizarFase(estado ^ TURNO);
+    }
+
+    /**
+     * Tras colocar o mover: si se formó molino se espera eliminar; si no, cambia
+     * el turno y se actualiza la fase.
+     */
+    private static long despuesDeAccion(long estado, int lado, int destino) {
+        if (Topologia.de(estado).formaMolino(destino, mascara(estado, lado))) {
+            return estado | ESPERANDO_ELIMINAR;
+        }
+        return actualizarFase(estado ^ TURNO);
+    }
+
+    /**
+     * Pasa de COLOCACION a MOVIMIENTO cuando ambos lados colocaron todas sus
+     * piezas. Si el tablero quedó lleno nadie puede moverse: tablas.
+     */
+    private static long actualizarFase(long estado) {
+        int piezas = Topologia.de(estado).getPiezasPorJugador();
+        if (enColocacion(estado) && colocadas(estado, 0) == piezas && colocadas(estado, 1) == piezas) {
+            return libres(estado) == 0 ? estado | FASE_MOVIMIENTO | TABLAS : estado | FASE_MOVIMIENTO;
+        }
+        return estado;
+    }
+
+    /**
+     * DESHACER UN MOVIMIENTO
+     *
+     * Reconstruye el estado anterior a partir del estado posterior y del
+     * movimiento aplicado (tal como lo devolvió generarMovimientos()):
+     * - Colocar / mover: quien movió es el dueño de la pieza en el destino
+     * - Eliminar: quien eliminó conserva el turno si la partida terminó; si no,
+     *   el turno ya pasó al rival. La fase anterior la indica la bandera
+     *   Movimiento.EN_COLOCACION
+     *
+     * @param estado Estado posterior al movimiento
+     * @param movimiento Movimiento que se aplicó
+     * @return Estado anterior
+     */
+    public static long deshacer(long estado, int movimiento) {
+        int destino = Movimiento.destino(movimiento);
+        long sinBanderas = estado & ~(TURNO | ESPERANDO_ELIMINAR | FINALIZADO);
+
+        switch (Movimiento.tipo(movimiento)) {
+            case Movimiento.COLOCAR: {
+                int lado = (mascara(estado, 0) & (1 << destino)) != 0 ? 0 : 1;
+                long anterior = sinBanderas & ~FASE_MOVIMIENTO;
+                anterior &= ~(1L << (destino + BITS_MASCARA * lado));
+                anterior -= UNA_COLOCADA_LADO_0 << (4 * lado);
+                return anterior | ((long) lado << 48);
+            }
+            case Movimiento.MOVER: {
+                int lado = (mascara(estado, 0) & (1 << destino)) != 0 ? 0 : 1;
+                int desplazamiento = BITS_MASCARA * lado;
+                long anterior = sinBanderas
+                        ^ ((1L << (Movimiento.origen(movimiento) + desplazamiento)) | (1L << (destino + desplazamiento)));
+                return anterior | ((long) lado << 48);
+            }
+            default: {
+                int lado = finalizado(estado) ? turno(estado) : 1 - turno(estado);
+                long anterior = sinBanderas | (1L << (destino + BITS_MASCARA * (1 - lado))) | ESPERANDO_ELIMINAR;
+                if (Movimiento.enColocacion(movimiento)) {
+                    anterior &= ~FASE_MOVIMIENTO;
+                }
+                return anterior | ((long) lado << 48);
+            }
+        }
+    }
+
+    // ===================================================================
+    // CLAVE ZOBRIST
+    // ===================================================================
+
+    /**
+     * CLAVE ZOBRIST DE UN ESTADO
+     * Calcula desde cero la clave de la posición (ver Zobrist).
+     * @param estado Estado empaquetado
+     * @return Clave de 64 bits
+     */
+    public static long clave(long estado) {
+        long clave = Zobrist.piezas(0, mascara(estado, 0)) ^ Zobrist.piezas(1, mascara(estado, 1))
+                ^ Zobrist.colocadas(0, colocadas(estado, 0)) ^ Zobrist.colocadas(1, colocadas(estado, 1));
+        return clave ^ banderas(estado);
+    }
+
+    /**
+     * ACTUALIZAR CLAVE ZOBRIST
+     *
+     * Versión incremental de clave(): solo recorre los bits que cambiaron entre
+     * los dos estados (1 o 2 piezas en una jugada).
+     *
+     * @param clave Clave del estado anterior
+     * @param anterior Estado anterior
+     * @param siguiente Estado siguiente
+     * @return Clave del estado siguiente
+     */
+    public static long actualizarClave(long clave, long anterior, long siguiente) {
+        for (int lado = 0; lado < 2; lado++) {
+            clave ^= Zobrist.piezas(lado, mascara(anterior, lado) ^ mascara(siguiente, lado));
+            int antes = colocadas(anterior, lado);
+            int despues = colocadas(siguiente, lado);
+            if (antes != despues) {
+                clave ^= Zobrist.colocadas(lado, antes) ^ Zobrist.colocadas(lado, despues);
+            }
+        }
+        return clave ^ banderas(anterior) ^ banderas(siguiente);
+    }
+
+    /**
+     * Componentes Zobrist de variante, turno, fase y eliminación pendiente.
+     */
+    private static long banderas(long estado) {
+        long clave = Zobrist.variante((int) (estado >>> DESPLAZAMIENTO_VARIANTE));
+        if ((estado & TURNO) != 0) {
+            clave ^= Zobrist.TURNO;
+        }
+        if ((estado & FASE_MOVIMIENTO) != 0) {
+            clave ^= Zobrist.FASE_MOVIMIENTO;
+        }
+        if ((estado & ESPERANDO_ELIMINAR) != 0) {
+            clave ^= Zobrist.ESPERANDO_ELIMINAR;
+        }
+        return clave;
+    }
+
+    // ===================================================================
+    // REPRESENTACIÓN EN TEXTO
+    // ===================================================================
+
+    /**
+     * DIBUJAR EL ESTADO
+     * @param estado Estado empaquetado
+     * @return Tablero en texto con 'X' (lado 0), 'O' (lado 1) y '.' (libre), más turno y fase
+     *         (las líneas se dibujan siempre como en el tablero estándar)
+     */
+    public static String dibujar(long estado) {
+        String plantilla =
+                "a--------b--------c\n" +
+                "|  d-----e-----f  |\n" +
+                "|  |  g--h--i  |  |\n" +
+                "j--k--l     m--n--o\n" +
+                "|  |  p--q--r  |  |\n" +
+                "|  s-----t-----u  |\n" +
+                "v--------w--------x\n";
+        StringBuilder sb = new StringBuilder(plantilla.length() + 64);
+        for (int i = 0; i < plantilla.length(); i++) {
+            char c = plantilla.charAt(i);
+            if (c >= 'a' && c <= 'x') {
+                int bit = 1 << (c - 'a');
+                c = (mascara(estado, 0) & bit) != 0 ? 'X' : (mascara(estado, 1) & bit) != 0 ? 'O'
+                        : (Topologia.de(estado).getPuntos() & bit) != 0 ? '.' : ' ';
+            }
+            sb.append(c);
+        }
+        if (Topologia.de(estado) != Topologia.ESTANDAR) {
+            sb.append("Variante: ").append(Topologia.de(estado).getNombre()).append(" - ");
+        }
+        sb.append("Turno: ").append(turno(estado) == 0 ? 'X' : 'O')
+                .append(" - Fase: ").append(fase(estado))
+                .append(" - Colocadas: ").append(colocadas(estado, 0)).append('/').append(colocadas(estado, 1));
+        if (esperandoEliminar(estado)) {
+            sb.append(" - Esperando eliminar");
+        }
+        if (tablas(estado)) {
+            sb.append(" - Tablas");
+        } else if (finalizado(estado)) {
+            sb.append(" - Ganador: ").append(ganador(estado) == 0 ? 'X' : 'O');
+        }
+        return sb.toString();
+    }
+}
@@ -153,7 +153,7 @@ public class Jugador implements IJugador, Serializable {
      * IMPORTANTE: Solo se usa durante la fase de colocación.
      *
      * RELACIONES CON OTRAS FUNCIONES:
-     * - Es llamado por Tablero.colocarPieza() cuando se coloca una pieza
+     * - Es llamado por Partida.colocarPieza() cuando se coloca una pieza
      */
     @Override
     public void incrementarPiezasColocadas() {
@@ -168,7 +168,7 @@ public class Jugador implements IJugador, Serializable {
      * NO decrementa piezasColocadas.
      *
      * RELACIONES CON OTRAS FUNCIONES:
-     * - Es llamado por Tablero.eliminarPieza() cuando se elimina una pieza
+     * - Es llamado por Partida.eliminarPiezaOponente() cuando se elimina una pieza
      */
     @Override
     public void decrementarPiezasEnTablero() {
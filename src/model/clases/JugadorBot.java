@@ -0,0 +1,434 @@
+package model.clases;
+
+import motor.BaseFinales;
+import motor.BuscadorAlfaBeta;
+import motor.BuscadorMCTS;
+import motor.BusquedaParalela;
+import motor.EvaluacionManual;
+import motor.Evaluador;
+import motor.FinalesVuelo;
+import motor.LibroAperturas;
+import motor.Reflexion;
+import motor.TablaTransposicion;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ============================================================================
+ * JUGADOR BOT - OPONENTE CONTROLADO POR EL SERVIDOR
+ * ============================================================================
+ *
+ * Jugador que ocupa un asiento de la partida igual que un Jugador humano
+ * (nombre, símbolo y contadores de piezas), pero cuyas jugadas las calcula el
+ * servidor con una búsqueda alfa-beta en lugar de llegar de un cliente.
+ *
+ * FLUJO:
+ * - Modelo.buscarPartida(nombre, true) sienta al bot como segundo jugador
+ * - Cada vez que le toca, Modelo programa el turno en su PlanificadorBots,
+ *   que llama a elegirMovimiento() en su pool (nunca en el hilo de la
+ *   llamada RMI) con el presupuesto de la jugada
+ * - La búsqueda profundiza iterativamente hasta agotar el tiempo por jugada,
+ *   contado desde que se programó el turno: la espera en la cola del pool
+ *   descuenta del presupuesto, así la demora de respuesta queda acotada aun
+ *   con muchas partidas contra bots a la vez
+ * - La jugada elegida se aplica por los mismos caminos que la de un humano
+ *   (Modelo.aplicarYNotificar()), así que los clientes reciben los eventos
+ *   de siempre
+ *
+ * TABLA DE TRANSPOSICIÓN COMPARTIDA:
+ * Todos los bots del servidor comparten una TablaTransposicion sin bloqueos.
+ * Su tamaño se fija con la propiedad del sistema molino.tabla.mb (megabytes,
+ * 64 por defecto) y se reserva recién en la primera búsqueda, así que los
+ * clientes que solo deserializan un JugadorBot no la crean. Su generación
+ * avanza al empezar la búsqueda de cada jugada de un bot (elegirMovimiento()),
+ * no con cada búsqueda: la reflexión, las sugerencias y las partidas entre
+ * humanos no envejecen las entradas de las otras partidas.
+ *
+ * HILOS POR JUGADA:
+ * Por defecto cada jugada usa un solo hilo (el servidor atiende muchas
+ * partidas a la vez). Con la propiedad molino.bot.hilos > 1 cada jugada usa
+ * una BusquedaParalela (Lazy SMP) con esa cantidad de hilos, cuyos ayudantes
+ * corren en el pool del PlanificadorBots de Modelo (ver usarPool()).
+ *
+ * MOTOR:
+ * La propiedad molino.bot.motor elige el motor de búsqueda: "alfabeta" (por
+ * defecto) o "mcts" (BuscadorMCTS, con molino.bot.hilos playouts en
+ * paralelo y un árbol de molino.mcts.nodos nodos). Cada hilo del pool de
+ * búsqueda reutiliza su propio BuscadorMCTS, así el árbol se reserva una vez
+ * por hilo y no por jugada.
+ *
+ * LIBRO DE APERTURAS:
+ * Si el servidor abrió un libro (LibroAperturas.compartido()), antes de
+ * cualquier búsqueda se consulta la posición: si está, se juega una de las
+ * jugadas del libro, elegida al azar en proporción a cómo rindió.
+ *
+ * FINALES DE VUELO:
+ * Si el servidor ya resolvió los finales 3 contra N (FinalesVuelo.compartida()),
+ * en esas posiciones el bot no busca: juega la jugada perfecta de la tabla.
+ * En el resto las búsquedas consultan la tabla al llegar a esos finales, y
+ * también la BaseFinales en disco si el servidor abrió una
+ * (BaseFinales.compartida()).
+ *
+ * REFLEXIÓN (pondering):
+ * Después de jugar, crearReflexion() arma una búsqueda de la posición del
+ * humano sobre la tabla compartida, que Modelo corre en el PlanificadorBots
+ * mientras el humano piensa (propiedad molino.bot.reflexion, activada por
+ * defecto; molino.bot.reflexion.ms acota cada una, 30000 por defecto). Si el
+ * humano juega la respuesta esperada, el tiempo pensado se descuenta del
+ * tiempo por jugada y la respuesta del bot es casi inmediata.
+ *
+ * MOTOR PROPIO:
+ * Los bots del servidor comparten el motor que fijan las propiedades de
+ * arriba. Un bot creado con un Motor propio (Motor.alfaBeta() o
+ * Motor.mcts(): evaluador, tabla, hilos y pool) busca con el mismo código
+ * pero con esa configuración; así herramientas.Arena enfrenta dos
+ * configuraciones con los bots de producción.
+ *
+ * SERIALIZABLE:
+ * Viaja a los clientes dentro de la partida como cualquier Jugador; el
+ * evaluador es estático y el motor no se serializa.
+ */
+public class JugadorBot extends Jugador {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Nombre con el que el bot aparece en la partida y en el ranking
+     */
+    public static final String NOMBRE = "Computadora";
+
+    /**
+     * Profundidad máxima por jugada si no se indica otra
+     */
+    public static final int PROFUNDIDAD_POR_DEFECTO = 24;
+
+    /**
+     * Tiempo por jugada si no se indica otro (milisegundos)
+     */
+    public static final int MILISEGUNDOS_POR_DEFECTO = 300;
+
+    /**
+     * Evaluador compartido por todas las búsquedas (no tiene estado; pesos de molino.eval.pesos)
+     */
+    private static final Evaluador EVALUADOR = EvaluacionManual.leer(System.getProperty("molino.eval.pesos"));
+
+    /**
+     * Tabla compartida, creada al usarse por primera vez (inicialización de la clase interna)
+     */
+    private static final class TablaCompartida {
+        static final TablaTransposicion TABLA =
+                new TablaTransposicion(Integer.getInteger("molino.tabla.mb", 64));
+
+        static {
+            tablaCreada = true;
+        }
+    }
+
+    /**
+     * true desde que se creó la tabla compartida (consultarTabla() no la crea)
+     */
+    private static volatile boolean tablaCreada;
+
+    /**
+     * Hilos que usa cada jugada (propiedad del sistema molino.bot.hilos)
+     */
+    private static final int HILOS = Math.max(1, Integer.getInteger("molino.bot.hilos", 1));
+
+    /**
+     * Pool de los ayudantes de BusquedaParalela y BuscadorMCTS: el del
+     * PlanificadorBots (usarPool()); ForkJoinPool.commonPool() hasta entonces
+     */
+    private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * true si las jugadas se buscan con BuscadorMCTS (propiedad molino.bot.motor = mcts)
+     */
+    private static final boolean MCTS = "mcts".equalsIgnoreCase(System.getProperty("molino.bot.motor"));
+
+    /**
+     * true si el bot reflexiona durante el turno del humano (propiedad molino.bot.reflexion)
+     */
+    private static final boolean REFLEXION =
+            Boolean.parseBoolean(System.getProperty("molino.bot.reflexion", "true"));
+
+    /**
+     * Tiempo máximo de cada reflexión (propiedad molino.bot.reflexion.ms)
+     */
+    private static final long MILISEGUNDOS_REFLEXION = Long.getLong("molino.bot.reflexion.ms", 30_000);
+
+    /**
+     * MOTOR DE BÚSQUEDA DE UN BOT
+     *
+     * Qué busca un bot y con qué recursos: evaluador, tabla de transposición,
+     * hilos por jugada, alfa-beta o MCTS, y el pool de los ayudantes. Un
+     * valor null toma el del servidor (EVALUADOR, la tabla compartida y el
+     * pool de usarPool()), que se resuelve al buscar.
+     *
+     * Con MCTS cada hilo que busca reutiliza su propio BuscadorMCTS, así el
+     * árbol se reserva una vez por hilo y no por jugada.
+     */
+    public static final class Motor {
+        private final Evaluador evaluador;
+        private final TablaTransposicion tabla;
+        private final int hilos;
+        private final int capacidadMCTS;
+        private final ForkJoinPool pool;
+        private final ThreadLocal<BuscadorMCTS> buscadoresMCTS;
+
+        private Motor(Evaluador evaluador, TablaTransposicion tabla, int hilos, int capacidadMCTS, ForkJoinPool pool) {
+            this.evaluador = evaluador;
+            this.tabla = tabla;
+            this.hilos = Math.max(1, hilos);
+            this.capacidadMCTS = capacidadMCTS;
+            this.pool = pool;
+            this.buscadoresMCTS = ThreadLocal.withInitial(
+                    () -> new BuscadorMCTS(evaluador(), this.hilos, capacidadMCTS, pool()));
+        }
+
+        /**
+         * @param evaluador Evaluación de las hojas
+         * @param tabla Tabla de transposición de las jugadas (la limpia quien crea el motor; avanza de generación con cada jugada)
+         * @param hilos Hilos por jugada (más de 1: BusquedaParalela)
+         * @param pool Pool de los ayudantes
+         * @return Motor alfa-beta
+         */
+        public static Motor alfaBeta(Evaluador evaluador, TablaTransposicion tabla, int hilos, ForkJoinPool pool) {
+            return new Motor(evaluador, tabla, hilos, 0, pool);
+        }
+
+        /**
+         * @param evaluador Evaluación de los playouts cortados
+         * @param capacidad Nodos del árbol de cada hilo que busca
+         * @param hilos Playouts simultáneos por jugada
+         * @param pool Pool de los ayudantes
+         * @return Motor MCTS
+         */
+        public static Motor mcts(Evaluador evaluador, int capacidad, int hilos, ForkJoinPool pool) {
+            return new Motor(evaluador, null, hilos, Math.max(1, capacidad), pool);
+        }
+
+        private boolean esMCTS() {
+            return capacidadMCTS > 0;
+        }
+
+        private Evaluador evaluador() {
+            return evaluador != null ? evaluador : EVALUADOR;
+        }
+
+        private TablaTransposicion tabla() {
+            return tabla != null ? tabla : TablaCompartida.TABLA;
+        }
+
+        private ForkJoinPool pool() {
+            return pool != null ? pool : JugadorBot.pool;
+        }
+    }
+
+    /**
+     * Motor de los bots del servidor (propiedades molino.bot.*, molino.eval.pesos, molino.mcts.nodos)
+     */
+    private static final Motor SERVIDOR =
+            new Motor(null, null, HILOS, MCTS ? Integer.getInteger("molino.mcts.nodos", 1 << 18) : 0, null);
+
+    /**
+     * Profundidad máxima de la búsqueda de cada jugada
+     */
+    private final int profundidad;
+
+    /**
+     * Tiempo por jugada en milisegundos
+     */
+    private final int milisegundos;
+
+    /**
+     * Motor propio, o null para el del servidor (no viaja a los clientes)
+     */
+    private final transient Motor motor;
+
+    /**
+     * Nodos (playouts en MCTS) de la última búsqueda de elegirMovimiento()
+     */
+    private transient long nodos;
+
+    /**
+     * CONSTRUCTOR DEL BOT
+     *
+     * @param simbolo Símbolo visual del bot ('X' o 'O')
+     */
+    public JugadorBot(char simbolo) {
+        this(simbolo, PROFUNDIDAD_POR_DEFECTO, MILISEGUNDOS_POR_DEFECTO);
+    }
+
+    /**
+     * @param simbolo Símbolo visual del bot ('X' o 'O')
+     * @param profundidad Profundidad máxima por jugada (mínimo 1)
+     * @param milisegundos Tiempo por jugada (la primera iteración se completa siempre)
+     */
+    public JugadorBot(char simbolo, int profundidad, int milisegundos) {
+        this(simbolo, profundidad, milisegundos, null);
+    }
+
+    /**
+     * @param simbolo Símbolo visual del bot ('X' o 'O')
+     * @param profundidad Profundidad máxima por jugada (mínimo 1)
+     * @param milisegundos Tiempo por jugada (la primera iteración se completa siempre)
+     * @param motor Motor propio, o null para el de los bots del servidor
+     */
+    public JugadorBot(char simbolo, int profundidad, int milisegundos, Motor motor) {
+        super(NOMBRE, simbolo);
+        this.profundidad = Math.max(1, profundidad);
+        this.milisegundos = Math.max(0, milisegundos);
+        this.motor = motor;
+    }
+
+    /** @return Profundidad máxima por jugada */
+    public int getProfundidad() {
+        return profundidad;
+    }
+
+    /** @return Tiempo por jugada en milisegundos */
+    public int getMilisegundos() {
+        return milisegundos;
+    }
+
+    /**
+     * @return Nodos (playouts en MCTS) de la última búsqueda de
+     *         elegirMovimiento(); 0 si la jugada salió del libro o de los finales
+     */
+    public long getNodos() {
+        return nodos;
+    }
+
+    /**
+     * ELEGIR MOVIMIENTO
+     *
+     * Igual que elegirMovimiento(estado, inicio, plazoMaximo, limiteNodos)
+     * sin presupuesto del planificador: solo el tiempo por jugada del bot.
+     */
+    public int elegirMovimiento(long estado, long inicio) {
+        return elegirMovimiento(estado, inicio, BuscadorAlfaBeta.SIN_LIMITE, BuscadorAlfaBeta.SIN_LIMITE);
+    }
+
+    /**
+     * ELEGIR MOVIMIENTO CON PRESUPUESTO
+     *
+     * Es una llamada costosa: debe ejecutarse fuera de los hilos RMI.
+     *
+     * @param estado Estado de la partida (ver Partida.getEstadoCompacto())
+     * @param inicio Instante (System.nanoTime()) desde el que corre el tiempo por jugada
+     * @param plazoMaximo Plazo impuesto por el planificador (System.nanoTime()), o
+     *                    BuscadorAlfaBeta.SIN_LIMITE; vale el menor entre este y el
+     *                    tiempo por jugada del bot
+     * @param limiteNodos Nodos máximos de la jugada, o BuscadorAlfaBeta.SIN_LIMITE
+     *                    (BusquedaParalela lo reparte entre sus hilos; BuscadorMCTS
+     *                    lo convierte en playouts de LIMITE_PLAYOUT jugadas)
+     * @return Movimiento empaquetado (ver Movimiento), o Movimiento.NINGUNO si no hay jugadas
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Es llamado por Modelo.jugarTurnoBot() desde el PlanificadorBots
+     * - Si el LibroAperturas tiene la posición, devuelve una de sus jugadas sin buscar
+     * - Si FinalesVuelo cubre la posición, devuelve su jugada sin buscar
+     * - Con un motor MCTS (molino.bot.motor = mcts), usa el BuscadorMCTS del hilo hasta el plazo
+     * - Si no, crea un BuscadorAlfaBeta (o una BusquedaParalela) por jugada
+     *   sobre la tabla del motor (la compartida, en el servidor)
+     */
+    public int elegirMovimiento(long estado, long inicio, long plazoMaximo, long limiteNodos) {
+        nodos = 0;
+        LibroAperturas libro = LibroAperturas.compartido();
+        if (libro != null) {
+            int jugada = libro.elegirMovimiento(estado);
+            if (jugada != Movimiento.NINGUNO) {
+                return jugada;
+            }
+        }
+
+        FinalesVuelo finales = FinalesVuelo.compartida();
+        if (finales != null && finales.cubre(estado)) {
+            return finales.mejorMovimiento(estado);
+        }
+
+        Motor m = motor != null ? motor : SERVIDOR;
+        long plazo = Math.min(inicio + milisegundos * 1_000_000L, plazoMaximo);
+        int movimiento;
+        if (m.esMCTS()) {
+            BuscadorMCTS mcts = m.buscadoresMCTS.get();
+            mcts.usarFinales(finales);
+            mcts.rearmar();
+            movimiento = mcts.buscar(estado, plazo, limiteNodos == BuscadorAlfaBeta.SIN_LIMITE ? limiteNodos
+                    : Math.max(1, limiteNodos / BuscadorMCTS.LIMITE_PLAYOUT));
+            nodos = mcts.getPlayouts();
+        } else if (m.hilos > 1) {
+            m.tabla().nuevaGeneracion();
+            BusquedaParalela busqueda = new BusquedaParalela(m.evaluador(), m.tabla(), m.hilos, m.pool());
+            busqueda.usarFinales(finales);
+            busqueda.usarBase(BaseFinales.compartida());
+            movimiento = busqueda.buscar(estado, profundidad, plazo, limiteNodos == BuscadorAlfaBeta.SIN_LIMITE
+                    ? limiteNodos : Math.max(1, limiteNodos / m.hilos));
+            nodos = busqueda.getNodos();
+        } else {
+            m.tabla().nuevaGeneracion();
+            BuscadorAlfaBeta buscador = new BuscadorAlfaBeta(m.evaluador(), m.tabla());
+            buscador.usarFinales(finales);
+            buscador.usarBase(BaseFinales.compartida());
+            movimiento = buscador.buscar(estado, profundidad, plazo, limiteNodos);
+            nodos = buscador.getNodos();
+        }
+        return movimiento;
+    }
+
+    /**
+     * CREAR REFLEXIÓN
+     *
+     * @param estado Posición después de la jugada del bot, con el turno del humano
+     * @return Búsqueda para correr mientras el humano piensa, o null si la
+     *         reflexión está desactivada, el motor no usa la tabla (MCTS) o
+     *         el bot tiene un motor propio
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Es llamado por Modelo.programarBot() cuando le toca al humano
+     * - La corre PlanificadorBots.reflexionar()
+     */
+    public Reflexion crearReflexion(long estado) {
+        if (!REFLEXION || MCTS || motor != null || EstadoCompacto.finalizado(estado)) {
+            return null;
+        }
+        return new Reflexion(crearBuscador(), TablaCompartida.TABLA, estado, profundidad, MILISEGUNDOS_REFLEXION);
+    }
+
+    /**
+     * USAR POOL
+     *
+     * @param pool Pool donde corren los ayudantes de las jugadas con varios hilos
+     *
+     * RELACIONES: Es llamado por Modelo con el pool de su PlanificadorBots
+     */
+    static void usarPool(ForkJoinPool pool) {
+        JugadorBot.pool = pool;
+    }
+
+    /**
+     * CONSULTAR LA TABLA COMPARTIDA
+     *
+     * @param estado Posición a consultar
+     * @return Datos de la entrada (ver TablaTransposicion.sondear()), o
+     *         TablaTransposicion.SIN_DATOS si no está o la tabla no existe
+     *
+     * RELACIONES: Usado por Modelo para la sugerencia de respaldo
+     */
+    static long consultarTabla(long estado) {
+        return tablaCreada ? TablaCompartida.TABLA.sondear(EstadoCompacto.clave(estado)) : TablaTransposicion.SIN_DATOS;
+    }
+
+    /**
+     * CREAR BUSCADOR COMPARTIDO
+     *
+     * @return BuscadorAlfaBeta sobre la tabla compartida de los bots, con los
+     *         finales y la base que haya abierto el servidor
+     *
+     * RELACIONES: Usado por crearReflexion() y por Modelo.obtenerSugerencia()
+     */
+    static BuscadorAlfaBeta crearBuscador() {
+        BuscadorAlfaBeta buscador = new BuscadorAlfaBeta(EVALUADOR, TablaCompartida.TABLA);
+        buscador.usarFinales(FinalesVuelo.compartida());
+        buscador.usarBase(BaseFinales.compartida());
+        return buscador;
+    }
+}
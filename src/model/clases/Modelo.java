@@ -3,9 +3,20 @@ package model.clases;
 import ar.edu.unlu.rmimvc.observer.ObservableRemoto;
 import model.enums.*;
 import model.interfaces.*;
+import motor.BuscadorAlfaBeta;
+import motor.CachePosiciones;
+import motor.FinalesVuelo;
+import motor.PlanificadorBots;
+import motor.Reflexion;
+import motor.TablaTransposicion;
 import java.io.Serializable;
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * ============================================================================
@@ -85,6 +96,41 @@ import java.util.*;
  * - PIEZA_ELIMINADA: Se eliminó una pieza
  * - FORMACION_MOLINO: Se formó un molino (3 en línea)
  * - GAME_WIN: Hay un ganador
+ * - GAME_TABLAS: La partida terminó sin ganador (tablero lleno)
+ *
+ * PARTIDAS CONTRA EL BOT:
+ *
+ * - buscarPartida(nombre, true) crea una partida contra un JugadorBot
+ * - Después de cada acción exitosa, programarBot() revisa si le toca al bot y,
+ *   si es así, programa su búsqueda en el PlanificadorBots (pool propio, de
+ *   menor prioridad, con turnos por ronda entre partidas): el hilo RMI que
+ *   hizo la llamada vuelve enseguida
+ * - El tiempo por jugada del bot corre desde que se programa el turno, así
+ *   que la espera en la cola no alarga la respuesta
+ * - Presupuesto máximo por jugada para todos los bots: propiedades
+ *   molino.bot.maxms (milisegundos) y molino.bot.maxnodos (0 = sin límite);
+ *   con molino.bot.reporte = segundos se imprimen las métricas de la cola
+ * - La jugada del bot se aplica por el mismo camino que la de un humano
+ *   (aplicarYNotificar()), que notifica como siempre después de soltar la
+ *   partida
+ * - Quien tenga el turno sin ninguna jugada legal (bot o humano) pierde:
+ *   programarBot() lo verifica después de cada acción
+ * - Las acciones sobre una partida se serializan con synchronized(partida):
+ *   los hilos RMI y los del bot nunca la modifican a la vez
+ *
+ * SUGERENCIAS:
+ *
+ * - obtenerSugerencia(id) devuelve la mejor jugada y la evaluación de la
+ *   posición actual de una partida (ver Sugerencia)
+ * - Los resultados se guardan en una caché LRU compartida por todas las
+ *   partidas, indexada por la clave canónica de la posición (propiedad
+ *   molino.sugerencias.cache, 65536 entradas por defecto): las posiciones
+ *   que se repiten entre partidas, o simétricas, se responden sin buscar
+ * - Si no está en la caché: FinalesVuelo si la resuelve; si no, una búsqueda
+ *   de molino.sugerencias.ms milisegundos (300 por defecto) encolada en el
+ *   PlanificadorBots sin cortar reflexiones, que el hilo RMI espera ese
+ *   tiempo más MARGEN_SUGERENCIA; si no terminó, responde con la jugada que
+ *   ya tenga la tabla de los bots o con una búsqueda de profundidad 1
  *
  * IMPORTANTE:
  * - Todos los métodos públicos pueden ser llamados remotamente (RMI)
@@ -125,6 +171,36 @@ public class Modelo extends ObservableRemoto implements IModelo, Serializable {
      */
     private int contadorPartidas;
 
+    /**
+     * Hilos de búsqueda de los bots: deja un procesador libre para los hilos RMI
+     */
+    private static final int HILOS_BOTS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    /**
+     * Planificador donde corren las búsquedas de los bots (nunca en hilos RMI)
+     */
+    private transient PlanificadorBots planificadorBots;
+
+    /**
+     * Tiempo de búsqueda de una sugerencia que no está en la caché
+     */
+    private static final long MILISEGUNDOS_SUGERENCIA = Long.getLong("molino.sugerencias.ms", 300);
+
+    /**
+     * Espera de más sobre MILISEGUNDOS_SUGERENCIA (la primera iteración no se corta)
+     */
+    private static final long MARGEN_SUGERENCIA = 100;
+
+    /**
+     * Para aplicarYNotificar(): aplicar la acción sin verificar el estado
+     */
+    private static final long CUALQUIER_ESTADO = EstadoCompacto.ILEGAL;
+
+    /**
+     * Sugerencias por clave canónica, en orientación canónica (compartida por todas las partidas)
+     */
+    private transient CachePosiciones<Sugerencia> cacheSugerencias;
+
     /**
      * OBTENER INSTANCIA ÚNICA DEL MODELO (Singleton)
      *
@@ -161,9 +237,29 @@ public class Modelo extends ObservableRemoto implements IModelo, Serializable {
      */
     private Modelo() throws RemoteException {
         super();
-        partidas = new HashMap<>();
+        partidas = new ConcurrentHashMap<>();
         ranking = Ranking.getInstancia();
         contadorPartidas = 0;
+        planificadorBots = crearPlanificadorBots();
+        cacheSugerencias = new CachePosiciones<>(Integer.getInteger("molino.sugerencias.cache", 1 << 16));
+    }
+
+    /**
+     * CREAR PLANIFICADOR DE LOS BOTS
+     *
+     * Pool de HILOS_BOTS hilos daemon con prioridad menor a la normal, para
+     * que las llamadas RMI de las partidas humanas no esperen. El presupuesto
+     * por jugada sale de molino.bot.maxms y molino.bot.maxnodos. Los
+     * ayudantes de las jugadas con varios hilos también corren en su pool.
+     *
+     * @return Planificador listo para programar turnos
+     */
+    private static PlanificadorBots crearPlanificadorBots() {
+        PlanificadorBots planificador = new PlanificadorBots(HILOS_BOTS,
+                Long.getLong("molino.bot.maxms", 0), Long.getLong("molino.bot.maxnodos", 0));
+        JugadorBot.usarPool(planificador.getPool());
+        planificador.iniciarReporte(Integer.getInteger("molino.bot.reporte", 0));
+        return planificador;
     }
 
     /**
@@ -197,6 +293,53 @@ public class Modelo extends ObservableRemoto implements IModelo, Serializable {
      */
     @Override
     public IPartida buscarPartida(String nombreJugador) throws RemoteException {
+        return buscarPartida(nombreJugador, false);
+    }
+
+    /**
+     * BUSCAR PARTIDA, OPCIONALMENTE CONTRA EL BOT
+     *
+     * Igual que buscarPartida(String, boolean, Topologia) en el tablero estándar.
+     */
+    @Override
+    public IPartida buscarPartida(String nombreJugador, boolean contraBot) throws RemoteException {
+        return buscarPartida(nombreJugador, contraBot, Topologia.ESTANDAR);
+    }
+
+    /**
+     * BUSCAR PARTIDA EN UNA VARIANTE, OPCIONALMENTE CONTRA EL BOT
+     *
+     * Con contraBot = false es el emparejamiento de buscarPartida(String),
+     * pero solo con partidas en espera de la misma variante.
+     * Con contraBot = true crea una partida ya iniciada entre el jugador ('X',
+     * mueve primero) y un JugadorBot ('O'), sin pasar por la espera.
+     *
+     * @param nombreJugador Nombre del jugador que busca partida
+     * @param contraBot true para jugar contra la computadora
+     * @param variante Tablero de la partida (ver Topologia); null es el estándar
+     * @return La partida asignada (nueva o existente)
+     * @throws RemoteException si hay error de comunicación RMI
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Llama a new JugadorBot() y new Partida() para la partida contra el bot
+     * - Llama a programarBot() por si el bot tuviera el primer turno
+     */
+    @Override
+    public synchronized IPartida buscarPartida(String nombreJugador, boolean contraBot, Topologia variante)
+            throws RemoteException {
+        Topologia topologia = (variante != null) ? variante : Topologia.ESTANDAR;
+        if (contraBot) {
+            IJugador humano = new Jugador(nombreJugador, 'X');
+            IPartida partidaBot = new Partida(contadorPartidas++, humano, new JugadorBot('O'), topologia);
+            partidas.put(partidaBot.getId(), partidaBot);
+
+            System.out.println("🤖 Nueva partida #" + partidaBot.getId() + ": " +
+                              nombreJugador + " vs " + JugadorBot.NOMBRE + " (" + topologia + ")");
+
+            programarBot(partidaBot);
+            return partidaBot;
+        }
+
         System.out.println("🔍 " + nombreJugador + " busca partida...");
 
         // ===============================================================
@@ -204,7 +347,7 @@ public class Modelo extends ObservableRemoto implements IModelo, Serializable {
         // ===============================================================
         for (IPartida p : partidas.values()) {
             if (p.getEstadoPartida() == EstadoPartida.EN_ESPERA &&
-                p.getJugadores().size() == 1) {
+                p.getJugadores().size() == 1 && p.getTopologia() == topologia) {
 
                 // Verificar que no sea el mismo jugador
                 if (p.getJugadores().get(0).getNombre().equals(nombreJugador)) {
@@ -234,10 +377,10 @@ public class Modelo extends ObservableRemoto implements IModelo, Serializable {
         // PASO 2: No hay partidas disponibles - Crear nueva
         // ===============================================================
         IJugador jugador1 = new Jugador(nombreJugador, 'X');
-        IPartida nuevaPartida = new Partida(contadorPartidas++, jugador1, null);
+        IPartida nuevaPartida = new Partida(contadorPartidas++, jugador1, null, topologia);
         partidas.put(nuevaPartida.getId(), nuevaPartida);
 
-        System.out.println("📝 Nueva partida #" + nuevaPartida.getId() + " creada. " +
+        System.out.println("📝 Nueva partida #" + nuevaPartida.getId() + " (" + topologia + ") creada. " +
                           nombreJugador + " esperando oponente...");
 
         return nuevaPartida;
@@ -278,7 +421,8 @@ public class Modelo extends ObservableRemoto implements IModelo, Serializable {
      * 2. Intenta colocar la pieza en la posición indicada
      * 3. Si la colocación fue exitosa:
      *    a) Si se formó un molino: notifica FORMACION_MOLINO
-     *    b) Si no: notifica PIEZA_COLOCADA y CAMBIO_TURNO
+     *    b) Si no: notifica PIEZA_COLOCADA y CAMBIO_TURNO (o GAME_TABLAS si
+     *       la colocación llenó el tablero)
      *
      * @param idPartida ID de la partida activa
      * @param posicion Posición donde colocar la pieza (ej: "A1", "B2", etc.)
@@ -296,20 +440,29 @@ public class Modelo extends ObservableRemoto implements IModelo, Serializable {
      * - FORMACION_MOLINO: Cuando se forma un molino (3 en línea)
      * - PIEZA_COLOCADA: Cuando se coloca una pieza sin formar molino
      * - CAMBIO_TURNO: Para cambiar el turno al otro jugador
+     * - GAME_TABLAS: Cuando el tablero queda lleno al terminar la colocación
      */
     @Override
     public void colocarPieza(int idPartida, String posicion) throws RemoteException {
+        colocarPieza(idPartida, CodigoPosicion.parse(posicion));
+    }
+
+    /**
+     * COLOCAR PIEZA EN EL TABLERO (CÓDIGO COMPACTO)
+     *
+     * Variante de colocarPieza(int, String) que recibe el código 0-23 de la posición
+     * (ver CodigoPosicion). Es la que usan los clientes: viaja un byte por RMI en lugar
+     * de un String. La variante String es solo un adaptador de esta.
+     *
+     * @param idPartida ID de la partida activa
+     * @param posicion Código de la posición donde colocar la pieza
+     * @throws RemoteException si hay error de comunicación RMI
+     */
+    @Override
+    public void colocarPieza(int idPartida, byte posicion) throws RemoteException {
         IPartida partida = partidas.get(idPartida);
         if (partida != null) {
-            if (partida.colocarPieza(posicion)) {
-                // Notificar
-                if (partida.isEsperandoEliminar()) {
-                    notificarObservadores(new ManejadorEventos(idPartida, Eventos.FORMACION_MOLINO));
-                } else {
-                    notificarObservadores(new ManejadorEventos(idPartida, Eventos.PIEZA_COLOCADA));
-                    notificarObservadores(new ManejadorEventos(idPartida, Eventos.CAMBIO_TURNO));
-                }
-            }
+            aplicarYNotificar(partida, Movimiento.COLOCAR, (byte) Movimiento.SIN_ORIGEN, posicion, CUALQUIER_ESTADO);
         }
     }
 
@@ -346,17 +499,24 @@ public class Modelo extends ObservableRemoto implements IModelo, Serializable {
      */
     @Override
     public void moverPieza(int idPartida, String origen, String destino) throws RemoteException {
+        moverPieza(idPartida, CodigoPosicion.parse(origen), CodigoPosicion.parse(destino));
+    }
+
+    /**
+     * MOVER PIEZA EN EL TABLERO (CÓDIGO COMPACTO)
+     *
+     * Variante de moverPieza(int, String, String) con códigos 0-23.
+     *
+     * @param idPartida ID de la partida activa
+     * @param origen Código de la posición de origen
+     * @param destino Código de la posición de destino
+     * @throws RemoteException si hay error de comunicación RMI
+     */
+    @Override
+    public void moverPieza(int idPartida, byte origen, byte destino) throws RemoteException {
         IPartida partida = partidas.get(idPartida);
         if (partida != null) {
-            if (partida.moverPieza(origen, destino)) {
-                // Notificar
-                if (partida.isEsperandoEliminar()) {
-                    notificarObservadores(new ManejadorEventos(idPartida, Eventos.FORMACION_MOLINO));
-                } else {
-                    notificarObservadores(new ManejadorEventos(idPartida, Eventos.PIEZA_MOVIDA));
-                    notificarObservadores(new ManejadorEventos(idPartida, Eventos.CAMBIO_TURNO));
-                }
-            }
+            aplicarYNotificar(partida, Movimiento.MOVER, origen, destino, CUALQUIER_ESTADO);
         }
     }
 
@@ -398,24 +558,121 @@ public class Modelo extends ObservableRemoto implements IModelo, Serializable {
      */
     @Override
     public void eliminarPiezaOponente(int idPartida, String posicion) throws RemoteException {
+        eliminarPiezaOponente(idPartida, CodigoPosicion.parse(posicion));
+    }
+
+    /**
+     * ELIMINAR PIEZA DEL OPONENTE (CÓDIGO COMPACTO)
+     *
+     * Variante de eliminarPiezaOponente(int, String) con el código 0-23.
+     *
+     * @param idPartida ID de la partida activa
+     * @param posicion Código de la posición de la pieza del oponente a eliminar
+     * @throws RemoteException si hay error de comunicación RMI
+     */
+    @Override
+    public void eliminarPiezaOponente(int idPartida, byte posicion) throws RemoteException {
         IPartida partida = partidas.get(idPartida);
         if (partida != null) {
-            if (partida.eliminarPiezaOponente(posicion)) {
-                // Notificar
-                notificarObservadores(new ManejadorEventos(idPartida, Eventos.PIEZA_ELIMINADA));
-
-                // Verificar si hay ganador
-                if (partida.hayGanador()) {
-                    // Actualizar ranking
-                    ranking.actualizar(partida.getGanador().getNombre());
+            aplicarYNotificar(partida, Movimiento.ELIMINAR, (byte) Movimiento.SIN_ORIGEN, posicion, CUALQUIER_ESTADO);
+        }
+    }
 
-                    // Notificar fin del juego
-                    notificarObservadores(new ManejadorEventos(idPartida, Eventos.GAME_WIN));
-                } else {
-                    notificarObservadores(new ManejadorEventos(idPartida, Eventos.CAMBIO_TURNO));
-                }
+    /**
+     * APLICAR UNA ACCIÓN Y NOTIFICAR
+     *
+     * La acción se valida y aplica con la partida bloqueada; los eventos, el
+     * ranking y el próximo turno del bot van después de soltarla, así un
+     * cliente lento o caído en notificarObservadores() no retiene la partida
+     * ni el hilo del planificador que jugó.
+     *
+     * @param partida Partida
+     * @param tipo Movimiento.COLOCAR, MOVER o ELIMINAR
+     * @param origen Código de origen (solo MOVER)
+     * @param destino Código de la posición afectada
+     * @param esperado Estado en que se decidió la acción (si la partida cambió
+     *                 no se aplica), o CUALQUIER_ESTADO
+     * @return true si la acción se aplicó
+     * @throws RemoteException si hay error de comunicación RMI
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Es llamada por colocarPieza(), moverPieza(), eliminarPiezaOponente() y jugarTurnoBot()
+     * - Llama a partida.colocarPieza(), moverPieza() o eliminarPiezaOponente()
+     * - Llama a notificarObservadores(), ranking.actualizar() y programarBot()
+     *
+     * EVENTOS QUE GENERA:
+     * - FORMACION_MOLINO: si una colocación o movimiento forma molino
+     * - PIEZA_COLOCADA / PIEZA_MOVIDA y CAMBIO_TURNO: si no forma molino
+     * - PIEZA_ELIMINADA y luego GAME_WIN (si hay ganador) o CAMBIO_TURNO
+     * - PIEZA_COLOCADA y luego GAME_TABLAS si la colocación llenó el tablero
+     */
+    private boolean aplicarYNotificar(IPartida partida, int tipo, byte origen, byte destino, long esperado)
+            throws RemoteException {
+        boolean aplicada;
+        boolean molino;
+        boolean tablas;
+        IJugador ganador;
+        synchronized (partida) {
+            if (esperado != CUALQUIER_ESTADO && partida.getEstadoCompacto() != esperado) {
+                return false;
             }
+            switch (tipo) {
+                case Movimiento.COLOCAR:
+                    aplicada = partida.colocarPieza(destino);
+                    break;
+                case Movimiento.MOVER:
+                    aplicada = partida.moverPieza(origen, destino);
+                    break;
+                default:
+                    aplicada = partida.eliminarPiezaOponente(destino);
+                    break;
+            }
+            molino = aplicada && partida.isEsperandoEliminar();
+            tablas = aplicada && partida.isTablas();
+            ganador = aplicada && partida.hayGanador() ? partida.getGanador() : null;
+        }
+        if (!aplicada) {
+            return false;
+        }
+
+        int idPartida = partida.getId();
+        if (tipo == Movimiento.ELIMINAR) {
+            notificarObservadores(new ManejadorEventos(idPartida, Eventos.PIEZA_ELIMINADA));
+        } else if (molino) {
+            notificarObservadores(new ManejadorEventos(idPartida, Eventos.FORMACION_MOLINO));
+        } else {
+            notificarObservadores(new ManejadorEventos(idPartida,
+                    tipo == Movimiento.COLOCAR ? Eventos.PIEZA_COLOCADA : Eventos.PIEZA_MOVIDA));
+        }
+
+        if (ganador != null || tablas) {
+            terminarPartida(idPartida, ganador);
+            return true;
         }
+        if (!molino) {
+            notificarObservadores(new ManejadorEventos(idPartida, Eventos.CAMBIO_TURNO));
+        }
+        programarBot(partida);
+        return true;
+    }
+
+    /**
+     * TERMINAR PARTIDA
+     *
+     * Suma la victoria al ranking (si hay ganador), libera las colas del bot
+     * y de las sugerencias de la partida y notifica GAME_WIN, o GAME_TABLAS
+     * si terminó sin ganador.
+     * Se llama sin la partida bloqueada.
+     *
+     * @param ganador Jugador ganador, o null si la partida terminó en tablas
+     */
+    private void terminarPartida(int idPartida, IJugador ganador) throws RemoteException {
+        if (ganador != null) {
+            ranking.actualizar(ganador.getNombre());
+        }
+        planificadorBots.olvidar(idPartida);
+        planificadorBots.olvidar(-1 - idPartida);
+        notificarObservadores(new ManejadorEventos(idPartida, ganador != null ? Eventos.GAME_WIN : Eventos.GAME_TABLAS));
     }
 
     /**
@@ -478,4 +735,318 @@ public class Modelo extends ObservableRemoto implements IModelo, Serializable {
         return ranking.getRanking();
     }
 
+    // ===================================================================
+    // SUGERENCIAS
+    // ===================================================================
+
+    /**
+     * OBTENER SUGERENCIA
+     *
+     * Devuelve la mejor jugada y la evaluación de la posición actual de la
+     * partida, para el jugador que tiene el turno.
+     *
+     * FLUJO:
+     * 1. Copia el estado con la partida bloqueada
+     * 2. Lleva el estado a su forma canónica (ver Simetria)
+     * 3. Si la caché tiene la posición, devuelve esa sugerencia orientada
+     *    a la partida
+     * 4. Si no, la calcula sobre el estado canónico con calcularSugerencia(),
+     *    la guarda y la devuelve orientada
+     * 5. Si la búsqueda no terminó a tiempo, devuelve sugerenciaDeRespaldo()
+     *    (sin guardarla)
+     *
+     * @param idPartida ID de la partida
+     * @return Sugerencia, o null si la partida no existe o no está en juego
+     * @throws RemoteException si hay error de comunicación RMI
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Llama a cacheSugerencias.buscar() / guardar() con Simetria.claveCanonica
+     * - Llama a calcularSugerencia() si no está en la caché
+     * - Llama a sugerenciaDeRespaldo() si calcularSugerencia() no terminó
+     */
+    @Override
+    public Sugerencia obtenerSugerencia(int idPartida) throws RemoteException {
+        IPartida partida = partidas.get(idPartida);
+        if (partida == null) {
+            return null;
+        }
+        long estado;
+        synchronized (partida) {
+            if (partida.getEstadoPartida() != EstadoPartida.EN_JUEGO || partida.hayGanador()) {
+                return null;
+            }
+            estado = partida.getEstadoCompacto();
+        }
+
+        int simetria = Simetria.simetriaCanonica(estado);
+        long canonico = Simetria.transformar(estado, simetria);
+        long clave = EstadoCompacto.clave(canonico);
+        Sugerencia guardada = cacheSugerencias.buscar(clave);
+        if (guardada != null) {
+            return guardada.orientar(Simetria.inversa(simetria), true);
+        }
+
+        Sugerencia calculada = calcularSugerencia(idPartida, canonico);
+        if (calculada == null) {
+            return sugerenciaDeRespaldo(estado);
+        }
+        cacheSugerencias.guardar(clave, calculada);
+        return calculada.orientar(Simetria.inversa(simetria), false);
+    }
+
+    /**
+     * CALCULAR UNA SUGERENCIA
+     *
+     * @param idPartida Partida que la pide (la búsqueda va a su cola del planificador)
+     * @param estado Estado (canónico) a analizar
+     * @return Sugerencia en la orientación de estado, o null si no terminó a tiempo
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - FinalesVuelo.compartida() si resuelve la posición (jugada y valor exactos)
+     * - Si no, encola en planificadorBots una búsqueda de
+     *   JugadorBot.crearBuscador() y espera el resultado a lo sumo
+     *   MILISEGUNDOS_SUGERENCIA + MARGEN_SUGERENCIA
+     */
+    private Sugerencia calcularSugerencia(int idPartida, long estado) {
+        FinalesVuelo finales = FinalesVuelo.compartida();
+        if (finales != null && finales.cubre(estado)) {
+            int valor = finales.consultar(estado);
+            int distancia = FinalesVuelo.distancia(valor);
+            int puntaje = FinalesVuelo.esVictoria(valor) ? BuscadorAlfaBeta.VICTORIA - distancia
+                    : FinalesVuelo.esDerrota(valor) ? -(BuscadorAlfaBeta.VICTORIA - distancia) : 0;
+            return new Sugerencia(finales.mejorMovimiento(estado), puntaje, distancia, OrigenSugerencia.FINALES, false);
+        }
+
+        // Cola propia de sugerencias por partida (id negativo); encolar() no corta reflexiones
+        CompletableFuture<Sugerencia> resultado = new CompletableFuture<>();
+        long inicio = System.nanoTime();
+        planificadorBots.encolar(-1 - idPartida, (plazo, limiteNodos) -> {
+            if (resultado.isDone()) {
+                // Nadie la espera: se venció mientras estaba en cola
+                return;
+            }
+            BuscadorAlfaBeta buscador = JugadorBot.crearBuscador();
+            int movimiento = buscador.buscar(estado, JugadorBot.PROFUNDIDAD_POR_DEFECTO,
+                    Math.min(plazo, inicio + MILISEGUNDOS_SUGERENCIA * 1_000_000L), limiteNodos);
+            resultado.complete(new Sugerencia(movimiento, buscador.getPuntaje(),
+                    buscador.getProfundidadCompletada(), OrigenSugerencia.BUSQUEDA, false));
+        });
+        try {
+            return resultado.get(MILISEGUNDOS_SUGERENCIA + MARGEN_SUGERENCIA, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            resultado.cancel(false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resultado.cancel(false);
+            return null;
+        }
+    }
+
+    /**
+     * SUGERENCIA DE RESPALDO
+     *
+     * Respuesta para cuando la búsqueda no terminó a tiempo (todos los hilos
+     * ocupados): la jugada que la tabla de los bots ya tenga para la posición
+     * (de un turno, una reflexión o una sugerencia anterior) o, si no tiene,
+     * una búsqueda de profundidad 1 en el hilo que pide, que es inmediata.
+     *
+     * @param estado Estado de la partida (en su orientación, no la canónica:
+     *               es la que buscan los bots)
+     * @return Sugerencia en la orientación de estado
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Llama a JugadorBot.consultarTabla() y, si no hay jugada, a JugadorBot.crearBuscador()
+     */
+    private static Sugerencia sugerenciaDeRespaldo(long estado) {
+        long datos = JugadorBot.consultarTabla(estado);
+        int movimiento = TablaTransposicion.movimiento(datos);
+        if (datos != TablaTransposicion.SIN_DATOS && movimiento != Movimiento.NINGUNO
+                && EstadoCompacto.aplicar(estado, movimiento) != EstadoCompacto.ILEGAL) {
+            return new Sugerencia(movimiento, TablaTransposicion.puntaje(datos),
+                    TablaTransposicion.profundidad(datos), OrigenSugerencia.TABLA, false);
+        }
+        BuscadorAlfaBeta buscador = JugadorBot.crearBuscador();
+        movimiento = buscador.buscar(estado, 1);
+        return new Sugerencia(movimiento, buscador.getPuntaje(), buscador.getProfundidadCompletada(),
+                OrigenSugerencia.BUSQUEDA, false);
+    }
+
+    // ===================================================================
+    // TURNOS DEL BOT
+    // ===================================================================
+
+    /**
+     * PROGRAMAR TURNO DEL BOT
+     *
+     * Si la partida sigue en juego y el jugador actual es un JugadorBot, encola
+     * su búsqueda en planificadorBots con una copia del estado (un long). Vuelve
+     * enseguida: el hilo que llama (RMI o del propio bot) no espera la búsqueda.
+     *
+     * Antes verifica que quien tiene el turno pueda jugar: las reglas solo
+     * revisan el bloqueo al eliminar, y un deslizamiento sin molino también
+     * puede dejar al rival sin jugadas. Si está bloqueado pierde (ver
+     * declararSiBloqueado()), sea el bot o el humano.
+     *
+     * Si le toca al humano de una partida contra el bot, lanza la reflexión
+     * del bot sobre la posición (ver Reflexion). Al volver el turno al bot se
+     * detiene: si el humano jugó la respuesta esperada, el tiempo que ya
+     * pensó se descuenta del tiempo de la jugada; si no, se descarta. La
+     * reflexión se lanza con la partida bloqueada y solo si el humano todavía
+     * no jugó: si no, quedaría corriendo delante del turno del bot.
+     *
+     * @param partida Partida en la que se acaba de jugar
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Es llamado por buscarPartida() y por aplicarYNotificar() después de
+     *   cada acción exitosa
+     * - Llama a declararSiBloqueado() antes de programar nada
+     * - Encola jugarTurnoBot()
+     * - JugadorBot.crearReflexion() y PlanificadorBots.reflexionar() en el turno del humano
+     */
+    private void programarBot(IPartida partida) {
+        try {
+            if (declararSiBloqueado(partida, CUALQUIER_ESTADO)) {
+                return;
+            }
+        } catch (RemoteException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        JugadorBot bot = null;
+        JugadorBot rival = null;
+        long estado;
+        synchronized (partida) {
+            if (partida.getEstadoPartida() != EstadoPartida.EN_JUEGO || partida.hayGanador()) {
+                planificadorBots.detenerReflexion(partida.getId());
+                return;
+            }
+            estado = partida.getEstadoCompacto();
+            if (partida.getJugadorActual() instanceof JugadorBot) {
+                bot = (JugadorBot) partida.getJugadorActual();
+            } else {
+                for (IJugador jugador : partida.getJugadores()) {
+                    if (jugador instanceof JugadorBot) {
+                        rival = (JugadorBot) jugador;
+                    }
+                }
+            }
+        }
+
+        if (bot == null) {
+            // Le toca al humano: el bot reflexiona sobre sus respuestas
+            Reflexion reflexion = rival != null ? rival.crearReflexion(estado) : null;
+            synchronized (partida) {
+                // Si el humano ya jugó, su programarBot() detiene las reflexiones
+                // anteriores: una lanzada ahora ocuparía un hilo delante de su turno
+                if (partida.getEstadoCompacto() != estado) {
+                    return;
+                }
+                if (reflexion != null) {
+                    planificadorBots.reflexionar(partida.getId(), reflexion);
+                } else {
+                    planificadorBots.detenerReflexion(partida.getId());
+                }
+            }
+            return;
+        }
+
+        long programado = System.nanoTime();
+        Reflexion previa = planificadorBots.detenerReflexion(partida.getId());
+        if (previa != null) {
+            boolean acerto = previa.acerto(estado);
+            planificadorBots.registrarReflexion(acerto);
+            if (acerto) {
+                // El tiempo pensado sobre esta misma posición cuenta como parte de la jugada
+                programado -= previa.getNanosPensados();
+            }
+        }
+        long inicio = programado;
+        JugadorBot jugador = bot;
+        planificadorBots.programar(partida.getId(),
+                (plazo, limiteNodos) -> jugarTurnoBot(partida, jugador, estado, inicio, plazo, limiteNodos));
+    }
+
+    /**
+     * JUGAR TURNO DEL BOT (en un hilo de planificadorBots)
+     *
+     * Busca la jugada sobre el estado copiado y la aplica con
+     * aplicarYNotificar(), como las jugadas del humano. La verificación del
+     * estado y la jugada se hacen con la partida bloqueada: si la partida
+     * cambió mientras el bot pensaba, la jugada se descarta. Las
+     * notificaciones y el próximo turno van después de soltarla.
+     *
+     * Tras formar molino el turno sigue siendo del bot: la acción aplicada
+     * vuelve a llamar a programarBot(), que encola la eliminación. Un bot sin
+     * jugadas ya lo detecta programarBot(); si aun así la búsqueda no devuelve
+     * ninguna, pierde por el mismo camino (declararSiBloqueado()).
+     *
+     * @param partida Partida del bot
+     * @param bot Jugador que tiene el turno
+     * @param estado Estado de la partida cuando se programó el turno
+     * @param programado Instante (System.nanoTime()) en que se programó: el
+     *                   tiempo del bot corre desde ahí, incluida la espera en cola
+     * @param plazo Plazo máximo de la jugada según el planificador
+     * @param limiteNodos Nodos máximos de la jugada según el planificador
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Llama a bot.elegirMovimiento() para la búsqueda
+     * - Llama a aplicarYNotificar() o a declararSiBloqueado()
+     */
+    private void jugarTurnoBot(IPartida partida, JugadorBot bot, long estado, long programado,
+                               long plazo, long limiteNodos) {
+        int movimiento = bot.elegirMovimiento(estado, programado, plazo, limiteNodos);
+        try {
+            if (movimiento == Movimiento.NINGUNO) {
+                declararSiBloqueado(partida, estado);
+                return;
+            }
+            aplicarYNotificar(partida, Movimiento.tipo(movimiento), (byte) Movimiento.origen(movimiento),
+                    (byte) Movimiento.destino(movimiento), estado);
+        } catch (RemoteException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * DECLARAR BLOQUEADO AL JUGADOR CON TURNO
+     *
+     * Sin jugadas legales el jugador con turno (bot o humano) pierde: la
+     * partida termina con el rival como ganador y se notifica igual que
+     * cualquier victoria (si no, la partida quedaría esperando una jugada que
+     * nunca llega).
+     *
+     * @param partida Partida a verificar
+     * @param esperado Estado en que se verificó antes (si la partida cambió no
+     *                 hace nada), o CUALQUIER_ESTADO
+     * @return true si el jugador estaba bloqueado y la partida terminó
+     * @throws RemoteException si hay error de comunicación RMI
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Es llamada por programarBot() y por jugarTurnoBot()
+     * - Llama a partida.declararBloqueado() con la partida bloqueada
+     * - Llama a terminarPartida() después de soltarla
+     */
+    private boolean declararSiBloqueado(IPartida partida, long esperado) throws RemoteException {
+        IJugador bloqueado;
+        IJugador ganador;
+        synchronized (partida) {
+            if (partida.getEstadoPartida() != EstadoPartida.EN_JUEGO
+                    || (esperado != CUALQUIER_ESTADO && partida.getEstadoCompacto() != esperado)) {
+                return false;
+            }
+            bloqueado = partida.getJugadorActual();
+            if (!partida.declararBloqueado()) {
+                return false;
+            }
+            ganador = partida.getGanador();
+        }
+        System.out.println("   [Partida #" + partida.getId() + "] " + bloqueado.getNombre()
+                + " no tiene movimientos: gana " + ganador.getNombre());
+        planificadorBots.detenerReflexion(partida.getId());
+        terminarPartida(partida.getId(), ganador);
+        return true;
+    }
+
 }
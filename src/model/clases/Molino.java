@@ -1,15 +1,14 @@
 package model.clases;
 
-import model.interfaces.IJugador;
 import java.io.Serializable;
 import java.util.List;
-import java.util.Map;
 
 /**
  * MOLINO - Representa una formación de 3 piezas en línea
  * Define las 3 posiciones que forman un molino válido (horizontal o vertical).
- * El tablero tiene 16 molinos posibles: 8 horizontales + 8 verticales.
- * RELACIONES: Usado por Tablero.formaMolino() para detectar molinos.
+ * El tablero estándar tiene 16 molinos posibles: 8 horizontales + 8 verticales
+ * (las variantes pueden agregar otros, ver Topologia).
+ * RELACIONES: Creado por Topologia al compilar las líneas de cada variante.
  */
 public class Molino implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -17,6 +16,7 @@ public class Molino implements Serializable {
     private final String pos1;  // Primera posición del molino
     private final String pos2;  // Segunda posición del molino
     private final String pos3;  // Tercera posición del molino
+    private final int mascara;  // Bits de las 3 posiciones (ver CodigoPosicion)
 
     /**
      * CONSTRUCTOR
@@ -24,12 +24,21 @@ public class Molino implements Serializable {
      * @param pos1 Primera posición (ej: "A1")
      * @param pos2 Segunda posición (ej: "D1")
      * @param pos3 Tercera posición (ej: "G1")
-     * RELACIONES: Llamado por Tablero.inicializarMolinos()
+     * RELACIONES: Llamado por Topologia al compilar sus líneas, llama a mascaraDe()
      */
     public Molino(String pos1, String pos2, String pos3) {
         this.pos1 = pos1;
         this.pos2 = pos2;
         this.pos3 = pos3;
+        this.mascara = mascaraDe(pos1) | mascaraDe(pos2) | mascaraDe(pos3);
+    }
+
+    /**
+     * @return Máscara con el bit de la posición, o 0 si el ID no existe
+     */
+    private static int mascaraDe(String id) {
+        int codigo = CodigoPosicion.parse(id);
+        return (codigo < 0) ? 0 : (1 << codigo);
     }
 
     /**
@@ -37,24 +46,35 @@ public class Molino implements Serializable {
      * Verifica si una posición dada forma parte de este molino.
      * @param posicion Posición a verificar
      * @return true si la posición es una de las 3 del molino
-     * RELACIONES: Llamado por Tablero.formaMolino()
      */
     public boolean contiene(String posicion) {
         return pos1.equals(posicion) || pos2.equals(posicion) || pos3.equals(posicion);
     }
 
+    /**
+     * VERIFICAR SI CONTIENE UN ÍNDICE DE POSICIÓN
+     * @param indice Índice de bit de la posición (0-23)
+     * @return true si la posición es una de las 3 del molino
+     */
+    public boolean contiene(int indice) {
+        return (mascara & (1 << indice)) != 0;
+    }
+
     /**
      * VERIFICAR SI ESTÁ FORMADO POR UN JUGADOR
      * Verifica si las 3 posiciones del molino están ocupadas por el mismo jugador.
-     * @param jugador Jugador a verificar
-     * @param posiciones Mapa de todas las posiciones del tablero
+     * @param mascaraJugador Máscara de ocupación del jugador (ver EstadoCompacto.mascara())
      * @return true si las 3 posiciones están ocupadas por el jugador
-     * RELACIONES: Llamado por Tablero.formaMolino()
      */
-    public boolean estaFormadoPor(IJugador jugador, Map<String, Posicion> posiciones) {
-        return posiciones.get(pos1).ocupadaPor(jugador) &&
-                posiciones.get(pos2).ocupadaPor(jugador) &&
-                posiciones.get(pos3).ocupadaPor(jugador);
+    public boolean estaFormadoPor(int mascaraJugador) {
+        return (mascaraJugador & mascara) == mascara;
+    }
+
+    /**
+     * @return Máscara de bits con las 3 posiciones del molino
+     */
+    public int getMascara() {
+        return mascara;
     }
 
     /**
@@ -0,0 +1,144 @@
+package model.clases;
+
+/**
+ * MOVIMIENTO - Codificación de una acción del juego en un int
+ *
+ * Los generadores de movimientos (ver Topologia.generarMovimientos()) escriben
+ * las acciones legales como ints empaquetados en un buffer provisto por quien
+ * llama, para no crear objetos en los caminos críticos (bots, pistas, detección
+ * de jugador bloqueado).
+ *
+ * FORMATO (bits):
+ *
+ *   0-4   destino   Código 0-23 de la posición afectada (ver CodigoPosicion)
+ *   5-9   origen    Código 0-23 de la posición de origen, o SIN_ORIGEN
+ *   10-11 tipo      COLOCAR, MOVER o ELIMINAR
+ *   12    bandera   EN_COLOCACION: la eliminación se generó en fase de colocación
+ *                   (la usa EstadoCompacto.deshacer() para restaurar la fase)
+ *
+ * - COLOCAR: destino = posición donde se coloca, sin origen
+ * - MOVER: origen -> destino (deslizamiento o vuelo, el formato es el mismo)
+ * - ELIMINAR: destino = posición de la pieza rival que se elimina, sin origen
+ *
+ * RELACIONES: Producido por Topologia.generarMovimientos(), Topologia.generarCapturas() y
+ * EstadoCompacto.generarMovimientos(); aplicado por EstadoCompacto.aplicar().
+ */
+public final class Movimiento {
+
+    public static final int COLOCAR = 0;
+    public static final int MOVER = 1;
+    public static final int ELIMINAR = 2;
+
+    /**
+     * Valor del campo origen cuando la acción no tiene origen
+     */
+    public static final int SIN_ORIGEN = 31;
+
+    /**
+     * Valor que devuelven las búsquedas cuando no hay movimiento para jugar
+     */
+    public static final int NINGUNO = -1;
+
+    /**
+     * Bandera de una eliminación generada durante la fase de colocación
+     */
+    public static final int EN_COLOCACION = 1 << 12;
+
+    /**
+     * Tamaño de buffer suficiente para cualquier generación
+     * (el peor caso es un vuelo: 3 piezas x 21 posiciones libres)
+     */
+    public static final int MAX_MOVIMIENTOS = 64;
+
+    private static final int BITS_POSICION = 5;
+    private static final int MASCARA_POSICION = (1 << BITS_POSICION) - 1;
+
+    private Movimiento() {
+    }
+
+    /**
+     * @param destino Código de la posición donde se coloca
+     * @return Movimiento empaquetado de colocación
+     */
+    public static int colocar(int destino) {
+        return (COLOCAR << 10) | (SIN_ORIGEN << BITS_POSICION) | destino;
+    }
+
+    /**
+     * @param origen Código de la posición de origen
+     * @param destino Código de la posición de destino
+     * @return Movimiento empaquetado de movimiento (deslizamiento o vuelo)
+     */
+    public static int mover(int origen, int destino) {
+        return (MOVER << 10) | (origen << BITS_POSICION) | destino;
+    }
+
+    /**
+     * @param posicion Código de la posición de la pieza rival
+     * @return Movimiento empaquetado de eliminación
+     */
+    public static int eliminar(int posicion) {
+        return (ELIMINAR << 10) | (SIN_ORIGEN << BITS_POSICION) | posicion;
+    }
+
+    /** @return Tipo del movimiento (COLOCAR, MOVER o ELIMINAR) */
+    public static int tipo(int movimiento) {
+        return (movimiento >>> 10) & 3;
+    }
+
+    /** @return Código de la posición de origen, o SIN_ORIGEN */
+    public static int origen(int movimiento) {
+        return (movimiento >>> BITS_POSICION) & MASCARA_POSICION;
+    }
+
+    /** @return true si el movimiento tiene la bandera EN_COLOCACION */
+    public static boolean enColocacion(int movimiento) {
+        return (movimiento & EN_COLOCACION) != 0;
+    }
+
+    /** @return Código de la posición de destino (o de la pieza eliminada) */
+    public static int destino(int movimiento) {
+        return movimiento & MASCARA_POSICION;
+    }
+
+    /**
+     * REPRESENTACIÓN EN TEXTO
+     * @param movimiento Movimiento empaquetado
+     * @return Texto legible (ej: "A1", "A1-D1", "xD1")
+     */
+    public static String toString(int movimiento) {
+        String destino = CodigoPosicion.formato(destino(movimiento));
+        switch (tipo(movimiento)) {
+            case MOVER:
+                return CodigoPosicion.formato(origen(movimiento)) + "-" + destino;
+            case ELIMINAR:
+                return "x" + destino;
+            default:
+                return destino;
+        }
+    }
+
+    /**
+     * LEER DESDE TEXTO
+     * @param texto Texto en el formato de toString() (ej: "A1", "A1-D1", "xD1")
+     * @return Movimiento empaquetado, o NINGUNO si el texto no es un movimiento
+     * RELACIONES: Usado por motor.RegistroPartida para leer partidas grabadas
+     */
+    public static int parse(String texto) {
+        if (texto == null) {
+            return NINGUNO;
+        }
+        if (texto.length() == 3 && texto.charAt(0) == 'x') {
+            int posicion = CodigoPosicion.parse(texto.substring(1));
+            return posicion == CodigoPosicion.INVALIDA ? NINGUNO : eliminar(posicion);
+        }
+        if (texto.length() == 5 && texto.charAt(2) == '-') {
+            int origen = CodigoPosicion.parse(texto.substring(0, 2));
+            int destino = CodigoPosicion.parse(texto.substring(3));
+            return origen == CodigoPosicion.INVALIDA || destino == CodigoPosicion.INVALIDA
+                    ? NINGUNO : mover(origen, destino);
+        }
+        int destino = CodigoPosicion.parse(texto);
+        return destino == CodigoPosicion.INVALIDA ? NINGUNO : colocar(destino);
+    }
+}
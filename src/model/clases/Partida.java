@@ -49,36 +49,35 @@ import java.util.List;
  *
  * - EstadoPartida: EN_ESPERA (esperando segundo jugador), EN_JUEGO, FINALIZADA
  * - EstadoJuego: EN_CURSO (jugando normalmente), ESPERANDO_ELIMINAR (formó molino),
- *                FINALIZADO (hay ganador)
+ *                FINALIZADO (hay ganador o, con el tablero lleno, tablas)
  * - FaseJuego: COLOCACION (colocando piezas iniciales), MOVIMIENTO (moviendo piezas)
+ *
+ * REPRESENTACIÓN:
+ *
+ * Todo el estado de las reglas (piezas, turno, fase, eliminación pendiente,
+ * piezas colocadas y ganador) vive en un único long empaquetado (ver
+ * EstadoCompacto). Partida es un envoltorio: traduce jugadores a lados (el
+ * jugador de índice 0 es el lado 0), delega la validación y aplicación de cada
+ * acción en EstadoCompacto y mantiene sincronizados los contadores de Jugador
+ * que usan las vistas. Turno, fase, ganador y tablero se derivan del long.
  */
 public class Partida implements IPartida, Serializable {
-    private static final long serialVersionUID = 1L;
-
-    /**
-     * Constantes del juego
-     */
-    private static final int PIEZAS_TOTALES_POR_JUGADOR = 9;  // Cada jugador tiene 9 piezas
-    private static final int PIEZAS_PARA_VUELO = 3;            // Con 3 piezas puede volar
-    private static final int PIEZAS_MINIMAS_PARA_PERDER = 2;   // Con 2 o menos piezas, pierde
+    private static final long serialVersionUID = 2L;
 
     /**
      * Atributos de la partida
      */
     private int id;                                 // ID único de la partida
-    private final Tablero tablero;                 // Tablero de juego
-    private final List<IJugador> jugadores;         // Lista de 2 jugadores
-    private IJugador jugadorActual;                 // Jugador que tiene el turno
-    private FaseJuego faseActual;                   // COLOCACION o MOVIMIENTO
+    private final List<IJugador> jugadores;         // Lista de 2 jugadores (índice = lado)
     private EstadoPartida estadoPartida;            // EN_ESPERA, EN_JUEGO, FINALIZADA
-    private EstadoJuego estadoJuego;                // EN_CURSO, ESPERANDO_ELIMINAR, FINALIZADO
-    private IJugador ganador;                       // Ganador de la partida (null si no hay)
+    private long estado;                            // Estado de las reglas (ver EstadoCompacto)
+    private long clave;                             // Clave Zobrist de estado, mantenida incrementalmente
 
     /**
      * Estados internos del juego
      * - EN_CURSO: Jugando normalmente
      * - ESPERANDO_ELIMINAR: Se formó un molino, esperando que elimine una pieza
-     * - FINALIZADO: La partida terminó, hay un ganador
+     * - FINALIZADO: La partida terminó, hay un ganador (o tablas)
      */
     public enum EstadoJuego { EN_CURSO, ESPERANDO_ELIMINAR, FINALIZADO }
     //esto deberia estar en un enum pero no lo voy a cambiar por que ya hice el uml, queda asi
@@ -92,31 +91,45 @@ public class Partida implements IPartida, Serializable {
      *
      * FLUJO:
      * 1. Asigna el ID de la partida
-     * 2. Crea un nuevo tablero vacío
+     * 2. Parte del estado inicial (tablero vacío)
      * 3. Agrega el primer jugador (siempre requerido)
      * 4. Si hay segundo jugador válido:
      *    - Lo agrega a la lista
      *    - Cambia estado a EN_JUEGO
      * 5. Si no hay segundo jugador:
      *    - Deja estado en EN_ESPERA
-     * 6. Inicializa:
-     *    - Jugador actual (jugador1 siempre empieza)
-     *    - Fase actual (COLOCACION)
-     *    - Estado del juego (EN_CURSO)
-     *    - Ganador (null)
+     * 6. El estado inicial implica: jugador1 empieza, fase COLOCACION,
+     *    estado del juego EN_CURSO y sin ganador
      *
      * @param id ID único de la partida
      * @param jugador1 Primer jugador (obligatorio)
      * @param jugador2 Segundo jugador (puede ser null si se espera un jugador)
      *
      * RELACIONES CON OTRAS FUNCIONES:
-     * - Llama a new Tablero() para crear el tablero
+     * - Usa EstadoCompacto.INICIAL y EstadoCompacto.clave() para el estado inicial
      * - Llama a jugadores.add() para agregar jugadores
      * - Llama a jugador2.getNombre() para validar si es un jugador real
      */
     public Partida(int id, IJugador jugador1, IJugador jugador2) {
+        this(id, jugador1, jugador2, Topologia.ESTANDAR);
+    }
+
+    /**
+     * CONSTRUCTOR DE LA PARTIDA PARA UNA VARIANTE
+     *
+     * Igual que el constructor estándar pero sobre otro tablero (ver Topologia):
+     * la variante queda guardada en el estado compacto y define adyacencias,
+     * molinos y piezas por jugador.
+     *
+     * @param id ID único de la partida
+     * @param jugador1 Primer jugador (obligatorio)
+     * @param jugador2 Segundo jugador (puede ser null si se espera un jugador)
+     * @param topologia Variante del tablero
+     */
+    public Partida(int id, IJugador jugador1, IJugador jugador2, Topologia topologia) {
         this.id = id;
-        this.tablero = new Tablero();
+        this.estado = EstadoCompacto.inicial(topologia);
+        this.clave = EstadoCompacto.clave(estado);
         this.jugadores = new ArrayList<>();
         this.jugadores.add(jugador1);
 
@@ -130,11 +143,6 @@ public class Partida implements IPartida, Serializable {
             this.estadoPartida = EstadoPartida.EN_ESPERA;
             System.out.println("   [Partida #" + id + "] Partida en espera (1/2): " + jugador1.getNombre());
         }
-
-        this.jugadorActual = jugador1;
-        this.faseActual = FaseJuego.COLOCACION;
-        this.estadoJuego = EstadoJuego.EN_CURSO;
-        this.ganador = null;
     }
 
     /**
@@ -214,37 +222,55 @@ public class Partida implements IPartida, Serializable {
      */
     @Override
     public FaseJuego getFaseActual() {
-        return faseActual;
+        return EstadoCompacto.fase(estado);
     }
 
     /**
      * OBTENER JUGADOR ACTUAL (QUE TIENE EL TURNO)
      *
-     * @return Jugador que debe hacer la siguiente acción
+     * @return Jugador que debe hacer la siguiente acción (null si el lado
+     *         con turno todavía no tiene jugador)
      */
     @Override
     public IJugador getJugadorActual() {
-        return jugadorActual;
+        return jugadorDe(EstadoCompacto.turno(estado));
     }
 
     /**
      * OBTENER GANADOR DE LA PARTIDA
      *
-     * @return Jugador ganador, o null si no hay ganador aún
+     * @return Jugador ganador, o null si no hay ganador aún o la partida
+     *         terminó en tablas
      */
     @Override
     public IJugador getGanador() {
-        return ganador;
+        int lado = EstadoCompacto.ganador(estado);
+        return lado < 0 ? null : jugadorDe(lado);
     }
 
     /**
      * VERIFICAR SI HAY GANADOR
      *
      * @return true si la partida tiene un ganador, false en caso contrario
+     *         (también si terminó en tablas, ver isTablas())
      */
     @Override
     public boolean hayGanador() {
-        return ganador != null;
+        return EstadoCompacto.ganador(estado) >= 0;
+    }
+
+    /**
+     * VERIFICAR SI LA PARTIDA TERMINÓ EN TABLAS
+     *
+     * En la variante de doce piezas las 24 colocaciones pueden llenar el
+     * tablero sin molinos: nadie puede moverse y la partida termina sin
+     * ganador (ver EstadoCompacto).
+     *
+     * @return true si la partida terminó en tablas
+     */
+    @Override
+    public boolean isTablas() {
+        return EstadoCompacto.tablas(estado);
     }
 
     /**
@@ -254,34 +280,57 @@ public class Partida implements IPartida, Serializable {
      * la fase de colocación del juego.
      *
      * FLUJO:
-     * 1. Valida que esté en fase COLOCACION y estado EN_CURSO
-     * 2. Intenta colocar la pieza en el tablero
-     * 3. Procesa la acción:
-     *    - Si forma molino: cambia a ESPERANDO_ELIMINAR
+     * 1. Valida que la partida tenga 2 jugadores
+     * 2. EstadoCompacto.colocar() valida fase COLOCACION, estado EN_CURSO y
+     *    posición libre, y aplica la acción:
+     *    - Si forma molino: queda ESPERANDO_ELIMINAR
      *    - Si no: cambia turno y actualiza fase si es necesario
+     * 3. Suma la pieza colocada al contador del jugador
+     * 4. Si la colocación llenó el tablero (tablas): la partida pasa a FINALIZADA
      *
      * @param posicion Posición donde colocar la pieza (ej: "A1", "B2", etc.)
      * @return true si la pieza se colocó exitosamente, false en caso contrario
      * @throws RemoteException si hay error de comunicación RMI
      *
      * RELACIONES CON OTRAS FUNCIONES:
-     * - Llama a validarAccion(FaseJuego.COLOCACION) para validar precondiciones
-     * - Llama a tablero.colocarPieza(posicion, jugadorActual) para colocar la pieza
-     * - Llama a procesarDespuesDeAccion(posicion) para manejar post-acción
+     * - Llama a EstadoCompacto.colocar() para validar y aplicar
+     * - Llama a actualizarEstado() para guardar el nuevo estado
+     * - Llama a jugador.incrementarPiezasColocadas()
      *
-     * NOTA: Esta función es llamada por Modelo.colocarPieza()
+     * NOTA: Esta función es un adaptador de colocarPieza(byte)
      */
     @Override
     public boolean colocarPieza(String posicion) throws RemoteException {
-        if (!validarAccion(FaseJuego.COLOCACION)) {
+        return colocarPieza(CodigoPosicion.parse(posicion));
+    }
+
+    /**
+     * COLOCAR PIEZA (CÓDIGO COMPACTO)
+     *
+     * Misma lógica que colocarPieza(String) pero recibe el código 0-23 de la
+     * posición (ver CodigoPosicion), evitando convertir texto en cada jugada.
+     *
+     * @param posicion Código de la posición donde colocar la pieza
+     * @return true si la pieza se colocó exitosamente, false en caso contrario
+     * @throws RemoteException si hay error de comunicación RMI
+     *
+     * NOTA: Esta función es llamada por Modelo.colocarPieza()
+     */
+    @Override
+    public boolean colocarPieza(byte posicion) throws RemoteException {
+        if (jugadores.size() < 2) {
             return false;
         }
 
-        if (!tablero.colocarPieza(posicion, jugadorActual)) {
+        IJugador jugador = getJugadorActual();
+        if (!actualizarEstado(EstadoCompacto.colocar(estado, posicion))) {
             return false;
         }
 
-        procesarDespuesDeAccion(posicion);
+        jugador.incrementarPiezasColocadas();
+        if (isTablas()) {
+            estadoPartida = EstadoPartida.FINALIZADA;
+        }
         return true;
     }
 
@@ -296,11 +345,11 @@ public class Partida implements IPartida, Serializable {
      * posición vacía, no solo a posiciones adyacentes.
      *
      * FLUJO:
-     * 1. Valida que no esté en fase COLOCACION y que esté EN_CURSO
-     * 2. Determina si el jugador puede volar (tiene 3 piezas)
-     * 3. Intenta mover la pieza en el tablero
-     * 4. Procesa la acción:
-     *    - Si forma molino: cambia a ESPERANDO_ELIMINAR
+     * 1. Valida que la partida tenga 2 jugadores
+     * 2. EstadoCompacto.mover() valida que no esté en fase COLOCACION, que esté
+     *    EN_CURSO, que el origen sea propio, el destino libre y adyacente (o que
+     *    el jugador pueda volar), y aplica la acción:
+     *    - Si forma molino: queda ESPERANDO_ELIMINAR
      *    - Si no: cambia turno
      *
      * @param origen Posición de origen de la pieza (ej: "A1")
@@ -309,27 +358,36 @@ public class Partida implements IPartida, Serializable {
      * @throws RemoteException si hay error de comunicación RMI
      *
      * RELACIONES CON OTRAS FUNCIONES:
-     * - Llama a jugadorActual.getPiezasEnTablero() para verificar si puede volar
-     * - Llama a tablero.moverPieza(origen, destino, jugadorActual, puedeVolar)
-     * - Llama a procesarDespuesDeAccion(destino) para manejar post-acción
+     * - Llama a EstadoCompacto.mover() para validar y aplicar
+     * - Llama a actualizarEstado() para guardar el nuevo estado
      *
-     * NOTA: Esta función es llamada por Modelo.moverPieza()
+     * NOTA: Esta función es un adaptador de moverPieza(byte, byte)
      */
     @Override
     public boolean moverPieza(String origen, String destino) throws RemoteException {
-        if (faseActual == FaseJuego.COLOCACION || estadoJuego != EstadoJuego.EN_CURSO) {
-            return false;
-        }
-
-        // El jugador puede volar solo si tiene exactamente 3 piezas (individual, no global)
-        boolean puedeVolar = (jugadorActual.getPiezasEnTablero() == PIEZAS_PARA_VUELO);
+        return moverPieza(CodigoPosicion.parse(origen), CodigoPosicion.parse(destino));
+    }
 
-        if (!tablero.moverPieza(origen, destino, jugadorActual, puedeVolar)) {
+    /**
+     * MOVER PIEZA (CÓDIGO COMPACTO)
+     *
+     * Misma lógica que moverPieza(String, String) con códigos 0-23.
+     *
+     * @param origen Código de la posición de origen
+     * @param destino Código de la posición de destino
+     * @return true si la pieza se movió exitosamente, false en caso contrario
+     * @throws RemoteException si hay error de comunicación RMI
+     *
+     * NOTA: Esta función es llamada por Modelo.moverPieza()
+     */
+    @Override
+    public boolean moverPieza(byte origen, byte destino) throws RemoteException {
+        if (jugadores.size() < 2) {
             return false;
         }
 
-        procesarDespuesDeAccion(destino);
-        return true;
+        // El vuelo (exactamente 3 piezas) es individual y lo resuelve EstadoCompacto
+        return actualizarEstado(EstadoCompacto.mover(estado, origen, destino));
     }
 
     /**
@@ -343,278 +401,220 @@ public class Partida implements IPartida, Serializable {
      * EXCEPTO si todas las piezas del oponente están en molinos.
      *
      * FLUJO:
-     * 1. Verifica que el estado sea ESPERANDO_ELIMINAR
-     * 2. Obtiene el jugador oponente
-     * 3. Valida que la pieza NO esté en un molino (o todas estén en molinos)
-     * 4. Elimina la pieza del tablero
-     * 5. Vuelve al estado EN_CURSO
-     * 6. Verifica condiciones de victoria:
-     *    - Oponente tiene ≤2 piezas (y terminó de colocar)
-     *    - Oponente no puede moverse
-     * 7. Si no hay ganador: cambia turno y actualiza fase
+     * 1. Verifica que haya 2 jugadores
+     * 2. EstadoCompacto.eliminar():
+     *    - Verifica que el estado sea ESPERANDO_ELIMINAR
+     *    - Valida que la pieza sea del oponente y NO esté en un molino
+     *      (o todas estén en molinos)
+     *    - Elimina la pieza y vuelve al estado EN_CURSO
+     *    - Verifica condiciones de victoria:
+     *      - Oponente tiene ≤2 piezas (y terminó de colocar)
+     *      - Oponente no puede moverse (solo fuera de la fase de colocación)
+     *    - Si no hay ganador: cambia turno y actualiza fase
+     * 3. Descuenta la pieza del contador del oponente
+     * 4. Si hay ganador: la partida pasa a FINALIZADA
      *
      * @param posicion Posición de la pieza del oponente a eliminar
      * @return true si se eliminó exitosamente, false en caso contrario
      * @throws RemoteException si hay error de comunicación RMI
      *
      * RELACIONES CON OTRAS FUNCIONES:
-     * - Llama a getJugadorOponente() para obtener el oponente
-     * - Llama a tablero.formaMolino(posicion, oponente) para validar
-     * - Llama a todasLasPiezasEnMolino(oponente) para validar excepción
-     * - Llama a tablero.eliminarPieza(posicion, oponente) para eliminar
-     * - Llama a verificarCondicionesVictoria() para verificar fin del juego
+     * - Llama a EstadoCompacto.eliminar() para validar y aplicar (incluye victoria)
+     * - Llama a actualizarEstado() para guardar el nuevo estado
+     * - Llama a oponente.decrementarPiezasEnTablero()
      * - Llama a hayGanador() para verificar si terminó el juego
-     * - Llama a cambiarTurno() si no hay ganador
-     * - Llama a actualizarFase() para transicionar de COLOCACION a MOVIMIENTO
      *
-     * NOTA: Esta función es llamada por Modelo.eliminarPiezaOponente()
+     * NOTA: Esta función es un adaptador de eliminarPiezaOponente(byte)
      */
     @Override
     public boolean eliminarPiezaOponente(String posicion) throws RemoteException {
-        if (estadoJuego != EstadoJuego.ESPERANDO_ELIMINAR) {
-            return false;
-        }
-
-        IJugador oponente = getJugadorOponente();
+        return eliminarPiezaOponente(CodigoPosicion.parse(posicion));
+    }
 
-        // Verificar que no esté en un molino a menos que todas las piezas del oponente estén en molinos
-        if (tablero.formaMolino(posicion, oponente) && !todasLasPiezasEnMolino(oponente)) {
+    /**
+     * ELIMINAR PIEZA DEL OPONENTE (CÓDIGO COMPACTO)
+     *
+     * Misma lógica que eliminarPiezaOponente(String) con el código 0-23.
+     *
+     * @param posicion Código de la posición de la pieza del oponente a eliminar
+     * @return true si se eliminó exitosamente, false en caso contrario
+     * @throws RemoteException si hay error de comunicación RMI
+     *
+     * NOTA: Esta función es llamada por Modelo.eliminarPiezaOponente()
+     */
+    @Override
+    public boolean eliminarPiezaOponente(byte posicion) throws RemoteException {
+        if (jugadores.size() < 2) {
             return false;
         }
 
-        if (!tablero.eliminarPieza(posicion, oponente)) {
+        IJugador oponente = jugadorDe(1 - EstadoCompacto.turno(estado));
+        if (!actualizarEstado(EstadoCompacto.eliminar(estado, posicion))) {
             return false;
         }
 
-        estadoJuego = EstadoJuego.EN_CURSO;
-
-        verificarCondicionesVictoria();
-
-        if (!hayGanador()) {
-            cambiarTurno();
-            actualizarFase();
+        oponente.decrementarPiezasEnTablero();
+        if (hayGanador()) {
+            estadoPartida = EstadoPartida.FINALIZADA;
         }
-
         return true;
     }
 
     /**
-     * VERIFICAR SI ESTÁ ESPERANDO ELIMINAR
+     * DECLARAR BLOQUEADO AL JUGADOR ACTUAL
      *
-     * Indica si el jugador actual debe eliminar una pieza del oponente
-     * después de haber formado un molino.
+     * Si el jugador con turno no tiene ninguna acción legal, pierde: la
+     * partida pasa a FINALIZADA con el oponente como ganador.
      *
-     * @return true si está esperando eliminar, false en caso contrario
+     * @return true si el jugador estaba bloqueado y la partida terminó
      *
      * RELACIONES CON OTRAS FUNCIONES:
-     * - Es llamada por Modelo.colocarPieza() y Modelo.moverPieza() para
-     *   determinar qué evento notificar
+     * - Llama a EstadoCompacto.declararBloqueado()
+     * - Es llamada por Modelo.declararSiBloqueado() antes de cada turno
      */
     @Override
-    public boolean isEsperandoEliminar() {
-        return estadoJuego == EstadoJuego.ESPERANDO_ELIMINAR;
+    public boolean declararBloqueado() {
+        if (jugadores.size() < 2 || !actualizarEstado(EstadoCompacto.declararBloqueado(estado))) {
+            return false;
+        }
+        estadoPartida = EstadoPartida.FINALIZADA;
+        return true;
     }
 
-    // ===================================================================
-    // MÉTODOS PRIVADOS AUXILIARES
-    // ===================================================================
-
     /**
-     * PROCESAR DESPUÉS DE UNA ACCIÓN (COLOCAR O MOVER)
+     * GENERAR ACCIONES LEGALES DE UN JUGADOR
      *
-     * Maneja la lógica después de colocar o mover una pieza:
-     * - Si se formó un molino: cambia a ESPERANDO_ELIMINAR
-     * - Si no: cambia turno y actualiza la fase si es necesario
+     * Escribe todas las acciones legales del jugador (colocaciones,
+     * deslizamientos, vuelos o eliminaciones tras un molino) como movimientos
+     * empaquetados (ver Movimiento), sin crear objetos. Solo el jugador con
+     * turno tiene acciones: para el otro, o con la partida terminada, es 0.
      *
-     * @param posicionFinal Posición final de la pieza (donde quedó colocada o movida)
+     * @param jugador Jugador de la partida
+     * @param buffer Destino (con Movimiento.MAX_MOVIMIENTOS alcanza siempre)
+     * @return Cantidad de movimientos escritos en buffer[0..n)
      *
      * RELACIONES CON OTRAS FUNCIONES:
-     * - Llama a tablero.formaMolino(posicionFinal, jugadorActual) para detectar molino
-     * - Llama a cambiarTurno() si no se formó molino
-     * - Llama a actualizarFase() para transicionar de COLOCACION a MOVIMIENTO
-     * - Es llamada por colocarPieza() y moverPieza()
+     * - Llama a EstadoCompacto.generarMovimientos() sobre el estado de la partida
+     * - Es la entrada por jugador del generador; el de máscaras está en
+     *   Topologia (y en Tablero para el tablero estándar)
      */
-    private void procesarDespuesDeAccion(String posicionFinal) {
-        if (tablero.formaMolino(posicionFinal, jugadorActual)) {
-            estadoJuego = EstadoJuego.ESPERANDO_ELIMINAR;
-        } else {
-            cambiarTurno();
-            actualizarFase();
+    @Override
+    public int generarMovimientos(IJugador jugador, int[] buffer) {
+        if (jugador == null || !jugador.equals(getJugadorActual())) {
+            return 0;
         }
+        return EstadoCompacto.generarMovimientos(estado, buffer);
     }
 
     /**
-     * VALIDAR ACCIÓN
+     * VERIFICAR SI ESTÁ ESPERANDO ELIMINAR
      *
-     * Verifica que se cumplan las precondiciones para realizar una acción:
-     * - Que esté en la fase requerida (COLOCACION o MOVIMIENTO)
-     * - Que el estado del juego sea EN_CURSO (no esperando eliminar ni finalizado)
+     * Indica si el jugador actual debe eliminar una pieza del oponente
+     * después de haber formado un molino.
      *
-     * @param faseRequerida Fase en la que debe estar el juego
-     * @return true si se puede realizar la acción, false en caso contrario
+     * @return true si está esperando eliminar, false en caso contrario
      *
      * RELACIONES CON OTRAS FUNCIONES:
-     * - Es llamada por colocarPieza() con FaseJuego.COLOCACION
+     * - Es llamada por Modelo.colocarPieza() y Modelo.moverPieza() para
+     *   determinar qué evento notificar
      */
-    private boolean validarAccion(FaseJuego faseRequerida) {
-        return faseActual == faseRequerida && estadoJuego == EstadoJuego.EN_CURSO;
+    @Override
+    public boolean isEsperandoEliminar() {
+        return EstadoCompacto.esperandoEliminar(estado);
     }
 
     /**
-     * CAMBIAR TURNO AL OTRO JUGADOR
+     * OBTENER ESTADO COMPACTO
      *
-     * Alterna el turno entre el jugador 0 y el jugador 1.
+     * Devuelve el estado completo de las reglas empaquetado en un long (ver
+     * EstadoCompacto). Es un valor: se puede guardar, comparar o usar para
+     * explorar jugadas sin afectar la partida.
      *
-     * RELACIONES CON OTRAS FUNCIONES:
-     * - Es llamada por procesarDespuesDeAccion() cuando no se forma molino
-     * - Es llamada por eliminarPiezaOponente() después de eliminar una pieza
+     * @return Estado empaquetado
      */
-    private void cambiarTurno() {
-        jugadorActual = (jugadorActual == jugadores.get(0)) ? jugadores.get(1) : jugadores.get(0);
+    @Override
+    public long getEstadoCompacto() {
+        return estado;
     }
 
     /**
-     * OBTENER JUGADOR OPONENTE
+     * OBTENER VARIANTE DEL TABLERO
      *
-     * Devuelve el jugador que NO es el jugador actual.
-     *
-     * @return El oponente del jugador actual
-     *
-     * RELACIONES CON OTRAS FUNCIONES:
-     * - Es llamada por eliminarPiezaOponente() para obtener el oponente
-     * - Es llamada por verificarCondicionesVictoria() para verificar victoria
+     * @return Topología de la partida (la usan las vistas para dibujar el tablero)
      */
-    private IJugador getJugadorOponente() {
-        return (jugadorActual == jugadores.get(0)) ? jugadores.get(1) : jugadores.get(0);
+    @Override
+    public Topologia getTopologia() {
+        return EstadoCompacto.topologia(estado);
     }
 
     /**
-     * ACTUALIZAR FASE DEL JUEGO
-     *
-     * Transiciona de la fase COLOCACION a MOVIMIENTO cuando ambos jugadores
-     * hayan colocado sus 9 piezas.
+     * OBTENER ESTADO DEL JUEGO
      *
-     * NOTA IMPORTANTE:
-     * La capacidad de VOLAR (mover a cualquier posición cuando un jugador tiene
-     * 3 piezas) es INDIVIDUAL por jugador, no es una fase global de la partida.
-     * Se verifica en moverPieza() y jugadorPuedeMoverse().
-     *
-     * RELACIONES CON OTRAS FUNCIONES:
-     * - Llama a jugadores.get(0).getPiezasColocadas() para verificar jugador 1
-     * - Llama a jugadores.get(1).getPiezasColocadas() para verificar jugador 2
-     * - Es llamada por procesarDespuesDeAccion() y eliminarPiezaOponente()
+     * @return EN_CURSO, ESPERANDO_ELIMINAR o FINALIZADO, derivado del estado compacto
      */
-    private void actualizarFase() {
-        // Solo transición de COLOCACION a MOVIMIENTO cuando ambos jugadores terminan de colocar
-        if (faseActual == FaseJuego.COLOCACION &&
-                jugadores.get(0).getPiezasColocadas() == PIEZAS_TOTALES_POR_JUGADOR &&
-                jugadores.get(1).getPiezasColocadas() == PIEZAS_TOTALES_POR_JUGADOR) {
-            faseActual = FaseJuego.MOVIMIENTO;
+    public EstadoJuego getEstadoJuego() {
+        if (EstadoCompacto.finalizado(estado)) {
+            return EstadoJuego.FINALIZADO;
         }
-
-        // NOTA: La capacidad de VOLAR es individual por jugador (cuando tiene 3 piezas),
-        // no una fase global de la partida. Se verifica en moverPieza() y jugadorPuedeMoverse()
+        return EstadoCompacto.esperandoEliminar(estado) ? EstadoJuego.ESPERANDO_ELIMINAR : EstadoJuego.EN_CURSO;
     }
 
+    // ===================================================================
+    // MÉTODOS PRIVADOS AUXILIARES
+    // ===================================================================
+
     /**
-     * VERIFICAR CONDICIONES DE VICTORIA
-     *
-     * Verifica si se cumple alguna de las condiciones de victoria:
+     * ACTUALIZAR ESTADO
      *
-     * CONDICION 1: Oponente reducido a 2 o menos piezas
-     * - Solo válido si el oponente ya colocó todas sus 9 piezas
-     * - Durante COLOCACION no cuenta (podría tener 2 en tablero y 7 sin colocar)
+     * Guarda el estado resultante de una acción, si fue legal, y actualiza la
+     * clave Zobrist con los componentes que cambiaron.
      *
-     * CONDICION 2: Oponente sin movimientos disponibles
-     * - Solo en fase MOVIMIENTO
-     * - El oponente no puede mover ninguna de sus piezas
-     *
-     * Si hay ganador, establece:
-     * - ganador = jugadorActual
-     * - estadoJuego = FINALIZADO
-     * - estadoPartida = FINALIZADA
+     * @param siguiente Estado devuelto por EstadoCompacto (o ILEGAL)
+     * @return true si la acción era legal y se aplicó
      *
      * RELACIONES CON OTRAS FUNCIONES:
-     * - Llama a getJugadorOponente() para obtener el oponente
-     * - Llama a oponente.getPiezasEnTablero() para contar piezas
-     * - Llama a oponente.getPiezasColocadas() para verificar si terminó de colocar
-     * - Llama a jugadorPuedeMoverse(oponente) para verificar movimientos
-     * - Es llamada por eliminarPiezaOponente()
+     * - Llama a EstadoCompacto.actualizarClave() para la clave incremental
+     * - Es llamada por colocarPieza(), moverPieza(), eliminarPiezaOponente() y
+     *   declararBloqueado()
      */
-    private void verificarCondicionesVictoria() {
-        IJugador oponente = getJugadorOponente();
-
-        // Gana si el oponente tiene ≤2 piezas SOLO SI YA COLOCÓ TODAS sus fichas
-        // Durante la fase de colocación, aunque tenga 2 piezas en tablero, puede seguir colocando
-        if (oponente.getPiezasEnTablero() <= PIEZAS_MINIMAS_PARA_PERDER &&
-            oponente.getPiezasColocadas() == PIEZAS_TOTALES_POR_JUGADOR) {
-            ganador = jugadorActual;
-            estadoJuego = EstadoJuego.FINALIZADO;
-            estadoPartida = EstadoPartida.FINALIZADA;
-            return;
-        }
-
-        // Gana si el oponente no puede moverse (solo en fase de movimiento)
-        if (faseActual != FaseJuego.COLOCACION && !jugadorPuedeMoverse(oponente)) {
-            ganador = jugadorActual;
-            estadoJuego = EstadoJuego.FINALIZADO;
-            estadoPartida = EstadoPartida.FINALIZADA;
+    private boolean actualizarEstado(long siguiente) {
+        if (siguiente == EstadoCompacto.ILEGAL) {
+            return false;
         }
+        clave = EstadoCompacto.actualizarClave(clave, estado, siguiente);
+        estado = siguiente;
+        return true;
     }
 
     /**
-     * VERIFICAR SI UN JUGADOR PUEDE MOVERSE
-     *
-     * Determina si un jugador tiene al menos un movimiento válido disponible.
+     * OBTENER JUGADOR DE UN LADO
      *
-     * REGLA ESPECIAL:
-     * Si el jugador tiene exactamente 3 piezas, puede VOLAR a cualquier posición,
-     * lo cual aumenta sus posibilidades de tener movimientos disponibles.
-     *
-     * @param jugador Jugador a verificar
-     * @return true si el jugador puede mover al menos una pieza, false si no
-     *
-     * RELACIONES CON OTRAS FUNCIONES:
-     * - Llama a jugador.getPiezasEnTablero() para verificar si puede volar
-     * - Llama a tablero.getPosicionesOcupadasPor(jugador) para obtener piezas
-     * - Llama a tablero.tieneMovimientosDisponibles(posicion, puedeVolar)
-     * - Es llamada por verificarCondicionesVictoria()
+     * @param lado Lado del estado compacto (0 o 1)
+     * @return Jugador de ese lado, o null si todavía no se unió
      */
-    private boolean jugadorPuedeMoverse(IJugador jugador) {
-        // Verificar si el jugador puede volar (tiene 3 piezas) - esto es INDIVIDUAL
-        boolean puedeVolar = (jugador.getPiezasEnTablero() == PIEZAS_PARA_VUELO);
-
-        for (String posicion : tablero.getPosicionesOcupadasPor(jugador)) {
-            if (tablero.tieneMovimientosDisponibles(posicion, puedeVolar)) {
-                return true;
-            }
-        }
-        return false;
+    private IJugador jugadorDe(int lado) {
+        return lado < jugadores.size() ? jugadores.get(lado) : null;
     }
 
     /**
-     * VERIFICAR SI TODAS LAS PIEZAS DEL JUGADOR ESTÁN EN MOLINOS
+     * OBTENER CLAVE ZOBRIST DE LA POSICIÓN
      *
-     * Determina si todas las piezas de un jugador forman parte de molinos.
-     * Esto es importante para la regla de eliminación:
-     * - Normalmente NO se puede eliminar una pieza que esté en un molino
-     * - EXCEPCIÓN: Si TODAS las piezas están en molinos, sí se puede eliminar
+     * Identificador de 64 bits de la posición completa: ocupación, turno, fase,
+     * eliminación pendiente y piezas colocadas por cada jugador. Dos partidas en
+     * la misma posición tienen la misma clave, sin importar los nombres de los
+     * jugadores ni el camino por el que llegaron.
      *
-     * @param jugador Jugador a verificar
-     * @return true si todas sus piezas están en molinos, false si al menos una no lo está
+     * La clave se actualiza en cada acción solo con los componentes que
+     * cambiaron, así que la consulta es O(1).
+     *
+     * @return Clave de 64 bits de la posición (igual a EstadoCompacto.clave(getEstadoCompacto()))
      *
      * RELACIONES CON OTRAS FUNCIONES:
-     * - Llama a tablero.getPosicionesOcupadasPor(jugador) para obtener piezas
-     * - Llama a tablero.formaMolino(posicion, jugador) para cada pieza
-     * - Es llamada por eliminarPiezaOponente() para validar eliminación
+     * - Mantenida por actualizarEstado() con EstadoCompacto.actualizarClave()
      */
-    private boolean todasLasPiezasEnMolino(IJugador jugador) {
-        for (String posicion : tablero.getPosicionesOcupadasPor(jugador)) {
-            if (!tablero.formaMolino(posicion, jugador)) {
-                return false;
-            }
-        }
-        return true;
+    @Override
+    public long getClaveZobrist() {
+        return clave;
     }
 
     /**
@@ -633,20 +633,20 @@ public class Partida implements IPartida, Serializable {
      * @throws RemoteException si hay error de comunicación RMI
      *
      * RELACIONES CON OTRAS FUNCIONES:
-     * - Llama a tablero.getPosiciones() para obtener todas las posiciones
-     * - Llama a entry.getValue().estaLibre() para filtrar posiciones vacías
-     * - Llama a entry.getValue().getOcupante() para obtener el jugador
+     * - Llama a EstadoCompacto.mascara() para obtener las piezas de cada lado
+     * - Llama a CodigoPosicion.formato() para traducir cada bit a su ID
      */
     @Override
     public java.util.Map<String, IJugador> getEstadoTablero() throws RemoteException {
-        java.util.Map<String, IJugador> estado = new java.util.HashMap<>();
+        java.util.Map<String, IJugador> tablero = new java.util.HashMap<>();
 
-        for (java.util.Map.Entry<String, Posicion> entry : tablero.getPosiciones().entrySet()) {
-            if (!entry.getValue().estaLibre()) {
-                estado.put(entry.getKey(), entry.getValue().getOcupante());
+        for (int lado = 0; lado < jugadores.size(); lado++) {
+            IJugador jugador = jugadores.get(lado);
+            for (int mascara = EstadoCompacto.mascara(estado, lado); mascara != 0; mascara &= mascara - 1) {
+                tablero.put(CodigoPosicion.formato(Integer.numberOfTrailingZeros(mascara)), jugador);
             }
         }
 
-        return estado;
+        return tablero;
     }
 }
@@ -11,6 +11,7 @@ import java.util.Map;
  * Gestiona las victorias de cada jugador y las persiste en archivo (ranking.dat).
  * PATRÓN SINGLETON: Solo existe una instancia compartida por todo el servidor.
  * PERSISTENCIA: Los datos se guardan automáticamente en src/data/ranking.dat.
+ * HILOS: Lo actualizan hilos RMI y los del bot; los métodos son synchronized.
  * RELACIONES: Usado por Modelo para actualizar y consultar el ranking.
  */
 public class Ranking implements IRanking, Serializable {
@@ -51,7 +52,7 @@ public class Ranking implements IRanking, Serializable {
      *             llama a serializador.writeOneObject() para persistir
      */
     @Override
-    public void actualizar(String nombreJugador) {
+    public synchronized void actualizar(String nombreJugador) {
         ranking.put(nombreJugador, ranking.getOrDefault(nombreJugador, 0) + 1);
         serializador.writeOneObject(ranking);
     }
@@ -62,7 +63,7 @@ public class Ranking implements IRanking, Serializable {
      * RELACIONES: Llamado por Modelo.getRanking()
      */
     @Override
-    public Map<String, Integer> getRanking() {
+    public synchronized Map<String, Integer> getRanking() {
         return new HashMap<>(ranking);
     }
 
@@ -0,0 +1,246 @@
+package model.clases;
+
+/**
+ * ============================================================================
+ * SIMETRÍA - CANONICALIZACIÓN DE POSICIONES POR LAS 16 SIMETRÍAS DEL TABLERO
+ * ============================================================================
+ *
+ * El tablero del Molino tiene 16 simetrías que conservan adyacencias y molinos:
+ * las 8 del cuadrado (4 rotaciones, con o sin reflejo) combinadas con el
+ * intercambio del cuadrado exterior con el interior (el del medio queda fijo).
+ * Dos posiciones relacionadas por una simetría tienen el mismo valor de juego,
+ * así que cachés, estadísticas de aperturas y bases de finales pueden guardar
+ * una sola de las (hasta) 16 variantes: la forma canónica.
+ *
+ * NUMERACIÓN DE LAS SIMETRÍAS (0-15):
+ *
+ *   bits 0-1  rotaciones de 90° en sentido horario (0-3)
+ *   bit 2     reflejo izquierda-derecha (aplicado antes de rotar)
+ *   bit 3     intercambio de los cuadrados exterior e interior
+ *
+ *   La simetría 0 es la identidad.
+ *
+ * IMPLEMENTACIÓN:
+ * - Las permutaciones de los 24 puntos se calculan una vez a partir de las
+ *   coordenadas de cada posición en la grilla 7x7 (ver CodigoPosicion)
+ * - Permutar una máscara de 24 bits son 3 consultas a tabla (una por byte)
+ * - La forma canónica de un estado es el menor de sus 16 transformados; turno,
+ *   fase, contadores y variante no cambian con la simetría
+ * - Las variantes sin cuadrado interior (ver Topologia) solo conservan las
+ *   simetrías 0-7, y la canonicalización se limita a esas
+ *
+ * USO TÍPICO:
+ *   int s = Simetria.simetriaCanonica(estado);
+ *   long canonico = Simetria.transformar(estado, s);
+ *   ...                                            // buscar / guardar canonico
+ *   int jugada = Simetria.transformarMovimiento(movimientoCanonico, Simetria.inversa(s));
+ *
+ * RELACIONES: Opera sobre estados de EstadoCompacto y movimientos de Movimiento.
+ */
+public final class Simetria {
+
+    /**
+     * Cantidad de simetrías del tablero
+     */
+    public static final int CANTIDAD = 16;
+
+    /**
+     * Simetría identidad
+     */
+    public static final int IDENTIDAD = 0;
+
+    private static final int ROTACIONES = 4;
+    private static final int REFLEJO = 4;
+    private static final int INTERCAMBIO_CUADRADOS = 8;
+
+    /**
+     * PERMUTACIONES[s][codigo] = código de la posición a la que la simetría s lleva codigo
+     */
+    private static final byte[][] PERMUTACIONES = new byte[CANTIDAD][Tablero.CANTIDAD_POSICIONES];
+
+    /**
+     * MASCARAS[s][256 * k + b] = imagen por s de las posiciones del byte k (0-2) con bits b
+     */
+    private static final int[][] MASCARAS = new int[CANTIDAD][3 * 256];
+
+    /**
+     * INVERSAS[s] = simetría que deshace s
+     */
+    private static final int[] INVERSAS = new int[CANTIDAD];
+
+    static {
+        for (int s = 0; s < CANTIDAD; s++) {
+            for (int codigo = 0; codigo < Tablero.CANTIDAD_POSICIONES; codigo++) {
+                PERMUTACIONES[s][codigo] = calcularImagen(s, codigo);
+            }
+            for (int k = 0; k < 3; k++) {
+                for (int b = 0; b < 256; b++) {
+                    int imagen = 0;
+                    for (int bit = 0; bit < 8; bit++) {
+                        if ((b & (1 << bit)) != 0) {
+                            imagen |= 1 << PERMUTACIONES[s][8 * k + bit];
+                        }
+                    }
+                    MASCARAS[s][256 * k + b] = imagen;
+                }
+            }
+        }
+
+        for (int s = 0; s < CANTIDAD; s++) {
+            for (int t = 0; t < CANTIDAD; t++) {
+                if (esIdentidad(s, t)) {
+                    INVERSAS[s] = t;
+                    break;
+                }
+            }
+        }
+    }
+
+    private Simetria() {
+    }
+
+    /**
+     * CALCULAR IMAGEN DE UNA POSICIÓN
+     *
+     * Trabaja con coordenadas centradas (x, y) en -3..3. El intercambio de
+     * cuadrados escala el punto del cuadrado de radio d al de radio 4 - d.
+     */
+    private static byte calcularImagen(int simetria, int codigo) {
+        int x = CodigoPosicion.columna(codigo) - 3;
+        int y = CodigoPosicion.fila(codigo) - 3;
+
+        if ((simetria & INTERCAMBIO_CUADRADOS) != 0) {
+            int radio = Math.max(Math.abs(x), Math.abs(y));
+            x = x / radio * (4 - radio);
+            y = y / radio * (4 - radio);
+        }
+        if ((simetria & REFLEJO) != 0) {
+            x = -x;
+        }
+        for (int r = 0; r < (simetria & (ROTACIONES - 1)); r++) {
+            int anterior = x;
+            x = -y;
+            y = anterior;
+        }
+
+        char columna = (char) ('D' + x);
+        char fila = (char) ('4' + y);
+        return CodigoPosicion.parse("" + columna + fila);
+    }
+
+    private static boolean esIdentidad(int s, int t) {
+        for (int codigo = 0; codigo < Tablero.CANTIDAD_POSICIONES; codigo++) {
+            if (PERMUTACIONES[t][PERMUTACIONES[s][codigo]] != codigo) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ===================================================================
+    // POSICIONES, MÁSCARAS Y MOVIMIENTOS
+    // ===================================================================
+
+    /**
+     * @param simetria Simetría 0-15
+     * @param codigo Código de posición 0-23
+     * @return Código de la posición transformada
+     */
+    public static int aplicar(int simetria, int codigo) {
+        return PERMUTACIONES[simetria][codigo];
+    }
+
+    /**
+     * @param simetria Simetría 0-15
+     * @return Simetría que deshace la transformación
+     */
+    public static int inversa(int simetria) {
+        return INVERSAS[simetria];
+    }
+
+    /**
+     * PERMUTAR UNA MÁSCARA
+     * @param simetria Simetría 0-15
+     * @param mascara Máscara de 24 bits
+     * @return Máscara con cada posición llevada a su imagen
+     */
+    public static int permutarMascara(int simetria, int mascara) {
+        int[] tabla = MASCARAS[simetria];
+        return tabla[mascara & 0xFF] | tabla[256 + ((mascara >>> 8) & 0xFF)] | tabla[512 + (mascara >>> 16)];
+    }
+
+    /**
+     * TRANSFORMAR UN MOVIMIENTO
+     * @param movimiento Movimiento empaquetado (ver Movimiento)
+     * @param simetria Simetría 0-15
+     * @return El mismo movimiento sobre el tablero transformado (conserva tipo y banderas)
+     */
+    public static int transformarMovimiento(int movimiento, int simetria) {
+        int destino = Movimiento.destino(movimiento);
+        int resultado = (movimiento & ~0x3FF) | PERMUTACIONES[simetria][destino];
+        int origen = Movimiento.origen(movimiento);
+        int origenTransformado = (origen == Movimiento.SIN_ORIGEN) ? origen : PERMUTACIONES[simetria][origen];
+        return resultado | (origenTransformado << 5);
+    }
+
+    // ===================================================================
+    // ESTADOS
+    // ===================================================================
+
+    /**
+     * TRANSFORMAR UN ESTADO
+     * @param estado Estado empaquetado (ver EstadoCompacto)
+     * @param simetria Simetría 0-15
+     * @return Estado con ambas máscaras transformadas y el resto sin cambios
+     */
+    public static long transformar(long estado, int simetria) {
+        long lado0 = permutarMascara(simetria, EstadoCompacto.mascara(estado, 0));
+        long lado1 = permutarMascara(simetria, EstadoCompacto.mascara(estado, 1));
+        return (estado & ~((1L << 48) - 1)) | (lado1 << 24) | lado0;
+    }
+
+    /**
+     * OBTENER SIMETRÍA CANÓNICA
+     *
+     * @param estado Estado empaquetado
+     * @return Simetría s tal que transformar(estado, s) == canonico(estado)
+     *         (la de menor número si hay empate); para volver al estado
+     *         original se aplica inversa(s). Solo se prueban las simetrías que
+     *         conserva la variante del estado (ver Topologia.getCantidadSimetrias())
+     */
+    public static int simetriaCanonica(long estado) {
+        int lado0 = EstadoCompacto.mascara(estado, 0);
+        int lado1 = EstadoCompacto.mascara(estado, 1);
+        long mejor = ((long) lado1 << 24) | lado0;
+        int simetria = IDENTIDAD;
+
+        int cantidad = Topologia.de(estado).getCantidadSimetrias();
+        for (int s = 1; s < cantidad; s++) {
+            long candidato = ((long) permutarMascara(s, lado1) << 24) | permutarMascara(s, lado0);
+            if (candidato < mejor) {
+                mejor = candidato;
+                simetria = s;
+            }
+        }
+        return simetria;
+    }
+
+    /**
+     * FORMA CANÓNICA
+     * @param estado Estado empaquetado
+     * @return Menor de los transformados del estado; todas las posiciones
+     *         simétricas tienen la misma forma canónica
+     */
+    public static long canonico(long estado) {
+        return transformar(estado, simetriaCanonica(estado));
+    }
+
+    /**
+     * CLAVE ZOBRIST CANÓNICA
+     * @param estado Estado empaquetado
+     * @return Clave de la forma canónica: igual para todas las posiciones simétricas
+     */
+    public static long claveCanonica(long estado) {
+        return EstadoCompacto.clave(canonico(estado));
+    }
+}
@@ -0,0 +1,97 @@
+package model.clases;
+
+import model.enums.OrigenSugerencia;
+import java.io.Serializable;
+
+/**
+ * ============================================================================
+ * SUGERENCIA - MEJOR JUGADA Y EVALUACIÓN DE UNA POSICIÓN
+ * ============================================================================
+ *
+ * Resultado de Modelo.obtenerSugerencia(): viaja por RMI al cliente que la
+ * pidió. Es un valor inmutable.
+ *
+ * PUNTAJE:
+ * Desde el punto de vista del lado con turno (positivo = le conviene), en la
+ * escala de la búsqueda: EvaluacionManual.PIEZA (100) por pieza de ventaja;
+ * cerca de BuscadorAlfaBeta.VICTORIA (en absoluto) es una victoria o derrota
+ * forzada.
+ *
+ * CACHÉ:
+ * Modelo guarda las sugerencias por posición canónica (ver Simetria), en la
+ * orientación canónica; orientar() las lleva a la orientación de cada
+ * partida que las pide.
+ *
+ * RELACIONES: Creada por Modelo; la jugada usa el formato de Movimiento.
+ */
+public final class Sugerencia implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int movimiento;
+    private final int puntaje;
+    private final int profundidad;
+    private final OrigenSugerencia origen;
+    private final boolean desdeCache;
+
+    /**
+     * @param movimiento Jugada sugerida (ver Movimiento), o Movimiento.NINGUNO
+     * @param puntaje Evaluación para el lado con turno
+     * @param profundidad Profundidad completada de la búsqueda (turnos hasta el final si es FINALES)
+     * @param origen De dónde salió la jugada
+     * @param desdeCache true si se respondió sin calcular
+     */
+    public Sugerencia(int movimiento, int puntaje, int profundidad, OrigenSugerencia origen, boolean desdeCache) {
+        this.movimiento = movimiento;
+        this.puntaje = puntaje;
+        this.profundidad = profundidad;
+        this.origen = origen;
+        this.desdeCache = desdeCache;
+    }
+
+    /**
+     * ORIENTAR A OTRA PARTIDA
+     * @param simetria Simetría a aplicar a la jugada (ver Simetria)
+     * @param desdeCache Marca de caché de la copia
+     * @return Copia con la jugada transformada
+     */
+    Sugerencia orientar(int simetria, boolean desdeCache) {
+        int jugada = movimiento == Movimiento.NINGUNO ? movimiento : Simetria.transformarMovimiento(movimiento, simetria);
+        return new Sugerencia(jugada, puntaje, profundidad, origen, desdeCache);
+    }
+
+    /** @return Jugada sugerida empaquetada (ver Movimiento), o Movimiento.NINGUNO */
+    public int getMovimiento() {
+        return movimiento;
+    }
+
+    /** @return Jugada en texto (ej: "A1", "A1-D1", "xD1"), o null si no hay jugada */
+    public String getTexto() {
+        return movimiento == Movimiento.NINGUNO ? null : Movimiento.toString(movimiento);
+    }
+
+    /** @return Evaluación para el lado con turno */
+    public int getPuntaje() {
+        return puntaje;
+    }
+
+    /** @return Profundidad de la búsqueda, o turnos hasta el final si el origen es FINALES */
+    public int getProfundidad() {
+        return profundidad;
+    }
+
+    /** @return De dónde salió la jugada */
+    public OrigenSugerencia getOrigen() {
+        return origen;
+    }
+
+    /** @return true si se respondió desde la caché, sin calcular */
+    public boolean isDesdeCache() {
+        return desdeCache;
+    }
+
+    @Override
+    public String toString() {
+        return getTexto() + " (" + puntaje + ", " + origen + ", profundidad " + profundidad
+                + (desdeCache ? ", caché" : "") + ")";
+    }
+}
@@ -0,0 +1,503 @@
+package model.clases;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ============================================================================
+ * TOPOLOGÍA - DEFINICIÓN DE UN TABLERO COMPILADA A TABLAS DE BITS
+ * ============================================================================
+ *
+ * Una variante del Molino se define solo con datos: sus líneas y la cantidad de
+ * piezas por jugador. Cada línea es una lista de IDs de posiciones consecutivas
+ * ("A1 D1 G1"):
+ * - Los puntos consecutivos de una línea quedan conectados (adyacencias y
+ *   segmentos que dibuja PanelTablero)
+ * - Una línea de exactamente 3 puntos es además un molino
+ * - Los puntos del tablero son los que aparecen en alguna línea
+ *
+ * Al cargarse la clase, cada definición se compila una sola vez a tablas
+ * inmutables compartidas por todo el servidor y los clientes:
+ * - Máscara de adyacencias por posición
+ * - Máscaras de los molinos de cada posición (la cantidad máxima por posición
+ *   depende de la variante: 2 en el estándar, 3 en las esquinas del de doce)
+ * - Tabla de vecinos por byte (unión de adyacencias de una máscara en 3 consultas)
+ * - Tablas de molinos por byte (piezas en molino de una máscara en 7 consultas)
+ * - Cantidad de simetrías de Simetria que conservan puntos, adyacencias y molinos
+ *
+ * Ninguna variante tiene caminos de código propios: el motor (EstadoCompacto,
+ * Tablero) y el renderizado (PanelTablero) consultan las mismas tablas, así que
+ * todas corren a la misma velocidad.
+ *
+ * VARIANTES DISPONIBLES (el id viaja en los bits 60-63 de EstadoCompacto):
+ *
+ *   0 ESTANDAR  Nueve piezas (Nine Men's Morris): 3 cuadrados y 4 conectores
+ *   1 DOCE      Doce piezas (Twelve Men's Morris): agrega las 4 diagonales,
+ *               que también forman molino. Las 24 piezas pueden llenar el
+ *               tablero: si la colocación termina así, tablas
+ *   2 SEIS      Seis piezas (Six Men's Morris): 2 cuadrados, los conectores no
+ *               forman molino
+ *
+ * Para agregar una variante alcanza con sumar su definición a VARIANTES.
+ *
+ * RELACIONES: Usada por Tablero, EstadoCompacto, Simetria y PanelTablero.
+ */
+public final class Topologia implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] LINEAS_ESTANDAR = {
+            // Horizontales
+            "A1 D1 G1", "B2 D2 F2", "C3 D3 E3", "A4 B4 C4",
+            "E4 F4 G4", "C5 D5 E5", "B6 D6 F6", "A7 D7 G7",
+            // Verticales
+            "A1 A4 A7", "B2 B4 B6", "C3 C4 C5", "D1 D2 D3",
+            "D5 D6 D7", "E3 E4 E5", "F2 F4 F6", "G1 G4 G7"
+    };
+
+    private static final String[] DIAGONALES = {
+            "A1 B2 C3", "G1 F2 E3", "A7 B6 C5", "G7 F6 E5"
+    };
+
+    private static final String[] LINEAS_SEIS = {
+            // Cuadrado exterior y cuadrado medio
+            "A1 D1 G1", "A7 D7 G7", "A1 A4 A7", "G1 G4 G7",
+            "B2 D2 F2", "B6 D6 F6", "B2 B4 B6", "F2 F4 F6",
+            // Conectores (sin molino)
+            "D1 D2", "A4 B4", "F4 G4", "D6 D7"
+    };
+
+    /**
+     * Tablero estándar de nueve piezas
+     */
+    public static final Topologia ESTANDAR = new Topologia(0, "estandar", 9, LINEAS_ESTANDAR);
+
+    /**
+     * Tablero de doce piezas con diagonales
+     */
+    public static final Topologia DOCE = new Topologia(1, "doce", 12, concatenar(LINEAS_ESTANDAR, DIAGONALES));
+
+    /**
+     * Tablero de seis piezas (solo dos cuadrados)
+     */
+    public static final Topologia SEIS = new Topologia(2, "seis", 6, LINEAS_SEIS);
+
+    /**
+     * Variantes indexadas por id
+     */
+    private static final Topologia[] VARIANTES = {ESTANDAR, DOCE, SEIS};
+
+    /**
+     * Máscara que nunca está completa en una máscara de ocupación (usa un bit fuera
+     * del tablero). Rellena los lugares libres de molinosPorPosicion.
+     */
+    private static final int MOLINO_IMPOSIBLE = 1 << 31;
+
+    private final int id;
+    private final String nombre;
+    private final int piezasPorJugador;
+    private final int puntos;
+    private final int[] adyacencias;
+    private final int[] molinos;
+    private final int molinosPorPunto;
+    private final int[] molinosPorPosicion;
+    private final int[] vecinos;
+    private final int[] molinosCompletos;
+    private final int[] piezasDeMolinos;
+    private final int[][] segmentos;
+    private final List<Molino> listaMolinos;
+    private final int cantidadSimetrias;
+
+    /**
+     * CONSTRUCTOR (COMPILADOR DE LA DEFINICIÓN)
+     *
+     * @param id Índice en VARIANTES (0-15)
+     * @param nombre Nombre de la variante
+     * @param piezasPorJugador Piezas que coloca cada jugador (hasta 12)
+     * @param lineas Líneas de la definición ("A1 D1 G1", "D1 D2", ...)
+     * @throws IllegalArgumentException si una línea tiene IDs inválidos
+     */
+    private Topologia(int id, String nombre, int piezasPorJugador, String[] lineas) {
+        this.id = id;
+        this.nombre = nombre;
+        this.piezasPorJugador = piezasPorJugador;
+        this.adyacencias = new int[Tablero.CANTIDAD_POSICIONES];
+
+        int mascaraPuntos = 0;
+        List<int[]> listaSegmentos = new ArrayList<>();
+        List<Molino> molinosDefinidos = new ArrayList<>();
+
+        for (String linea : lineas) {
+            String[] ids = linea.trim().split("\\s+");
+            int[] codigos = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                codigos[i] = CodigoPosicion.parse(ids[i]);
+                if (codigos[i] == CodigoPosicion.INVALIDA) {
+                    throw new IllegalArgumentException("Posición inválida en la línea '" + linea + "': " + ids[i]);
+                }
+                mascaraPuntos |= 1 << codigos[i];
+            }
+            for (int i = 1; i < codigos.length; i++) {
+                adyacencias[codigos[i - 1]] |= 1 << codigos[i];
+                adyacencias[codigos[i]] |= 1 << codigos[i - 1];
+                listaSegmentos.add(new int[]{codigos[i - 1], codigos[i]});
+            }
+            if (ids.length == 3) {
+                molinosDefinidos.add(new Molino(ids[0], ids[1], ids[2]));
+            }
+        }
+
+        this.puntos = mascaraPuntos;
+        this.segmentos = listaSegmentos.toArray(new int[0][]);
+        this.listaMolinos = Collections.unmodifiableList(molinosDefinidos);
+        this.molinos = new int[molinosDefinidos.size()];
+        for (int m = 0; m < molinos.length; m++) {
+            molinos[m] = molinosDefinidos.get(m).getMascara();
+        }
+
+        // Molinos de cada posición, con lugar fijo por posición
+        int[] cantidad = new int[Tablero.CANTIDAD_POSICIONES];
+        int maximo = 1;
+        for (int molino : molinos) {
+            for (int bits = molino; bits != 0; bits &= bits - 1) {
+                maximo = Math.max(maximo, ++cantidad[Integer.numberOfTrailingZeros(bits)]);
+            }
+        }
+        this.molinosPorPunto = maximo;
+        this.molinosPorPosicion = new int[maximo * Tablero.CANTIDAD_POSICIONES];
+        java.util.Arrays.fill(molinosPorPosicion, MOLINO_IMPOSIBLE);
+        java.util.Arrays.fill(cantidad, 0);
+        for (int molino : molinos) {
+            for (int bits = molino; bits != 0; bits &= bits - 1) {
+                int i = Integer.numberOfTrailingZeros(bits);
+                molinosPorPosicion[maximo * i + cantidad[i]++] = molino;
+            }
+        }
+
+        // Vecinos por byte
+        this.vecinos = new int[3 * 256];
+        for (int k = 0; k < 3; k++) {
+            for (int b = 0; b < 256; b++) {
+                int union = 0;
+                for (int bit = 0; bit < 8; bit++) {
+                    if ((b & (1 << bit)) != 0) {
+                        union |= adyacencias[8 * k + bit];
+                    }
+                }
+                vecinos[256 * k + b] = union;
+            }
+        }
+
+        // Molinos por byte: molinosCompletos[256 * k + b] tiene el bit m si el
+        // molino m no tiene puntos fuera de b en el byte k de la máscara, y
+        // piezasDeMolinos[256 * k + c] es la unión de los molinos 8k..8k+7 de c
+        if (molinos.length > 32) {
+            throw new IllegalArgumentException("Demasiados molinos en " + nombre + ": " + molinos.length);
+        }
+        this.molinosCompletos = new int[3 * 256];
+        this.piezasDeMolinos = new int[4 * 256];
+        for (int k = 0; k < 3; k++) {
+            for (int b = 0; b < 256; b++) {
+                int completos = 0;
+                for (int m = 0; m < molinos.length; m++) {
+                    int parte = (molinos[m] >>> (8 * k)) & 0xFF;
+                    if ((b & parte) == parte) {
+                        completos |= 1 << m;
+                    }
+                }
+                molinosCompletos[256 * k + b] = completos;
+            }
+        }
+        for (int k = 0; k < 4; k++) {
+            for (int c = 0; c < 256; c++) {
+                int union = 0;
+                for (int bit = 0; bit < 8 && 8 * k + bit < molinos.length; bit++) {
+                    if ((c & (1 << bit)) != 0) {
+                        union |= molinos[8 * k + bit];
+                    }
+                }
+                piezasDeMolinos[256 * k + c] = union;
+            }
+        }
+
+        this.cantidadSimetrias = contarSimetrias();
+    }
+
+    private static String[] concatenar(String[] a, String[] b) {
+        String[] resultado = java.util.Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, resultado, a.length, b.length);
+        return resultado;
+    }
+
+    /**
+     * Las simetrías 0-7 (las del cuadrado) y 8-15 (con intercambio de cuadrados)
+     * forman grupos anidados: devuelve 16, 8 o 1 según cuántas conserva la variante.
+     */
+    private int contarSimetrias() {
+        int validas = 1;
+        for (int s = 1; s < Simetria.CANTIDAD; s++) {
+            if (!conserva(s)) {
+                break;
+            }
+            validas = s + 1;
+        }
+        return (validas == Simetria.CANTIDAD) ? validas : (validas >= 8 ? 8 : 1);
+    }
+
+    private boolean conserva(int simetria) {
+        if (Simetria.permutarMascara(simetria, puntos) != puntos) {
+            return false;
+        }
+        for (int i = 0; i < Tablero.CANTIDAD_POSICIONES; i++) {
+            if ((puntos & (1 << i)) != 0
+                    && Simetria.permutarMascara(simetria, adyacencias[i]) != adyacencias[Simetria.aplicar(simetria, i)]) {
+                return false;
+            }
+        }
+        for (int molino : molinos) {
+            int imagen = Simetria.permutarMascara(simetria, molino);
+            boolean encontrado = false;
+            for (int otro : molinos) {
+                encontrado |= (otro == imagen);
+            }
+            if (!encontrado) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Al deserializar se usa la instancia compartida de la variante
+     */
+    private Object readResolve() throws ObjectStreamException {
+        return porId(id);
+    }
+
+    // ===================================================================
+    // BÚSQUEDA DE VARIANTES
+    // ===================================================================
+
+    /**
+     * @param id Id de la variante (0-15)
+     * @return Topología con ese id
+     * @throws IllegalArgumentException si no hay variante con ese id
+     */
+    public static Topologia porId(int id) {
+        if (id < 0 || id >= VARIANTES.length) {
+            throw new IllegalArgumentException("Variante inexistente: " + id);
+        }
+        return VARIANTES[id];
+    }
+
+    /**
+     * @return Variantes disponibles, por id (lista no modificable; para elegir una en los menús)
+     */
+    public static List<Topologia> getVariantes() {
+        return List.of(VARIANTES);
+    }
+
+    /**
+     * @param nombre Nombre de la variante ("estandar", "doce", "seis")
+     * @return Topología con ese nombre, o null si no existe
+     */
+    public static Topologia porNombre(String nombre) {
+        for (Topologia topologia : VARIANTES) {
+            if (topologia.nombre.equalsIgnoreCase(nombre)) {
+                return topologia;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param estado Estado empaquetado (ver EstadoCompacto)
+     * @return Topología del estado (id en los bits 60-63)
+     */
+    public static Topologia de(long estado) {
+        return VARIANTES[(int) (estado >>> 60)];
+    }
+
+    // ===================================================================
+    // CONSULTAS
+    // ===================================================================
+
+    /** @return Id de la variante (0-15) */
+    public int getId() {
+        return id;
+    }
+
+    /** @return Nombre de la variante */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /** @return Piezas que coloca cada jugador */
+    public int getPiezasPorJugador() {
+        return piezasPorJugador;
+    }
+
+    /** @return Máscara con los puntos del tablero */
+    public int getPuntos() {
+        return puntos;
+    }
+
+    /**
+     * @param codigo Código de posición
+     * @return true si la posición es un punto de este tablero
+     */
+    public boolean contiene(int codigo) {
+        return CodigoPosicion.esValido(codigo) && (puntos & (1 << codigo)) != 0;
+    }
+
+    /** @return Cantidad de simetrías válidas: las simetrías 0..n-1 de Simetria */
+    public int getCantidadSimetrias() {
+        return cantidadSimetrias;
+    }
+
+    /** @return Molinos de la variante (lista no modificable) */
+    public List<Molino> getMolinos() {
+        return listaMolinos;
+    }
+
+    /** @return Cantidad de molinos de la variante */
+    public int getCantidadMolinos() {
+        return molinos.length;
+    }
+
+    /**
+     * @param i Índice del molino (0..getCantidadMolinos()-1)
+     * @return Máscara de las 3 posiciones del molino (sin copiar tablas, para evaluadores)
+     */
+    public int mascaraMolino(int i) {
+        return molinos[i];
+    }
+
+    /**
+     * @return Pares de códigos conectados, cada conexión una sola vez (para dibujar)
+     */
+    public int[][] getSegmentos() {
+        int[][] copia = new int[segmentos.length][];
+        for (int i = 0; i < segmentos.length; i++) {
+            copia[i] = segmentos[i].clone();
+        }
+        return copia;
+    }
+
+    /**
+     * @param indice Código de la posición
+     * @return Máscara con las posiciones conectadas
+     */
+    public int adyacentesDe(int indice) {
+        return adyacencias[indice];
+    }
+
+    /**
+     * UNIÓN DE ADYACENCIAS
+     * @param mascara Máscara de posiciones
+     * @return Posiciones adyacentes a alguna posición de la máscara (3 consultas a tabla)
+     */
+    public int vecinos(int mascara) {
+        return vecinos[mascara & 0xFF]
+                | vecinos[256 + ((mascara >>> 8) & 0xFF)]
+                | vecinos[512 + (mascara >>> 16)];
+    }
+
+    /**
+     * VERIFICAR MOLINO SOBRE UNA MÁSCARA
+     * @param indice Código de la posición
+     * @param mascara Máscara de ocupación de un jugador
+     * @return true si la posición forma parte de un molino completo dentro de la máscara
+     */
+    public boolean formaMolino(int indice, int mascara) {
+        int base = molinosPorPunto * indice;
+        for (int k = 0; k < molinosPorPunto; k++) {
+            int molino = molinosPorPosicion[base + k];
+            if ((mascara & molino) == molino) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * OBTENER PIEZAS EN MOLINO
+     * @param mascara Máscara de ocupación de un jugador
+     * @return Subconjunto de la máscara formado por las piezas que están en algún
+     *         molino completo (3 consultas para los molinos completos y 4 para
+     *         unir sus puntos, sin recorrer los molinos)
+     */
+    public int piezasEnMolino(int mascara) {
+        int completos = molinosCompletos[mascara & 0xFF]
+                & molinosCompletos[256 + ((mascara >>> 8) & 0xFF)]
+                & molinosCompletos[512 + ((mascara >>> 16) & 0xFF)];
+        return piezasDeMolinos[completos & 0xFF]
+                | piezasDeMolinos[256 + ((completos >>> 8) & 0xFF)]
+                | piezasDeMolinos[512 + ((completos >>> 16) & 0xFF)]
+                | piezasDeMolinos[768 + (completos >>> 24)];
+    }
+
+    // ===================================================================
+    // GENERACIÓN DE MOVIMIENTOS
+    // ===================================================================
+
+    /**
+     * GENERAR MOVIMIENTOS SOBRE MÁSCARAS
+     *
+     * Núcleo del generador, sin referencias a jugadores: trabaja solo con máscaras.
+     *
+     * @param propias Máscara de las piezas del jugador que mueve
+     * @param colocando true si el jugador todavía coloca piezas
+     * @param puedeVolar true si el jugador puede mover a cualquier posición libre
+     * @param libres Máscara de posiciones libres (solo puntos de este tablero)
+     * @param buffer Destino de los movimientos (con Movimiento.MAX_MOVIMIENTOS alcanza siempre)
+     * @return Cantidad de movimientos escritos en buffer[0..n)
+     */
+    public int generarMovimientos(int propias, boolean colocando, boolean puedeVolar, int libres, int[] buffer) {
+        int n = 0;
+        if (colocando) {
+            for (int destinos = libres; destinos != 0; destinos &= destinos - 1) {
+                buffer[n++] = Movimiento.colocar(Integer.numberOfTrailingZeros(destinos));
+            }
+            return n;
+        }
+
+        for (int origenes = propias; origenes != 0; origenes &= origenes - 1) {
+            int origen = Integer.numberOfTrailingZeros(origenes);
+            int destinos = puedeVolar ? libres : (adyacencias[origen] & libres);
+            for (; destinos != 0; destinos &= destinos - 1) {
+                buffer[n++] = Movimiento.mover(origen, Integer.numberOfTrailingZeros(destinos));
+            }
+        }
+        return n;
+    }
+
+    /**
+     * GENERAR CAPTURAS SOBRE MÁSCARAS
+     *
+     * Las piezas que no están en un molino, o todas si todas están en molinos.
+     *
+     * @param victima Máscara de las piezas que se pueden eliminar
+     * @param buffer Destino de los movimientos
+     * @return Cantidad de movimientos escritos en buffer[0..n)
+     */
+    public int generarCapturas(int victima, int[] buffer) {
+        int candidatas = victima & ~piezasEnMolino(victima);
+        if (candidatas == 0) {
+            candidatas = victima;
+        }
+
+        int n = 0;
+        for (; candidatas != 0; candidatas &= candidatas - 1) {
+            buffer[n++] = Movimiento.eliminar(Integer.numberOfTrailingZeros(candidatas));
+        }
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
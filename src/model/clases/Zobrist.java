@@ -0,0 +1,122 @@
+package model.clases;
+
+/**
+ * ZOBRIST - Claves de 64 bits para identificar posiciones
+ *
+ * Cada componente del estado tiene asignado un número aleatorio de 64 bits; la
+ * clave de una posición es el XOR de los números de los componentes presentes.
+ * Como el XOR es su propia inversa, la clave se actualiza en O(1) al colocar,
+ * mover o eliminar una pieza, sin recorrer el tablero.
+ *
+ * COMPONENTES:
+ * - Pieza de cada jugador en cada una de las 24 posiciones
+ * - Turno (presente si mueve el segundo jugador)
+ * - Fase de movimiento (presente si ya terminó la colocación)
+ * - Eliminación pendiente (presente si se formó un molino y falta eliminar)
+ * - Piezas colocadas por cada jugador (0-12), que distinguen posiciones con la
+ *   misma ocupación pero distinta cantidad de piezas por colocar
+ * - Variante del tablero (ver Topologia); el tablero estándar no aporta nada,
+ *   así que sus claves no dependen de que existan otras variantes
+ *
+ * Los números salen de un generador SplitMix64 con semilla fija, así las claves
+ * son las mismas en todas las ejecuciones y se pueden guardar en archivos.
+ *
+ * RELACIONES: Usado por EstadoCompacto (clave completa).
+ */
+public final class Zobrist {
+
+    private static final long SEMILLA = 0x4D6F6C696E6F2025L;
+    private static final int MAX_PIEZAS_COLOCADAS = 12;
+
+    private static final long[][] PIEZAS = new long[2][Tablero.CANTIDAD_POSICIONES];
+    private static final long[][] COLOCADAS = new long[2][MAX_PIEZAS_COLOCADAS + 1];
+    private static final long[] VARIANTES = new long[16];
+
+    /** Componente presente cuando el turno es del segundo jugador */
+    public static final long TURNO;
+
+    /** Componente presente en fase de movimiento */
+    public static final long FASE_MOVIMIENTO;
+
+    /** Componente presente mientras se espera eliminar una pieza */
+    public static final long ESPERANDO_ELIMINAR;
+
+    static {
+        long estado = SEMILLA;
+        for (int lado = 0; lado < 2; lado++) {
+            for (int i = 0; i < PIEZAS[lado].length; i++) {
+                estado += 0x9E3779B97F4A7C15L;
+                PIEZAS[lado][i] = mezclar(estado);
+            }
+        }
+        for (int lado = 0; lado < 2; lado++) {
+            for (int i = 0; i < COLOCADAS[lado].length; i++) {
+                estado += 0x9E3779B97F4A7C15L;
+                COLOCADAS[lado][i] = mezclar(estado);
+            }
+        }
+        estado += 0x9E3779B97F4A7C15L;
+        TURNO = mezclar(estado);
+        estado += 0x9E3779B97F4A7C15L;
+        FASE_MOVIMIENTO = mezclar(estado);
+        estado += 0x9E3779B97F4A7C15L;
+        ESPERANDO_ELIMINAR = mezclar(estado);
+        for (int variante = 1; variante < VARIANTES.length; variante++) {
+            estado += 0x9E3779B97F4A7C15L;
+            VARIANTES[variante] = mezclar(estado);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Función de mezcla de SplitMix64
+     */
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @param lado Índice del jugador (0 o 1)
+     * @param indice Código de la posición (0-23)
+     * @return Componente de una pieza del jugador en la posición
+     */
+    public static long pieza(int lado, int indice) {
+        return PIEZAS[lado][indice];
+    }
+
+    /**
+     * @param lado Índice del jugador (0 o 1)
+     * @param colocadas Piezas colocadas por el jugador (0-12)
+     * @return Componente del contador de piezas colocadas
+     */
+    public static long colocadas(int lado, int colocadas) {
+        return COLOCADAS[lado][colocadas];
+    }
+
+    /**
+     * @param variante Id de la variante del tablero (0-15)
+     * @return Componente de la variante (0 para el tablero estándar)
+     */
+    public static long variante(int variante) {
+        return VARIANTES[variante];
+    }
+
+    /**
+     * CLAVE DE UNA MÁSCARA
+     * Calcula desde cero el aporte de todas las piezas de una máscara.
+     * @param lado Índice del jugador (0 o 1)
+     * @param mascara Máscara de ocupación del jugador
+     * @return XOR de las componentes de cada pieza
+     */
+    public static long piezas(int lado, int mascara) {
+        long clave = 0;
+        for (; mascara != 0; mascara &= mascara - 1) {
+            clave ^= PIEZAS[lado][Integer.numberOfTrailingZeros(mascara)];
+        }
+        return clave;
+    }
+}
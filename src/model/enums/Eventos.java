@@ -20,5 +20,6 @@ public enum Eventos {
     FORMACION_MOLINO,   // Se formó un molino (3 en línea) - Generado por: colocarPieza(), moverPieza()
 
     // Eventos de finalización
-    GAME_WIN            // Hay un ganador - Generado por: eliminarPiezaOponente()
+    GAME_WIN,           // Hay un ganador - Generado por: eliminarPiezaOponente()
+    GAME_TABLAS         // Terminó sin ganador (tablero lleno) - Generado por: colocarPieza()
 }
@@ -0,0 +1,18 @@
+package model.enums;
+
+/**
+ * ORIGEN DE UNA SUGERENCIA
+ * Indica de dónde salió la jugada sugerida por Modelo.obtenerSugerencia().
+ *
+ * - FINALES: tabla de finales de vuelo resuelta (jugada y valor exactos)
+ * - BUSQUEDA: búsqueda alfa-beta con tiempo acotado (valor estimado)
+ * - TABLA: la búsqueda no terminó a tiempo; jugada que ya tenía la tabla de
+ *   transposición de los bots (su puntaje puede ser solo una cota)
+ *
+ * RELACIONES: Usado por Sugerencia
+ */
+public enum OrigenSugerencia {
+    FINALES,        // Resuelta por FinalesVuelo: el puntaje es exacto
+    BUSQUEDA,       // Resuelta por BuscadorAlfaBeta: el puntaje es una estimación
+    TABLA           // Respaldo de la tabla de los bots: el puntaje puede ser una cota
+}
@@ -1,6 +1,8 @@
 package model.interfaces;
 
 import ar.edu.unlu.rmimvc.observer.IObservableRemoto;
+import model.clases.Sugerencia;
+import model.clases.Topologia;
 import java.rmi.RemoteException;
 import java.util.List;
 import java.util.Map;
@@ -15,6 +17,8 @@ public interface IModelo extends IObservableRemoto {
 
     // Gestión de partidas
     IPartida buscarPartida(String nombreJugador) throws RemoteException;
+    IPartida buscarPartida(String nombreJugador, boolean contraBot) throws RemoteException;
+    IPartida buscarPartida(String nombreJugador, boolean contraBot, Topologia variante) throws RemoteException;
     IPartida getPartida(int id) throws RemoteException;
 
     // Lógica del juego
@@ -22,10 +26,18 @@ public interface IModelo extends IObservableRemoto {
     void moverPieza(int idPartida, String origen, String destino) throws RemoteException;
     void eliminarPiezaOponente(int idPartida, String posicion) throws RemoteException;
 
+    // Lógica del juego con códigos de posición 0-23 (ver CodigoPosicion)
+    void colocarPieza(int idPartida, byte posicion) throws RemoteException;
+    void moverPieza(int idPartida, byte origen, byte destino) throws RemoteException;
+    void eliminarPiezaOponente(int idPartida, byte posicion) throws RemoteException;
+
     // Gestión de estados
     boolean hayGanador(int id) throws RemoteException;
     IJugador getGanador(int id) throws RemoteException;
 
     // Ranking
     Map<String, Integer> getRanking() throws RemoteException;
+
+    // Sugerencias: mejor jugada y evaluación de la posición actual (ver Sugerencia)
+    Sugerencia obtenerSugerencia(int idPartida) throws RemoteException;
 }
@@ -1,5 +1,6 @@
 package model.interfaces;
 
+import model.clases.Topologia;
 import model.enums.*;
 import java.io.Serializable;
 import java.rmi.RemoteException;
@@ -24,13 +25,36 @@ public interface IPartida extends Serializable {
 
     boolean hayGanador();
 
+    // La partida terminó sin ganador (tablero lleno al terminar la colocación)
+    boolean isTablas();
+
     // Métodos del juego
     boolean colocarPieza(String posicion) throws RemoteException;
     boolean moverPieza(String origen, String destino) throws RemoteException;
     boolean eliminarPiezaOponente(String posicion) throws RemoteException;
 
+    // Métodos del juego con códigos de posición 0-23 (ver CodigoPosicion)
+    boolean colocarPieza(byte posicion) throws RemoteException;
+    boolean moverPieza(byte origen, byte destino) throws RemoteException;
+    boolean eliminarPiezaOponente(byte posicion) throws RemoteException;
+
     boolean isEsperandoEliminar();
 
+    // El jugador con turno pierde si no tiene ninguna acción legal
+    boolean declararBloqueado();
+
+    // Acciones legales del jugador empaquetadas en buffer (ver Movimiento); devuelve la cantidad
+    int generarMovimientos(IJugador jugador, int[] buffer);
+
+    // Identificador de 64 bits de la posición actual (ocupación, turno, fase y eliminación pendiente)
+    long getClaveZobrist();
+
+    // Estado completo de las reglas empaquetado en un long (ver EstadoCompacto)
+    long getEstadoCompacto();
+
+    // Variante del tablero (adyacencias, molinos y piezas por jugador)
+    Topologia getTopologia();
+
     // Método para obtener estado del tablero
     java.util.Map<String, IJugador> getEstadoTablero() throws RemoteException;
 }
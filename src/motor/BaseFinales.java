@@ -0,0 +1,327 @@
+package motor;
+
+import model.clases.EstadoCompacto;
+import model.clases.Topologia;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ============================================================================
+ * BASE DE FINALES - ARCHIVO COMPRIMIDO CONSULTADO POR MAPEO EN MEMORIA
+ * ============================================================================
+ *
+ * Lee las bases que arma EscritorBaseFinales (herramientas.CompilarFinales):
+ * el resultado de cada posición (tablas, gana, pierde) y, en las sub-bases
+ * que la tengan, la distancia al final en turnos. El archivo se mapea en
+ * memoria de solo lectura; una consulta cuesta el acceso al índice más uno o
+ * dos accesos al bloque, sin reservar memoria.
+ *
+ * FORMATO (enteros big-endian):
+ *
+ *   CABECERA (TAMANO_CABECERA bytes)
+ *     int MAGIA, int VERSION, int id de la Topologia, int sub-bases
+ *   DIRECTORIO (TAMANO_ENTRADA bytes por sub-base)
+ *     byte p, byte r, byte tieneDistancias, byte 0, int 0,
+ *     long posiciones, long índice del resultado, long índice de distancias (0 = no hay)
+ *   BLOQUES de datos e ÍNDICES (un long por bloque de POSICIONES_POR_BLOQUE):
+ *     bits 0-47 posición de los datos en el archivo
+ *     bits 48-55 valor (bloques CONSTANTE)
+ *     bits 56-63 codificación: CONSTANTE, CRUDO o RLE
+ *
+ * Las posiciones se numeran por rango combinatorio (ver Combinaciones), con
+ * el lado con turno primero, igual que en GeneradorFinales y FinalesVuelo.
+ * Ningún bloque cruza un límite de SEGMENTO, así que el archivo se mapea en
+ * segmentos de hasta 1 GB y cada lectura cae dentro de uno.
+ *
+ * HILOS:
+ * Solo lecturas absolutas sobre buffers de solo lectura: una instancia se
+ * consulta desde cualquier cantidad de hilos de búsqueda sin sincronizar.
+ *
+ * RELACIONES: Consultada por BuscadorAlfaBeta (vía JugadorBot); el servidor
+ * la abre con abrirCompartida() si se indica molino.finales.archivo.
+ */
+public final class BaseFinales {
+
+    /**
+     * Resultados para el lado con turno
+     */
+    public static final int TABLAS = 0;
+    public static final int GANA = 1;
+    public static final int PIERDE = 2;
+
+    /**
+     * Resultado de distancia() cuando la sub-base no tiene distancias
+     */
+    public static final int SIN_DISTANCIA = -1;
+
+    /**
+     * "MOLB"
+     */
+    static final int MAGIA = 0x4D4F4C42;
+    static final int VERSION = 1;
+    static final int TAMANO_CABECERA = 16;
+    static final int TAMANO_ENTRADA = 32;
+
+    static final int POSICIONES_POR_BLOQUE = 4096;
+    static final int BITS_RESULTADO = 2;
+    static final int BITS_DISTANCIA = 8;
+
+    /**
+     * Codificaciones de bloque
+     */
+    static final int CONSTANTE = 0;
+    static final int CRUDO = 1;
+    static final int RLE = 2;
+
+    /**
+     * Los datos se mapean en segmentos de este tamaño (potencia de 2)
+     */
+    static final long SEGMENTO = 1L << 30;
+
+    private static final int MAX_PIEZAS = 12;
+    private static final long MASCARA_POSICION = (1L << 48) - 1;
+
+    private static volatile BaseFinales compartida;
+
+    private final Topologia topologia;
+    private final MappedByteBuffer[] segmentos;
+    private final long bytes;
+
+    /**
+     * indiceResultado[p][r] / indiceDistancia[p][r]: posición del índice, o 0 si no está
+     */
+    private final long[][] indiceResultado = new long[MAX_PIEZAS + 1][MAX_PIEZAS + 1];
+    private final long[][] indiceDistancia = new long[MAX_PIEZAS + 1][MAX_PIEZAS + 1];
+    private int subBases;
+
+    private BaseFinales(Topologia topologia, MappedByteBuffer[] segmentos, long bytes) {
+        this.topologia = topologia;
+        this.segmentos = segmentos;
+        this.bytes = bytes;
+    }
+
+    /**
+     * ABRIR UN ARCHIVO DE BASE DE FINALES
+     *
+     * @param archivo Archivo escrito por EscritorBaseFinales
+     * @return Base lista para consultar
+     * @throws IOException Si no se puede leer o no tiene el formato esperado
+     */
+    public static BaseFinales abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            MappedByteBuffer[] segmentos = new MappedByteBuffer[(int) ((tamano + SEGMENTO - 1) / SEGMENTO)];
+            for (int i = 0; i < segmentos.length; i++) {
+                long desde = i * SEGMENTO;
+                segmentos[i] = canal.map(FileChannel.MapMode.READ_ONLY, desde, Math.min(SEGMENTO, tamano - desde));
+            }
+            if (segmentos.length == 0) {
+                throw new IOException("Archivo vacío: " + archivo);
+            }
+
+            ByteBuffer cabecera = segmentos[0];
+            if (tamano < TAMANO_CABECERA || cabecera.getInt(0) != MAGIA || cabecera.getInt(4) != VERSION) {
+                throw new IOException("No es una base de finales (versión " + VERSION + "): " + archivo);
+            }
+            Topologia topologia = Topologia.porId(cabecera.getInt(8));
+            BaseFinales base = new BaseFinales(topologia, segmentos, tamano);
+
+            int cantidad = cabecera.getInt(12);
+            for (int i = 0; i < cantidad; i++) {
+                int entrada = TAMANO_CABECERA + i * TAMANO_ENTRADA;
+                int p = cabecera.get(entrada);
+                int r = cabecera.get(entrada + 1);
+                if (p < 0 || p > MAX_PIEZAS || r < 0 || r > MAX_PIEZAS) {
+                    throw new IOException("Sub-base fuera de rango: " + p + "x" + r);
+                }
+                base.indiceResultado[p][r] = cabecera.getLong(entrada + 16);
+                base.indiceDistancia[p][r] = cabecera.getLong(entrada + 24);
+            }
+            base.subBases = cantidad;
+            return base;
+        }
+    }
+
+    /**
+     * @return Base abierta por el servidor, o null si no hay
+     */
+    public static BaseFinales compartida() {
+        return compartida;
+    }
+
+    /**
+     * Abre la base y la publica en compartida() para los bots del servidor
+     */
+    public static BaseFinales abrirCompartida(Path archivo) throws IOException {
+        compartida = abrir(archivo);
+        return compartida;
+    }
+
+    /** @return Variante de la base */
+    public Topologia getTopologia() {
+        return topologia;
+    }
+
+    /** @return Cantidad de sub-bases del archivo */
+    public int getSubBases() {
+        return subBases;
+    }
+
+    /** @return Tamaño del archivo en bytes */
+    public long getBytes() {
+        return bytes;
+    }
+
+    // ===================================================================
+    // CONSULTAS POR ESTADO
+    // ===================================================================
+
+    /**
+     * ¿LA POSICIÓN ESTÁ EN LA BASE?
+     *
+     * @param estado Estado empaquetado
+     * @return true si es de fase de movimiento de esta variante, sin ganador, y
+     *         su sub-base está en el archivo (o, eliminando, la de cada eliminación)
+     */
+    public boolean cubre(long estado) {
+        if (EstadoCompacto.enColocacion(estado) || EstadoCompacto.finalizado(estado)
+                || EstadoCompacto.topologia(estado) != topologia) {
+            return false;
+        }
+        int lado = EstadoCompacto.turno(estado);
+        int propias = EstadoCompacto.piezas(estado, lado);
+        int rivales = EstadoCompacto.piezas(estado, 1 - lado);
+        if (EstadoCompacto.esperandoEliminar(estado)) {
+            return rivales - 1 < 3 || tiene(rivales - 1, propias);
+        }
+        return tiene(propias, rivales);
+    }
+
+    /**
+     * @return true si el archivo tiene la sub-base (p propias, r rivales)
+     */
+    public boolean tiene(int p, int r) {
+        return p <= MAX_PIEZAS && r <= MAX_PIEZAS && indiceResultado[p][r] != 0;
+    }
+
+    /**
+     * RESULTADO DE UNA POSICIÓN
+     *
+     * @param estado Estado empaquetado (cubre(estado) debe ser true)
+     * @return TABLAS, GANA o PIERDE para el lado con turno
+     */
+    public int resultado(long estado) {
+        if (!EstadoCompacto.esperandoEliminar(estado)) {
+            int lado = EstadoCompacto.turno(estado);
+            return resultado(EstadoCompacto.mascara(estado, lado), EstadoCompacto.mascara(estado, 1 - lado));
+        }
+
+        // Eliminación pendiente: gana si alguna eliminación deja al rival perdido
+        int victima = EstadoCompacto.mascara(estado, 1 - EstadoCompacto.turno(estado));
+        int candidatas = victima & ~topologia.piezasEnMolino(victima);
+        if (candidatas == 0) {
+            candidatas = victima;
+        }
+        int mejor = PIERDE;
+        for (; candidatas != 0; candidatas &= candidatas - 1) {
+            long hijo = EstadoCompacto.eliminar(estado, Integer.numberOfTrailingZeros(candidatas));
+            int rival = EstadoCompacto.finalizado(hijo) ? PIERDE : resultado(hijo);
+            if (rival == PIERDE) {
+                return GANA;
+            }
+            if (rival == TABLAS) {
+                mejor = TABLAS;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * DISTANCIA AL FINAL
+     *
+     * @param estado Estado empaquetado (cubre(estado) debe ser true)
+     * @return Turnos hasta el final con juego perfecto (0 en tablas), o
+     *         SIN_DISTANCIA si la sub-base no tiene distancias o hay una
+     *         eliminación pendiente
+     */
+    public int distancia(long estado) {
+        if (EstadoCompacto.esperandoEliminar(estado)) {
+            return SIN_DISTANCIA;
+        }
+        int lado = EstadoCompacto.turno(estado);
+        return distancia(EstadoCompacto.mascara(estado, lado), EstadoCompacto.mascara(estado, 1 - lado));
+    }
+
+    /**
+     * @return TABLAS, GANA o PIERDE para el lado con turno en (propias s, rivales o)
+     */
+    public int resultado(int s, int o) {
+        int p = Integer.bitCount(s);
+        int r = Integer.bitCount(o);
+        return leer(indiceResultado[p][r], Combinaciones.indice(s, o, p, r), BITS_RESULTADO);
+    }
+
+    /**
+     * @return Turnos hasta el final en (propias s, rivales o), o SIN_DISTANCIA
+     */
+    public int distancia(int s, int o) {
+        int p = Integer.bitCount(s);
+        int r = Integer.bitCount(o);
+        long indice = indiceDistancia[p][r];
+        if (indice == 0) {
+            return SIN_DISTANCIA;
+        }
+        return leer(indice, Combinaciones.indice(s, o, p, r), BITS_DISTANCIA);
+    }
+
+    // ===================================================================
+    // LECTURA DE BLOQUES
+    // ===================================================================
+
+    /**
+     * Valor de la posición i de una tabla
+     * @param indice Posición del índice de bloques de la tabla
+     */
+    private int leer(long indice, long i, int bitsPorValor) {
+        long entrada = leerLong(indice + (i / POSICIONES_POR_BLOQUE) * Long.BYTES);
+        int codificacion = (int) (entrada >>> 56);
+        if (codificacion == CONSTANTE) {
+            return (int) (entrada >>> 48) & 0xFF;
+        }
+
+        long datos = entrada & MASCARA_POSICION;
+        ByteBuffer segmento = segmentos[(int) (datos / SEGMENTO)];
+        int base = (int) (datos & (SEGMENTO - 1));
+        int desplazamiento = (int) (i % POSICIONES_POR_BLOQUE);
+
+        if (codificacion == CRUDO) {
+            if (bitsPorValor == 8) {
+                return segmento.get(base + desplazamiento) & 0xFF;
+            }
+            return (segmento.get(base + (desplazamiento >>> 2)) >>> ((desplazamiento & 3) * 2)) & 3;
+        }
+
+        // RLE: pares (valor, largo - 1) hasta cubrir el desplazamiento
+        for (int j = base; ; j += 2) {
+            desplazamiento -= (segmento.get(j + 1) & 0xFF) + 1;
+            if (desplazamiento < 0) {
+                return segmento.get(j) & 0xFF;
+            }
+        }
+    }
+
+    private long leerLong(long posicion) {
+        return segmentos[(int) (posicion / SEGMENTO)].getLong((int) (posicion & (SEGMENTO - 1)));
+    }
+
+    /**
+     * Arma una entrada del índice de bloques (la usa EscritorBaseFinales)
+     */
+    static long entrada(int codificacion, int valor, long posicion) {
+        return ((long) codificacion << 56) | ((long) (valor & 0xFF) << 48) | (posicion & MASCARA_POSICION);
+    }
+}
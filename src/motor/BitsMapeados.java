@@ -0,0 +1,89 @@
+package motor;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * ============================================================================
+ * BITS MAPEADOS - ARREGLO DE BITS RESPALDADO POR UN ARCHIVO
+ * ============================================================================
+ *
+ * Un bit por posición dentro de una región de un archivo mapeada en memoria:
+ * los datos viven en el caché de páginas del sistema operativo, no en el heap,
+ * y varios procesos que mapean el mismo archivo ven las mismas páginas.
+ *
+ * CONCURRENCIA:
+ * set() lee y reescribe el byte completo, así que dos escritores no deben
+ * compartir bytes. GeneradorFinales reparte los índices en rangos alineados
+ * a 64 bits: cada proceso escribe solo los suyos y lee todos.
+ *
+ * RELACIONES: Usada por GeneradorFinales.
+ */
+final class BitsMapeados {
+
+    private final MappedByteBuffer buffer;
+    private final long bits;
+
+    private BitsMapeados(MappedByteBuffer buffer, long bits) {
+        this.buffer = buffer;
+        this.bits = bits;
+    }
+
+    /**
+     * @return Bytes que ocupan tantos bits, redondeados a palabras de 64 bits
+     */
+    static long bytesPara(long bits) {
+        return (bits + 63) / 64 * Long.BYTES;
+    }
+
+    /**
+     * MAPEAR UNA REGIÓN DEL ARCHIVO
+     *
+     * @param canal Archivo abierto (de lectura y escritura si escritura es true)
+     * @param desde Byte del archivo donde empieza el arreglo
+     * @param bits Cantidad de bits
+     * @param escritura true para poder usar set()
+     */
+    static BitsMapeados mapear(FileChannel canal, long desde, long bits, boolean escritura) throws IOException {
+        long bytes = bytesPara(bits);
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Arreglo de bits demasiado grande para un mapeo: " + bits);
+        }
+        FileChannel.MapMode modo = escritura ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        return new BitsMapeados(canal.map(modo, desde, bytes), bits);
+    }
+
+    /** @return Cantidad de bits */
+    long getBits() {
+        return bits;
+    }
+
+    boolean get(long i) {
+        return (buffer.get((int) (i >>> 3)) & (1 << (i & 7))) != 0;
+    }
+
+    void set(long i) {
+        int posicion = (int) (i >>> 3);
+        buffer.put(posicion, (byte) (buffer.get(posicion) | (1 << (i & 7))));
+    }
+
+    /**
+     * @return Cantidad de bits en 1
+     */
+    long contar() {
+        long total = 0;
+        int palabras = (int) (bytesPara(bits) / Long.BYTES);
+        for (int i = 0; i < palabras; i++) {
+            total += Long.bitCount(buffer.getLong(i * Long.BYTES));
+        }
+        return total;
+    }
+
+    /**
+     * Escribe al disco las páginas modificadas (punto de control)
+     */
+    void forzar() {
+        buffer.force();
+    }
+}
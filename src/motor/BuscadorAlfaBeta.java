@@ -0,0 +1,698 @@
+package motor;
+
+import model.clases.EstadoCompacto;
+import model.clases.Movimiento;
+import model.clases.Topologia;
+import java.util.Arrays;
+
+/**
+ * ============================================================================
+ * BUSCADOR ALFA-BETA - BÚSQUEDA DE LA MEJOR JUGADA
+ * ============================================================================
+ *
+ * Negamax con poda alfa-beta sobre EstadoCompacto: cada nodo es un long y cada
+ * nivel genera sus jugadas en un buffer propio, sin crear objetos.
+ *
+ * TURNOS:
+ * Tras formar molino el turno no cambia (el mismo lado elimina), así que el
+ * signo del puntaje solo se invierte cuando el hijo tiene otro lado con turno.
+ * Cada acción (colocar, mover, eliminar) es un nivel de profundidad.
+ *
+ * PUNTAJES:
+ * - Posición finalizada: el lado con turno ganó -> VICTORIA - ply; tablas -> 0
+ * - Sin jugadas legales: derrota del lado con turno (ver EstadoCompacto)
+ * - Hoja: Evaluador, desde el punto de vista del lado con turno
+ * Restar ply hace preferir las victorias más cortas y las derrotas más largas.
+ *
+ * PROFUNDIZACIÓN ITERATIVA CON PRESUPUESTO:
+ * buscar(estado, profundidadMaxima, plazo, limiteNodos) busca a profundidad
+ * 1, 2, 3... hasta agotar el plazo (System.nanoTime()), los nodos, una
+ * llamada a detener() o la profundidad máxima. Los límites se revisan cada
+ * INTERVALO_REVISION nodos; una iteración interrumpida se descarta y se
+ * devuelve la jugada de la última iteración completa. La iteración 1 nunca
+ * se interrumpe: siempre hay una jugada para devolver.
+ *
+ * VENTANAS DE ASPIRACIÓN:
+ * Desde la profundidad 3 la raíz se busca con una ventana de ±ASPIRACION
+ * alrededor del puntaje anterior; si el resultado cae fuera, se repite con
+ * la cota que falló abierta.
+ *
+ * ORDEN DE JUGADAS (en cada nodo, por selección):
+ * 1. Jugada de la tabla de transposición
+ * 2. Jugadas que forman molino
+ * 3. Killers: dos jugadas por ply que produjeron un corte en nodos hermanos
+ * 4. Historia: puntaje por (lado, origen, destino) que suma profundidad² en
+ *    cada corte
+ * En la raíz, la mejor jugada de la iteración anterior va primero.
+ *
+ * TABLA DE TRANSPOSICIÓN (opcional):
+ * Cada nodo interior consulta la tabla por su clave Zobrist (mantenida de
+ * forma incremental con EstadoCompacto.actualizarClave()): una entrada con
+ * profundidad suficiente puede cortar la búsqueda, y su jugada se prueba
+ * primero. Los puntajes de victoria se guardan relativos al nodo (sin el ply
+ * desde la raíz) para que valgan desde cualquier camino que llegue a él.
+ * Los resultados de iteraciones interrumpidas no se guardan.
+ *
+ * FINALES DE VUELO (opcional):
+ * Con usarFinales(), las posiciones que FinalesVuelo tiene resueltas no se
+ * buscan: su valor exacto se convierte en puntaje contando dos plies por
+ * turno, así una victoria de la tabla se compara con las del árbol.
+ *
+ * BASE DE FINALES EN DISCO (opcional):
+ * Con usarBase(), las posiciones de una BaseFinales tampoco se buscan. Si la
+ * sub-base tiene distancias se puntúan como los finales de vuelo; si solo
+ * tiene el resultado, una posición ganada vale GANADA_EN_BASE más la
+ * evaluación (lejos de una victoria forzada, pero la evaluación sigue
+ * guiando hacia el final).
+ *
+ * BÚSQUEDA PARALELA:
+ * BusquedaParalela corre varios buscadores sobre la misma raíz y la misma
+ * tabla (Lazy SMP); configurarAyudante() les cambia el punto de partida.
+ *
+ * HILOS:
+ * Una instancia guarda buffers y contadores de una búsqueda: no es segura
+ * entre hilos. Cada búsqueda concurrente usa su propio buscador (el
+ * Evaluador sí puede ser compartido si no tiene estado; la tabla de
+ * transposición siempre puede compartirse). detener() sí puede llamarse
+ * desde otro hilo.
+ *
+ * RELACIONES: Usado por JugadorBot; aplica las reglas de EstadoCompacto;
+ * consulta FinalesVuelo y BaseFinales si se le indican.
+ */
+public class BuscadorAlfaBeta {
+
+    /**
+     * Puntaje de una victoria en la raíz (menos la distancia en plies)
+     */
+    public static final int VICTORIA = 100_000;
+
+    /**
+     * Cota mayor que cualquier puntaje
+     */
+    public static final int INFINITO = 1_000_000;
+
+    /**
+     * Profundidad máxima en plies desde la raíz
+     */
+    public static final int MAX_PLY = 64;
+
+    /**
+     * Valor de plazo o de límite de nodos que significa "sin límite"
+     */
+    public static final long SIN_LIMITE = Long.MAX_VALUE;
+
+    /**
+     * Puntajes a partir de este valor (en absoluto) son victorias o derrotas
+     * forzadas, del árbol o de los finales de vuelo (dos plies por turno)
+     */
+    private static final int UMBRAL_VICTORIA = VICTORIA - MAX_PLY - 2 * FinalesVuelo.MAX_DISTANCIA - 1;
+
+    /**
+     * Puntaje base de una posición ganada según una BaseFinales sin distancias
+     */
+    private static final int GANADA_EN_BASE = VICTORIA / 2;
+
+    /**
+     * Media ventana de aspiración alrededor del puntaje de la iteración anterior
+     */
+    private static final int ASPIRACION = EvaluacionManual.PIEZA / 2;
+
+    /**
+     * Cada cuántos nodos se revisan plazo, límite de nodos y detener()
+     */
+    private static final int INTERVALO_REVISION = 1024;
+
+    private static final int ORDEN_TABLA = 1 << 30;
+    private static final int ORDEN_MOLINO = 1 << 29;
+    private static final int ORDEN_KILLER_1 = 1 << 28;
+    private static final int ORDEN_KILLER_2 = (1 << 28) - 1;
+    private static final int MAX_HISTORIA = 1 << 20;
+
+    private final Evaluador evaluador;
+
+    /**
+     * Tabla compartida, o null para buscar sin ella
+     */
+    private final TablaTransposicion tabla;
+
+    /**
+     * Finales resueltos, o null para buscar también esas posiciones
+     */
+    private FinalesVuelo finales;
+
+    /**
+     * Base de finales en disco, o null
+     */
+    private BaseFinales base;
+
+    /**
+     * movimientos[ply] = buffer de jugadas del nivel ply; orden[ply] = sus puntajes de orden
+     */
+    private final int[][] movimientos = new int[MAX_PLY + 1][Movimiento.MAX_MOVIMIENTOS];
+    private final int[][] orden = new int[MAX_PLY + 1][Movimiento.MAX_MOVIMIENTOS];
+
+    /**
+     * killers[ply][0..1] = jugadas que cortaron en ese ply (más reciente primero)
+     */
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+
+    /**
+     * historia[lado][movimiento & 0x3FF] (origen y destino; ver Movimiento)
+     */
+    private final int[][] historia = new int[2][1024];
+
+    private long nodos;
+    private int puntaje;
+    private int profundidadCompletada;
+
+    private long plazo;
+    private long limiteNodos;
+    private boolean revisarLimites;
+    private boolean abortada;
+    private volatile boolean detenida;
+
+    /**
+     * Mejor jugada de la raíz en la iteración en curso
+     */
+    private int mejorDeIteracion;
+
+    /**
+     * Diversificación de los ayudantes de BusquedaParalela: profundidad en la
+     * que empieza la profundización y rotación del orden inicial de la raíz
+     */
+    private int profundidadInicial = 1;
+    private int rotacionRaiz;
+    private boolean ayudante;
+
+    /**
+     * @param evaluador Evaluación de las hojas
+     */
+    public BuscadorAlfaBeta(Evaluador evaluador) {
+        this(evaluador, null);
+    }
+
+    /**
+     * @param evaluador Evaluación de las hojas
+     * @param tabla Tabla de transposición (puede compartirse con otros buscadores), o null
+     */
+    public BuscadorAlfaBeta(Evaluador evaluador, TablaTransposicion tabla) {
+        this.evaluador = evaluador;
+        this.tabla = tabla;
+    }
+
+    /**
+     * USAR FINALES DE VUELO RESUELTOS
+     * @param finales Finales a consultar dentro del árbol, o null para no usarlos
+     */
+    public void usarFinales(FinalesVuelo finales) {
+        this.finales = finales;
+    }
+
+    /**
+     * USAR UNA BASE DE FINALES EN DISCO
+     * @param base Base a consultar dentro del árbol, o null para no usarla
+     */
+    public void usarBase(BaseFinales base) {
+        this.base = base;
+    }
+
+    /**
+     * BUSCAR A PROFUNDIDAD FIJA
+     *
+     * @param estado Estado empaquetado (ver EstadoCompacto)
+     * @param profundidad Plies a explorar (mínimo 1)
+     * @return Mejor movimiento empaquetado, o Movimiento.NINGUNO si no hay jugadas
+     */
+    public int buscar(long estado, int profundidad) {
+        return buscar(estado, profundidad, SIN_LIMITE, SIN_LIMITE);
+    }
+
+    /**
+     * BUSCAR CON PROFUNDIZACIÓN ITERATIVA Y PRESUPUESTO
+     *
+     * @param estado Estado empaquetado (ver EstadoCompacto)
+     * @param profundidadMaxima Última iteración a buscar (1..MAX_PLY)
+     * @param plazo Instante de System.nanoTime() en el que se corta la búsqueda, o SIN_LIMITE
+     * @param limiteNodos Nodos tras los que se corta la búsqueda, o SIN_LIMITE
+     * @return Mejor movimiento de la última iteración completa, o Movimiento.NINGUNO si no hay jugadas
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Llama a buscarRaiz() por iteración (y de nuevo si falla la ventana de aspiración)
+     * - getPuntaje(), getNodos() y getProfundidadCompletada() informan el resultado
+     */
+    public int buscar(long estado, int profundidadMaxima, long plazo, long limiteNodos) {
+        detenida = false;
+        return iterar(estado, profundidadMaxima, plazo, limiteNodos);
+    }
+
+    /**
+     * Igual que buscar() pero sin rearmar detener(): BusquedaParalela rearma
+     * al ayudante antes de lanzarlo, así un detener() que llegue antes de que
+     * la tarea arranque no se pierde. Un ayudante detenido antes de arrancar
+     * (su tarea esperó en el pool detrás de otras partidas) no busca nada, y
+     * uno en curso se corta desde la primera iteración: su resultado solo
+     * cuenta si llega más hondo que el principal.
+     */
+    int iterar(long estado, int profundidadMaxima, long plazo, long limiteNodos) {
+        this.plazo = plazo;
+        this.limiteNodos = limiteNodos;
+        this.nodos = 1;
+        this.abortada = false;
+        this.revisarLimites = ayudante;
+        this.profundidadCompletada = 0;
+        if (ayudante && detenida) {
+            return Movimiento.NINGUNO;
+        }
+        limpiarOrden();
+
+        int[] raiz = movimientos[0];
+        int cantidad = EstadoCompacto.generarMovimientos(estado, raiz);
+        if (cantidad == 0) {
+            puntaje = EstadoCompacto.tablas(estado) ? 0 : EstadoCompacto.finalizado(estado) ? VICTORIA : -VICTORIA;
+            return Movimiento.NINGUNO;
+        }
+
+        long clave = EstadoCompacto.clave(estado);
+        if (tabla != null) {
+            ordenarPrimero(raiz, cantidad, TablaTransposicion.movimiento(tabla.sondear(clave)));
+        }
+
+        rotar(raiz, cantidad, rotacionRaiz);
+
+        int mejor = raiz[0];
+        profundidadMaxima = Math.max(1, Math.min(profundidadMaxima, MAX_PLY));
+        int desde = Math.min(profundidadInicial, profundidadMaxima);
+        for (int profundidad = desde; profundidad <= profundidadMaxima; profundidad++) {
+            int alfa = -INFINITO;
+            int beta = INFINITO;
+            if (profundidad >= desde + 2 && Math.abs(puntaje) < UMBRAL_VICTORIA) {
+                alfa = puntaje - ASPIRACION;
+                beta = puntaje + ASPIRACION;
+            }
+
+            int valor;
+            while (true) {
+                valor = buscarRaiz(estado, clave, cantidad, profundidad, alfa, beta);
+                if (abortada) {
+                    break;
+                }
+                if (valor <= alfa) {
+                    alfa = -INFINITO;
+                } else if (valor >= beta) {
+                    beta = INFINITO;
+                } else {
+                    break;
+                }
+            }
+            if (abortada) {
+                break;
+            }
+
+            mejor = mejorDeIteracion;
+            puntaje = valor;
+            profundidadCompletada = profundidad;
+            ordenarPrimero(raiz, cantidad, mejor);
+            if (tabla != null) {
+                tabla.guardar(clave, profundidad, TablaTransposicion.EXACTA, paraTabla(valor, 0), mejor);
+            }
+
+            // Desde la iteración 2 ya se puede cortar; con una sola jugada no hay nada que decidir
+            revisarLimites = true;
+            if (cantidad == 1 || Math.abs(valor) >= UMBRAL_VICTORIA) {
+                break;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * DETENER LA BÚSQUEDA EN CURSO
+     * Puede llamarse desde cualquier hilo; la búsqueda termina en a lo sumo
+     * INTERVALO_REVISION nodos con la jugada de la última iteración completa.
+     */
+    public void detener() {
+        detenida = true;
+    }
+
+    /**
+     * Rearma detener() antes de una búsqueda lanzada con iterar()
+     */
+    void rearmar() {
+        detenida = false;
+    }
+
+    /**
+     * CONFIGURAR COMO AYUDANTE DE UNA BÚSQUEDA PARALELA
+     *
+     * Los ayudantes impares empiezan un nivel más profundo y cada ayudante
+     * rota el orden inicial de la raíz, para que no recorran el árbol en el
+     * mismo orden que el hilo principal y llenen la tabla con otras ramas.
+     *
+     * @param indice Índice del ayudante (0 = hilo principal, sin cambios)
+     */
+    void configurarAyudante(int indice) {
+        this.profundidadInicial = 1 + (indice & 1);
+        this.rotacionRaiz = indice;
+        this.ayudante = indice > 0;
+    }
+
+    /** @return Puntaje de la última iteración completa, para el lado con turno en la raíz */
+    public int getPuntaje() {
+        return puntaje;
+    }
+
+    /** @return Nodos visitados en la última búsqueda (incluye la iteración interrumpida) */
+    public long getNodos() {
+        return nodos;
+    }
+
+    /** @return Profundidad de la última iteración completa */
+    public int getProfundidadCompletada() {
+        return profundidadCompletada;
+    }
+
+    // ===================================================================
+    // BÚSQUEDA
+    // ===================================================================
+
+    /**
+     * Una iteración sobre las jugadas de la raíz (ya generadas en movimientos[0])
+     */
+    private int buscarRaiz(long estado, long clave, int cantidad, int profundidad, int alfa, int beta) {
+        int[] raiz = movimientos[0];
+        int mejor = -INFINITO;
+        mejorDeIteracion = raiz[0];
+        for (int i = 0; i < cantidad; i++) {
+            long hijo = EstadoCompacto.aplicar(estado, raiz[i]);
+            long claveHijo = EstadoCompacto.actualizarClave(clave, estado, hijo);
+            int valor = valorDe(estado, hijo, claveHijo, profundidad - 1, alfa, beta, 1);
+            if (abortada) {
+                return mejor;
+            }
+            if (valor > mejor) {
+                mejor = valor;
+                mejorDeIteracion = raiz[i];
+                if (valor > alfa) {
+                    alfa = valor;
+                    if (alfa >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Puntaje de un hijo desde el punto de vista del lado con turno en el padre
+     */
+    private int valorDe(long padre, long hijo, long claveHijo, int profundidad, int alfa, int beta, int ply) {
+        if (EstadoCompacto.turno(hijo) == EstadoCompacto.turno(padre)) {
+            return alfaBeta(hijo, claveHijo, profundidad, alfa, beta, ply);
+        }
+        return -alfaBeta(hijo, claveHijo, profundidad, -beta, -alfa, ply);
+    }
+
+    private int alfaBeta(long estado, long clave, int profundidad, int alfa, int beta, int ply) {
+        if ((++nodos & (INTERVALO_REVISION - 1)) == 0) {
+            revisarLimites();
+        }
+        if (abortada) {
+            return 0;
+        }
+        if (EstadoCompacto.finalizado(estado)) {
+            return EstadoCompacto.tablas(estado) ? 0 : VICTORIA - ply;
+        }
+        if (finales != null && finales.cubre(estado)) {
+            return puntajeDeFinal(finales.consultar(estado), ply);
+        }
+        if (base != null && base.cubre(estado)) {
+            return puntajeDeBase(estado, ply);
+        }
+
+        if (profundidad <= 0 || ply >= MAX_PLY) {
+            if (bloqueado(estado)) {
+                return -(VICTORIA - ply);
+            }
+            return evaluador.evaluar(estado);
+        }
+
+        int movimientoTabla = Movimiento.NINGUNO;
+        if (tabla != null) {
+            long datos = tabla.sondear(clave);
+            if (datos != TablaTransposicion.SIN_DATOS) {
+                movimientoTabla = TablaTransposicion.movimiento(datos);
+                if (TablaTransposicion.profundidad(datos) >= profundidad) {
+                    int valor = desdeTabla(TablaTransposicion.puntaje(datos), ply);
+                    int tipo = TablaTransposicion.tipo(datos);
+                    if (tipo == TablaTransposicion.EXACTA
+                            || (tipo == TablaTransposicion.INFERIOR && valor >= beta)
+                            || (tipo == TablaTransposicion.SUPERIOR && valor <= alfa)) {
+                        return valor;
+                    }
+                }
+            }
+        }
+
+        int[] buffer = movimientos[ply];
+        int cantidad = EstadoCompacto.generarMovimientos(estado, buffer);
+        if (cantidad == 0) {
+            return -(VICTORIA - ply);
+        }
+        puntuarJugadas(estado, ply, cantidad, movimientoTabla);
+
+        int lado = EstadoCompacto.turno(estado);
+        int alfaInicial = alfa;
+        int mejor = -INFINITO;
+        int mejorMovimiento = Movimiento.NINGUNO;
+        for (int i = 0; i < cantidad; i++) {
+            int movimiento = siguienteJugada(ply, i, cantidad);
+            long hijo = EstadoCompacto.aplicar(estado, movimiento);
+            long claveHijo = tabla != null ? EstadoCompacto.actualizarClave(clave, estado, hijo) : 0L;
+            int valor = valorDe(estado, hijo, claveHijo, profundidad - 1, alfa, beta, ply + 1);
+            if (abortada) {
+                return 0;
+            }
+            if (valor > mejor) {
+                mejor = valor;
+                mejorMovimiento = movimiento;
+                if (valor > alfa) {
+                    alfa = valor;
+                    if (alfa >= beta) {
+                        registrarCorte(lado, ply, profundidad, movimiento);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (tabla != null) {
+            int tipo = mejor >= beta ? TablaTransposicion.INFERIOR
+                    : mejor > alfaInicial ? TablaTransposicion.EXACTA
+                    : TablaTransposicion.SUPERIOR;
+            tabla.guardar(clave, profundidad, tipo, paraTabla(mejor, ply),
+                    tipo == TablaTransposicion.SUPERIOR ? Movimiento.NINGUNO : mejorMovimiento);
+        }
+        return mejor;
+    }
+
+    private void revisarLimites() {
+        if (revisarLimites && (detenida || nodos >= limiteNodos
+                || (plazo != SIN_LIMITE && System.nanoTime() - plazo >= 0))) {
+            abortada = true;
+        }
+    }
+
+    // ===================================================================
+    // ORDEN DE JUGADAS
+    // ===================================================================
+
+    private void limpiarOrden() {
+        for (int[] k : killers) {
+            k[0] = Movimiento.NINGUNO;
+            k[1] = Movimiento.NINGUNO;
+        }
+        for (int[] h : historia) {
+            Arrays.fill(h, 0);
+        }
+    }
+
+    /**
+     * Calcula el puntaje de orden de cada jugada de movimientos[ply]
+     */
+    private void puntuarJugadas(long estado, int ply, int cantidad, int movimientoTabla) {
+        int[] buffer = movimientos[ply];
+        int[] puntajes = orden[ply];
+        int lado = EstadoCompacto.turno(estado);
+        int propias = EstadoCompacto.mascara(estado, lado);
+        Topologia topologia = EstadoCompacto.topologia(estado);
+        int[] historiaLado = historia[lado];
+
+        for (int i = 0; i < cantidad; i++) {
+            int movimiento = buffer[i];
+            int valor;
+            if (movimiento == movimientoTabla) {
+                valor = ORDEN_TABLA;
+            } else if (formaMolino(topologia, propias, movimiento)) {
+                valor = ORDEN_MOLINO;
+            } else if (movimiento == killers[ply][0]) {
+                valor = ORDEN_KILLER_1;
+            } else if (movimiento == killers[ply][1]) {
+                valor = ORDEN_KILLER_2;
+            } else {
+                valor = historiaLado[movimiento & 0x3FF];
+            }
+            puntajes[i] = valor;
+        }
+    }
+
+    /**
+     * Selección: lleva a la posición i la jugada de mayor puntaje entre i y cantidad - 1
+     */
+    private int siguienteJugada(int ply, int i, int cantidad) {
+        int[] buffer = movimientos[ply];
+        int[] puntajes = orden[ply];
+        int mejor = i;
+        for (int j = i + 1; j < cantidad; j++) {
+            if (puntajes[j] > puntajes[mejor]) {
+                mejor = j;
+            }
+        }
+        if (mejor != i) {
+            int movimiento = buffer[mejor];
+            buffer[mejor] = buffer[i];
+            buffer[i] = movimiento;
+            int valor = puntajes[mejor];
+            puntajes[mejor] = puntajes[i];
+            puntajes[i] = valor;
+        }
+        return buffer[i];
+    }
+
+    private void registrarCorte(int lado, int ply, int profundidad, int movimiento) {
+        if (Movimiento.tipo(movimiento) != Movimiento.ELIMINAR && killers[ply][0] != movimiento) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = movimiento;
+        }
+        int[] historiaLado = historia[lado];
+        int indice = movimiento & 0x3FF;
+        historiaLado[indice] += profundidad * profundidad;
+        if (historiaLado[indice] > MAX_HISTORIA) {
+            for (int j = 0; j < historiaLado.length; j++) {
+                historiaLado[j] >>= 1;
+            }
+        }
+    }
+
+    private static boolean formaMolino(Topologia topologia, int propias, int movimiento) {
+        int tipo = Movimiento.tipo(movimiento);
+        if (tipo == Movimiento.ELIMINAR) {
+            return false;
+        }
+        int destino = Movimiento.destino(movimiento);
+        int despues = propias | (1 << destino);
+        if (tipo == Movimiento.MOVER) {
+            despues &= ~(1 << Movimiento.origen(movimiento));
+        }
+        return topologia.formaMolino(destino, despues);
+    }
+
+    /**
+     * Rota las jugadas del buffer: la jugada en la posición desplazamiento % cantidad pasa a ser la primera
+     */
+    private static void rotar(int[] buffer, int cantidad, int desplazamiento) {
+        int k = desplazamiento % cantidad;
+        if (k == 0) {
+            return;
+        }
+        int[] copia = Arrays.copyOf(buffer, cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            buffer[i] = copia[(i + k) % cantidad];
+        }
+    }
+
+    /**
+     * Lleva el movimiento indicado (si está en el buffer) a la primera posición
+     */
+    private static void ordenarPrimero(int[] buffer, int cantidad, int movimiento) {
+        if (movimiento == Movimiento.NINGUNO) {
+            return;
+        }
+        for (int i = 0; i < cantidad; i++) {
+            if (buffer[i] == movimiento) {
+                System.arraycopy(buffer, 0, buffer, 1, i);
+                buffer[0] = movimiento;
+                return;
+            }
+        }
+    }
+
+    // ===================================================================
+    // PUNTAJES DE VICTORIA EN LA TABLA
+    // ===================================================================
+
+    /**
+     * Puntaje relativo al nodo: una victoria en N plies desde el nodo se guarda
+     * igual sin importar a qué ply de la raíz esté el nodo
+     */
+    private static int paraTabla(int valor, int ply) {
+        if (valor >= UMBRAL_VICTORIA) {
+            return valor + ply;
+        }
+        if (valor <= -UMBRAL_VICTORIA) {
+            return valor - ply;
+        }
+        return valor;
+    }
+
+    /**
+     * Inversa de paraTabla(): vuelve a medir las victorias desde la raíz
+     */
+    private static int desdeTabla(int valor, int ply) {
+        if (valor >= UMBRAL_VICTORIA) {
+            return valor - ply;
+        }
+        if (valor <= -UMBRAL_VICTORIA) {
+            return valor + ply;
+        }
+        return valor;
+    }
+
+    /**
+     * Valor de FinalesVuelo como puntaje: cada turno cuenta dos plies (mover y eliminar)
+     */
+    private static int puntajeDeFinal(int valor, int ply) {
+        if (FinalesVuelo.esVictoria(valor)) {
+            return VICTORIA - ply - (2 * FinalesVuelo.distancia(valor) - 1);
+        }
+        if (FinalesVuelo.esDerrota(valor)) {
+            return -(VICTORIA - ply - 2 * FinalesVuelo.distancia(valor));
+        }
+        return 0;
+    }
+
+    /**
+     * Valor de la BaseFinales como puntaje: exacto si hay distancia, si no resultado + evaluación
+     */
+    private int puntajeDeBase(long estado, int ply) {
+        int resultado = base.resultado(estado);
+        if (resultado == BaseFinales.TABLAS) {
+            return 0;
+        }
+        int distancia = base.distancia(estado);
+        if (distancia != BaseFinales.SIN_DISTANCIA) {
+            return puntajeDeFinal(resultado == BaseFinales.GANA ? distancia : -1 - distancia, ply);
+        }
+        int evaluacion = evaluador.evaluar(estado);
+        return resultado == BaseFinales.GANA ? GANADA_EN_BASE + evaluacion : -GANADA_EN_BASE + evaluacion;
+    }
+
+    /**
+     * Sin generar jugadas: solo en fase de movimiento un lado puede quedar sin ellas
+     */
+    private static boolean bloqueado(long estado) {
+        return !EstadoCompacto.enColocacion(estado)
+                && !EstadoCompacto.esperandoEliminar(estado)
+                && !EstadoCompacto.puedeMoverse(estado, EstadoCompacto.turno(estado));
+    }
+}
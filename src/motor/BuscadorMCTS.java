@@ -0,0 +1,403 @@
+package motor;
+
+import model.clases.EstadoCompacto;
+import model.clases.Movimiento;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ============================================================================
+ * BUSCADOR MCTS - BÚSQUEDA DE ÁRBOL MONTE CARLO (UCT) CON PLAYOUTS EN PARALELO
+ * ============================================================================
+ *
+ * Segundo motor de los bots: en lugar de evaluar hojas, juega partidas al
+ * azar (playouts) desde ellas y acumula en el árbol cuántas ganó cada jugada.
+ * La fuerza crece de forma pareja con los playouts que se le permiten, así
+ * que el tiempo o la cantidad de hilos se pueden recortar en los picos de
+ * carga sin que el bot se vuelva errático.
+ *
+ * ITERACIÓN (un playout):
+ * 1. Selección: desde la raíz baja por el hijo de mayor UCT
+ *      puntos / (2 visitas) + EXPLORACION * sqrt(ln(visitas del padre) / visitas)
+ *    (un hijo sin visitas va primero)
+ * 2. Expansión: al llegar a un nodo ya visitado sin hijos, crea todos sus
+ *    hijos de una vez y sigue bajando
+ * 3. Playout: jugadas al azar de EstadoCompacto hasta el final de la partida,
+ *    hasta una posición de FinalesVuelo (si se indicó) o hasta
+ *    LIMITE_PLAYOUT jugadas (ahí decide el signo del Evaluador)
+ * 4. Retropropagación: cada nodo del camino suma 2 puntos si ganó el lado que
+ *    hizo la jugada que lleva a él, 1 en tablas y 0 si perdió. El turno no
+ *    siempre alterna (tras un molino elimina el mismo lado), así que el lado
+ *    se toma del estado del padre.
+ *
+ * ÁRBOL EN ARREGLOS PLANOS:
+ * Los nodos no son objetos: el nodo n es el índice n de arreglos paralelos
+ * (estado, jugada, primer hijo, cantidad de hijos, visitas, puntos),
+ * reservados al crear el buscador. Los hijos de un nodo son contiguos, así
+ * que la selección recorre memoria consecutiva. Si el árbol se llena, cada
+ * nodo que no entra queda marcado como HOJA (no se vuelve a intentar
+ * expandirlo) y los playouts siguen desde él.
+ *
+ * PARALELO CON PÉRDIDA VIRTUAL:
+ * Todos los hilos recorren el mismo árbol. Al bajar, cada nodo del camino
+ * suma PERDIDA_VIRTUAL visitas sin puntos (como si hubiera perdido esos
+ * playouts), así los otros hilos eligen otros caminos mientras este no
+ * termina; al retropropagar se descuentan. Visitas y puntos se actualizan con
+ * sumas atómicas; la expansión la hace un solo hilo (CAS sobre el primer
+ * hijo) y se publica con escritura release: un hilo que llega a un nodo que
+ * otro está expandiendo juega el playout desde ahí.
+ *
+ * CONFIGURACIÓN:
+ * - hilos: playouts simultáneos de UNA búsqueda; los ayudantes corren en el
+ *   pool recibido (en el servidor, el de PlanificadorBots)
+ * - capacidad: nodos del árbol (unos 30 bytes por nodo)
+ *
+ * HILOS:
+ * Una instancia sirve para una búsqueda a la vez; detener() puede llamarse
+ * desde cualquier hilo. Como en BuscadorAlfaBeta.iterar(), buscar() no
+ * rearma detener(): se llama a rearmar() antes de lanzarla, así un
+ * detener() que llegue antes de que la búsqueda arranque no se pierde.
+ *
+ * RELACIONES: Aplica las reglas de EstadoCompacto; usado por JugadorBot si
+ * molino.bot.motor = mcts; consulta FinalesVuelo si se le indica.
+ */
+public class BuscadorMCTS {
+
+    /**
+     * Constante de exploración de UCT (recompensas entre 0 y 1)
+     */
+    public static final double EXPLORACION = 1.0;
+
+    /**
+     * Visitas sin puntos que suma un hilo a cada nodo de su camino mientras juega
+     */
+    public static final int PERDIDA_VIRTUAL = 3;
+
+    /**
+     * Jugadas máximas de un playout antes de decidir por la evaluación
+     */
+    public static final int LIMITE_PLAYOUT = 200;
+
+    /**
+     * Profundidad máxima del camino de selección
+     */
+    private static final int MAX_CAMINO = 256;
+
+    /**
+     * Evaluación (en absoluto) desde la que un playout cortado cuenta como ganado
+     */
+    private static final int MARGEN_CORTE = EvaluacionManual.PIEZA;
+
+    /**
+     * Valores de primerHijo de un nodo sin hijos: todavía no expandido, en
+     * expansión, o sin lugar en el árbol lleno (hoja permanente)
+     */
+    private static final int SIN_EXPANDIR = -1;
+    private static final int EXPANDIENDO = -2;
+    private static final int HOJA = -3;
+
+    private static final VarHandle ENTEROS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Evaluador evaluador;
+    private final Trabajador[] trabajadores;
+    private final ForkJoinPool pool;
+
+    // Árbol: el nodo n son los elementos n de estos arreglos (la raíz es 0)
+    private final long[] estados;
+    private final int[] jugadas;
+    private final int[] primerHijo;
+    private final byte[] cantidadHijos;
+    private final int[] visitas;
+    private final int[] puntos;
+    private final AtomicInteger usados = new AtomicInteger();
+
+    private FinalesVuelo finales;
+    private volatile boolean detenida;
+    private volatile long plazo;
+    private volatile long limitePlayouts;
+    private final AtomicInteger playouts = new AtomicInteger();
+
+    /**
+     * @param evaluador Evaluación de los playouts cortados (compartida: no debe tener estado)
+     * @param hilos Playouts simultáneos por búsqueda (mínimo 1)
+     * @param capacidad Nodos del árbol (mínimo Movimiento.MAX_MOVIMIENTOS + 1)
+     * @param pool Pool donde corren los ayudantes (no se usa si hilos es 1)
+     */
+    public BuscadorMCTS(Evaluador evaluador, int hilos, int capacidad, ForkJoinPool pool) {
+        this.evaluador = evaluador;
+        this.pool = pool;
+        this.trabajadores = new Trabajador[Math.max(1, hilos)];
+        for (int i = 0; i < trabajadores.length; i++) {
+            trabajadores[i] = new Trabajador(0x9E3779B97F4A7C15L * (i + 1));
+        }
+        int nodos = Math.max(Movimiento.MAX_MOVIMIENTOS + 1, capacidad);
+        this.estados = new long[nodos];
+        this.jugadas = new int[nodos];
+        this.primerHijo = new int[nodos];
+        this.cantidadHijos = new byte[nodos];
+        this.visitas = new int[nodos];
+        this.puntos = new int[nodos];
+    }
+
+    /**
+     * @param finales Finales de vuelo que terminan los playouts con su resultado exacto, o null
+     */
+    public void usarFinales(FinalesVuelo finales) {
+        this.finales = finales;
+    }
+
+    /**
+     * BUSCAR LA MEJOR JUGADA
+     *
+     * @param estado Estado de la raíz
+     * @param plazo Instante (System.nanoTime()) en que se deja de jugar playouts, o BuscadorAlfaBeta.SIN_LIMITE
+     * @param limitePlayouts Playouts máximos entre todos los hilos, o BuscadorAlfaBeta.SIN_LIMITE
+     * @return La jugada de la raíz con más visitas, o Movimiento.NINGUNO si no hay jugadas
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - rearmar() debe llamarse antes (al terminar, la búsqueda queda detenida)
+     * - Lanza los ayudantes en el pool y juega en el hilo actual
+     * - Cada hilo repite Trabajador.iterar() hasta agotar plazo, playouts o detener()
+     */
+    public int buscar(long estado, long plazo, long limitePlayouts) {
+        this.plazo = plazo;
+        this.limitePlayouts = limitePlayouts;
+        playouts.set(0);
+        usados.set(1);
+        iniciarNodo(0, estado, Movimiento.NINGUNO);
+
+        int[] buffer = trabajadores[0].buffer;
+        int cantidad = EstadoCompacto.generarMovimientos(estado, buffer);
+        if (cantidad <= 1) {
+            return cantidad == 0 ? Movimiento.NINGUNO : buffer[0];
+        }
+
+        List<ForkJoinTask<Integer>> tareas = new ArrayList<>(trabajadores.length - 1);
+        for (int i = 1; i < trabajadores.length; i++) {
+            Trabajador ayudante = trabajadores[i];
+            tareas.add(pool.submit(ForkJoinTask.adapt(() -> ayudante.correr())));
+        }
+        trabajadores[0].correr();
+        detenida = true;
+        for (ForkJoinTask<Integer> tarea : tareas) {
+            tarea.join();
+        }
+        return jugadas[mejorHijo()];
+    }
+
+    /**
+     * DETENER LA BÚSQUEDA EN CURSO (desde cualquier hilo)
+     */
+    public void detener() {
+        detenida = true;
+    }
+
+    /**
+     * Rearma detener() antes de una búsqueda (en el hilo que la programa)
+     */
+    public void rearmar() {
+        detenida = false;
+    }
+
+    /** @return Playouts jugados en la última búsqueda */
+    public int getPlayouts() {
+        return playouts.get();
+    }
+
+    /** @return Nodos del árbol usados en la última búsqueda */
+    public int getNodos() {
+        return Math.min(usados.get(), estados.length);
+    }
+
+    /** @return Capacidad del árbol en nodos */
+    public int getCapacidad() {
+        return estados.length;
+    }
+
+    /** @return Hilos por búsqueda */
+    public int getHilos() {
+        return trabajadores.length;
+    }
+
+    /**
+     * @return Proporción de puntos (0 a 1) de la jugada elegida en la última
+     *         búsqueda, para el lado con turno en la raíz
+     */
+    public double getValor() {
+        int hijo = mejorHijo();
+        return visitas[hijo] == 0 ? 0.5 : puntos[hijo] / (2.0 * visitas[hijo]);
+    }
+
+    /**
+     * @return Hijo de la raíz con más visitas (a igual visitas, más puntos)
+     */
+    private int mejorHijo() {
+        int primero = primerHijo[0];
+        if (primero < 0) {
+            return 0;
+        }
+        int mejor = primero;
+        for (int h = primero + 1; h < primero + cantidadHijos[0]; h++) {
+            if (visitas[h] > visitas[mejor] || (visitas[h] == visitas[mejor] && puntos[h] > puntos[mejor])) {
+                mejor = h;
+            }
+        }
+        return mejor;
+    }
+
+    private void iniciarNodo(int nodo, long estado, int jugada) {
+        estados[nodo] = estado;
+        jugadas[nodo] = jugada;
+        cantidadHijos[nodo] = 0;
+        visitas[nodo] = 0;
+        puntos[nodo] = 0;
+        primerHijo[nodo] = SIN_EXPANDIR;
+    }
+
+    /**
+     * EXPANDIR UN NODO
+     * @return true si el nodo quedó con sus hijos publicados (por este hilo)
+     */
+    private boolean expandir(int nodo, int[] buffer) {
+        if (!ENTEROS.compareAndSet(primerHijo, nodo, SIN_EXPANDIR, EXPANDIENDO)) {
+            return false;
+        }
+        long estado = estados[nodo];
+        int cantidad = EstadoCompacto.generarMovimientos(estado, buffer);
+        int inicio = usados.get() + cantidad <= estados.length ? usados.getAndAdd(cantidad) : estados.length;
+        if (inicio + cantidad > estados.length) {
+            // Árbol lleno: el nodo queda como hoja hasta la próxima búsqueda
+            ENTEROS.setRelease(primerHijo, nodo, HOJA);
+            return false;
+        }
+        for (int i = 0; i < cantidad; i++) {
+            iniciarNodo(inicio + i, EstadoCompacto.aplicar(estado, buffer[i]), buffer[i]);
+        }
+        cantidadHijos[nodo] = (byte) cantidad;
+        ENTEROS.setRelease(primerHijo, nodo, inicio);
+        return true;
+    }
+
+    /**
+     * SELECCIÓN UCT
+     * @return Hijo de mayor UCT del nodo (ya expandido y con hijos)
+     */
+    private int seleccionar(int nodo, int primero) {
+        int cantidad = cantidadHijos[nodo];
+        double logaritmo = Math.log(Math.max(1, visitas[nodo]));
+        int mejor = primero;
+        double mejorValor = Double.NEGATIVE_INFINITY;
+        for (int h = primero; h < primero + cantidad; h++) {
+            int v = visitas[h];
+            if (v == 0) {
+                return h;
+            }
+            double valor = puntos[h] / (2.0 * v) + EXPLORACION * Math.sqrt(logaritmo / v);
+            if (valor > mejorValor) {
+                mejorValor = valor;
+                mejor = h;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Estado por hilo: buffer de jugadas, camino de selección y generador al azar
+     */
+    private final class Trabajador {
+        final int[] buffer = new int[Movimiento.MAX_MOVIMIENTOS];
+        final int[] camino = new int[MAX_CAMINO];
+        long azar;
+
+        Trabajador(long semilla) {
+            this.azar = semilla;
+        }
+
+        /**
+         * @return Playouts que jugó este hilo
+         */
+        int correr() {
+            int propios = 0;
+            while (!detenida && System.nanoTime() < plazo && playouts.get() < limitePlayouts) {
+                iterar();
+                playouts.incrementAndGet();
+                propios++;
+            }
+            return propios;
+        }
+
+        /**
+         * Una iteración completa: selección, expansión, playout y retropropagación
+         */
+        void iterar() {
+            int largo = 0;
+            int nodo = 0;
+            camino[largo++] = nodo;
+            ENTEROS.getAndAdd(visitas, nodo, PERDIDA_VIRTUAL);
+
+            while (largo < MAX_CAMINO && !EstadoCompacto.finalizado(estados[nodo])) {
+                int primero = (int) ENTEROS.getAcquire(primerHijo, nodo);
+                if (primero == SIN_EXPANDIR && (nodo == 0 || visitas[nodo] > PERDIDA_VIRTUAL)
+                        && expandir(nodo, buffer)) {
+                    primero = primerHijo[nodo];
+                }
+                if (primero < 0 || cantidadHijos[nodo] == 0) {
+                    break;
+                }
+                nodo = seleccionar(nodo, primero);
+                camino[largo++] = nodo;
+                ENTEROS.getAndAdd(visitas, nodo, PERDIDA_VIRTUAL);
+            }
+
+            int ganador = jugar(estados[nodo]);
+            ENTEROS.getAndAdd(visitas, 0, 1 - PERDIDA_VIRTUAL);
+            for (int i = 1; i < largo; i++) {
+                int lado = EstadoCompacto.turno(estados[camino[i - 1]]);
+                int n = camino[i];
+                ENTEROS.getAndAdd(puntos, n, ganador < 0 ? 1 : ganador == lado ? 2 : 0);
+                ENTEROS.getAndAdd(visitas, n, 1 - PERDIDA_VIRTUAL);
+            }
+        }
+
+        /**
+         * PLAYOUT AL AZAR
+         * @return Lado ganador (0 o 1), o -1 si se considera tablas
+         */
+        int jugar(long estado) {
+            for (int jugada = 0; ; jugada++) {
+                if (EstadoCompacto.finalizado(estado)) {
+                    return EstadoCompacto.ganador(estado);
+                }
+                int lado = EstadoCompacto.turno(estado);
+                if (finales != null && finales.cubre(estado)) {
+                    int valor = finales.consultar(estado);
+                    return FinalesVuelo.esVictoria(valor) ? lado : FinalesVuelo.esDerrota(valor) ? 1 - lado : -1;
+                }
+                if (jugada == LIMITE_PLAYOUT) {
+                    int evaluacion = evaluador.evaluar(estado);
+                    return evaluacion >= MARGEN_CORTE ? lado : evaluacion <= -MARGEN_CORTE ? 1 - lado : -1;
+                }
+                int cantidad = EstadoCompacto.generarMovimientos(estado, buffer);
+                if (cantidad == 0) {
+                    return 1 - lado;
+                }
+                estado = EstadoCompacto.aplicar(estado, buffer[siguiente(cantidad)]);
+            }
+        }
+
+        /**
+         * @return Entero al azar en [0, limite) (xorshift64*, sin objetos)
+         */
+        int siguiente(int limite) {
+            azar ^= azar >>> 12;
+            azar ^= azar << 25;
+            azar ^= azar >>> 27;
+            return (int) (((azar * 0x2545F4914F6CDD1DL) >>> 33) * limite >>> 31);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package motor;
+
+import model.clases.Movimiento;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * ============================================================================
+ * BÚSQUEDA PARALELA - LAZY SMP SOBRE EL FORKJOINPOOL DE QUIEN LA USA
+ * ============================================================================
+ *
+ * Reparte una búsqueda entre varios núcleos sin dividir el árbol: N
+ * buscadores recorren la misma raíz a la vez y se comunican solo a través de
+ * la TablaTransposicion compartida (sin bloqueos). Lo que un hilo guarda le
+ * ahorra trabajo a los demás, así que el hilo principal llega antes a cada
+ * profundidad.
+ *
+ * FUNCIONAMIENTO:
+ * - El hilo que llama a buscar() es el principal (ayudante 0)
+ * - Los ayudantes 1..N-1 corren como tareas del pool recibido; cada uno
+ *   empieza en otra profundidad o con otro orden de raíz
+ *   (ver BuscadorAlfaBeta.configurarAyudante())
+ * - Cuando el principal termina (profundidad máxima, plazo, nodos o
+ *   detener()), detiene a los ayudantes y espera a los que arrancaron. En
+ *   el pool compartido un ayudante puede seguir en cola detrás de turnos de
+ *   otras partidas: se marca como salteado y, cuando el pool lo corra, sale
+ *   sin buscar; el principal no lo espera. Un ayudante en curso se corta
+ *   desde su primera iteración (ver BuscadorAlfaBeta.iterar())
+ * - Resultado: el del buscador con la iteración completa más profunda (a
+ *   igual profundidad, el del principal)
+ *
+ * CONFIGURACIÓN:
+ * - hilos: cuántos núcleos usa UNA búsqueda (1 = secuencial, sin el pool)
+ * - pool: donde corren los ayudantes. En el servidor es el del
+ *   PlanificadorBots (ver JugadorBot), así los ayudantes no suman hilos al
+ *   límite del planificador: varias búsquedas paralelas a la vez se reparten
+ *   esos hilos, y pedir más hilos que los del pool solo encola ayudantes
+ * - herramientas.BenchmarkParalelo informa la aceleración por cantidad de
+ *   hilos, también con el pool cargado por otras partidas
+ *
+ * HILOS:
+ * Como BuscadorAlfaBeta, una instancia sirve para una búsqueda a la vez;
+ * detener() puede llamarse desde cualquier hilo.
+ *
+ * RELACIONES: Usa BuscadorAlfaBeta y TablaTransposicion; usada por
+ * JugadorBot si molino.bot.hilos es mayor que 1, con el pool de
+ * PlanificadorBots.
+ */
+public class BusquedaParalela {
+
+    private final BuscadorAlfaBeta[] buscadores;
+    private static final int PENDIENTE = 0;
+    private static final int ARRANCADO = 1;
+    private static final int SALTEADO = 2;
+
+    private final ForkJoinPool pool;
+    private long nodos;
+    private int salteados;
+    private int puntaje;
+    private int profundidadCompletada;
+
+    /**
+     * @param evaluador Evaluación de las hojas (compartida: no debe tener estado)
+     * @param tabla Tabla de transposición compartida por todos los hilos
+     * @param hilos Núcleos que puede usar esta búsqueda (mínimo 1)
+     * @param pool Pool donde corren los ayudantes (no se usa si hilos es 1)
+     */
+    public BusquedaParalela(Evaluador evaluador, TablaTransposicion tabla, int hilos, ForkJoinPool pool) {
+        this.pool = pool;
+        buscadores = new BuscadorAlfaBeta[Math.max(1, hilos)];
+        for (int i = 0; i < buscadores.length; i++) {
+            buscadores[i] = new BuscadorAlfaBeta(evaluador, tabla);
+            buscadores[i].configurarAyudante(i);
+        }
+    }
+
+    /**
+     * @param finales Finales de vuelo que consultan todos los hilos, o null
+     */
+    public void usarFinales(FinalesVuelo finales) {
+        for (BuscadorAlfaBeta buscador : buscadores) {
+            buscador.usarFinales(finales);
+        }
+    }
+
+    /**
+     * @param base Base de finales en disco que consultan todos los hilos, o null
+     */
+    public void usarBase(BaseFinales base) {
+        for (BuscadorAlfaBeta buscador : buscadores) {
+            buscador.usarBase(base);
+        }
+    }
+
+    /** @return Núcleos que usa la búsqueda */
+    public int getHilos() {
+        return buscadores.length;
+    }
+
+    /**
+     * BUSCAR EN PARALELO
+     *
+     * Mismos parámetros y resultado que BuscadorAlfaBeta.buscar(estado,
+     * profundidadMaxima, plazo, limiteNodos); el límite de nodos es por hilo.
+     *
+     * @return Mejor movimiento, o Movimiento.NINGUNO si no hay jugadas
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Lanza los ayudantes en el pool con ForkJoinTask.adapt()
+     * - Corre el buscador principal en el hilo actual
+     */
+    public int buscar(long estado, int profundidadMaxima, long plazo, long limiteNodos) {
+        List<ForkJoinTask<Integer>> tareas = new ArrayList<>(buscadores.length - 1);
+        int[] movimientos = new int[buscadores.length];
+        // Por ayudante: PENDIENTE hasta que la tarea arranca o el principal lo saltea
+        AtomicIntegerArray arranque = new AtomicIntegerArray(buscadores.length);
+
+        for (BuscadorAlfaBeta buscador : buscadores) {
+            buscador.rearmar();
+        }
+        for (int i = 1; i < buscadores.length; i++) {
+            BuscadorAlfaBeta ayudante = buscadores[i];
+            int indice = i;
+            tareas.add(pool.submit(ForkJoinTask.adapt(() -> arranque.compareAndSet(indice, PENDIENTE, ARRANCADO)
+                    ? ayudante.iterar(estado, profundidadMaxima, plazo, limiteNodos)
+                    : Movimiento.NINGUNO)));
+        }
+
+        movimientos[0] = buscadores[0].iterar(estado, profundidadMaxima, plazo, limiteNodos);
+
+        for (int i = 1; i < buscadores.length; i++) {
+            buscadores[i].detener();
+        }
+        salteados = 0;
+        for (int i = 1; i < buscadores.length; i++) {
+            if (arranque.compareAndSet(i, PENDIENTE, SALTEADO)) {
+                movimientos[i] = Movimiento.NINGUNO;
+                salteados++;
+            } else {
+                movimientos[i] = tareas.get(i - 1).join();
+            }
+        }
+
+        int elegido = 0;
+        nodos = 0;
+        for (int i = 0; i < buscadores.length; i++) {
+            if (arranque.get(i) == SALTEADO) {
+                continue;
+            }
+            nodos += buscadores[i].getNodos();
+            if (movimientos[i] != Movimiento.NINGUNO
+                    && buscadores[i].getProfundidadCompletada() > buscadores[elegido].getProfundidadCompletada()) {
+                elegido = i;
+            }
+        }
+        puntaje = buscadores[elegido].getPuntaje();
+        profundidadCompletada = buscadores[elegido].getProfundidadCompletada();
+        return movimientos[elegido];
+    }
+
+    /**
+     * DETENER LA BÚSQUEDA EN CURSO (desde cualquier hilo)
+     * Alcanza con detener al principal: al terminar, él detiene a los ayudantes.
+     */
+    public void detener() {
+        buscadores[0].detener();
+    }
+
+    /** @return Puntaje del resultado elegido */
+    public int getPuntaje() {
+        return puntaje;
+    }
+
+    /** @return Ayudantes que seguían en cola al terminar el principal en la última búsqueda */
+    public int getSalteados() {
+        return salteados;
+    }
+
+    /** @return Nodos visitados por todos los hilos en la última búsqueda */
+    public long getNodos() {
+        return nodos;
+    }
+
+    /** @return Profundidad completada del resultado elegido */
+    public int getProfundidadCompletada() {
+        return profundidadCompletada;
+    }
+}
@@ -0,0 +1,84 @@
+package motor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================================================
+ * CACHÉ DE POSICIONES - RESULTADOS POR CLAVE CANÓNICA CON DESCARTE LRU
+ * ============================================================================
+ *
+ * Caché acotada de resultados de análisis indexada por la clave canónica de
+ * la posición (Simetria.claveCanonica): todas las posiciones simétricas
+ * comparten la entrada, y muchas partidas pasan por las mismas posiciones
+ * (sobre todo al principio de la colocación).
+ *
+ * DESCARTE:
+ * LinkedHashMap en orden de acceso: al superar la capacidad se descarta la
+ * entrada usada hace más tiempo.
+ *
+ * HILOS:
+ * Todas las operaciones se sincronizan sobre la instancia (una consulta
+ * reordena la lista de acceso); son O(1), así que la contención es baja.
+ *
+ * RELACIONES: Usada por Modelo para las sugerencias (ver Sugerencia).
+ */
+public final class CachePosiciones<V> {
+
+    private final int capacidad;
+    private final LinkedHashMap<Long, V> entradas;
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    /**
+     * @param capacidad Entradas máximas (mínimo 1)
+     */
+    public CachePosiciones(int capacidad) {
+        this.capacidad = Math.max(1, capacidad);
+        this.entradas = new LinkedHashMap<Long, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> mayor) {
+                return size() > CachePosiciones.this.capacidad;
+            }
+        };
+    }
+
+    /**
+     * @param clave Clave canónica de la posición
+     * @return Resultado guardado, o null si no está
+     */
+    public synchronized V buscar(long clave) {
+        V valor = entradas.get(clave);
+        (valor != null ? aciertos : fallos).increment();
+        return valor;
+    }
+
+    /**
+     * @param clave Clave canónica de la posición
+     * @param valor Resultado (reemplaza al anterior)
+     */
+    public synchronized void guardar(long clave, V valor) {
+        entradas.put(clave, valor);
+    }
+
+    /** @return Entradas guardadas */
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    /** @return Entradas máximas */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /** @return Consultas respondidas desde la caché */
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    /** @return Consultas que no estaban en la caché */
+    public long getFallos() {
+        return fallos.sum();
+    }
+}
@@ -0,0 +1,125 @@
+package motor;
+
+/**
+ * ============================================================================
+ * COMBINACIONES - ÍNDICES DE POSICIONES POR RANGO COMBINATORIO
+ * ============================================================================
+ *
+ * Numera sin huecos las posiciones de fase de movimiento con p piezas del
+ * lado con turno y r del rival, para guardar un valor por posición en un
+ * arreglo (FinalesVuelo) o en un archivo (GeneradorFinales):
+ *
+ *   índice = rango(propias) * C(24 - p, r) + rango(rivales entre las 24 - p libres)
+ *
+ * rango() es el orden colexicográfico de la combinación (suma de números
+ * combinatorios), el mismo en que siguiente() las enumera (truco de Gosper);
+ * así un recorrido secuencial de índices no necesita desrangear cada uno.
+ *
+ * RELACIONES: Usada por FinalesVuelo y GeneradorFinales.
+ */
+final class Combinaciones {
+
+    /**
+     * Posiciones del tablero (códigos 0..23, ver CodigoPosicion)
+     */
+    static final int CASILLAS = 24;
+
+    /**
+     * TABLA[n][k] = C(n, k)
+     */
+    private static final long[][] TABLA = new long[CASILLAS + 1][CASILLAS + 1];
+
+    static {
+        for (int n = 0; n <= CASILLAS; n++) {
+            TABLA[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                TABLA[n][k] = TABLA[n - 1][k - 1] + TABLA[n - 1][k];
+            }
+        }
+    }
+
+    private Combinaciones() {
+    }
+
+    /** @return C(n, k) */
+    static long combinaciones(int n, int k) {
+        return TABLA[n][k];
+    }
+
+    /** @return Cantidad de índices con p piezas propias y r rivales */
+    static long tamano(int p, int r) {
+        return TABLA[CASILLAS][p] * TABLA[CASILLAS - p][r];
+    }
+
+    /**
+     * @return Índice de (propias s con p piezas, rivales o con r piezas)
+     */
+    static long indice(int s, int o, int p, int r) {
+        long rangoPropias = 0;
+        int k = 0;
+        for (int m = s; m != 0; m &= m - 1) {
+            rangoPropias += TABLA[Integer.numberOfTrailingZeros(m)][++k];
+        }
+        long rangoRivales = 0;
+        k = 0;
+        for (int m = o; m != 0; m &= m - 1) {
+            int posicion = Integer.numberOfTrailingZeros(m);
+            int comprimida = posicion - Integer.bitCount(s & ((1 << posicion) - 1));
+            rangoRivales += TABLA[comprimida][++k];
+        }
+        return rangoPropias * TABLA[CASILLAS - p][r] + rangoRivales;
+    }
+
+    /** @return Primera combinación de k elementos (rango 0) */
+    static int primera(int k) {
+        return (1 << k) - 1;
+    }
+
+    /**
+     * Siguiente máscara con la misma cantidad de bits (truco de Gosper, orden colexicográfico)
+     */
+    static int siguiente(int x) {
+        int menor = x & -x;
+        int suma = x + menor;
+        return (((suma ^ x) >>> 2) / menor) | suma;
+    }
+
+    /**
+     * Inversa de rango(): la combinación de k elementos con ese rango
+     */
+    static int desrangear(long rango, int k) {
+        int mascara = 0;
+        int n = CASILLAS;
+        for (; k > 0; k--) {
+            while (TABLA[n][k] > rango) {
+                n--;
+            }
+            mascara |= 1 << n;
+            rango -= TABLA[n][k];
+        }
+        return mascara;
+    }
+
+    /**
+     * libres[i] = i-ésima posición (de menor a mayor) que no está en s
+     */
+    static void llenarLibres(int s, int[] libres) {
+        int n = 0;
+        for (int posicion = 0; posicion < CASILLAS; posicion++) {
+            if ((s & (1 << posicion)) == 0) {
+                libres[n++] = posicion;
+            }
+        }
+    }
+
+    /**
+     * Pasa una combinación sobre las posiciones libres a una máscara del tablero
+     */
+    static int expandir(int combinacion, int[] libres) {
+        int mascara = 0;
+        for (int m = combinacion; m != 0; m &= m - 1) {
+            mascara |= 1 << libres[Integer.numberOfTrailingZeros(m)];
+        }
+        return mascara;
+    }
+}
@@ -0,0 +1,255 @@
+package motor;
+
+import model.clases.Topologia;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongToIntFunction;
+
+/**
+ * ============================================================================
+ * ESCRITOR DE BASE DE FINALES - ARMA EL ARCHIVO QUE LEE BaseFinales
+ * ============================================================================
+ *
+ * Se usa fuera de línea (herramientas.CompilarFinales): recibe, por sub-base,
+ * funciones índice -> valor (de GeneradorFinales o FinalesVuelo) y escribe
+ * el archivo comprimido por bloques descrito en BaseFinales.
+ *
+ * COMPRESIÓN POR BLOQUE (BaseFinales.POSICIONES_POR_BLOQUE valores):
+ * - CONSTANTE: todos iguales; el valor va en la entrada del índice, sin datos
+ * - RLE: pares (valor, largo - 1), si ocupan a lo sumo LIMITE_RLE bytes
+ *   (así una consulta recorre pocas líneas de caché)
+ * - CRUDO: resultado con 2 bits por valor, distancia con 1 byte
+ * Ningún bloque cruza un límite de BaseFinales.SEGMENTO: si no entra, se
+ * rellena hasta el siguiente segmento.
+ *
+ * RELACIONES: Escribe el formato de BaseFinales; usado por herramientas.CompilarFinales.
+ */
+public final class EscritorBaseFinales {
+
+    /**
+     * Tamaño máximo de un bloque RLE en bytes
+     */
+    public static final int LIMITE_RLE = 256;
+
+    /**
+     * Una sub-base a escribir
+     */
+    private static final class Entrada {
+        final int p;
+        final int r;
+        final LongToIntFunction resultado;
+        final LongToIntFunction distancia;
+
+        Entrada(int p, int r, LongToIntFunction resultado, LongToIntFunction distancia) {
+            this.p = p;
+            this.r = r;
+            this.resultado = resultado;
+            this.distancia = distancia;
+        }
+    }
+
+    private final Topologia topologia;
+    private final List<Entrada> entradas = new ArrayList<>();
+
+    // Escritura secuencial con buffer
+    private FileChannel canal;
+    private final ByteBuffer salida = ByteBuffer.allocate(1 << 20);
+    private long posicion;
+
+    // Estadísticas de la última escritura
+    private final long[] bloquesPorCodificacion = new long[3];
+
+    /**
+     * @param topologia Variante de las sub-bases
+     */
+    public EscritorBaseFinales(Topologia topologia) {
+        this.topologia = topologia;
+    }
+
+    /**
+     * AGREGAR UNA SUB-BASE
+     *
+     * @param p Piezas del lado con turno
+     * @param r Piezas del rival
+     * @param resultado Índice -> BaseFinales.TABLAS, GANA o PIERDE
+     * @param distancia Índice -> turnos hasta el final (0..255), o null si no hay tabla de distancias
+     */
+    public void agregar(int p, int r, LongToIntFunction resultado, LongToIntFunction distancia) {
+        entradas.add(new Entrada(p, r, resultado, distancia));
+    }
+
+    /**
+     * ESCRIBIR EL ARCHIVO
+     *
+     * @param archivo Destino (se sobrescribe)
+     * @return Tamaño del archivo en bytes
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - escribirTabla() por cada tabla (resultado y, si hay, distancias)
+     * - Al final vuelve al principio a escribir el directorio con los índices
+     */
+    public long escribir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            this.canal = canal;
+            this.posicion = 0;
+            this.salida.clear();
+            Arrays.fill(bloquesPorCodificacion, 0);
+
+            // El directorio se completa al final: primero se reserva su lugar
+            int cabecera = BaseFinales.TAMANO_CABECERA + entradas.size() * BaseFinales.TAMANO_ENTRADA;
+            escribirCeros(cabecera);
+
+            ByteBuffer directorio = ByteBuffer.allocate(cabecera);
+            directorio.putInt(BaseFinales.MAGIA);
+            directorio.putInt(BaseFinales.VERSION);
+            directorio.putInt(topologia.getId());
+            directorio.putInt(entradas.size());
+            for (Entrada entrada : entradas) {
+                long tamano = Combinaciones.tamano(entrada.p, entrada.r);
+                long indiceResultado = escribirTabla(entrada.resultado, tamano, BaseFinales.BITS_RESULTADO);
+                long indiceDistancia = entrada.distancia == null ? 0
+                        : escribirTabla(entrada.distancia, tamano, BaseFinales.BITS_DISTANCIA);
+
+                directorio.put((byte) entrada.p);
+                directorio.put((byte) entrada.r);
+                directorio.put((byte) (entrada.distancia == null ? 0 : 1));
+                directorio.put((byte) 0);
+                directorio.putInt(0);
+                directorio.putLong(tamano);
+                directorio.putLong(indiceResultado);
+                directorio.putLong(indiceDistancia);
+            }
+            vaciar();
+
+            directorio.flip();
+            canal.write(directorio, 0);
+            this.canal = null;
+            return posicion;
+        }
+    }
+
+    /** @return Bloques escritos por codificación (CONSTANTE, CRUDO, RLE) en la última escritura */
+    public long[] getBloquesPorCodificacion() {
+        return bloquesPorCodificacion.clone();
+    }
+
+    /**
+     * Escribe los bloques de una tabla y después su índice
+     * @return Posición del índice (un long por bloque, alineado a 8)
+     */
+    private long escribirTabla(LongToIntFunction fuente, long tamano, int bitsPorValor) throws IOException {
+        int porBloque = BaseFinales.POSICIONES_POR_BLOQUE;
+        long bloques = (tamano + porBloque - 1) / porBloque;
+        long[] indice = new long[Math.toIntExact(bloques)];
+        int[] valores = new int[porBloque];
+        byte[] rle = new byte[LIMITE_RLE];
+        byte[] crudo = new byte[porBloque * bitsPorValor / 8];
+
+        for (int b = 0; b < indice.length; b++) {
+            long desde = (long) b * porBloque;
+            int cantidad = (int) Math.min(porBloque, tamano - desde);
+            boolean constante = true;
+            for (int i = 0; i < cantidad; i++) {
+                valores[i] = fuente.applyAsInt(desde + i);
+                constante &= valores[i] == valores[0];
+            }
+            if (constante) {
+                indice[b] = BaseFinales.entrada(BaseFinales.CONSTANTE, valores[0], 0);
+                bloquesPorCodificacion[BaseFinales.CONSTANTE]++;
+                continue;
+            }
+
+            int largoRle = codificarRle(valores, cantidad, rle);
+            if (largoRle > 0) {
+                indice[b] = BaseFinales.entrada(BaseFinales.RLE, 0, escribirBloque(rle, largoRle));
+                bloquesPorCodificacion[BaseFinales.RLE]++;
+            } else {
+                int largo = (cantidad * bitsPorValor + 7) / 8;
+                Arrays.fill(crudo, (byte) 0);
+                for (int i = 0; i < cantidad; i++) {
+                    if (bitsPorValor == 8) {
+                        crudo[i] = (byte) valores[i];
+                    } else {
+                        crudo[i >>> 2] |= (byte) (valores[i] << ((i & 3) * 2));
+                    }
+                }
+                indice[b] = BaseFinales.entrada(BaseFinales.CRUDO, 0, escribirBloque(crudo, largo));
+                bloquesPorCodificacion[BaseFinales.CRUDO]++;
+            }
+        }
+
+        escribirCeros((int) ((8 - posicion % 8) % 8));
+        long inicio = posicion;
+        for (long entrada : indice) {
+            asegurar(Long.BYTES);
+            salida.putLong(entrada);
+            posicion += Long.BYTES;
+        }
+        return inicio;
+    }
+
+    /**
+     * @return Bytes de la codificación RLE en destino, o 0 si no entra en LIMITE_RLE
+     */
+    private static int codificarRle(int[] valores, int cantidad, byte[] destino) {
+        int n = 0;
+        for (int i = 0; i < cantidad; ) {
+            int j = i + 1;
+            while (j < cantidad && valores[j] == valores[i] && j - i < 256) {
+                j++;
+            }
+            if (n + 2 > destino.length) {
+                return 0;
+            }
+            destino[n++] = (byte) valores[i];
+            destino[n++] = (byte) (j - i - 1);
+            i = j;
+        }
+        return n;
+    }
+
+    /**
+     * Escribe los datos de un bloque sin cruzar un límite de segmento
+     * @return Posición del bloque en el archivo
+     */
+    private long escribirBloque(byte[] datos, int largo) throws IOException {
+        long restante = BaseFinales.SEGMENTO - (posicion & (BaseFinales.SEGMENTO - 1));
+        if (restante < largo) {
+            escribirCeros((int) restante);
+        }
+        long inicio = posicion;
+        asegurar(largo);
+        salida.put(datos, 0, largo);
+        posicion += largo;
+        return inicio;
+    }
+
+    private void escribirCeros(int cantidad) throws IOException {
+        for (int i = 0; i < cantidad; i++) {
+            asegurar(1);
+            salida.put((byte) 0);
+        }
+        posicion += cantidad;
+    }
+
+    private void asegurar(int bytes) throws IOException {
+        if (salida.remaining() < bytes) {
+            vaciar();
+        }
+    }
+
+    private void vaciar() throws IOException {
+        salida.flip();
+        while (salida.hasRemaining()) {
+            canal.write(salida);
+        }
+        salida.clear();
+    }
+}
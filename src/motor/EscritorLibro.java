@@ -0,0 +1,162 @@
+package motor;
+
+import model.clases.EstadoCompacto;
+import model.clases.Simetria;
+import model.clases.Topologia;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ============================================================================
+ * ESCRITOR DE LIBRO - COMPILA PARTIDAS GRABADAS AL FORMATO DE LibroAperturas
+ * ============================================================================
+ *
+ * Se usa fuera de línea (herramientas.CompilarLibro): recorre las partidas,
+ * acumula por posición canónica cuántas veces se hizo cada jugada y cuántos
+ * puntos sacó el lado que la hizo, y escribe el archivo ordenado que lee
+ * LibroAperturas.
+ *
+ * POSICIONES:
+ * Solo entran las posiciones de la fase de colocación (incluidas las
+ * eliminaciones que se hacen en ella) hasta maxJugadas jugadas desde el
+ * inicio. Cada posición se guarda en su forma canónica y la jugada en la
+ * misma orientación; si la forma canónica es simétrica, de las jugadas
+ * equivalentes se guarda la de menor código, así las partidas que jugaron lo
+ * mismo por caminos simétricos suman en una sola entrada.
+ *
+ * RELACIONES: Escribe el formato de LibroAperturas; lee RegistroPartida.
+ */
+public final class EscritorLibro {
+
+    private final Topologia topologia;
+    private final int maxJugadas;
+
+    /**
+     * clave canónica -> (jugada canónica -> {partidas, peso})
+     */
+    private final Map<Long, Map<Integer, int[]>> posiciones = new HashMap<>();
+    private int partidas;
+
+    /**
+     * @param topologia Variante del libro (se ignoran las partidas de otras)
+     * @param maxJugadas Jugadas desde el inicio que entran al libro
+     */
+    public EscritorLibro(Topologia topologia, int maxJugadas) {
+        this.topologia = topologia;
+        this.maxJugadas = maxJugadas;
+    }
+
+    /**
+     * AGREGAR UNA PARTIDA
+     *
+     * @param partida Partida grabada
+     * @return true si era de la variante del libro y se sumó
+     */
+    public boolean agregar(RegistroPartida partida) {
+        if (partida.getTopologia() != topologia) {
+            return false;
+        }
+        long estado = EstadoCompacto.inicial(topologia);
+        int cantidad = Math.min(maxJugadas, partida.getCantidad());
+        for (int i = 0; i < cantidad && EstadoCompacto.enColocacion(estado); i++) {
+            int movimiento = partida.getMovimiento(i);
+            int simetria = Simetria.simetriaCanonica(estado);
+            long canonico = Simetria.transformar(estado, simetria);
+            int jugada = menorEquivalente(canonico, Simetria.transformarMovimiento(movimiento, simetria));
+
+            int[] acumulado = posiciones.computeIfAbsent(EstadoCompacto.clave(canonico), c -> new HashMap<>())
+                    .computeIfAbsent(jugada, j -> new int[2]);
+            acumulado[0]++;
+            acumulado[1] += puntos(partida.getResultado(), EstadoCompacto.turno(estado));
+            estado = EstadoCompacto.aplicar(estado, movimiento);
+        }
+        partidas++;
+        return true;
+    }
+
+    /**
+     * @return Puntos del lado que jugó: 2 si ganó, 1 en tablas o sin terminar, 0 si perdió
+     */
+    private static int puntos(int resultado, int lado) {
+        if (resultado == RegistroPartida.GANA_LADO_0 || resultado == RegistroPartida.GANA_LADO_1) {
+            return resultado == lado ? 2 : 0;
+        }
+        return 1;
+    }
+
+    /**
+     * @return La menor de las jugadas equivalentes a jugada por las simetrías que dejan fijo canonico
+     */
+    private int menorEquivalente(long canonico, int jugada) {
+        int menor = jugada;
+        for (int s = 1; s < topologia.getCantidadSimetrias(); s++) {
+            if (Simetria.transformar(canonico, s) == canonico) {
+                menor = Math.min(menor, Simetria.transformarMovimiento(jugada, s));
+            }
+        }
+        return menor;
+    }
+
+    /**
+     * ESCRIBIR EL ARCHIVO
+     *
+     * @param archivo Destino (se sobrescribe)
+     * @param minPartidas Las jugadas que aparecen en menos partidas se descartan
+     * @return Cantidad de entradas escritas
+     */
+    public int escribir(Path archivo, int minPartidas) throws IOException {
+        List<long[]> entradas = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, int[]>> posicion : posiciones.entrySet()) {
+            for (Map.Entry<Integer, int[]> jugada : posicion.getValue().entrySet()) {
+                int[] acumulado = jugada.getValue();
+                if (acumulado[0] >= minPartidas) {
+                    entradas.add(new long[]{posicion.getKey(),
+                            LibroAperturas.dato(jugada.getKey(), acumulado[1], acumulado[0])});
+                }
+            }
+        }
+        // Por clave; dentro de una posición, las jugadas de más peso primero
+        entradas.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0])
+                : Integer.compare(LibroAperturas.peso(b[1]), LibroAperturas.peso(a[1])));
+
+        int cantidad = entradas.size();
+        ByteBuffer salida = ByteBuffer.allocate(Math.toIntExact(
+                LibroAperturas.TAMANO_CABECERA + 2L * cantidad * Long.BYTES));
+        salida.putInt(LibroAperturas.MAGIA);
+        salida.putInt(LibroAperturas.VERSION);
+        salida.putInt(topologia.getId());
+        salida.putInt(cantidad);
+        for (long[] entrada : entradas) {
+            salida.putLong(entrada[0]);
+        }
+        for (long[] entrada : entradas) {
+            salida.putLong(entrada[1]);
+        }
+        salida.flip();
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (salida.hasRemaining()) {
+                canal.write(salida);
+            }
+        }
+        return cantidad;
+    }
+
+    /** @return Partidas sumadas */
+    public int getPartidas() {
+        return partidas;
+    }
+
+    /** @return Posiciones distintas (canónicas) vistas */
+    public int getPosiciones() {
+        return posiciones.size();
+    }
+}
@@ -0,0 +1,216 @@
+package motor;
+
+import model.clases.EstadoCompacto;
+import model.clases.Tablero;
+import model.clases.Topologia;
+import java.util.Arrays;
+
+/**
+ * ============================================================================
+ * EVALUACIÓN MANUAL - PUNTAJE ESTÁTICO CON PESOS FIJOS
+ * ============================================================================
+ *
+ * Evaluador por términos clásicos del Molino, calculados sobre las máscaras
+ * del estado y las tablas de su Topologia (vale para todas las variantes):
+ *
+ * 1. MATERIAL: piezas en tablero + piezas que faltan colocar
+ * 2. MOLINOS: molinos completos de cada lado
+ * 3. MOLINOS ABIERTOS: dos piezas propias y el tercer punto libre
+ *    (amenaza de cerrar molino en la próxima colocación o movimiento)
+ * 4. MOVILIDAD: piezas con algún vecino libre; un lado que vuela cuenta
+ *    todas sus piezas como móviles
+ * 5. ELIMINACIÓN PENDIENTE: el lado con turno ya formó molino y está por
+ *    eliminar una pieza
+ *
+ * El puntaje es lineal: PIEZA por la diferencia de material más un peso por
+ * la diferencia de cada otro término (ver terminos()). Los pesos de los
+ * términos 2-5 pueden cambiarse (propiedad molino.eval.pesos, ver leer());
+ * herramientas.AjustarEvaluacion los ajusta con partidas de
+ * herramientas.AutoJuego. El material queda fijo: es la unidad de la escala.
+ *
+ * No guarda estado: una instancia puede compartirse entre todos los hilos.
+ *
+ * RELACIONES: Usado por BuscadorAlfaBeta en las hojas del árbol.
+ */
+public class EvaluacionManual implements Evaluador {
+
+    /**
+     * Valor de una pieza (unidad de la escala de puntajes)
+     */
+    public static final int PIEZA = 100;
+
+    /**
+     * Términos de terminos(), en este orden
+     */
+    public static final int MATERIAL = 0;
+    public static final int MOLINOS = 1;
+    public static final int MOLINOS_ABIERTOS = 2;
+    public static final int MOVILIDAD = 3;
+    public static final int ELIMINACION_PENDIENTE = 4;
+    public static final int TERMINOS = 5;
+
+    /**
+     * Pesos por defecto de los términos (el de MATERIAL es siempre PIEZA)
+     */
+    private static final int[] PESOS_POR_DEFECTO = {PIEZA, 25, 12, 4, 80};
+
+    private final int pesoMolino;
+    private final int pesoMolinoAbierto;
+    private final int pesoMovilidad;
+    private final int pesoEliminacion;
+
+    /**
+     * Evaluador con los pesos por defecto
+     */
+    public EvaluacionManual() {
+        this(PESOS_POR_DEFECTO);
+    }
+
+    /**
+     * @param pesos Un peso por término, en el orden de terminos() (pesos[MATERIAL] se ignora)
+     */
+    public EvaluacionManual(int[] pesos) {
+        if (pesos.length != TERMINOS) {
+            throw new IllegalArgumentException("Se esperaban " + TERMINOS + " pesos: " + Arrays.toString(pesos));
+        }
+        this.pesoMolino = pesos[MOLINOS];
+        this.pesoMolinoAbierto = pesos[MOLINOS_ABIERTOS];
+        this.pesoMovilidad = pesos[MOVILIDAD];
+        this.pesoEliminacion = pesos[ELIMINACION_PENDIENTE];
+    }
+
+    /**
+     * LEER PESOS ("25,12,4,80": molinos, abiertos, movilidad, eliminación)
+     *
+     * @param texto Pesos separados por comas, o null para los de por defecto
+     * @return Evaluador con esos pesos
+     * @throws IllegalArgumentException Si no son TERMINOS - 1 números enteros
+     */
+    public static EvaluacionManual leer(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return new EvaluacionManual();
+        }
+        String[] partes = texto.trim().split("\\s*,\\s*");
+        if (partes.length != TERMINOS - 1) {
+            throw new IllegalArgumentException("Se esperaban " + (TERMINOS - 1) + " pesos: " + texto);
+        }
+        int[] pesos = new int[TERMINOS];
+        pesos[MATERIAL] = PIEZA;
+        for (int i = 0; i < partes.length; i++) {
+            pesos[i + 1] = Integer.parseInt(partes[i]);
+        }
+        return new EvaluacionManual(pesos);
+    }
+
+    /**
+     * @return Copia de los pesos, en el orden de terminos()
+     */
+    public int[] getPesos() {
+        return new int[]{PIEZA, pesoMolino, pesoMolinoAbierto, pesoMovilidad, pesoEliminacion};
+    }
+
+    /**
+     * @return Los pesos en el formato de leer() (sin el de MATERIAL)
+     */
+    @Override
+    public String toString() {
+        return pesoMolino + "," + pesoMolinoAbierto + "," + pesoMovilidad + "," + pesoEliminacion;
+    }
+
+    /**
+     * EVALUAR POSICIÓN
+     * @param estado Estado empaquetado (ver EstadoCompacto)
+     * @return Puntaje para el lado con turno
+     */
+    @Override
+    public int evaluar(long estado) {
+        Topologia topologia = EstadoCompacto.topologia(estado);
+        int lado = EstadoCompacto.turno(estado);
+        int propias = EstadoCompacto.mascara(estado, lado);
+        int rivales = EstadoCompacto.mascara(estado, 1 - lado);
+
+        int puntaje = PIEZA * material(estado, lado, topologia)
+                + molinos(topologia, propias, rivales, pesoMolino, pesoMolinoAbierto)
+                + pesoMovilidad * movilidad(estado, propias, rivales, topologia);
+        if (EstadoCompacto.esperandoEliminar(estado)) {
+            puntaje += pesoEliminacion;
+        }
+        return puntaje;
+    }
+
+    /**
+     * TÉRMINOS DE LA EVALUACIÓN (para ajustar los pesos)
+     *
+     * evaluar(estado) == suma de pesos[i] * terminos[i], con los pesos de getPesos().
+     * Cada término es la diferencia entre el lado con turno y el rival (el de
+     * ELIMINACION_PENDIENTE vale 0 o 1).
+     *
+     * @param estado Estado empaquetado
+     * @param terminos Destino, de largo TERMINOS
+     */
+    public static void terminos(long estado, int[] terminos) {
+        Topologia topologia = EstadoCompacto.topologia(estado);
+        int lado = EstadoCompacto.turno(estado);
+        int propias = EstadoCompacto.mascara(estado, lado);
+        int rivales = EstadoCompacto.mascara(estado, 1 - lado);
+
+        terminos[MATERIAL] = material(estado, lado, topologia);
+        terminos[MOLINOS] = molinos(topologia, propias, rivales, 1, 0);
+        terminos[MOLINOS_ABIERTOS] = molinos(topologia, propias, rivales, 0, 1);
+        terminos[MOVILIDAD] = movilidad(estado, propias, rivales, topologia);
+        terminos[ELIMINACION_PENDIENTE] = EstadoCompacto.esperandoEliminar(estado) ? 1 : 0;
+    }
+
+    /**
+     * @return Diferencia de material (propio menos rival), en piezas
+     */
+    private static int material(long estado, int lado, Topologia topologia) {
+        return piezas(estado, lado, topologia) - piezas(estado, 1 - lado, topologia);
+    }
+
+    private static int piezas(long estado, int lado, Topologia topologia) {
+        return EstadoCompacto.piezas(estado, lado)
+                + topologia.getPiezasPorJugador() - EstadoCompacto.colocadas(estado, lado);
+    }
+
+    /**
+     * MOLINOS Y MOLINOS ABIERTOS (compartido por evaluar() y terminos())
+     *
+     * @return pesoMolino por la diferencia de molinos completos más
+     *         pesoAbierto por la de molinos abiertos; con pesos (1, 0) o
+     *         (0, 1) da cada término por separado
+     */
+    private static int molinos(Topologia topologia, int propias, int rivales, int pesoMolino, int pesoAbierto) {
+        int puntaje = 0;
+        for (int i = 0; i < topologia.getCantidadMolinos(); i++) {
+            int molino = topologia.mascaraMolino(i);
+            int enPropias = Integer.bitCount(molino & propias);
+            int enRivales = Integer.bitCount(molino & rivales);
+            if (enPropias == 3) {
+                puntaje += pesoMolino;
+            } else if (enRivales == 3) {
+                puntaje -= pesoMolino;
+            } else if (enPropias == 2 && enRivales == 0) {
+                puntaje += pesoAbierto;
+            } else if (enRivales == 2 && enPropias == 0) {
+                puntaje -= pesoAbierto;
+            }
+        }
+        return puntaje;
+    }
+
+    /**
+     * @return Diferencia de piezas móviles (propias menos rivales)
+     */
+    private static int movilidad(long estado, int propias, int rivales, Topologia topologia) {
+        int cercaDeLibres = topologia.vecinos(EstadoCompacto.libres(estado));
+        return moviles(estado, propias, cercaDeLibres) - moviles(estado, rivales, cercaDeLibres);
+    }
+
+    private static int moviles(long estado, int piezas, int cercaDeLibres) {
+        if (!EstadoCompacto.enColocacion(estado) && Integer.bitCount(piezas) == Tablero.PIEZAS_PARA_VUELO) {
+            return Integer.bitCount(piezas);
+        }
+        return Integer.bitCount(piezas & cercaDeLibres);
+    }
+}
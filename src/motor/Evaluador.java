@@ -0,0 +1,13 @@
+package motor;
+
+/**
+ * Interfaz para la evaluación estática de posiciones
+ *
+ * El puntaje es desde el punto de vista del lado con turno (positivo = mejor
+ * para quien mueve), en la escala de EvaluacionManual.PIEZA por pieza.
+ * Las implementaciones sin estado pueden compartirse entre hilos; las que
+ * guardan estado por búsqueda se crean una por buscador.
+ */
+public interface Evaluador {
+    int evaluar(long estado);
+}
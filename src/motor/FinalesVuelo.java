@@ -0,0 +1,511 @@
+package motor;
+
+import model.clases.EstadoCompacto;
+import model.clases.Movimiento;
+import model.clases.Tablero;
+import model.clases.Topologia;
+import java.util.function.LongToIntFunction;
+
+/**
+ * ============================================================================
+ * FINALES DE VUELO - SOLUCIÓN EXACTA POR ANÁLISIS RETRÓGRADO
+ * ============================================================================
+ *
+ * Cuando un jugador queda con 3 piezas puede volar a cualquier posición libre
+ * y el árbol de búsqueda se ensancha mucho, pero la cantidad de posiciones
+ * es chica: con 3 contra N piezas (N <= 4) son unos 27 millones. Esta clase
+ * las resuelve todas en memoria y guarda, para cada una, si el lado con turno
+ * gana, pierde o empata y en cuántos turnos.
+ *
+ * POSICIONES:
+ * Fase de movimiento, sin eliminación pendiente y sin ganador, con el lado
+ * que mueve con p piezas y el rival con r, donde min(p, r) = 3 y
+ * max(p, r) <= maxPiezas. Se guardan desde el punto de vista del lado con
+ * turno, así que (propias, rivales) alcanza y no importa el color.
+ *
+ * El índice de cada posición en su tabla es su rango combinatorio (ver
+ * Combinaciones).
+ *
+ * VALORES (un byte por posición, lado con turno):
+ *   0          tablas (ningún lado puede forzar el final)
+ *   d > 0      gana en d turnos
+ *   -1 - d     pierde en d turnos (-1 = está bloqueado y ya perdió)
+ * Un turno es una jugada completa: mover y, si forma molino, eliminar.
+ *
+ * ALGORITMO (por grupos, de menos a más piezas):
+ * El grupo N son las posiciones 3 contra N y N contra 3: una jugada sin
+ * molino queda dentro del grupo, una eliminación sale al grupo N-1 (ya
+ * resuelto) o gana (el rival queda con 2).
+ * 1. Inicializar: por posición se cuentan las jugadas que quedan en el grupo
+ *    y se resuelven las que salen (victoria inmediata o valor del grupo N-1)
+ * 2. Propagar por distancia d = 0, 1, 2...: cada posición que pierde en d
+ *    hace ganar en d+1 a sus predecesoras (jugadas deshechas); cada una que
+ *    gana en d descuenta una jugada de sus predecesoras, y la que se queda
+ *    sin jugadas pierde en d+1 (o en la salida perdedora más larga)
+ * 3. Lo que nunca se resuelve son tablas: ningún lado puede forzar otra cosa
+ *
+ * CONSULTAS:
+ * cubre(), consultar() y mejorMovimiento() no reservan memoria ni bloquean:
+ * una instancia resuelta es inmutable y se comparte entre hilos.
+ * construirCompartida() la resuelve en segundo plano; hasta que termina,
+ * compartida() devuelve null y los bots buscan como siempre.
+ *
+ * RELACIONES: Usa las reglas de Topologia y EstadoCompacto; consultada por
+ * BuscadorAlfaBeta (puntajes exactos dentro del árbol) y por JugadorBot
+ * (jugada perfecta en la raíz).
+ */
+public final class FinalesVuelo {
+
+    /**
+     * Valor de las posiciones en tablas
+     */
+    public static final int TABLAS = 0;
+
+    /**
+     * Distancia máxima (en turnos) que entra en un byte de la tabla
+     */
+    public static final int MAX_DISTANCIA = 126;
+
+    private static final int CASILLAS = Combinaciones.CASILLAS;
+    private static final int VUELO = Tablero.PIEZAS_PARA_VUELO;
+
+    /**
+     * Bandera de "hay una jugada que sale a tablas" en salidas[]
+     */
+    private static final int SALIDA_TABLAS = 0x80;
+
+    private static volatile FinalesVuelo compartida;
+
+    private final Topologia topologia;
+    private final int maxPiezas;
+
+    /**
+     * valores[propias][rivales] = tabla de esa combinación de piezas (null si no se resolvió)
+     */
+    private final byte[][][] valores;
+
+    // Estado de la resolución (se libera al terminar)
+    private byte[][][] contadores;
+    private byte[][][] salidas;
+    private int maxAsignada;
+
+    private FinalesVuelo(Topologia topologia, int maxPiezas) {
+        this.topologia = topologia;
+        this.maxPiezas = maxPiezas;
+        this.valores = new byte[maxPiezas + 1][maxPiezas + 1][];
+    }
+
+    // ===================================================================
+    // INSTANCIA COMPARTIDA
+    // ===================================================================
+
+    /**
+     * @return Finales resueltos para los bots del servidor, o null si todavía no están
+     */
+    public static FinalesVuelo compartida() {
+        return compartida;
+    }
+
+    /**
+     * RESOLVER LOS FINALES EN SEGUNDO PLANO
+     *
+     * Lanza un hilo daemon de baja prioridad que resuelve los finales y los
+     * publica en compartida(). Tarda decenas de segundos con maxPiezas = 4.
+     *
+     * @param topologia Variante del tablero
+     * @param maxPiezas Piezas máximas del lado que no vuela (3..piezas por jugador)
+     */
+    public static void construirCompartida(Topologia topologia, int maxPiezas) {
+        Thread hilo = new Thread(() -> {
+            long inicio = System.nanoTime();
+            FinalesVuelo finales = resolver(topologia, maxPiezas);
+            compartida = finales;
+            System.out.printf("✓ Finales de vuelo resueltos (3 contra %d, %,d posiciones, %d ms)%n",
+                    maxPiezas, finales.getPosiciones(), (System.nanoTime() - inicio) / 1_000_000);
+        }, "finales-vuelo");
+        hilo.setDaemon(true);
+        hilo.setPriority(Thread.MIN_PRIORITY);
+        hilo.start();
+    }
+
+    // ===================================================================
+    // RESOLUCIÓN
+    // ===================================================================
+
+    /**
+     * RESOLVER TODOS LOS FINALES 3 CONTRA N
+     *
+     * @param topologia Variante del tablero
+     * @param maxPiezas Piezas máximas del lado que no vuela (3..piezas por jugador)
+     * @return Finales resueltos (inmutables)
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Resuelve los grupos 3, 4, ... maxPiezas en orden: cada uno usa al anterior
+     */
+    public static FinalesVuelo resolver(Topologia topologia, int maxPiezas) {
+        if (maxPiezas < VUELO || maxPiezas > topologia.getPiezasPorJugador()) {
+            throw new IllegalArgumentException("maxPiezas fuera de rango: " + maxPiezas);
+        }
+        FinalesVuelo finales = new FinalesVuelo(topologia, maxPiezas);
+        for (int n = VUELO; n <= maxPiezas; n++) {
+            finales.resolverGrupo(n);
+        }
+        return finales;
+    }
+
+    private void resolverGrupo(int n) {
+        int[][] partes = n == VUELO ? new int[][]{{VUELO, VUELO}} : new int[][]{{VUELO, n}, {n, VUELO}};
+        contadores = new byte[maxPiezas + 1][maxPiezas + 1][];
+        salidas = new byte[maxPiezas + 1][maxPiezas + 1][];
+        maxAsignada = 0;
+
+        for (int[] parte : partes) {
+            int tamano = tamano(parte[0], parte[1]);
+            valores[parte[0]][parte[1]] = new byte[tamano];
+            contadores[parte[0]][parte[1]] = new byte[tamano];
+            salidas[parte[0]][parte[1]] = new byte[tamano];
+        }
+        for (int[] parte : partes) {
+            inicializar(parte[0], parte[1]);
+        }
+        for (int d = 0; d <= maxAsignada; d++) {
+            for (int[] parte : partes) {
+                propagar(parte[0], parte[1], d);
+            }
+        }
+
+        contadores = null;
+        salidas = null;
+    }
+
+    /**
+     * Paso 1: cuenta las jugadas que quedan en el grupo y resuelve las que salen
+     */
+    private void inicializar(int p, int r) {
+        byte[] valor = valores[p][r];
+        byte[] contador = contadores[p][r];
+        byte[] salida = salidas[p][r];
+        int puntos = topologia.getPuntos();
+        int tamanoRivales = (int) Combinaciones.combinaciones(CASILLAS - p, r);
+        int[] libresPropias = new int[CASILLAS - p];
+        int[] buffer = new int[Movimiento.MAX_MOVIMIENTOS];
+
+        int indice = 0;
+        for (int s = Combinaciones.primera(p); s < 1 << CASILLAS; s = Combinaciones.siguiente(s), indice += tamanoRivales) {
+            if ((s & ~puntos) != 0) {
+                continue;
+            }
+            Combinaciones.llenarLibres(s, libresPropias);
+            int i = indice;
+            for (int c = Combinaciones.primera(r); c < 1 << (CASILLAS - p); c = Combinaciones.siguiente(c), i++) {
+                int o = Combinaciones.expandir(c, libresPropias);
+                if ((o & ~puntos) == 0) {
+                    inicializarPosicion(i, s, o, p, r, valor, contador, salida, buffer);
+                }
+            }
+        }
+    }
+
+    private void inicializarPosicion(int i, int s, int o, int p, int r,
+                                     byte[] valor, byte[] contador, byte[] salida, int[] buffer) {
+        int libres = topologia.getPuntos() & ~(s | o);
+        int cantidad = topologia.generarMovimientos(s, false, p == VUELO, libres, buffer);
+        int enGrupo = 0;
+        int victoria = Integer.MAX_VALUE;
+        int perdida = 0;
+        boolean tablas = false;
+
+        for (int k = 0; k < cantidad; k++) {
+            int destino = Movimiento.destino(buffer[k]);
+            int despues = s ^ (1 << Movimiento.origen(buffer[k])) ^ (1 << destino);
+            if (!topologia.formaMolino(destino, despues)) {
+                enGrupo++;
+                continue;
+            }
+            for (int candidatas = capturables(o); candidatas != 0; candidatas &= candidatas - 1) {
+                int restantes = o & ~Integer.lowestOneBit(candidatas);
+                if (r - 1 < VUELO) {
+                    victoria = 1;
+                    continue;
+                }
+                int hijo = valores[r - 1][p][indice(restantes, despues, r - 1, p)];
+                if (hijo < 0) {
+                    victoria = Math.min(victoria, -hijo);
+                } else if (hijo > 0) {
+                    perdida = Math.max(perdida, hijo + 1);
+                } else {
+                    tablas = true;
+                }
+            }
+        }
+
+        contador[i] = (byte) enGrupo;
+        salida[i] = (byte) (Math.min(perdida, MAX_DISTANCIA) | (tablas ? SALIDA_TABLAS : 0));
+        if (victoria != Integer.MAX_VALUE) {
+            valor[i] = (byte) victoria;
+            registrar(victoria);
+        } else if (enGrupo == 0 && !tablas) {
+            valor[i] = (byte) (-1 - perdida);
+            registrar(perdida);
+        }
+    }
+
+    /**
+     * Paso 2: propaga a sus predecesoras las posiciones resueltas a distancia d
+     */
+    private void propagar(int p, int r, int d) {
+        byte[] valor = valores[p][r];
+        int puntos = topologia.getPuntos();
+        int tamanoRivales = (int) Combinaciones.combinaciones(CASILLAS - p, r);
+        int[] libresPropias = new int[CASILLAS - p];
+
+        int indice = 0;
+        for (int s = Combinaciones.primera(p); s < 1 << CASILLAS; s = Combinaciones.siguiente(s), indice += tamanoRivales) {
+            if ((s & ~puntos) != 0) {
+                continue;
+            }
+            boolean lleno = false;
+            int i = indice;
+            for (int c = Combinaciones.primera(r); c < 1 << (CASILLAS - p); c = Combinaciones.siguiente(c), i++) {
+                int v = valor[i];
+                if (v == TABLAS || distancia(v) != d) {
+                    continue;
+                }
+                if (!lleno) {
+                    Combinaciones.llenarLibres(s, libresPropias);
+                    lleno = true;
+                }
+                propagarPosicion(s, Combinaciones.expandir(c, libresPropias), p, r, v, d);
+            }
+        }
+    }
+
+    /**
+     * Recorre las predecesoras de (s, o): el rival (o) deshace una jugada sin molino
+     */
+    private void propagarPosicion(int s, int o, int p, int r, int v, int d) {
+        byte[] valorPrevio = valores[r][p];
+        byte[] contador = contadores[r][p];
+        byte[] salida = salidas[r][p];
+        int vacias = topologia.getPuntos() & ~(s | o);
+
+        for (int piezas = o; piezas != 0; piezas &= piezas - 1) {
+            int destino = Integer.numberOfTrailingZeros(piezas);
+            if (topologia.formaMolino(destino, o)) {
+                continue;
+            }
+            int origenes = r == VUELO ? vacias : topologia.adyacentesDe(destino) & vacias;
+            for (; origenes != 0; origenes &= origenes - 1) {
+                int previa = o ^ (1 << destino) ^ Integer.lowestOneBit(origenes);
+                int j = indice(previa, s, r, p);
+                int actual = valorPrevio[j];
+                if (v < 0) {
+                    // La jugada lleva a una posición perdida para el rival: la predecesora gana
+                    if (actual == TABLAS || actual > d + 1) {
+                        valorPrevio[j] = (byte) (d + 1);
+                        registrar(d + 1);
+                    }
+                } else if (actual == TABLAS && --contador[j] == 0 && (salida[j] & SALIDA_TABLAS) == 0) {
+                    // Todas sus jugadas ganan para el rival: la predecesora pierde
+                    int perdida = Math.max(d + 1, salida[j] & (SALIDA_TABLAS - 1));
+                    valorPrevio[j] = (byte) (-1 - perdida);
+                    registrar(perdida);
+                }
+            }
+        }
+    }
+
+    private void registrar(int distancia) {
+        if (distancia > MAX_DISTANCIA) {
+            throw new IllegalStateException("Distancia de final mayor que " + MAX_DISTANCIA);
+        }
+        maxAsignada = Math.max(maxAsignada, distancia);
+    }
+
+    // ===================================================================
+    // CONSULTAS
+    // ===================================================================
+
+    /** @return Variante resuelta */
+    public Topologia getTopologia() {
+        return topologia;
+    }
+
+    /** @return Piezas máximas del lado que no vuela */
+    public int getMaxPiezas() {
+        return maxPiezas;
+    }
+
+    /** @return Cantidad de índices de todas las tablas */
+    public long getPosiciones() {
+        long total = 0;
+        for (byte[][] fila : valores) {
+            for (byte[] tabla : fila) {
+                total += tabla == null ? 0 : tabla.length;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return true si se resolvió la sub-base (p propias, r rivales)
+     */
+    public boolean tiene(int p, int r) {
+        return resuelta(p, r);
+    }
+
+    /**
+     * VALORES DE UNA SUB-BASE POR ÍNDICE (para EscritorBaseFinales)
+     * @return Índice (ver Combinaciones) -> valor como el de consultar()
+     */
+    public LongToIntFunction valores(int p, int r) {
+        byte[] tabla = valores[p][r];
+        return i -> tabla[(int) i];
+    }
+
+    /**
+     * ¿LA POSICIÓN ESTÁ RESUELTA?
+     *
+     * @param estado Estado empaquetado
+     * @return true si consultar() y mejorMovimiento() pueden responderla:
+     *         fase de movimiento de esta variante, sin ganador, con 3 contra
+     *         N piezas (o eliminando una pieza que lleva a una de ellas)
+     */
+    public boolean cubre(long estado) {
+        if (EstadoCompacto.enColocacion(estado) || EstadoCompacto.finalizado(estado)
+                || EstadoCompacto.topologia(estado) != topologia) {
+            return false;
+        }
+        int lado = EstadoCompacto.turno(estado);
+        int propias = EstadoCompacto.piezas(estado, lado);
+        int rivales = EstadoCompacto.piezas(estado, 1 - lado);
+        if (EstadoCompacto.esperandoEliminar(estado)) {
+            return rivales - 1 < VUELO || resuelta(rivales - 1, propias);
+        }
+        return resuelta(propias, rivales);
+    }
+
+    private boolean resuelta(int propias, int rivales) {
+        return Math.min(propias, rivales) == VUELO && Math.max(propias, rivales) <= maxPiezas;
+    }
+
+    /**
+     * CONSULTAR EL VALOR EXACTO
+     *
+     * @param estado Estado empaquetado (cubre(estado) debe ser true)
+     * @return Valor para el lado con turno: TABLAS, d > 0 (gana en d turnos)
+     *         o -1 - d (pierde en d turnos); ver esVictoria(), esDerrota() y distancia()
+     */
+    public int consultar(long estado) {
+        if (!EstadoCompacto.esperandoEliminar(estado)) {
+            return leer(estado);
+        }
+        // Eliminación pendiente: el mismo lado termina su turno con la mejor eliminación
+        int mejor = Integer.MIN_VALUE;
+        int victima = EstadoCompacto.mascara(estado, 1 - EstadoCompacto.turno(estado));
+        for (int candidatas = capturables(victima); candidatas != 0; candidatas &= candidatas - 1) {
+            long hijo = EstadoCompacto.eliminar(estado, Integer.numberOfTrailingZeros(candidatas));
+            int valor = EstadoCompacto.finalizado(hijo) ? 1 : invertir(leer(hijo));
+            if (mejor == Integer.MIN_VALUE || preferencia(valor) > preferencia(mejor)) {
+                mejor = valor;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * MEJOR MOVIMIENTO
+     *
+     * Gana lo antes posible, si no empata, y si pierde resiste lo más posible.
+     *
+     * @param estado Estado empaquetado (cubre(estado) debe ser true)
+     * @return Movimiento empaquetado, o Movimiento.NINGUNO si no hay jugadas
+     */
+    public int mejorMovimiento(long estado) {
+        int[] buffer = new int[Movimiento.MAX_MOVIMIENTOS];
+        int cantidad = EstadoCompacto.generarMovimientos(estado, buffer);
+        int lado = EstadoCompacto.turno(estado);
+        int mejor = Movimiento.NINGUNO;
+        int mejorValor = 0;
+        for (int i = 0; i < cantidad; i++) {
+            long hijo = EstadoCompacto.aplicar(estado, buffer[i]);
+            int valor;
+            if (EstadoCompacto.finalizado(hijo)) {
+                valor = 1;
+            } else if (EstadoCompacto.turno(hijo) == lado) {
+                valor = consultar(hijo);
+            } else {
+                valor = invertir(leer(hijo));
+            }
+            if (mejor == Movimiento.NINGUNO || preferencia(valor) > preferencia(mejorValor)) {
+                mejor = buffer[i];
+                mejorValor = valor;
+            }
+        }
+        return mejor;
+    }
+
+    private int leer(long estado) {
+        int lado = EstadoCompacto.turno(estado);
+        int s = EstadoCompacto.mascara(estado, lado);
+        int o = EstadoCompacto.mascara(estado, 1 - lado);
+        int p = Integer.bitCount(s);
+        int r = Integer.bitCount(o);
+        return valores[p][r][indice(s, o, p, r)];
+    }
+
+    /** @return true si el valor es una victoria del lado con turno */
+    public static boolean esVictoria(int valor) {
+        return valor > 0;
+    }
+
+    /** @return true si el valor es una derrota del lado con turno */
+    public static boolean esDerrota(int valor) {
+        return valor < 0;
+    }
+
+    /** @return Turnos hasta el final (0 en tablas) */
+    public static int distancia(int valor) {
+        return valor >= 0 ? valor : -1 - valor;
+    }
+
+    /**
+     * Valor de un hijo (turno del rival) para el lado que acaba de jugar, un turno antes
+     */
+    private static int invertir(int valor) {
+        if (valor == TABLAS) {
+            return TABLAS;
+        }
+        return valor < 0 ? -valor : -2 - valor;
+    }
+
+    /**
+     * Orden de preferencia: victorias cortas > victorias largas > tablas > derrotas largas > derrotas cortas
+     */
+    private static int preferencia(int valor) {
+        if (valor > 0) {
+            return 1000 - valor;
+        }
+        return valor == TABLAS ? 0 : -1000 + distancia(valor);
+    }
+
+    // ===================================================================
+    // ÍNDICES
+    // ===================================================================
+
+    private static int tamano(int p, int r) {
+        return (int) Combinaciones.tamano(p, r);
+    }
+
+    private static int indice(int s, int o, int p, int r) {
+        return (int) Combinaciones.indice(s, o, p, r);
+    }
+
+    /**
+     * Piezas que se pueden eliminar: las que no están en molino, o todas si todas lo están
+     */
+    private int capturables(int victima) {
+        int candidatas = victima & ~topologia.piezasEnMolino(victima);
+        return candidatas != 0 ? candidatas : victima;
+    }
+}
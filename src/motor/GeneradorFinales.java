@@ -0,0 +1,369 @@
+package motor;
+
+import model.clases.Movimiento;
+import model.clases.Tablero;
+import model.clases.Topologia;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongToIntFunction;
+
+/**
+ * ============================================================================
+ * GENERADOR DE FINALES - BASES DE LA FASE DE MOVIMIENTO EN DISCO
+ * ============================================================================
+ *
+ * Resuelve (victoria / derrota / tablas del lado con turno) todas las
+ * sub-bases de la fase de movimiento: una por cada combinación (p, r) de
+ * piezas propias y rivales entre 3 y las piezas por jugador. El espacio
+ * completo no entra en el heap, así que cada sub-base es un archivo con dos
+ * arreglos de bits mapeados en memoria (ver BitsMapeados):
+ *
+ *   directorio/{p}x{r}.bits = [gana: un bit por índice][pierde: un bit por índice]
+ *
+ * Los índices son rangos combinatorios (ver Combinaciones). Ninguno de los
+ * dos bits en 1 significa tablas (o sin resolver, mientras se genera).
+ *
+ * GRUPOS:
+ * Una jugada sin molino lleva de (p, r) a (r, p) con el turno del rival; una
+ * eliminación lleva a (r - 1, p), que tiene una pieza menos, o gana si el
+ * rival queda con 2. Por eso se resuelven juntos {(p, r), (r, p)} y en orden
+ * de piezas totales crecientes (ver grupos()).
+ *
+ * ITERACIÓN (hacia adelante, sin contadores por posición):
+ * Cada pasada recorre las posiciones sin resolver y mira sus jugadas:
+ * - alguna lleva a una derrota del rival (o lo deja con 2 piezas) -> gana
+ * - no tiene jugadas, o todas llevan a victorias del rival -> pierde
+ * Los bits solo pasan de 0 a 1 y cada bit en 1 es un hecho demostrado, así
+ * que el resultado no depende del orden ni de leer bits a medio escribir.
+ * El grupo está resuelto cuando una pasada completa no cambia nada.
+ *
+ * PROCESOS Y PUNTOS DE CONTROL:
+ * iterarParte() trabaja sobre una parte de cada sub-base del grupo (rangos
+ * alineados a 64 bits, así dos procesos nunca escriben el mismo byte) y lee
+ * el resto. Los bits se fuerzan al disco tras cada pasada y progreso.txt
+ * lista los grupos terminados: tras una interrupción se retoma desde los
+ * bits ya escritos, que siguen siendo válidos.
+ *
+ * A diferencia de FinalesVuelo (en memoria, con distancias), aquí solo se
+ * guarda el resultado: las pasadas no van en orden de distancia.
+ *
+ * RELACIONES: Usa las reglas de Topologia y los índices de Combinaciones;
+ * coordinado por herramientas.GenerarFinales (un proceso por parte).
+ */
+public final class GeneradorFinales {
+
+    /**
+     * Archivo con la variante y los grupos terminados
+     */
+    public static final String PROGRESO = "progreso.txt";
+
+    private static final int CASILLAS = Combinaciones.CASILLAS;
+    private static final int VUELO = Tablero.PIEZAS_PARA_VUELO;
+
+    /**
+     * Una sub-base abierta: sus dos arreglos de bits
+     */
+    private static final class SubBase {
+        final int p;
+        final int r;
+        final long tamano;
+        final BitsMapeados gana;
+        final BitsMapeados pierde;
+
+        SubBase(int p, int r, long tamano, BitsMapeados gana, BitsMapeados pierde) {
+            this.p = p;
+            this.r = r;
+            this.tamano = tamano;
+            this.gana = gana;
+            this.pierde = pierde;
+        }
+    }
+
+    private final Path directorio;
+    private final Topologia topologia;
+    private final Map<Integer, SubBase> abiertas = new HashMap<>();
+    private final int[] buffer = new int[Movimiento.MAX_MOVIMIENTOS];
+
+    /**
+     * @param directorio Directorio de las sub-bases (debe existir)
+     * @param topologia Variante del tablero
+     */
+    public GeneradorFinales(Path directorio, Topologia topologia) {
+        this.directorio = directorio;
+        this.topologia = topologia;
+    }
+
+    /**
+     * GRUPOS EN ORDEN DE RESOLUCIÓN
+     *
+     * @param maxPiezas Piezas máximas por lado (3..piezas por jugador)
+     * @return Pares {p, r} con p <= r, por piezas totales crecientes; cada
+     *         par representa las sub-bases (p, r) y (r, p)
+     */
+    public static List<int[]> grupos(int maxPiezas) {
+        List<int[]> grupos = new ArrayList<>();
+        for (int total = 2 * VUELO; total <= 2 * maxPiezas; total++) {
+            for (int p = VUELO; p <= total - p; p++) {
+                if (total - p <= maxPiezas) {
+                    grupos.add(new int[]{p, total - p});
+                }
+            }
+        }
+        return grupos;
+    }
+
+    /** @return Archivo de la sub-base (p, r) */
+    public Path archivo(int p, int r) {
+        return directorio.resolve(p + "x" + r + ".bits");
+    }
+
+    /** @return Índice de la posición (propias s, rivales o) en su sub-base */
+    public static long indice(int s, int o) {
+        return Combinaciones.indice(s, o, Integer.bitCount(s), Integer.bitCount(o));
+    }
+
+    /** @return Cantidad de índices de la sub-base (p, r) */
+    public static long tamano(int p, int r) {
+        return Combinaciones.tamano(p, r);
+    }
+
+    // ===================================================================
+    // PROGRESO
+    // ===================================================================
+
+    /**
+     * LEER EL PROGRESO
+     *
+     * @return Grupos terminados como "p r" (vacío si el directorio es nuevo)
+     * @throws IOException Si el directorio es de otra variante
+     */
+    public List<String> leerProgreso() throws IOException {
+        Path archivo = directorio.resolve(PROGRESO);
+        if (!Files.exists(archivo)) {
+            Files.write(archivo, List.of("variante " + topologia.getNombre()), StandardCharsets.UTF_8);
+            return new ArrayList<>();
+        }
+        List<String> lineas = new ArrayList<>(Files.readAllLines(archivo, StandardCharsets.UTF_8));
+        if (lineas.isEmpty() || !lineas.get(0).equals("variante " + topologia.getNombre())) {
+            throw new IOException("El directorio no es de la variante " + topologia.getNombre());
+        }
+        return lineas.subList(1, lineas.size());
+    }
+
+    /**
+     * Registra un grupo como terminado (después de forzar sus bits al disco)
+     */
+    public void marcarTerminado(int p, int r) throws IOException {
+        Files.write(directorio.resolve(PROGRESO), List.of(p + " " + r),
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    // ===================================================================
+    // ARCHIVOS
+    // ===================================================================
+
+    /**
+     * PREPARAR LOS ARCHIVOS DE UN GRUPO
+     * Crea (llenos de ceros) los archivos que falten; los existentes se conservan.
+     */
+    public void preparar(int p, int r) throws IOException {
+        for (int[] parte : new int[][]{{p, r}, {r, p}}) {
+            Path archivo = archivo(parte[0], parte[1]);
+            long bytes = 2 * BitsMapeados.bytesPara(tamano(parte[0], parte[1]));
+            if (!Files.exists(archivo) || Files.size(archivo) != bytes) {
+                try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    canal.truncate(0);
+                    canal.write(ByteBuffer.allocate(1), bytes - 1);
+                }
+            }
+        }
+    }
+
+    private SubBase abrir(int p, int r) throws IOException {
+        int clave = p * 16 + r;
+        SubBase base = abiertas.get(clave);
+        if (base == null) {
+            long tamano = tamano(p, r);
+            long mitad = BitsMapeados.bytesPara(tamano);
+            try (FileChannel canal = FileChannel.open(archivo(p, r), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // El mapeo sigue vigente después de cerrar el canal
+                base = new SubBase(p, r, tamano,
+                        BitsMapeados.mapear(canal, 0, tamano, true),
+                        BitsMapeados.mapear(canal, mitad, tamano, true));
+            }
+            abiertas.put(clave, base);
+        }
+        return base;
+    }
+
+    /**
+     * CONTAR RESULTADOS
+     * @return {victorias, derrotas, índices} de la sub-base (p, r)
+     */
+    public long[] contar(int p, int r) throws IOException {
+        SubBase base = abrir(p, r);
+        return new long[]{base.gana.contar(), base.pierde.contar(), base.tamano};
+    }
+
+    /**
+     * RESULTADOS DE UNA SUB-BASE POR ÍNDICE (para EscritorBaseFinales)
+     * @return Índice -> BaseFinales.TABLAS, GANA o PIERDE
+     */
+    public LongToIntFunction resultados(int p, int r) throws IOException {
+        SubBase base = abrir(p, r);
+        return i -> base.gana.get(i) ? BaseFinales.GANA : base.pierde.get(i) ? BaseFinales.PIERDE : BaseFinales.TABLAS;
+    }
+
+    /**
+     * @return true si el lado con turno gana en la posición (propias s, rivales o)
+     */
+    public boolean gana(int s, int o) throws IOException {
+        int p = Integer.bitCount(s);
+        int r = Integer.bitCount(o);
+        return abrir(p, r).gana.get(Combinaciones.indice(s, o, p, r));
+    }
+
+    /**
+     * @return true si el lado con turno pierde en la posición (propias s, rivales o)
+     */
+    public boolean pierde(int s, int o) throws IOException {
+        int p = Integer.bitCount(s);
+        int r = Integer.bitCount(o);
+        return abrir(p, r).pierde.get(Combinaciones.indice(s, o, p, r));
+    }
+
+    // ===================================================================
+    // ITERACIÓN
+    // ===================================================================
+
+    /**
+     * ITERAR UNA PARTE DE UN GRUPO HASTA QUE NO CAMBIE
+     *
+     * @param p Piezas del lado con turno de la primera sub-base del grupo (p <= r)
+     * @param r Piezas del rival
+     * @param parte Parte a escribir (0..partes-1)
+     * @param partes Cantidad de partes en que se divide cada sub-base
+     * @return true si se resolvió alguna posición (otra ronda puede resolver más)
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Los grupos anteriores deben estar terminados (se leen sus bits)
+     * - Llama a forzar() de los bits escritos tras cada pasada (punto de control)
+     */
+    public boolean iterarParte(int p, int r, int parte, int partes) throws IOException {
+        SubBase[] bases = p == r
+                ? new SubBase[]{abrir(p, r)}
+                : new SubBase[]{abrir(p, r), abrir(r, p)};
+        boolean alguna = false;
+        while (true) {
+            long resueltas = 0;
+            for (SubBase base : bases) {
+                long palabras = (base.tamano + 63) / 64;
+                long porParte = (palabras + partes - 1) / partes * 64;
+                long desde = Math.min(base.tamano, parte * porParte);
+                long hasta = Math.min(base.tamano, desde + porParte);
+                resueltas += pasada(base, desde, hasta);
+                base.gana.forzar();
+                base.pierde.forzar();
+            }
+            if (resueltas == 0) {
+                return alguna;
+            }
+            alguna = true;
+        }
+    }
+
+    /**
+     * Una pasada sobre los índices [desde, hasta) de la sub-base
+     * @return Posiciones resueltas en la pasada
+     */
+    private long pasada(SubBase base, long desde, long hasta) throws IOException {
+        if (desde >= hasta) {
+            return 0;
+        }
+        int p = base.p;
+        int r = base.r;
+        int puntos = topologia.getPuntos();
+        long tamanoRivales = Combinaciones.combinaciones(CASILLAS - p, r);
+        int limiteRivales = 1 << (CASILLAS - p);
+        int[] libresPropias = new int[CASILLAS - p];
+
+        // Las sub-bases a las que llevan las jugadas: sin molino y con eliminación
+        SubBase siguiente = abrir(r, p);
+        SubBase trasEliminar = r - 1 >= VUELO ? abrir(r - 1, p) : null;
+
+        int s = Combinaciones.desrangear(desde / tamanoRivales, p);
+        int c = Combinaciones.desrangear(desde % tamanoRivales, r);
+        Combinaciones.llenarLibres(s, libresPropias);
+        long resueltas = 0;
+        for (long i = desde; i < hasta; i++) {
+            if ((s & ~puntos) == 0 && !base.gana.get(i) && !base.pierde.get(i)) {
+                int o = Combinaciones.expandir(c, libresPropias);
+                if ((o & ~puntos) == 0) {
+                    int resultado = evaluar(s, o, p, r, siguiente, trasEliminar);
+                    if (resultado > 0) {
+                        base.gana.set(i);
+                        resueltas++;
+                    } else if (resultado < 0) {
+                        base.pierde.set(i);
+                        resueltas++;
+                    }
+                }
+            }
+            c = Combinaciones.siguiente(c);
+            if (c >= limiteRivales && i + 1 < hasta) {
+                s = Combinaciones.siguiente(s);
+                c = Combinaciones.primera(r);
+                Combinaciones.llenarLibres(s, libresPropias);
+            }
+        }
+        return resueltas;
+    }
+
+    /**
+     * @return 1 si gana, -1 si pierde, 0 si todavía no se sabe
+     */
+    private int evaluar(int s, int o, int p, int r, SubBase siguiente, SubBase trasEliminar) {
+        int libres = topologia.getPuntos() & ~(s | o);
+        int cantidad = topologia.generarMovimientos(s, false, p == VUELO, libres, buffer);
+        boolean todasPierden = true;
+
+        for (int k = 0; k < cantidad; k++) {
+            int destino = Movimiento.destino(buffer[k]);
+            int despues = s ^ (1 << Movimiento.origen(buffer[k])) ^ (1 << destino);
+            if (!topologia.formaMolino(destino, despues)) {
+                long j = Combinaciones.indice(o, despues, r, p);
+                if (siguiente.pierde.get(j)) {
+                    return 1;
+                }
+                todasPierden &= siguiente.gana.get(j);
+                continue;
+            }
+            if (trasEliminar == null) {
+                // El rival queda con 2 piezas
+                return 1;
+            }
+            int candidatas = o & ~topologia.piezasEnMolino(o);
+            if (candidatas == 0) {
+                candidatas = o;
+            }
+            for (; candidatas != 0; candidatas &= candidatas - 1) {
+                long j = Combinaciones.indice(o & ~Integer.lowestOneBit(candidatas), despues, r - 1, p);
+                if (trasEliminar.pierde.get(j)) {
+                    return 1;
+                }
+                todasPierden &= trasEliminar.gana.get(j);
+            }
+        }
+        return todasPierden ? -1 : 0;
+    }
+}
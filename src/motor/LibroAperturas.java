@@ -0,0 +1,238 @@
+package motor;
+
+import model.clases.EstadoCompacto;
+import model.clases.Movimiento;
+import model.clases.Simetria;
+import model.clases.Topologia;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ============================================================================
+ * LIBRO DE APERTURAS - JUGADAS DE PARTIDAS GRABADAS CONSULTADAS POR MAPEO
+ * ============================================================================
+ *
+ * La fase de colocación es donde los bots gastan más tiempo para menos
+ * ganancia: el libro guarda, para las posiciones de apertura que aparecieron
+ * en partidas grabadas, las jugadas que se hicieron y cuánto rindieron. Lo
+ * arma EscritorLibro (herramientas.CompilarLibro) y se consulta mapeado en
+ * memoria de solo lectura.
+ *
+ * FORMATO (enteros big-endian):
+ *
+ *   CABECERA (TAMANO_CABECERA bytes)
+ *     int MAGIA, int VERSION, int id de la Topologia, int entradas
+ *   CLAVES: long[entradas] claves canónicas (Simetria.claveCanonica),
+ *     ordenadas de menor a mayor; una posición con varias jugadas ocupa
+ *     varias entradas consecutivas
+ *   DATOS: long[entradas], en el mismo orden que las claves
+ *     bits 0-15  jugada en la orientación canónica (ver Movimiento)
+ *     bits 16-39 peso: 2 puntos por partida ganada y 1 por tablas, para el
+ *                lado que hizo la jugada
+ *     bits 40-63 partidas en las que se hizo la jugada
+ *
+ * CONSULTA:
+ * Búsqueda binaria de la primera entrada de la clave sobre el LongBuffer
+ * mapeado, y elección al azar entre sus jugadas con probabilidad
+ * proporcional al peso. La jugada se lleva de vuelta a la orientación de la
+ * partida con la simetría inversa. No se reserva memoria: solo lecturas
+ * absolutas sobre los buffers mapeados.
+ *
+ * HILOS:
+ * Los buffers son de solo lectura y se leen con get(índice) absoluto: una
+ * instancia se consulta desde cualquier cantidad de hilos sin sincronizar.
+ *
+ * RELACIONES: Consultado por JugadorBot antes de buscar; el servidor lo abre
+ * con abrirCompartido() si se indica molino.libro.archivo.
+ */
+public final class LibroAperturas {
+
+    /**
+     * "MOLL"
+     */
+    static final int MAGIA = 0x4D4F4C4C;
+    static final int VERSION = 1;
+    static final int TAMANO_CABECERA = 16;
+
+    static final int BITS_PESO = 24;
+    static final int MAXIMO_PESO = (1 << BITS_PESO) - 1;
+    static final int MAXIMO_PARTIDAS = (1 << 24) - 1;
+
+    private static volatile LibroAperturas compartido;
+
+    private final Topologia topologia;
+    private final LongBuffer claves;
+    private final LongBuffer datos;
+    private final int entradas;
+
+    private LibroAperturas(Topologia topologia, LongBuffer claves, LongBuffer datos, int entradas) {
+        this.topologia = topologia;
+        this.claves = claves;
+        this.datos = datos;
+        this.entradas = entradas;
+    }
+
+    /**
+     * ABRIR UN LIBRO
+     *
+     * @param archivo Archivo escrito por EscritorLibro
+     * @return Libro listo para consultar
+     * @throws IOException Si no se puede leer o no tiene el formato esperado
+     */
+    public static LibroAperturas abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano < TAMANO_CABECERA || tamano > Integer.MAX_VALUE) {
+                throw new IOException("Tamaño inválido para un libro de aperturas: " + archivo);
+            }
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+            if (mapa.getInt(0) != MAGIA || mapa.getInt(4) != VERSION) {
+                throw new IOException("No es un libro de aperturas (versión " + VERSION + "): " + archivo);
+            }
+            Topologia topologia = Topologia.porId(mapa.getInt(8));
+            int entradas = mapa.getInt(12);
+            if (entradas < 0 || TAMANO_CABECERA + 2L * entradas * Long.BYTES != tamano) {
+                throw new IOException("Libro truncado o dañado: " + archivo);
+            }
+            return new LibroAperturas(topologia,
+                    tabla(mapa, TAMANO_CABECERA, entradas),
+                    tabla(mapa, TAMANO_CABECERA + entradas * Long.BYTES, entradas),
+                    entradas);
+        }
+    }
+
+    private static LongBuffer tabla(ByteBuffer mapa, int desde, int entradas) {
+        ByteBuffer vista = mapa.duplicate();
+        vista.position(desde).limit(desde + entradas * Long.BYTES);
+        return vista.slice().asLongBuffer();
+    }
+
+    /**
+     * @return Libro que usan los bots del servidor, o null si no se abrió ninguno
+     */
+    public static LibroAperturas compartido() {
+        return compartido;
+    }
+
+    /**
+     * ABRIR EL LIBRO COMPARTIDO
+     *
+     * @param archivo Archivo escrito por EscritorLibro
+     * @return El libro abierto, ya publicado para los bots
+     * @throws IOException Si no se puede abrir
+     */
+    public static LibroAperturas abrirCompartido(Path archivo) throws IOException {
+        LibroAperturas libro = abrir(archivo);
+        compartido = libro;
+        return libro;
+    }
+
+    /**
+     * ELEGIR UNA JUGADA DEL LIBRO
+     *
+     * @param estado Estado empaquetado
+     * @return Jugada en la orientación de estado, elegida al azar en proporción
+     *         al peso; Movimiento.NINGUNO si la posición no está en el libro o
+     *         todas sus jugadas tienen peso 0
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - primeraEntrada() para la búsqueda binaria
+     * - Simetria.transformarMovimiento() con la simetría inversa para volver a
+     *   la orientación de la partida
+     */
+    public int elegirMovimiento(long estado) {
+        if (EstadoCompacto.topologia(estado) != topologia || EstadoCompacto.finalizado(estado)) {
+            return Movimiento.NINGUNO;
+        }
+        int simetria = Simetria.simetriaCanonica(estado);
+        long clave = EstadoCompacto.clave(Simetria.transformar(estado, simetria));
+        int primera = primeraEntrada(clave);
+        if (primera < 0) {
+            return Movimiento.NINGUNO;
+        }
+
+        long total = 0;
+        int ultima = primera;
+        for (; ultima < entradas && claves.get(ultima) == clave; ultima++) {
+            total += peso(datos.get(ultima));
+        }
+        if (total == 0) {
+            return Movimiento.NINGUNO;
+        }
+
+        long elegido = ThreadLocalRandom.current().nextLong(total);
+        int i = primera;
+        while ((elegido -= peso(datos.get(i))) >= 0) {
+            i++;
+        }
+        int movimiento = Simetria.transformarMovimiento(movimiento(datos.get(i)), Simetria.inversa(simetria));
+        return EstadoCompacto.aplicar(estado, movimiento) == EstadoCompacto.ILEGAL ? Movimiento.NINGUNO : movimiento;
+    }
+
+    /**
+     * @param estado Estado empaquetado
+     * @return true si el libro tiene jugadas para la posición
+     */
+    public boolean contiene(long estado) {
+        return EstadoCompacto.topologia(estado) == topologia
+                && primeraEntrada(Simetria.claveCanonica(estado)) >= 0;
+    }
+
+    /**
+     * BÚSQUEDA BINARIA
+     * @return Índice de la primera entrada con la clave, o -1 si no está
+     */
+    private int primeraEntrada(long clave) {
+        int desde = 0;
+        int hasta = entradas;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (claves.get(medio) < clave) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde < entradas && claves.get(desde) == clave ? desde : -1;
+    }
+
+    /** @return Jugada canónica de una entrada */
+    static int movimiento(long dato) {
+        return (int) (dato & 0xFFFF);
+    }
+
+    /** @return Peso de una entrada */
+    static int peso(long dato) {
+        return (int) ((dato >>> 16) & MAXIMO_PESO);
+    }
+
+    /** @return Partidas de una entrada */
+    static int partidas(long dato) {
+        return (int) (dato >>> 40);
+    }
+
+    /**
+     * @return Dato empaquetado de una entrada
+     */
+    static long dato(int movimiento, int peso, int partidas) {
+        return ((long) Math.min(partidas, MAXIMO_PARTIDAS) << 40)
+                | ((long) Math.min(peso, MAXIMO_PESO) << 16)
+                | (movimiento & 0xFFFF);
+    }
+
+    /** @return Variante de las posiciones del libro */
+    public Topologia getTopologia() {
+        return topologia;
+    }
+
+    /** @return Cantidad de entradas (pares posición-jugada) */
+    public int getEntradas() {
+        return entradas;
+    }
+}
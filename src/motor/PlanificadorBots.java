@@ -0,0 +1,396 @@
+package motor;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================================================
+ * PLANIFICADOR DE BOTS - CPU REPARTIDA ENTRE LAS PARTIDAS CONTRA BOTS
+ * ============================================================================
+ *
+ * Con muchas partidas contra bots a la vez, una búsqueda golosa no debe
+ * dejar sin CPU a las demás ni a los hilos RMI que atienden a los humanos.
+ * El planificador corre los turnos de los bots en un pool propio y les fija
+ * el presupuesto de cada jugada.
+ *
+ * POOL:
+ * ForkJoinPool dedicado (robo de trabajo, colas FIFO) con hilos daemon de
+ * prioridad menor a la normal; por defecto un hilo menos que procesadores,
+ * así siempre queda uno para RMI. getPool() lo expone para que los
+ * ayudantes de una jugada con varios hilos (BusquedaParalela, BuscadorMCTS)
+ * corran en estos mismos hilos y respeten ese límite.
+ *
+ * EQUIDAD ROUND-ROBIN:
+ * Cada partida tiene su propia cola de turnos y a lo sumo uno en ejecución.
+ * Las partidas con turnos pendientes forman una ronda (cola FIFO): cada hilo
+ * libre toma la partida del frente, corre UN turno y, si le quedan más, la
+ * vuelve a poner al final. Una partida que encola muchos turnos no adelanta
+ * a las que esperan.
+ *
+ * PRESUPUESTO POR JUGADA:
+ * - Tiempo: cada turno tiene como plazo su encolado + el máximo por jugada;
+ *   la espera en la cola descuenta del presupuesto, así la demora total de
+ *   una respuesta queda acotada
+ * - Nodos: límite de nodos por jugada que se pasa al buscador
+ * Un valor 0 desactiva el límite correspondiente.
+ *
+ * REFLEXIONES (pondering):
+ * Con reflexionar() el bot de una partida sigue buscando durante el turno
+ * del humano (ver Reflexion). Solo usan CPU ociosa:
+ * - No arrancan si hay turnos en cola o todos los hilos están ocupados
+ * - Un turno programado detiene la reflexión de su propia partida (el
+ *   humano ya jugó) y, si no queda un hilo libre, la de otra partida
+ * - Lo encolado con encolar() (sugerencias) no detiene reflexiones: espera
+ *   que se libere un hilo
+ * - A lo sumo una reflexión por partida: una nueva reemplaza a la anterior
+ *
+ * MÉTRICAS (para saber cuándo el servidor está saturado):
+ * - Turnos en cola y en ejecución, partidas en la ronda
+ * - Reflexiones en curso, cedidas a un turno y acertadas
+ * - Espera en cola (promedio y máximo) desde el último reporte
+ * - Turnos terminados en total
+ * iniciarReporte() las imprime periódicamente en la consola del servidor.
+ *
+ * RELACIONES: Usado por Modelo para los turnos de JugadorBot.
+ */
+public final class PlanificadorBots {
+
+    /**
+     * Un turno de bot: recibe el presupuesto de la jugada
+     */
+    @FunctionalInterface
+    public interface Turno {
+        /**
+         * @param plazo Instante (System.nanoTime()) en que vence la jugada, o BuscadorAlfaBeta.SIN_LIMITE
+         * @param limiteNodos Nodos máximos de la jugada, o BuscadorAlfaBeta.SIN_LIMITE
+         */
+        void jugar(long plazo, long limiteNodos);
+    }
+
+    /**
+     * Un turno encolado y el instante en que se encoló
+     */
+    private static final class Pendiente {
+        final Turno turno;
+        final long encolado;
+
+        Pendiente(Turno turno, long encolado) {
+            this.turno = turno;
+            this.encolado = encolado;
+        }
+    }
+
+    /**
+     * Turnos pendientes de una partida
+     */
+    private static final class Cola {
+        final Queue<Pendiente> turnos = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean enRonda = new AtomicBoolean();
+    }
+
+    private final ForkJoinPool pool;
+    private final long nanosPorJugada;
+    private final long nodosPorJugada;
+
+    private final ConcurrentHashMap<Integer, Cola> colas = new ConcurrentHashMap<>();
+    private final Queue<Cola> ronda = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Integer, Reflexion> reflexiones = new ConcurrentHashMap<>();
+
+    // Métricas
+    private final AtomicInteger enCola = new AtomicInteger();
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final LongAdder terminados = new LongAdder();
+    private final LongAdder esperaTotal = new LongAdder();
+    private final LongAdder esperas = new LongAdder();
+    private final AtomicLong esperaMaxima = new AtomicLong();
+    private final AtomicInteger reflexionando = new AtomicInteger();
+    private final LongAdder reflexionesCedidas = new LongAdder();
+    private final LongAdder reflexionesAcertadas = new LongAdder();
+    private final LongAdder reflexionesFalladas = new LongAdder();
+
+    private ScheduledExecutorService reporte;
+
+    /**
+     * @param hilos Hilos del pool (mínimo 1)
+     * @param milisegundosPorJugada Tiempo máximo por jugada desde que se encola (0 = sin límite)
+     * @param nodosPorJugada Nodos máximos por jugada (0 = sin límite)
+     */
+    public PlanificadorBots(int hilos, long milisegundosPorJugada, long nodosPorJugada) {
+        AtomicInteger numero = new AtomicInteger();
+        this.pool = new ForkJoinPool(Math.max(1, hilos), p -> {
+            ForkJoinWorkerThread hilo = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            hilo.setName("bot-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            hilo.setPriority(Thread.NORM_PRIORITY - 1);
+            return hilo;
+        }, null, true);
+        this.nanosPorJugada = milisegundosPorJugada > 0 ? milisegundosPorJugada * 1_000_000L : 0;
+        this.nodosPorJugada = nodosPorJugada > 0 ? nodosPorJugada : BuscadorAlfaBeta.SIN_LIMITE;
+    }
+
+    /**
+     * PROGRAMAR UN TURNO
+     *
+     * Vuelve enseguida: el turno corre en el pool cuando le toque a su partida.
+     *
+     * @param partida Id de la partida (define la cola y la equidad)
+     * @param turno Trabajo del turno
+     *
+     * RELACIONES CON OTRAS FUNCIONES:
+     * - Detiene la reflexión de la partida y, si faltan hilos, cede otra
+     * - Llama a encolar(): si la partida no estaba en la ronda, la agrega y
+     *   lanza despachar()
+     */
+    public void programar(int partida, Turno turno) {
+        detenerReflexion(partida);
+        if (enCola.get() + 1 + ocupados() > pool.getParallelism()) {
+            ceder();
+        }
+        encolar(partida, turno);
+    }
+
+    /**
+     * ENCOLAR SIN CEDER
+     *
+     * Como programar(), pero sin detener ni ceder ninguna reflexión: el
+     * trabajo espera su vuelta en la ronda hasta que haya un hilo libre. Para
+     * trabajo que no es un turno de bot (las sugerencias), que no debe cortar
+     * la reflexión de otra partida.
+     *
+     * @param partida Id de la cola (define la equidad)
+     * @param turno Trabajo a correr
+     */
+    public void encolar(int partida, Turno turno) {
+        Cola cola = colas.computeIfAbsent(partida, id -> new Cola());
+        cola.turnos.add(new Pendiente(turno, System.nanoTime()));
+        enCola.incrementAndGet();
+        entrarEnRonda(cola);
+    }
+
+    /**
+     * REFLEXIONAR DURANTE EL TURNO DEL RIVAL
+     *
+     * @param partida Id de la partida
+     * @param reflexion Búsqueda a correr mientras haya CPU ociosa
+     * @return true si se lanzó; false si no había hilos libres
+     */
+    public boolean reflexionar(int partida, Reflexion reflexion) {
+        detenerReflexion(partida);
+        if (enCola.get() + ocupados() >= pool.getParallelism()) {
+            return false;
+        }
+        reflexiones.put(partida, reflexion);
+        reflexionando.incrementAndGet();
+        pool.execute(() -> {
+            try {
+                reflexion.pensar();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                // Queda en el mapa hasta el próximo turno, para ver si acertó
+                reflexionando.decrementAndGet();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * DETENER LA REFLEXIÓN DE UNA PARTIDA
+     *
+     * @param partida Id de la partida
+     * @return La reflexión detenida (para ver si acertó), o null si no había
+     */
+    public Reflexion detenerReflexion(int partida) {
+        Reflexion reflexion = reflexiones.remove(partida);
+        if (reflexion != null) {
+            reflexion.detener();
+        }
+        return reflexion;
+    }
+
+    /**
+     * @param acerto true si el rival jugó la respuesta que esperaba la reflexión
+     */
+    public void registrarReflexion(boolean acerto) {
+        (acerto ? reflexionesAcertadas : reflexionesFalladas).increment();
+    }
+
+    /**
+     * @return Hilos ocupados por turnos y reflexiones, sin contar el turno
+     *         que llama (un turno que programa lo siguiente está por terminar)
+     */
+    private int ocupados() {
+        Thread actual = Thread.currentThread();
+        boolean desdeUnTurno = actual instanceof ForkJoinWorkerThread
+                && ((ForkJoinWorkerThread) actual).getPool() == pool;
+        return enCurso.get() + reflexionando.get() - (desdeUnTurno ? 1 : 0);
+    }
+
+    /**
+     * Detiene la reflexión de alguna partida para liberar un hilo
+     */
+    private void ceder() {
+        for (Reflexion reflexion : reflexiones.values()) {
+            if (reflexion.estaPensando()) {
+                reflexion.detener();
+                reflexionesCedidas.increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * OLVIDAR UNA PARTIDA TERMINADA
+     * Detiene su reflexión y libera su cola si no le quedan turnos (los
+     * pendientes se corren igual).
+     *
+     * @param partida Id de la partida
+     */
+    public void olvidar(int partida) {
+        detenerReflexion(partida);
+        colas.computeIfPresent(partida, (id, cola) -> cola.turnos.isEmpty() && !cola.enRonda.get() ? null : cola);
+    }
+
+    private void entrarEnRonda(Cola cola) {
+        if (!cola.turnos.isEmpty() && cola.enRonda.compareAndSet(false, true)) {
+            ronda.add(cola);
+            pool.execute(this::despachar);
+        }
+    }
+
+    /**
+     * DESPACHAR (en un hilo del pool)
+     *
+     * Toma la partida del frente de la ronda y corre uno de sus turnos. Hay
+     * una tarea despachar() por cada partida en la ronda.
+     */
+    private void despachar() {
+        Cola cola = ronda.poll();
+        if (cola == null) {
+            return;
+        }
+        Pendiente pendiente = cola.turnos.poll();
+        if (pendiente != null) {
+            enCola.decrementAndGet();
+            long encolado = pendiente.encolado;
+            long espera = System.nanoTime() - encolado;
+            esperaTotal.add(espera);
+            esperas.increment();
+            esperaMaxima.accumulateAndGet(espera, Math::max);
+
+            enCurso.incrementAndGet();
+            try {
+                pendiente.turno.jugar(nanosPorJugada > 0 ? encolado + nanosPorJugada : BuscadorAlfaBeta.SIN_LIMITE, nodosPorJugada);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                enCurso.decrementAndGet();
+                terminados.increment();
+            }
+        }
+        // Vuelve al final de la ronda si quedó trabajo (o si llegó mientras corría)
+        cola.enRonda.set(false);
+        entrarEnRonda(cola);
+    }
+
+    /**
+     * INICIAR REPORTE PERIÓDICO
+     * Imprime resumen() cada tantos segundos en un hilo daemon.
+     *
+     * @param segundos Intervalo del reporte
+     */
+    public synchronized void iniciarReporte(int segundos) {
+        if (reporte != null || segundos <= 0) {
+            return;
+        }
+        reporte = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "reporte-bots");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        reporte.scheduleAtFixedRate(() -> System.out.println("🤖 " + resumen()), segundos, segundos, TimeUnit.SECONDS);
+    }
+
+    /**
+     * RESUMEN DE MÉTRICAS
+     *
+     * Reinicia la ventana de espera (promedio y máximo): cada resumen informa
+     * lo ocurrido desde el anterior.
+     *
+     * @return Texto de una línea con cola, ejecución, esperas y terminados
+     */
+    public String resumen() {
+        long cantidad = esperas.sumThenReset();
+        long total = esperaTotal.sumThenReset();
+        long maxima = esperaMaxima.getAndSet(0);
+        return String.format("Bots: %d turnos en cola (%d partidas), %d en curso, espera %.1f ms prom / %.1f ms máx, %,d terminados"
+                        + " - reflexiones: %d en curso, %,d cedidas, %,d acertadas, %,d falladas",
+                getEnCola(), getPartidasEnRonda(), getEnCurso(),
+                cantidad == 0 ? 0.0 : total / (cantidad * 1e6), maxima / 1e6, getTerminados(),
+                getReflexionando(), reflexionesCedidas.sum(), reflexionesAcertadas.sum(), reflexionesFalladas.sum());
+    }
+
+    /** @return Turnos esperando un hilo */
+    public int getEnCola() {
+        return enCola.get();
+    }
+
+    /** @return Turnos corriendo */
+    public int getEnCurso() {
+        return enCurso.get();
+    }
+
+    /** @return Partidas con turnos pendientes o en curso */
+    public int getPartidasEnRonda() {
+        return ronda.size() + enCurso.get();
+    }
+
+    /** @return Turnos terminados desde que se creó el planificador */
+    public long getTerminados() {
+        return terminados.sum();
+    }
+
+    /** @return Espera en cola promedio (nanosegundos) desde el último resumen(), sin reiniciarla */
+    public long getEsperaPromedio() {
+        long cantidad = esperas.sum();
+        return cantidad == 0 ? 0 : esperaTotal.sum() / cantidad;
+    }
+
+    /** @return Espera en cola máxima (nanosegundos) desde el último resumen(), sin reiniciarla */
+    public long getEsperaMaxima() {
+        return esperaMaxima.get();
+    }
+
+    /** @return Reflexiones corriendo o por arrancar */
+    public int getReflexionando() {
+        return reflexionando.get();
+    }
+
+    /** @return Reflexiones detenidas para ceder su hilo a un turno */
+    public long getReflexionesCedidas() {
+        return reflexionesCedidas.sum();
+    }
+
+    /** @return Hilos del pool */
+    public int getHilos() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * @return Pool de los turnos, donde también deben correr los ayudantes de
+     *         las búsquedas con varios hilos
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+}
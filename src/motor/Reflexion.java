@@ -0,0 +1,131 @@
+package motor;
+
+import model.clases.EstadoCompacto;
+import model.clases.Movimiento;
+
+/**
+ * ============================================================================
+ * REFLEXIÓN - BÚSQUEDA DEL BOT DURANTE EL TURNO DEL RIVAL (PONDERING)
+ * ============================================================================
+ *
+ * Mientras el humano piensa, el bot sigue buscando la posición en la que le
+ * toca al humano: eso recorre primero las respuestas esperadas y deja sus
+ * resultados en la TablaTransposicion compartida. Cuando el humano juega, la
+ * búsqueda del bot encuentra en la tabla lo que ya se calculó y llega mucho
+ * antes a la misma profundidad.
+ *
+ * REUTILIZAR O DESCARTAR:
+ * - La reflexión se detiene apenas el humano actúa (ver PlanificadorBots)
+ * - acerto(estado): el humano jugó la respuesta que la reflexión esperaba
+ *   (la mejor jugada de la raíz, que cada iteración guarda en la tabla);
+ *   en ese caso el tiempo ya pensado cuenta como parte del tiempo de la
+ *   jugada del bot (ver getNanosPensados())
+ * - Si jugó otra cosa, la reflexión se descarta: con la próxima jugada del
+ *   bot la tabla avanza de generación y sus entradas son las primeras en
+ *   reemplazarse
+ *
+ * INTERRUMPIBLE:
+ * detener() puede llamarse desde cualquier hilo, incluso antes de que
+ * pensar() arranque; el PlanificadorBots lo usa para ceder la CPU a un
+ * turno real.
+ *
+ * RELACIONES: Creada por JugadorBot.crearReflexion(); corrida y detenida por
+ * PlanificadorBots; usa BuscadorAlfaBeta sobre la tabla compartida.
+ */
+public final class Reflexion {
+
+    private final BuscadorAlfaBeta buscador;
+    private final TablaTransposicion tabla;
+    private final long estado;
+    private final int profundidad;
+    private final long plazoMaximo;
+
+    private volatile boolean detenida;
+    private volatile long inicio;
+    private volatile long fin;
+
+    /**
+     * @param buscador Buscador configurado sobre la tabla compartida (y finales, base)
+     * @param tabla La tabla compartida del buscador
+     * @param estado Posición con el turno del rival
+     * @param profundidad Profundidad máxima de la reflexión
+     * @param milisegundos Tiempo máximo de la reflexión
+     */
+    public Reflexion(BuscadorAlfaBeta buscador, TablaTransposicion tabla, long estado, int profundidad, long milisegundos) {
+        this.buscador = buscador;
+        this.tabla = tabla;
+        this.estado = estado;
+        this.profundidad = profundidad;
+        this.plazoMaximo = milisegundos * 1_000_000L;
+    }
+
+    /**
+     * PENSAR (en un hilo del PlanificadorBots)
+     *
+     * Busca hasta la profundidad máxima, el tiempo máximo o detener().
+     */
+    public void pensar() {
+        buscador.rearmar();
+        if (detenida) {
+            return;
+        }
+        long ahora = System.nanoTime();
+        inicio = ahora;
+        buscador.iterar(estado, profundidad, ahora + plazoMaximo, BuscadorAlfaBeta.SIN_LIMITE);
+        fin = System.nanoTime();
+    }
+
+    /**
+     * DETENER (desde cualquier hilo)
+     */
+    public void detener() {
+        detenida = true;
+        buscador.detener();
+    }
+
+    /**
+     * @return true si todavía no terminó ni fue detenida (puede no haber arrancado)
+     */
+    public boolean estaPensando() {
+        return !detenida && fin == 0;
+    }
+
+    /**
+     * @param actual Estado de la partida después de la jugada del rival
+     * @return true si el rival jugó la respuesta esperada
+     */
+    public boolean acerto(long actual) {
+        int respuesta = getRespuestaEsperada();
+        return respuesta != Movimiento.NINGUNO && EstadoCompacto.aplicar(estado, respuesta) == actual;
+    }
+
+    /** @return Posición sobre la que se reflexiona */
+    public long getEstado() {
+        return estado;
+    }
+
+    /**
+     * @return Respuesta del rival que la reflexión considera mejor, o
+     *         Movimiento.NINGUNO. Se lee de la tabla (cada iteración completa
+     *         guarda la jugada de la raíz), así vale aunque pensar() siga
+     *         corriendo o haya sido detenida.
+     */
+    public int getRespuestaEsperada() {
+        if (inicio == 0) {
+            return Movimiento.NINGUNO;
+        }
+        return TablaTransposicion.movimiento(tabla.sondear(EstadoCompacto.clave(estado)));
+    }
+
+    /** @return Tiempo pensado hasta ahora, o lo que duró pensar() si ya terminó (0 si no arrancó) */
+    public long getNanosPensados() {
+        long desde = inicio;
+        long hasta = fin;
+        return desde == 0 ? 0 : (hasta != 0 ? hasta : System.nanoTime()) - desde;
+    }
+
+    /** @return Profundidad completada por la reflexión */
+    public int getProfundidadCompletada() {
+        return buscador.getProfundidadCompletada();
+    }
+}
@@ -0,0 +1,135 @@
+package motor;
+
+import model.clases.EstadoCompacto;
+import model.clases.Movimiento;
+import model.clases.Topologia;
+import java.util.Arrays;
+
+/**
+ * ============================================================================
+ * REGISTRO DE PARTIDA - UNA PARTIDA JUGADA EN UNA LÍNEA DE TEXTO
+ * ============================================================================
+ *
+ * Formato de intercambio de partidas grabadas, del que se compila el libro de
+ * aperturas (herramientas.CompilarLibro). Una partida por línea:
+ *
+ *   variante resultado jugada jugada ...
+ *
+ *   variante   nombre de la Topologia ("estandar", "doce", "seis")
+ *   resultado  "1-0" (ganó el lado 0), "0-1" (ganó el lado 1),
+ *              "1/2" (tablas) o "*" (sin terminar)
+ *   jugada     cada acción en el formato de Movimiento.toString(): "A1",
+ *              "A1-D1", "xD1"; la eliminación después de un molino es una
+ *              jugada aparte
+ *
+ * Las líneas vacías y las que empiezan con '#' son comentarios. Al leer se
+ * reproducen las jugadas desde el estado inicial: una jugada ilegal invalida
+ * la línea entera.
+ *
+ * RELACIONES: Leído por herramientas.CompilarLibro y AjustarEvaluacion;
+ * escrito por herramientas.AutoJuego; las jugadas se aplican con
+ * EstadoCompacto.aplicar().
+ */
+public final class RegistroPartida {
+
+    /**
+     * Resultados (lado ganador, o TABLAS / SIN_TERMINAR)
+     */
+    public static final int GANA_LADO_0 = 0;
+    public static final int GANA_LADO_1 = 1;
+    public static final int TABLAS = 2;
+    public static final int SIN_TERMINAR = 3;
+
+    private static final String[] RESULTADOS = {"1-0", "0-1", "1/2", "*"};
+
+    private final Topologia topologia;
+    private final int resultado;
+    private final int[] movimientos;
+
+    /**
+     * @param topologia Variante de la partida
+     * @param resultado GANA_LADO_0, GANA_LADO_1, TABLAS o SIN_TERMINAR
+     * @param movimientos Jugadas desde el estado inicial (se copian)
+     * @param cantidad Cantidad de jugadas de movimientos a usar
+     */
+    public RegistroPartida(Topologia topologia, int resultado, int[] movimientos, int cantidad) {
+        if (resultado < GANA_LADO_0 || resultado > SIN_TERMINAR) {
+            throw new IllegalArgumentException("Resultado inválido: " + resultado);
+        }
+        this.topologia = topologia;
+        this.resultado = resultado;
+        this.movimientos = Arrays.copyOf(movimientos, cantidad);
+    }
+
+    /**
+     * LEER UNA LÍNEA
+     *
+     * @param linea Línea en el formato descrito arriba
+     * @return Partida leída, o null si la línea es un comentario o está vacía
+     * @throws IllegalArgumentException Si la línea está mal formada o tiene una jugada ilegal
+     */
+    public static RegistroPartida parse(String linea) {
+        String texto = linea.trim();
+        if (texto.isEmpty() || texto.startsWith("#")) {
+            return null;
+        }
+        String[] partes = texto.split("\\s+");
+        if (partes.length < 2) {
+            throw new IllegalArgumentException("Falta el resultado: " + linea);
+        }
+        Topologia topologia = Topologia.porNombre(partes[0]);
+        if (topologia == null) {
+            throw new IllegalArgumentException("Variante desconocida: " + partes[0]);
+        }
+        int resultado = Arrays.asList(RESULTADOS).indexOf(partes[1]);
+        if (resultado < 0) {
+            throw new IllegalArgumentException("Resultado desconocido: " + partes[1]);
+        }
+
+        int[] movimientos = new int[partes.length - 2];
+        long estado = EstadoCompacto.inicial(topologia);
+        for (int i = 0; i < movimientos.length; i++) {
+            int movimiento = Movimiento.parse(partes[i + 2]);
+            long siguiente = movimiento == Movimiento.NINGUNO ? EstadoCompacto.ILEGAL
+                    : EstadoCompacto.aplicar(estado, movimiento);
+            if (siguiente == EstadoCompacto.ILEGAL) {
+                throw new IllegalArgumentException("Jugada " + (i + 1) + " ilegal: " + partes[i + 2]);
+            }
+            movimientos[i] = movimiento;
+            estado = siguiente;
+        }
+        return new RegistroPartida(topologia, resultado, movimientos, movimientos.length);
+    }
+
+    /** @return Variante de la partida */
+    public Topologia getTopologia() {
+        return topologia;
+    }
+
+    /** @return GANA_LADO_0, GANA_LADO_1, TABLAS o SIN_TERMINAR */
+    public int getResultado() {
+        return resultado;
+    }
+
+    /** @return Cantidad de jugadas */
+    public int getCantidad() {
+        return movimientos.length;
+    }
+
+    /** @return Jugada i (0 = la primera) */
+    public int getMovimiento(int i) {
+        return movimientos[i];
+    }
+
+    /**
+     * @return La partida en una línea del formato de registro
+     */
+    @Override
+    public String toString() {
+        StringBuilder linea = new StringBuilder(topologia.getNombre()).append(' ').append(RESULTADOS[resultado]);
+        for (int movimiento : movimientos) {
+            linea.append(' ').append(Movimiento.toString(movimiento));
+        }
+        return linea.toString();
+    }
+}
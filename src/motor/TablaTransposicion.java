@@ -0,0 +1,231 @@
+package motor;
+
+import model.clases.Movimiento;
+import java.util.Arrays;
+
+/**
+ * ============================================================================
+ * TABLA DE TRANSPOSICIÓN - CACHÉ DE BÚSQUEDA SIN BLOQUEOS
+ * ============================================================================
+ *
+ * Guarda, por clave Zobrist de la posición (ver EstadoCompacto.clave()), el
+ * resultado de una búsqueda: profundidad, tipo de cota, puntaje y mejor
+ * jugada. Todo vive en un long[] reservado al crear la tabla: guardar y
+ * consultar no crean objetos.
+ *
+ * FORMATO:
+ *
+ *   Cada entrada son dos longs: [clave ^ datos, datos]
+ *   La tabla se divide en grupos de ENTRADAS_POR_GRUPO entradas (64 bytes,
+ *   una línea de caché); la clave elige el grupo y dentro del grupo se busca
+ *   la entrada.
+ *
+ *   datos (bits):
+ *     0-15   movimiento + 1 (0 = sin movimiento, ver Movimiento)
+ *     16-23  profundidad
+ *     24-25  tipo: VACIA, EXACTA, INFERIOR (puntaje >= valor) o SUPERIOR (<= valor)
+ *     26-31  generación (jugada de bot en que se escribió la entrada, módulo 64)
+ *     32-63  puntaje (int con signo)
+ *
+ * CONCURRENCIA SIN BLOQUEOS:
+ * Varios hilos (de una o de varias partidas) leen y escriben a la vez sin
+ * sincronizar. Una escritura son dos stores independientes, así que otro hilo
+ * puede leer la mitad nueva y la vieja: como la primera palabra guarda
+ * clave ^ datos, al leer se verifica que (palabra0 ^ datos) == clave y una
+ * entrada rota simplemente no coincide (se trata como ausente).
+ *
+ * REEMPLAZO:
+ * Si la clave ya está en el grupo se sobrescribe esa entrada; si no, se
+ * reemplaza la más vieja (generaciones de distancia a la actual, módulo 64)
+ * y, a igual edad, la menos profunda. La generación avanza una vez por
+ * jugada de bot (ver nuevaGeneracion()), no con cada búsqueda: con la edad
+ * relativa una vuelta del contador solo confunde entradas de hace 64 jugadas.
+ *
+ * RELACIONES: Usada por BuscadorAlfaBeta; compartida entre bots por JugadorBot.
+ */
+public final class TablaTransposicion {
+
+    /**
+     * Tipos de entrada
+     */
+    public static final int VACIA = 0;
+    public static final int EXACTA = 1;
+    public static final int INFERIOR = 2;
+    public static final int SUPERIOR = 3;
+
+    /**
+     * Resultado de sondear() cuando la clave no está en la tabla
+     */
+    public static final long SIN_DATOS = 0L;
+
+    /**
+     * Entradas por grupo: 4 entradas x 2 longs = 64 bytes
+     */
+    private static final int ENTRADAS_POR_GRUPO = 4;
+
+    private static final int BYTES_POR_ENTRADA = 16;
+    private static final int GENERACIONES = 64;
+
+    private final long[] tabla;
+    private final int mascaraGrupos;
+
+    /**
+     * Generación actual: la incrementa nuevaGeneracion(); las carreras entre
+     * hilos solo pueden perder un incremento, lo que no afecta la corrección
+     */
+    private volatile int generacion;
+
+    /**
+     * CONSTRUCTOR
+     *
+     * @param megabytes Presupuesto de memoria; se usa la mayor potencia de 2
+     *                  de grupos que entra en él (mínimo un grupo)
+     */
+    public TablaTransposicion(int megabytes) {
+        long grupos = Math.max(1L, (long) megabytes * 1024 * 1024 / (BYTES_POR_ENTRADA * ENTRADAS_POR_GRUPO));
+        grupos = Long.highestOneBit(Math.min(grupos, Integer.MAX_VALUE / (2 * ENTRADAS_POR_GRUPO)));
+        this.tabla = new long[(int) grupos * 2 * ENTRADAS_POR_GRUPO];
+        this.mascaraGrupos = (int) grupos - 1;
+    }
+
+    /** @return Cantidad de entradas de la tabla */
+    public int getCapacidad() {
+        return tabla.length / 2;
+    }
+
+    /** @return Memoria ocupada por la tabla en bytes */
+    public long getBytes() {
+        return (long) tabla.length * Long.BYTES;
+    }
+
+    /**
+     * NUEVA GENERACIÓN
+     * Avanza la generación: las entradas anteriores pasan a ser las primeras
+     * en reemplazarse, pero se siguen pudiendo consultar.
+     *
+     * La llama el dueño de la tabla al empezar la búsqueda de cada jugada de
+     * un bot (no en cada búsqueda): en una tabla compartida, una reflexión,
+     * una sugerencia o las partidas entre humanos no deben envejecer las
+     * entradas de las demás partidas.
+     */
+    public void nuevaGeneracion() {
+        generacion = (generacion + 1) & (GENERACIONES - 1);
+    }
+
+    /**
+     * LIMPIAR
+     * Borra todas las entradas (no debe haber búsquedas en curso).
+     */
+    public void limpiar() {
+        Arrays.fill(tabla, 0L);
+    }
+
+    /**
+     * SONDEAR UNA POSICIÓN
+     *
+     * @param clave Clave Zobrist de la posición
+     * @return Palabra de datos de la entrada (decodificar con movimiento(),
+     *         profundidad(), tipo() y puntaje()), o SIN_DATOS si no está
+     */
+    public long sondear(long clave) {
+        int base = indiceGrupo(clave);
+        for (int i = base; i < base + 2 * ENTRADAS_POR_GRUPO; i += 2) {
+            long datos = tabla[i + 1];
+            if ((tabla[i] ^ datos) == clave && datos != SIN_DATOS) {
+                return datos;
+            }
+        }
+        return SIN_DATOS;
+    }
+
+    /**
+     * GUARDAR RESULTADO DE UNA BÚSQUEDA
+     *
+     * @param clave Clave Zobrist de la posición
+     * @param profundidad Profundidad restante con la que se buscó (0-255)
+     * @param tipo EXACTA, INFERIOR o SUPERIOR
+     * @param puntaje Puntaje del lado con turno
+     * @param movimiento Mejor movimiento, o Movimiento.NINGUNO
+     */
+    public void guardar(long clave, int profundidad, int tipo, int puntaje, int movimiento) {
+        int base = indiceGrupo(clave);
+        int actual = generacion;
+        int destino = base;
+        int peorValor = Integer.MAX_VALUE;
+
+        for (int i = base; i < base + 2 * ENTRADAS_POR_GRUPO; i += 2) {
+            long datos = tabla[i + 1];
+            if ((tabla[i] ^ datos) == clave || datos == SIN_DATOS) {
+                if (datos != SIN_DATOS && movimiento == Movimiento.NINGUNO) {
+                    // Conservar la jugada conocida si esta búsqueda no encontró una
+                    movimiento = movimiento(datos);
+                }
+                destino = i;
+                break;
+            }
+            int edad = (actual - generacion(datos)) & (GENERACIONES - 1);
+            int valor = profundidad(datos) - 256 * edad;
+            if (valor < peorValor) {
+                peorValor = valor;
+                destino = i;
+            }
+        }
+
+        long datos = ((long) puntaje << 32)
+                | ((long) actual << 26)
+                | ((long) tipo << 24)
+                | ((long) Math.min(profundidad, 255) << 16)
+                | ((movimiento + 1) & 0xFFFF);
+        tabla[destino] = clave ^ datos;
+        tabla[destino + 1] = datos;
+    }
+
+    /**
+     * OCUPACIÓN ESTIMADA
+     * @return Por mil de entradas escritas en la generación actual (muestra de los primeros grupos)
+     */
+    public int ocupacion() {
+        int muestra = Math.min(tabla.length / 2, 1000);
+        int usadas = 0;
+        for (int i = 0; i < muestra; i++) {
+            long datos = tabla[2 * i + 1];
+            if (datos != SIN_DATOS && generacion(datos) == generacion) {
+                usadas++;
+            }
+        }
+        return usadas * 1000 / muestra;
+    }
+
+    private int indiceGrupo(long clave) {
+        int mezcla = (int) (clave ^ (clave >>> 32));
+        return (mezcla & mascaraGrupos) * 2 * ENTRADAS_POR_GRUPO;
+    }
+
+    // ===================================================================
+    // DECODIFICACIÓN DE DATOS
+    // ===================================================================
+
+    /** @return Movimiento guardado, o Movimiento.NINGUNO */
+    public static int movimiento(long datos) {
+        return (int) (datos & 0xFFFF) - 1;
+    }
+
+    /** @return Profundidad de la búsqueda que escribió la entrada */
+    public static int profundidad(long datos) {
+        return (int) (datos >>> 16) & 0xFF;
+    }
+
+    /** @return EXACTA, INFERIOR o SUPERIOR */
+    public static int tipo(long datos) {
+        return (int) (datos >>> 24) & 3;
+    }
+
+    /** @return Puntaje guardado */
+    public static int puntaje(long datos) {
+        return (int) (datos >>> 32);
+    }
+
+    private static int generacion(long datos) {
+        return (int) (datos >>> 26) & (GENERACIONES - 1);
+    }
+}
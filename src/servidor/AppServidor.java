@@ -3,6 +3,12 @@ package servidor;
 import ar.edu.unlu.rmimvc.RMIMVCException;
 import ar.edu.unlu.rmimvc.servidor.Servidor;
 import model.clases.Modelo;
+import model.clases.Topologia;
+import motor.BaseFinales;
+import motor.FinalesVuelo;
+import motor.LibroAperturas;
+import java.io.IOException;
+import java.nio.file.Paths;
 import model.interfaces.IModelo;
 import java.rmi.RemoteException;
 
@@ -85,6 +91,38 @@ public class AppServidor {
             IModelo modelo = Modelo.getInstancia();
             System.out.println("✓ Modelo inicializado correctamente");
 
+            // Finales de vuelo para los bots: se resuelven en segundo plano
+            // (propiedad molino.finales = piezas máximas del lado que no vuela,
+            // 4 por defecto; 0 para no resolverlos)
+            int piezasFinales = Integer.getInteger("molino.finales", 4);
+            if (piezasFinales > 0) {
+                FinalesVuelo.construirCompartida(Topologia.ESTANDAR, piezasFinales);
+                System.out.println("✓ Resolviendo finales de vuelo en segundo plano");
+            }
+
+            // Base de finales compilada fuera de línea (herramientas.CompilarFinales)
+            String archivoFinales = System.getProperty("molino.finales.archivo");
+            if (archivoFinales != null) {
+                try {
+                    BaseFinales base = BaseFinales.abrirCompartida(Paths.get(archivoFinales));
+                    System.out.printf("✓ Base de finales abierta: %d sub-bases, %,d bytes%n",
+                            base.getSubBases(), base.getBytes());
+                } catch (IOException e) {
+                    System.err.println("✗ No se pudo abrir la base de finales: " + e.getMessage());
+                }
+            }
+
+            // Libro de aperturas compilado de partidas grabadas (herramientas.CompilarLibro)
+            String archivoLibro = System.getProperty("molino.libro.archivo");
+            if (archivoLibro != null) {
+                try {
+                    LibroAperturas libro = LibroAperturas.abrirCompartido(Paths.get(archivoLibro));
+                    System.out.printf("✓ Libro de aperturas abierto: %,d entradas%n", libro.getEntradas());
+                } catch (IOException e) {
+                    System.err.println("✗ No se pudo abrir el libro de aperturas: " + e.getMessage());
+                }
+            }
+
             // ===============================================================
             // PASO 2: CREACIÓN DEL SERVIDOR RMI
             // ===============================================================
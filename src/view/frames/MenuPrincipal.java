@@ -1,6 +1,7 @@
 package view.frames;
 
 import controller.Controller;
+import model.clases.Topologia;
 import model.enums.Estados;
 
 import javax.swing.*;
@@ -14,6 +15,7 @@ public class MenuPrincipal extends JFrame {
 
     private Controller controlador;
     private JButton btnBuscarPartida;
+    private JButton btnJugarContraBot;
     private JButton btnVerRanking;
     private JButton btnSalir;
 
@@ -21,7 +23,7 @@ public class MenuPrincipal extends JFrame {
         this.controlador = controlador;
 
         setTitle("Juego del Molino - Menú Principal");
-        setSize(400, 350);
+        setSize(400, 410);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         setLayout(new BorderLayout(10, 10));
@@ -57,10 +59,18 @@ public class MenuPrincipal extends JFrame {
         btnBuscarPartida = new JButton("Buscar Partida");
         btnBuscarPartida.setFont(new Font("Arial", Font.BOLD, 14));
         btnBuscarPartida.setPreferredSize(new Dimension(250, 40));
-        btnBuscarPartida.addActionListener(e -> buscarPartida());
+        btnBuscarPartida.addActionListener(e -> buscarPartida(false));
         panelCentral.add(btnBuscarPartida, gbc);
         gbc.gridy++;
 
+        // Botón jugar contra la computadora
+        btnJugarContraBot = new JButton("Jugar contra la Computadora");
+        btnJugarContraBot.setFont(new Font("Arial", Font.BOLD, 14));
+        btnJugarContraBot.setPreferredSize(new Dimension(250, 40));
+        btnJugarContraBot.addActionListener(e -> buscarPartida(true));
+        panelCentral.add(btnJugarContraBot, gbc);
+        gbc.gridy++;
+
         // Botón ver ranking
         btnVerRanking = new JButton("Ver Ranking");
         btnVerRanking.setFont(new Font("Arial", Font.BOLD, 14));
@@ -79,7 +89,7 @@ public class MenuPrincipal extends JFrame {
         add(panelCentral, BorderLayout.CENTER);
     }
 
-    private void buscarPartida() {
+    private void buscarPartida(boolean contraBot) {
         try {
             // Preguntar al jugador qué tipo de vista prefiere
             String[] opciones = {"Vista Gráfica", "Vista Consola"};
@@ -105,7 +115,24 @@ public class MenuPrincipal extends JFrame {
                 ((view.vistas.VistaGrafica) controlador.getVista()).setUsarVistaGrafica(usarVistaGrafica);
             }
 
-            // Buscar partida automáticamente
+            // Preguntar la variante del tablero
+            Topologia[] variantes = Topologia.getVariantes().toArray(new Topologia[0]);
+            Topologia variante = (Topologia) JOptionPane.showInputDialog(
+                this,
+                "Selecciona el tablero:",
+                "Variante",
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                variantes,
+                Topologia.ESTANDAR
+            );
+            if (variante == null) {
+                return;
+            }
+
+            // Buscar partida automáticamente (o crearla contra el bot)
+            controlador.setVariante(variante);
+            controlador.setContraBot(contraBot);
             controlador.getVista().buscarPartida();
         } catch (RemoteException e) {
             JOptionPane.showMessageDialog(this,
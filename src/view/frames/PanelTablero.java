@@ -1,5 +1,7 @@
 package view.frames;
 
+import model.clases.CodigoPosicion;
+import model.clases.Topologia;
 import model.interfaces.IJugador;
 
 import javax.swing.*;
@@ -11,9 +13,15 @@ import java.util.Map;
 
 /**
  * Panel del tablero del juego adaptado para RMI
+ *
+ * Los puntos y las líneas salen de la Topologia de la partida: cada posición se
+ * ubica por su columna y fila en la grilla 7x7 y se dibuja un segmento por cada
+ * conexión, así que cualquier variante se dibuja con el mismo código.
  */
 public class PanelTablero extends JPanel {
 
+    private final Topologia topologia;
+    private final int[][] segmentos;
     private Map<String, Point> posiciones;
     private Map<String, Circle> circulos;
     private String posicionSeleccionada;
@@ -26,6 +34,12 @@ public class PanelTablero extends JPanel {
     private static final Color COLOR_SELECCION = new Color(100, 255, 100); // Verde
 
     public PanelTablero() {
+        this(Topologia.ESTANDAR);
+    }
+
+    public PanelTablero(Topologia topologia) {
+        this.topologia = topologia;
+        this.segmentos = topologia.getSegmentos();
         setPreferredSize(new Dimension(600, 600));
         setBackground(new Color(245, 222, 179)); // Beige
 
@@ -48,45 +62,19 @@ public class PanelTablero extends JPanel {
         int margen = 50;
         int ancho = 500;
 
-        // Cuadrado exterior
-        posiciones.put("A1", new Point(margen, margen));
-        posiciones.put("D1", new Point(margen + ancho/2, margen));
-        posiciones.put("G1", new Point(margen + ancho, margen));
-
-        // Cuadrado medio
-        int offset1 = ancho / 6;
-        posiciones.put("B2", new Point(margen + offset1, margen + offset1));
-        posiciones.put("D2", new Point(margen + ancho/2, margen + offset1));
-        posiciones.put("F2", new Point(margen + ancho - offset1, margen + offset1));
-
-        // Cuadrado interior
-        int offset2 = ancho / 3;
-        posiciones.put("C3", new Point(margen + offset2, margen + offset2));
-        posiciones.put("D3", new Point(margen + ancho/2, margen + offset2));
-        posiciones.put("E3", new Point(margen + ancho - offset2, margen + offset2));
-
-        // Línea central
-        posiciones.put("A4", new Point(margen, margen + ancho/2));
-        posiciones.put("B4", new Point(margen + offset1, margen + ancho/2));
-        posiciones.put("C4", new Point(margen + offset2, margen + ancho/2));
-        posiciones.put("E4", new Point(margen + ancho - offset2, margen + ancho/2));
-        posiciones.put("F4", new Point(margen + ancho - offset1, margen + ancho/2));
-        posiciones.put("G4", new Point(margen + ancho, margen + ancho/2));
-
-        // Cuadrado interior inferior
-        posiciones.put("C5", new Point(margen + offset2, margen + ancho - offset2));
-        posiciones.put("D5", new Point(margen + ancho/2, margen + ancho - offset2));
-        posiciones.put("E5", new Point(margen + ancho - offset2, margen + ancho - offset2));
-
-        // Cuadrado medio inferior
-        posiciones.put("B6", new Point(margen + offset1, margen + ancho - offset1));
-        posiciones.put("D6", new Point(margen + ancho/2, margen + ancho - offset1));
-        posiciones.put("F6", new Point(margen + ancho - offset1, margen + ancho - offset1));
-
-        // Cuadrado exterior inferior
-        posiciones.put("A7", new Point(margen, margen + ancho));
-        posiciones.put("D7", new Point(margen + ancho/2, margen + ancho));
-        posiciones.put("G7", new Point(margen + ancho, margen + ancho));
+        for (int codigo = 0; codigo < CodigoPosicion.CANTIDAD; codigo++) {
+            if (topologia.contiene(codigo)) {
+                posiciones.put(CodigoPosicion.formato(codigo), new Point(
+                        margen + coordenada(CodigoPosicion.columna(codigo), ancho),
+                        margen + coordenada(CodigoPosicion.fila(codigo), ancho)));
+            }
+        }
+    }
+
+    // La grilla tiene 7 columnas y 7 filas: 6 intervalos de ancho / 6, medidos
+    // desde el borde más cercano para que el tablero quede simétrico
+    private static int coordenada(int indice, int ancho) {
+        return (indice <= 3) ? indice * ancho / 6 : ancho - (6 - indice) * ancho / 6;
     }
 
     private void inicializarCirculos() {
@@ -109,45 +97,9 @@ public class PanelTablero extends JPanel {
         g2d.setColor(COLOR_LINEA);
         g2d.setStroke(new BasicStroke(2));
 
-        // Cuadrado exterior
-        dibujarLinea(g2d, "A1", "D1");
-        dibujarLinea(g2d, "D1", "G1");
-        dibujarLinea(g2d, "G1", "G4");
-        dibujarLinea(g2d, "G4", "G7");
-        dibujarLinea(g2d, "G7", "D7");
-        dibujarLinea(g2d, "D7", "A7");
-        dibujarLinea(g2d, "A7", "A4");
-        dibujarLinea(g2d, "A4", "A1");
-
-        // Cuadrado medio
-        dibujarLinea(g2d, "B2", "D2");
-        dibujarLinea(g2d, "D2", "F2");
-        dibujarLinea(g2d, "F2", "F4");
-        dibujarLinea(g2d, "F4", "F6");
-        dibujarLinea(g2d, "F6", "D6");
-        dibujarLinea(g2d, "D6", "B6");
-        dibujarLinea(g2d, "B6", "B4");
-        dibujarLinea(g2d, "B4", "B2");
-
-        // Cuadrado interior
-        dibujarLinea(g2d, "C3", "D3");
-        dibujarLinea(g2d, "D3", "E3");
-        dibujarLinea(g2d, "E3", "E4");
-        dibujarLinea(g2d, "E4", "E5");
-        dibujarLinea(g2d, "E5", "D5");
-        dibujarLinea(g2d, "D5", "C5");
-        dibujarLinea(g2d, "C5", "C4");
-        dibujarLinea(g2d, "C4", "C3");
-
-        // Líneas conectoras
-        dibujarLinea(g2d, "D1", "D2");
-        dibujarLinea(g2d, "D2", "D3");
-        dibujarLinea(g2d, "D7", "D6");
-        dibujarLinea(g2d, "D6", "D5");
-        dibujarLinea(g2d, "A4", "B4");
-        dibujarLinea(g2d, "B4", "C4");
-        dibujarLinea(g2d, "G4", "F4");
-        dibujarLinea(g2d, "F4", "E4");
+        for (int[] segmento : segmentos) {
+            dibujarLinea(g2d, CodigoPosicion.formato(segmento[0]), CodigoPosicion.formato(segmento[1]));
+        }
     }
 
     private void dibujarLinea(Graphics2D g2d, String pos1, String pos2) {
@@ -1,6 +1,8 @@
 package view.frames;
 
 import controller.Controller;
+import model.clases.CodigoPosicion;
+import model.clases.Topologia;
 import model.enums.FaseJuego;
 import model.interfaces.IJugador;
 import model.interfaces.IPartida;
@@ -11,12 +13,18 @@ import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.rmi.RemoteException;
+import java.util.function.IntFunction;
 
 /**
  * Ventana de consola adaptada para RMI
  */
 public class VentanaConsola extends JFrame implements IVentanaJuego {
 
+    /**
+     * Caracteres por columna de la grilla en los dibujos del tablero
+     */
+    private static final int ANCHO_CELDA = 5;
+
     private final Controller controlador;
     private final boolean esJugador1;
     private final String nombreJugador;
@@ -277,19 +285,9 @@ public class VentanaConsola extends JFrame implements IVentanaJuego {
     private void mostrarMapaPosicionesEnPanel() {
         escribirPosiciones("+---------- MAPA DE POSICIONES --------+");
         escribirPosiciones("|                                      |");
-        escribirPosiciones("|   A1-----------D1-----------G1       |");
-        escribirPosiciones("|   |            |            |        |");
-        escribirPosiciones("|   |     B2-----D2-----F2    |        |");
-        escribirPosiciones("|   |     |      |      |     |        |");
-        escribirPosiciones("|   |     |  C3--D3--E3 |     |        |");
-        escribirPosiciones("|   |     |  |      |   |     |        |");
-        escribirPosiciones("|   A4----B4-C4     E4--F4----G4       |");
-        escribirPosiciones("|   |     |  |      |   |     |        |");
-        escribirPosiciones("|   |     |  C5--D5--E5 |     |        |");
-        escribirPosiciones("|   |     |      |      |     |        |");
-        escribirPosiciones("|   |     B6-----D6-----F6    |        |");
-        escribirPosiciones("|   |            |            |        |");
-        escribirPosiciones("|   A7-----------D7-----------G7       |");
+        for (String linea : dibujar(obtenerTopologia(), CodigoPosicion::formato)) {
+            escribirPosiciones("|   " + padRight(linea, 35) + "|");
+        }
         escribirPosiciones("|                                      |");
         escribirPosiciones("+--------------------------------------+");
     }
@@ -323,7 +321,7 @@ public class VentanaConsola extends JFrame implements IVentanaJuego {
                 escribir("|       Turno del oponente               |");
             }
 
-            escribir("| Fase: " + padRight(getFaseNombre(partida.getFaseActual()), 32) + " |");
+            escribir("| Fase: " + padRight(getFaseNombre(partida.getFaseActual(), partida.getTopologia().getPiezasPorJugador()), 32) + " |");
 
             if (partida.isEsperandoEliminar()) {
                 escribir("| MOLINO! Elimina pieza del oponente     |");
@@ -344,6 +342,9 @@ public class VentanaConsola extends JFrame implements IVentanaJuego {
                 } else {
                     escribir("|          Has perdido                   |");
                 }
+            } else if (partida.isTablas()) {
+                escribir("+----------------------------------------+");
+                escribir("|   TABLAS: el tablero quedo lleno       |");
             }
 
             escribir("+----------------------------------------+");
@@ -353,9 +354,9 @@ public class VentanaConsola extends JFrame implements IVentanaJuego {
         }
     }
 
-    private String getFaseNombre(FaseJuego fase) {
+    private String getFaseNombre(FaseJuego fase, int piezas) {
         return switch(fase) {
-            case COLOCACION -> "Colocación (pon tus 9 piezas)";
+            case COLOCACION -> "Colocación (pon tus " + piezas + " piezas)";
             case MOVIMIENTO -> "Movimiento (adyacentes)";
             case VUELO -> "Vuelo (libre)";
         };
@@ -381,21 +382,14 @@ public class VentanaConsola extends JFrame implements IVentanaJuego {
 
             areaTablero.setText("");
 
+            java.util.Map<String, IJugador> estadoTablero = partida.getEstadoTablero();
+            IJugador jugador1 = partida.getJugadores().get(0);
+
             escribirTablero("+---------- TABLERO DE JUEGO ----------+");
             escribirTablero("|                                      |");
-            escribirTablero("|   " + getPieza("A1") + "-----------" + getPieza("D1") + "-----------" + getPieza("G1") + "   |");
-            escribirTablero("|   |           |           |          |");
-            escribirTablero("|   |    " + getPieza("B2") + "------" + getPieza("D2") + "------" + getPieza("F2") + "    |   |");
-            escribirTablero("|   |    |      |      |    |          |");
-            escribirTablero("|   |    |  " + getPieza("C3") + "---" + getPieza("D3") + "---" + getPieza("E3") + "  |    |   |");
-            escribirTablero("|   |    |  |       |  |    |          |");
-            escribirTablero("|   " + getPieza("A4") + "----" + getPieza("B4") + "--" + getPieza("C4") + "       " + getPieza("E4") + "--" + getPieza("F4") + "----" + getPieza("G4") + "   |");
-            escribirTablero("|   |    |  |       |  |    |          |");
-            escribirTablero("|   |    |  " + getPieza("C5") + "---" + getPieza("D5") + "---" + getPieza("E5") + "  |    |   |");
-            escribirTablero("|   |    |      |      |    |          |");
-            escribirTablero("|   |    " + getPieza("B6") + "------" + getPieza("D6") + "------" + getPieza("F6") + "    |   |");
-            escribirTablero("|   |           |           |          |");
-            escribirTablero("|   " + getPieza("A7") + "-----------" + getPieza("D7") + "-----------" + getPieza("G7") + "   |");
+            for (String linea : dibujar(partida.getTopologia(), codigo -> getPieza(estadoTablero.get(CodigoPosicion.formato(codigo)), jugador1))) {
+                escribirTablero("|   " + padRight(linea, 35) + "|");
+            }
             escribirTablero("|                                      |");
             escribirTablero("+--------------------------------------+");
         } catch (RemoteException e) {
@@ -407,23 +401,82 @@ public class VentanaConsola extends JFrame implements IVentanaJuego {
         actualizarTablero();
     }
 
-    private String getPieza(String posicion) {
+    private static String getPieza(IJugador ocupante, IJugador jugador1) {
+        if (ocupante == null) {
+            return "·";
+        }
+        return ocupante.equals(jugador1) ? "X" : "O";
+    }
+
+    /**
+     * Variante del tablero de la partida actual (estándar si todavía no hay partida)
+     */
+    private Topologia obtenerTopologia() {
         try {
             IPartida partida = controlador.getPartidaActual();
-            java.util.Map<String, IJugador> estadoTablero = partida.getEstadoTablero();
-
-            IJugador ocupante = estadoTablero.get(posicion);
+            if (partida != null) {
+                return partida.getTopologia();
+            }
+        } catch (RemoteException e) {
+            e.printStackTrace();
+        }
+        return Topologia.ESTANDAR;
+    }
 
-            if (ocupante == null) {
-                return "·";
-            } else if (ocupante.equals(partida.getJugadores().get(0))) {
-                return "X";
+    /**
+     * DIBUJAR UN TABLERO EN TEXTO
+     *
+     * Los puntos y las líneas salen de la Topologia (como en PanelTablero):
+     * cada columna de la grilla 7x7 ocupa ANCHO_CELDA caracteres y cada fila
+     * dos líneas de texto, y los segmentos se trazan con '-', '|', '\\' o '/'.
+     *
+     * @param topologia Variante del tablero
+     * @param celda Texto de cada punto (hasta 2 caracteres), por código de posición
+     * @return Líneas del dibujo
+     */
+    private static java.util.List<String> dibujar(Topologia topologia, IntFunction<String> celda) {
+        char[][] lienzo = new char[13][6 * ANCHO_CELDA + 2];
+        for (char[] linea : lienzo) {
+            java.util.Arrays.fill(linea, ' ');
+        }
+        for (int[] segmento : topologia.getSegmentos()) {
+            int x1 = ANCHO_CELDA * CodigoPosicion.columna(segmento[0]);
+            int y1 = 2 * CodigoPosicion.fila(segmento[0]);
+            int x2 = ANCHO_CELDA * CodigoPosicion.columna(segmento[1]);
+            int y2 = 2 * CodigoPosicion.fila(segmento[1]);
+            if (y1 == y2) {
+                for (int x = Math.min(x1, x2) + 2; x < Math.max(x1, x2); x++) {
+                    lienzo[y1][x] = '-';
+                }
             } else {
-                return "O";
+                int desde = Math.min(y1, y2);
+                int hasta = Math.max(y1, y2);
+                for (int y = desde + 1; y < hasta; y++) {
+                    if (x1 == x2) {
+                        lienzo[y][x1] = '|';
+                    } else {
+                        // Diagonal: interpolada entre los centros de los dos puntos
+                        int x = (2 * x1 + 1 + 2 * (x2 - x1) * (y - y1) / (y2 - y1)) / 2;
+                        lienzo[y][x] = (x2 - x1) * (y2 - y1) > 0 ? '\\' : '/';
+                    }
+                }
             }
-        } catch (RemoteException e) {
-            return "?";
         }
+        for (int codigo = 0; codigo < CodigoPosicion.CANTIDAD; codigo++) {
+            if (topologia.contiene(codigo)) {
+                String texto = celda.apply(codigo);
+                int x = ANCHO_CELDA * CodigoPosicion.columna(codigo);
+                int y = 2 * CodigoPosicion.fila(codigo);
+                for (int k = 0; k < texto.length() && k < 2; k++) {
+                    lienzo[y][x + k] = texto.charAt(k);
+                }
+            }
+        }
+        java.util.List<String> lineas = new java.util.ArrayList<>(lienzo.length);
+        for (char[] linea : lienzo) {
+            lineas.add(new String(linea).stripTrailing());
+        }
+        return lineas;
     }
 
     private void escribir(String mensaje) {
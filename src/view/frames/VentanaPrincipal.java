@@ -1,6 +1,7 @@
 package view.frames;
 
 import controller.Controller;
+import model.clases.Topologia;
 import model.enums.FaseJuego;
 import model.interfaces.IJugador;
 import model.interfaces.IPartida;
@@ -38,7 +39,7 @@ public class VentanaPrincipal extends JFrame implements IVentanaJuego {
         setLayout(new BorderLayout());
 
         // Panel del tablero
-        panelTablero = new PanelTablero();
+        panelTablero = new PanelTablero(obtenerTopologia());
         panelTablero.setClickListener(this::manejarClicEnPosicion);
         add(panelTablero, BorderLayout.CENTER);
 
@@ -51,6 +52,21 @@ public class VentanaPrincipal extends JFrame implements IVentanaJuego {
         actualizarInterfaz();
     }
 
+    /**
+     * Variante del tablero de la partida actual (estándar si todavía no hay partida)
+     */
+    private Topologia obtenerTopologia() {
+        try {
+            IPartida partida = controlador.getPartidaActual();
+            if (partida != null) {
+                return partida.getTopologia();
+            }
+        } catch (RemoteException e) {
+            e.printStackTrace();
+        }
+        return Topologia.ESTANDAR;
+    }
+
     /**
      * Permite salir de la partida actual
      */
@@ -61,7 +77,7 @@ public class VentanaPrincipal extends JFrame implements IVentanaJuego {
     private void manejarClicEnPosicion(String posicionId) {
         try {
             IPartida partida = controlador.getPartidaActual();
-            if (partida == null || partida.hayGanador()) {
+            if (partida == null || partida.hayGanador() || partida.isTablas()) {
                 return;
             }
 
@@ -140,7 +156,7 @@ public class VentanaPrincipal extends JFrame implements IVentanaJuego {
     private void verificarFinJuego() {
         try {
             IPartida partida = controlador.getPartidaActual();
-            if (partida.hayGanador()) {
+            if (partida.hayGanador() || partida.isTablas()) {
                 Timer timer = new Timer(300, e -> mostrarGanador(partida));
                 timer.setRepeats(false);
                 timer.start();
@@ -213,14 +229,16 @@ public class VentanaPrincipal extends JFrame implements IVentanaJuego {
     /**
      * MOSTRAR GANADOR
      *
-     * Muestra un mensaje informativo cuando hay un ganador.
+     * Muestra un mensaje informativo cuando hay un ganador (o tablas).
      * La partida queda finalizada y los jugadores deben volver al menú
      * para buscar una nueva partida.
      */
     private void mostrarGanador(IPartida partida) {
         try {
             IJugador ganador = partida.getGanador();
-            String mensaje = "🎉 ¡" + ganador.getNombre() + " ha ganado el juego! 🎉\n\n" +
+            String resultado = ganador != null ? "🎉 ¡" + ganador.getNombre() + " ha ganado el juego! 🎉"
+                                               : "🤝 ¡Tablas! El tablero quedó lleno 🤝";
+            String mensaje = resultado + "\n\n" +
                            "La partida ha finalizado.\n" +
                            "Puedes cerrar esta ventana y volver al menú principal\n" +
                            "para buscar una nueva partida.";
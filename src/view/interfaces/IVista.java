@@ -12,6 +12,7 @@ public interface IVista {
     void mostrarPartida() throws RemoteException;
     void mostrarGameOver();
     void mostrarGameWin() ;
+    void mostrarTablas();
     void buscarPartida() throws RemoteException;
 
     Estados getEstado();
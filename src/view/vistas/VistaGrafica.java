@@ -281,6 +281,28 @@ public class VistaGrafica implements IVista {
         });
     }
 
+    @Override
+    public void mostrarTablas() {
+        SwingUtilities.invokeLater(() -> {
+            try {
+                String mensaje = "🤝 TABLAS 🤝\n\n" +
+                        "El tablero quedó lleno y nadie puede moverse.\n" +
+                        "Volviendo al menú principal...";
+
+                JOptionPane.showMessageDialog(
+                    null,
+                    mensaje,
+                    "Fin del juego",
+                    JOptionPane.INFORMATION_MESSAGE
+                );
+
+                volverAlMenu();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
     /**
      * VOLVER AL MENÚ PRINCIPAL
      *